@@ -14,6 +14,9 @@ public class DescuentoPorClienteFrecuenteService {
     @Autowired
     private DescuentoPorClienteFrecuenteRepository repository;
 
+    @Autowired
+    private NotificadorCachePrecios notificadorCachePrecios;
+
     public DescuentoPorClienteFrecuente guardar(DescuentoPorClienteFrecuente descuento) {
         List<DescuentoPorClienteFrecuente> existentes = repository
                 .findRangosSuperpuestos(descuento.getMinVisitas(), descuento.getMaxVisitas());
@@ -22,7 +25,9 @@ public class DescuentoPorClienteFrecuenteService {
             throw new IllegalArgumentException("Ya existe un descuento para el rango especificado");
         }
 
-        return repository.save(descuento);
+        DescuentoPorClienteFrecuente guardado = repository.save(descuento);
+        notificadorCachePrecios.notificarCambio();
+        return guardado;
     }
 
     public List<DescuentoPorClienteFrecuente> obtenerTodos() {
@@ -35,6 +40,7 @@ public class DescuentoPorClienteFrecuenteService {
 
     public void eliminar(int id) {
         repository.deleteById(id);
+        notificadorCachePrecios.notificarCambio();
     }
 
     public Optional<DescuentoPorClienteFrecuente> obtenerDescuento(int visitas) {
@@ -0,0 +1,50 @@
+package com.tingeso.descuento_por_personas_service.Config;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+
+// Sleuth propaga el contexto por el gateway y los RestTemplate @LoadBalanced;
+// con el perfil local Sleuth reporta los spans a Zipkin. Aquí se agregan los spans de los repositorios
+@Configuration
+public class TrazasConfig {
+
+    // Un span por llamada a un repositorio de Spring Data (p. ej. "descuentoPorPersonasRepository.save"), incluida su transacción
+    @Bean
+    public static BeanPostProcessor spansRepositorios() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+                    ((Advised) bean).addAdvice(0, (MethodInterceptor) invocacion -> enSpan(nombre, invocacion));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // El Tracing se toma de forma estática: sin Sleuth (p. ej. en pruebas de repositorio) la llamada sigue sin span.
+    // Fuera de una traza (tareas @Scheduled excluidas, cargas al iniciar) tampoco se abre una traza nueva por consulta
+    private static Object enSpan(String repositorio, MethodInvocation invocacion) throws Throwable {
+        Tracer tracer = Tracing.currentTracer();
+        if (tracer == null || tracer.currentSpan() == null) {
+            return invocacion.proceed();
+        }
+        Span span = tracer.nextSpan().name(repositorio + "." + invocacion.getMethod().getName()).start();
+        try (Tracer.SpanInScope enAlcance = tracer.withSpanInScope(span)) {
+            return invocacion.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.finish();
+        }
+    }
+}
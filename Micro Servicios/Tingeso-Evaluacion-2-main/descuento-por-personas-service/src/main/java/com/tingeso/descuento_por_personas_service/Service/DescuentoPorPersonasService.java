@@ -14,6 +14,9 @@ public class DescuentoPorPersonasService {
     @Autowired
     private DescuentoPorPersonasRepository repository;
 
+    @Autowired
+    private NotificadorCachePrecios notificadorCachePrecios;
+
     // Obtener todos
     public List<DescuentoPorPersonas> obtenerTodos() {
         return repository.findAll();
@@ -32,13 +35,16 @@ public class DescuentoPorPersonasService {
             throw new IllegalArgumentException("Ya existe descuento para ese rango de numero de personas.");
         }
 
-        return repository.save(descuento);
+        DescuentoPorPersonas guardado = repository.save(descuento);
+        notificadorCachePrecios.notificarCambio();
+        return guardado;
     }
 
 
     // Eliminar por ID
     public void eliminar(int id) {
         repository.deleteById(id);
+        notificadorCachePrecios.notificarCambio();
     }
 
     // Obtener descuento por rango numPersonas
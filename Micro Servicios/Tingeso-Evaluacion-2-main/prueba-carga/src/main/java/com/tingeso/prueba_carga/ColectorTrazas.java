@@ -0,0 +1,116 @@
+package com.tingeso.prueba_carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Colector mínimo con la API de Zipkin (POST /api/v2/spans): recibe los spans que reporta Sleuth y deja cada uno como
+ * una línea JSON en carpeta/&lt;servicio&gt;.jsonl, que es lo que lee {@link VisorTrazas}. Reemplaza a un Zipkin completo
+ * en el perfil local (ZIPKIN_URL) y en {@link PruebaCarga}.
+ * <p>
+ * Uso: mvn -q compile exec:java -Dexec.mainClass=com.tingeso.prueba_carga.ColectorTrazas -Dexec.args="[carpeta] [puerto]".
+ * Por defecto escribe en trazas/ y escucha en el puerto 9411, el de Zipkin.
+ */
+public class ColectorTrazas implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newFixedThreadPool(2);
+    private final Path carpeta;
+    private final Map<String, BufferedWriter> archivos = new HashMap<>();
+
+    public ColectorTrazas(Path carpeta, int puerto) throws IOException {
+        this.carpeta = carpeta;
+        Files.createDirectories(carpeta);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 0);
+        servidor.createContext("/api/v2/spans", this::recibir);
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path carpeta = Path.of(args.length > 0 ? args[0] : "trazas").toAbsolutePath().normalize();
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : 9411;
+        ColectorTrazas colector = new ColectorTrazas(carpeta, puerto);
+        Runtime.getRuntime().addShutdownHook(new Thread(colector::close));
+        System.out.println("Recibiendo spans en http://127.0.0.1:" + colector.getPuerto() + "/api/v2/spans -> " + carpeta);
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // Sleuth manda los spans en lotes: un arreglo JSON (formato v2), comprimido con gzip si así se configuró
+    private void recibir(HttpExchange intercambio) throws IOException {
+        try {
+            if (!"POST".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            JsonNode spans;
+            try (InputStream entrada = "gzip".equalsIgnoreCase(intercambio.getRequestHeaders().getFirst("Content-Encoding"))
+                    ? new GZIPInputStream(intercambio.getRequestBody())
+                    : intercambio.getRequestBody()) {
+                spans = JSON.readTree(entrada);
+            } catch (IOException e) {
+                intercambio.sendResponseHeaders(400, -1);
+                return;
+            }
+            guardar(spans);
+            intercambio.sendResponseHeaders(202, -1);
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    synchronized void guardar(JsonNode spans) throws IOException {
+        for (JsonNode span : spans) {
+            String servicio = span.path("localEndpoint").path("serviceName").asText("desconocido");
+            BufferedWriter salida = archivos.get(servicio);
+            if (salida == null) {
+                salida = Files.newBufferedWriter(carpeta.resolve(servicio + ".jsonl"), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                archivos.put(servicio, salida);
+            }
+            salida.write(JSON.writeValueAsString(span));
+            salida.newLine();
+        }
+        // VisorTrazas puede leer los archivos mientras el colector sigue recibiendo
+        for (BufferedWriter salida : archivos.values()) {
+            salida.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+        synchronized (this) {
+            for (BufferedWriter salida : archivos.values()) {
+                try {
+                    salida.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudo cerrar un archivo de trazas: " + e.getMessage());
+                }
+            }
+            archivos.clear();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tingeso.prueba_carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Carga con llegadas abiertas: la petición i sale en inicio + i / tasa, respondan o no las anteriores.
+ * La latencia se mide desde el instante programado y no desde el envío real, así un servicio atascado no
+ * esconde su cola frenando al generador (omisión coordinada).
+ */
+public class GeneradorCarga {
+
+    private final HttpClient cliente;
+    private final Duration esperaFinal;
+
+    public GeneradorCarga(HttpClient cliente, Duration esperaFinal) {
+        this.cliente = cliente;
+        this.esperaFinal = esperaFinal;
+    }
+
+    // Devuelve los segundos transcurridos entre la primera llegada y la última respuesta
+    public double ejecutar(double tasaPorSegundo, Duration duracion, IntFunction<HttpRequest> peticion,
+                           Latencias latencias) throws InterruptedException {
+        if (tasaPorSegundo <= 0) {
+            throw new IllegalArgumentException("La tasa de llegadas debe ser mayor que cero.");
+        }
+        long intervaloNanos = (long) (1_000_000_000L / tasaPorSegundo);
+        long total = Math.max(1, duracion.toNanos() / intervaloNanos);
+        List<CompletableFuture<?>> pendientes = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long programada = inicio + i * intervaloNanos;
+            long espera = programada - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            pendientes.add(cliente.sendAsync(peticion.apply(i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((respuesta, error) -> {
+                        if (error == null && respuesta.statusCode() < 400) {
+                            latencias.registrar(System.nanoTime() - programada);
+                        } else {
+                            latencias.registrarError();
+                        }
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(pendientes.toArray(new CompletableFuture[0]))
+                    .get(esperaFinal.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Quedaron peticiones sin respuesta tras " + esperaFinal.toSeconds() + " s de espera.");
+        } catch (Exception e) {
+            // Los errores de cada petición ya quedaron contados
+        }
+        return (System.nanoTime() - inicio) / 1e9;
+    }
+}
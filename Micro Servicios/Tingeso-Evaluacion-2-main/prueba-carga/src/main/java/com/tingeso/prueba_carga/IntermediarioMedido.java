@@ -0,0 +1,118 @@
+package com.tingeso.prueba_carga;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reenvía todo lo que recibe a un servicio y registra cuánto tardó cada llamada. Se pone entre dos servicios
+ * (el descubrimiento estático del que llama apunta aquí) para medir ese tramo sin tocar el código de ninguno.
+ */
+public class IntermediarioMedido implements AutoCloseable {
+
+    // Cabeceras que el cliente HTTP de Java calcula por su cuenta o que no deben reenviarse
+    private static final Set<String> CABECERAS_OMITIDAS = Set.of(
+            "connection", "content-length", "date", "expect", "host", "keep-alive", "transfer-encoding", "upgrade");
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    private final HttpClient cliente;
+    private final Latencias latencias;
+    private volatile URI destino;
+
+    public IntermediarioMedido(String tramo, HttpClient cliente) throws IOException {
+        this.cliente = cliente;
+        this.latencias = new Latencias(tramo);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", this::reenviar);
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    public Latencias getLatencias() {
+        return latencias;
+    }
+
+    // El puerto del servicio solo se conoce después de levantarlo, y él necesita antes el de sus dependencias
+    public void setDestino(URI destino) {
+        this.destino = destino;
+    }
+
+    private void reenviar(HttpExchange intercambio) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            byte[] cuerpo;
+            try (InputStream entrada = intercambio.getRequestBody()) {
+                cuerpo = entrada.readAllBytes();
+            }
+            HttpRequest.Builder peticion = HttpRequest.newBuilder(destino.resolve(intercambio.getRequestURI().toString()))
+                    .method(intercambio.getRequestMethod(), cuerpo.length == 0
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(cuerpo));
+            copiarCabeceras(intercambio.getRequestHeaders(), peticion);
+
+            HttpResponse<byte[]> respuesta;
+            try {
+                respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException | InterruptedException e) {
+                latencias.registrarError();
+                intercambio.sendResponseHeaders(502, -1);
+                return;
+            }
+
+            if (respuesta.statusCode() < 500) {
+                latencias.registrar(System.nanoTime() - inicio);
+            } else {
+                latencias.registrarError();
+            }
+            respuesta.headers().map().forEach((nombre, valores) -> {
+                if (!CABECERAS_OMITIDAS.contains(nombre.toLowerCase())) {
+                    intercambio.getResponseHeaders().put(nombre, valores);
+                }
+            });
+            byte[] datos = respuesta.body();
+            intercambio.sendResponseHeaders(respuesta.statusCode(), datos.length == 0 ? -1 : datos.length);
+            if (datos.length > 0) {
+                try (OutputStream salida = intercambio.getResponseBody()) {
+                    salida.write(datos);
+                }
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private static void copiarCabeceras(Map<String, List<String>> cabeceras, HttpRequest.Builder peticion) {
+        for (Map.Entry<String, List<String>> cabecera : cabeceras.entrySet()) {
+            if (CABECERAS_OMITIDAS.contains(cabecera.getKey().toLowerCase())) {
+                continue;
+            }
+            for (String valor : cabecera.getValue()) {
+                peticion.header(cabecera.getKey(), valor);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.tingeso.prueba_carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencias de un tramo de la cadena, en microsegundos y con tres cifras significativas.
+ * Se puede registrar desde varios hilos a la vez.
+ */
+public class Latencias {
+
+    private final String tramo;
+    private final Histogram histograma = new ConcurrentHistogram(3);
+    private final AtomicLong errores = new AtomicLong();
+
+    public Latencias(String tramo) {
+        this.tramo = tramo;
+    }
+
+    public String getTramo() {
+        return tramo;
+    }
+
+    public void registrar(long nanos) {
+        histograma.recordValue(Math.max(1, nanos / 1000));
+    }
+
+    public void registrarError() {
+        errores.incrementAndGet();
+    }
+
+    public long getCantidad() {
+        return histograma.getTotalCount();
+    }
+
+    public long getErrores() {
+        return errores.get();
+    }
+
+    public double percentilMs(double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    public double maximoMs() {
+        return histograma.getMaxValue() / 1000.0;
+    }
+
+    // Al terminar el calentamiento se descarta lo medido
+    public void reiniciar() {
+        histograma.reset();
+        errores.set(0);
+    }
+}
@@ -0,0 +1,294 @@
+package com.tingeso.prueba_carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de carga de /api/usuarios/generarReserva/{idUsuario} a través de toda la cadena:
+ * cliente -> gateway-service -> usuario-service -> reserva-service -> tablas de precios.
+ * <p>
+ * Los tres servicios corren en este proceso sobre H2, sin Eureka ni servidor de configuración: cada uno encuentra
+ * al siguiente por descubrimiento estático (spring.cloud.discovery.client.simple), que apunta a un
+ * {@link IntermediarioMedido} delante del servicio real. Así cada tramo se mide por separado. Los servicios que
+ * reserva-service solo consulta o avisa se reemplazan por {@link ServiciosSustitutos} y el SMTP por GreenMail.
+ * <p>
+ * Parámetros (clave=valor): tasa (reservas por segundo), duracion y calentamiento (segundos), usuarios,
+ * personas (por reserva), vueltas, raiz (carpeta con los servicios), espera (segundos para las respuestas pendientes)
+ * y trazas (carpeta donde {@link ColectorTrazas} deja los spans que reporta cada servicio; al final se muestra la
+ * cascada de la reserva más lenta).
+ */
+public class PruebaCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // Cada reserva ocupa su propio horario: con 40 minutos entre inicios no se cruza ni la más larga de tablas-precios.json
+    private static final int MINUTOS_ENTRE_RESERVAS = 40;
+    private static final LocalTime PRIMER_HORARIO = LocalTime.of(10, 0);
+    private static final int HORARIOS_POR_DIA = 18;
+
+    // Sleuth reporta los spans en lotes cada segundo: se da ese margen antes de leer las trazas de la medición
+    private static final Duration ESPERA_REPORTE_TRAZAS = Duration.ofSeconds(3);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = leerParametros(args);
+        double tasa = Double.parseDouble(parametros.getOrDefault("tasa", "20"));
+        Duration duracion = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("duracion", "60")));
+        Duration calentamiento = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("calentamiento", "15")));
+        int usuarios = Integer.parseInt(parametros.getOrDefault("usuarios", "20"));
+        int personas = Integer.parseInt(parametros.getOrDefault("personas", "4"));
+        int vueltas = Integer.parseInt(parametros.getOrDefault("vueltas", "10"));
+        Path raiz = Path.of(parametros.getOrDefault("raiz", "..")).toAbsolutePath().normalize();
+        Duration espera = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("espera", "30")));
+        Path trazas = Path.of(parametros.getOrDefault("trazas", "trazas")).toAbsolutePath().normalize();
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URL h2 = org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation();
+
+        // Acepta cualquier usuario y clave: reserva-service se conecta con las credenciales de su bootstrap.yaml
+        GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        smtp.start();
+        // El colector agrega al final del archivo: se parte sin las trazas de corridas anteriores
+        for (String servicio : Arrays.asList("gateway-service", "usuario-service", "reserva-service")) {
+            Files.deleteIfExists(archivoTrazas(trazas, servicio));
+        }
+        List<AutoCloseable> abiertos = new ArrayList<>();
+        try {
+            ColectorTrazas colector = registrar(abiertos, new ColectorTrazas(trazas, 0));
+            URI urlColector = local(colector.getPuerto());
+            ServiciosSustitutos sustitutos = registrar(abiertos, new ServiciosSustitutos());
+            IntermediarioMedido reservaTarifas = registrar(abiertos, new IntermediarioMedido("reserva-service -> tarifas", cliente));
+            IntermediarioMedido usuarioReserva = registrar(abiertos, new IntermediarioMedido("usuario-service -> reserva-service", cliente));
+            IntermediarioMedido gatewayUsuario = registrar(abiertos, new IntermediarioMedido("gateway-service -> usuario-service", cliente));
+            reservaTarifas.setDestino(local(sustitutos.getPuerto()));
+
+            // Se levantan de atrás hacia adelante: cada servicio necesita conocer a quién llama
+            ServicioEnProceso reserva = registrar(abiertos, new ServicioEnProceso(raiz, "reserva-service",
+                    "com.tingeso.reserva_service.ReservaServiceApplication", List.of(h2)));
+            List<String> argumentosReserva = argumentosComunes("reserva-service", true, urlColector);
+            for (String tarifas : Arrays.asList("tarifa-duracion-reserva-service", "tarifa-dias-especiales",
+                    "descuento-por-personas-service", "descuento-por-cliente-frecuente")) {
+                argumentosReserva.add(instancia(tarifas, reservaTarifas.getPuerto()));
+            }
+            argumentosReserva.add(instancia("rack-semanal-service", sustitutos.getPuerto()));
+            argumentosReserva.add(instancia("reportes-service", sustitutos.getPuerto()));
+            argumentosReserva.addAll(Arrays.asList(
+                    "--spring.mail.host=127.0.0.1",
+                    "--spring.mail.port=" + smtp.getSmtp().getPort(),
+                    "--spring.mail.properties.mail.smtp.starttls.enable=false"));
+            usuarioReserva.setDestino(local(reserva.iniciar(argumentosReserva)));
+
+            ServicioEnProceso usuario = registrar(abiertos, new ServicioEnProceso(raiz, "usuario-service",
+                    "com.tingeso.usuario_service.UsuarioServiceApplication", List.of(h2)));
+            List<String> argumentosUsuario = argumentosComunes("usuario-service", true, urlColector);
+            argumentosUsuario.add(instancia("reserva-service", usuarioReserva.getPuerto()));
+            gatewayUsuario.setDestino(local(usuario.iniciar(argumentosUsuario)));
+
+            ServicioEnProceso gateway = registrar(abiertos, new ServicioEnProceso(raiz, "gateway-service",
+                    "com.tutorial.gatewayservice.GatewayServiceApplication", Collections.emptyList()));
+            List<String> argumentosGateway = argumentosComunes("gateway-service", false, urlColector);
+            argumentosGateway.addAll(Arrays.asList(
+                    "--spring.cloud.gateway.routes[0].id=usuario-service",
+                    "--spring.cloud.gateway.routes[0].uri=lb://usuario-service",
+                    "--spring.cloud.gateway.routes[0].predicates[0]=Path=/api/usuarios/**",
+                    instancia("usuario-service", gatewayUsuario.getPuerto())));
+            URI urlGateway = local(gateway.iniciar(argumentosGateway));
+
+            int[] idsUsuarios = registrarUsuarios(cliente, urlGateway, usuarios);
+
+            // Las dos corridas comparten la secuencia para que ninguna reserva repita horario
+            AtomicInteger secuencia = new AtomicInteger();
+            Latencias total = new Latencias("cliente -> gateway-service (total)");
+            GeneradorCarga generador = new GeneradorCarga(cliente, espera);
+            List<Latencias> tramos = Arrays.asList(total, gatewayUsuario.getLatencias(),
+                    usuarioReserva.getLatencias(), reservaTarifas.getLatencias());
+
+            System.out.println("Calentamiento: " + calentamiento.toSeconds() + " s a " + tasa + " reservas/s");
+            generador.ejecutar(tasa, calentamiento,
+                    i -> peticionReserva(urlGateway, idsUsuarios, secuencia.getAndIncrement(), personas, vueltas), total);
+            tramos.forEach(Latencias::reiniciar);
+
+            System.out.println("Medición: " + duracion.toSeconds() + " s a " + tasa + " reservas/s");
+            long inicioMedicionUs = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+            double segundos = generador.ejecutar(tasa, duracion,
+                    i -> peticionReserva(urlGateway, idsUsuarios, secuencia.getAndIncrement(), personas, vueltas), total);
+            imprimirReporte(tramos, segundos);
+            System.out.println("Correos recibidos por el SMTP local: " + smtp.getReceivedMessages().length);
+            Thread.sleep(ESPERA_REPORTE_TRAZAS.toMillis());
+            imprimirTrazaMasLenta(trazas, inicioMedicionUs);
+        } finally {
+            Collections.reverse(abiertos);
+            for (AutoCloseable abierto : abiertos) {
+                try {
+                    abierto.close();
+                } catch (Exception e) {
+                    System.err.println("Error al cerrar: " + e.getMessage());
+                }
+            }
+            smtp.stop();
+        }
+    }
+
+    // ==================== SERVICIOS ====================
+
+    private static List<String> argumentosComunes(String nombre, boolean conBaseDeDatos, URI urlColector) {
+        List<String> argumentos = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--server.address=127.0.0.1",
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.sleuth.sampler.probability=1.0",
+                "--spring.zipkin.enabled=true",
+                "--spring.zipkin.base-url=" + urlColector + "/",
+                "--spring.zipkin.discovery-client-enabled=false"));
+        if (conBaseDeDatos) {
+            // MODE=LEGACY: el dialecto H2 de Hibernate 5 inserta NULL en las columnas IDENTITY
+            argumentos.addAll(Arrays.asList(
+                    "--spring.datasource.url=jdbc:h2:mem:" + nombre + ";MODE=LEGACY;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        return argumentos;
+    }
+
+    private static Path archivoTrazas(Path trazas, String servicio) {
+        return trazas.resolve(servicio + ".jsonl");
+    }
+
+    private static String instancia(String servicio, int puerto) {
+        return "--spring.cloud.discovery.client.simple.instances." + servicio + "[0].uri=" + local(puerto);
+    }
+
+    private static URI local(int puerto) {
+        return URI.create("http://127.0.0.1:" + puerto);
+    }
+
+    private static <T extends AutoCloseable> T registrar(List<AutoCloseable> abiertos, T recurso) {
+        abiertos.add(recurso);
+        return recurso;
+    }
+
+    // ==================== PETICIONES ====================
+
+    private static int[] registrarUsuarios(HttpClient cliente, URI urlGateway, int cantidad) throws Exception {
+        int[] ids = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            Map<String, Object> usuario = new HashMap<>();
+            usuario.put("name", "Cliente " + i);
+            usuario.put("email", "cliente" + i + "@prueba.cl");
+            usuario.put("contrasena", "clave" + i);
+            usuario.put("birthday", LocalDate.of(1990, 1, 1).plusDays(i).toString());
+
+            HttpResponse<String> respuesta = cliente.send(post(urlGateway.resolve("/api/usuarios/register"), usuario),
+                    HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo registrar el usuario " + i + ": HTTP " + respuesta.statusCode());
+            }
+            JsonNode registrado = JSON.readTree(respuesta.body());
+            ids[i] = registrado.path("id").asInt();
+        }
+        return ids;
+    }
+
+    // La reserva n va al horario n, contando desde mañana a las 10:00
+    static HttpRequest peticionReserva(URI urlGateway, int[] idsUsuarios, int n, int personas, int vueltas) {
+        LocalDate fecha = LocalDate.now().plusDays(1 + n / HORARIOS_POR_DIA);
+        LocalTime hora = PRIMER_HORARIO.plusMinutes((long) (n % HORARIOS_POR_DIA) * MINUTOS_ENTRE_RESERVAS);
+
+        Map<String, String> nombreCorreo = new LinkedHashMap<>();
+        for (int i = 1; i < personas; i++) {
+            nombreCorreo.put("Acompañante " + i, "acompanante" + i + "." + n + "@prueba.cl");
+        }
+        Map<String, Object> reserva = new HashMap<>();
+        reserva.put("numVueltasTiempoMaximo", vueltas);
+        reserva.put("numPersonas", personas);
+        reserva.put("fechaInicio", fecha.toString());
+        reserva.put("horaInicio", hora.toString());
+        reserva.put("nombreCorreo", nombreCorreo);
+        reserva.put("correosCumpleaneros", Collections.emptyList());
+
+        int idUsuario = idsUsuarios[n % idsUsuarios.length];
+        return post(urlGateway.resolve("/api/usuarios/generarReserva/" + idUsuario), reserva);
+    }
+
+    private static HttpRequest post(URI url, Object cuerpo) {
+        try {
+            return HttpRequest.newBuilder(url)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(cuerpo)))
+                    .build();
+        } catch (Exception e) {
+            throw new RuntimeException("No se pudo serializar la petición: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== REPORTE ====================
+
+    static void imprimirReporte(List<Latencias> tramos, double segundos) {
+        System.out.println();
+        System.out.println(String.format("%-38s %10s %8s %12s %9s %9s %9s %9s",
+                "Tramo", "Peticiones", "Errores", "Por segundo", "p50 ms", "p99 ms", "p999 ms", "máx ms"));
+        for (Latencias tramo : tramos) {
+            System.out.println(String.format("%-38s %10d %8d %12.1f %9.2f %9.2f %9.2f %9.2f",
+                    tramo.getTramo(), tramo.getCantidad(), tramo.getErrores(), tramo.getCantidad() / segundos,
+                    tramo.percentilMs(50), tramo.percentilMs(99), tramo.percentilMs(99.9), tramo.maximoMs()));
+        }
+        System.out.println();
+    }
+
+    private static void imprimirTrazaMasLenta(Path trazas, long desdeUs) throws IOException {
+        Optional<List<VisorTrazas.SpanLeido>> masLenta = VisorTrazas.masLenta(VisorTrazas.leer(trazas), desdeUs);
+        if (masLenta.isEmpty()) {
+            System.out.println("Sin trazas en " + trazas + " (¿los servicios se compilaron con Sleuth?)");
+            return;
+        }
+        System.out.println();
+        System.out.println("Traza más lenta de la medición (archivos en " + trazas + "):");
+        System.out.print(VisorTrazas.cascada(masLenta.get()));
+    }
+
+    private static Map<String, String> leerParametros(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            String[] partes = arg.split("=", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido (se espera clave=valor): " + arg);
+            }
+            parametros.put(partes[0], partes[1]);
+        }
+        return parametros;
+    }
+}
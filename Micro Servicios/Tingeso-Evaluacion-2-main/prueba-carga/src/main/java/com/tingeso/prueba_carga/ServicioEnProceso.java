@@ -0,0 +1,98 @@
+package com.tingeso.prueba_carga;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un microservicio levantado dentro de este proceso. Cada uno tiene su propio cargador de clases, armado con
+ * sus clases compiladas y su classpath de Maven: así conviven el gateway (WebFlux) y los servicios MVC, cada uno
+ * con sus versiones de librerías, su contexto de Spring y su base H2 en memoria.
+ */
+public class ServicioEnProceso implements AutoCloseable {
+
+    private final String nombre;
+    private final String claseAplicacion;
+    private final URLClassLoader cargador;
+    private Object contexto;
+
+    // Lee <raiz>/<nombre>/target/classes y <raiz>/<nombre>/target/classpath.txt; los extras van al final (por ejemplo, H2)
+    public ServicioEnProceso(Path raiz, String nombre, String claseAplicacion, List<URL> extras) throws IOException {
+        this.nombre = nombre;
+        this.claseAplicacion = claseAplicacion;
+
+        Path target = raiz.resolve(nombre).resolve("target");
+        Path clases = target.resolve("classes");
+        Path classpath = target.resolve("classpath.txt");
+        if (!Files.isDirectory(clases) || !Files.isRegularFile(classpath)) {
+            throw new IllegalStateException("Falta compilar " + nombre + " o guardar su classpath. En " + raiz.resolve(nombre)
+                    + " ejecute: mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt");
+        }
+
+        List<URL> urls = new ArrayList<>();
+        urls.add(clases.toUri().toURL());
+        for (String entrada : Files.readString(classpath, StandardCharsets.UTF_8).trim().split(File.pathSeparator)) {
+            if (!entrada.isEmpty()) {
+                urls.add(Path.of(entrada).toUri().toURL());
+            }
+        }
+        urls.addAll(extras);
+        // El padre es el cargador de la plataforma: el servicio no ve las librerías de la prueba de carga
+        cargador = new URLClassLoader(nombre, urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    // Levanta la aplicación con los argumentos dados (tienen prioridad sobre bootstrap.yaml) y devuelve su puerto
+    public int iniciar(List<String> argumentos) throws Exception {
+        Thread hilo = Thread.currentThread();
+        ClassLoader anterior = hilo.getContextClassLoader();
+        hilo.setContextClassLoader(cargador);
+        try {
+            desactivarFabricaUrlsTomcat();
+            Class<?> aplicacion = cargador.loadClass(claseAplicacion);
+            Class<?> springApplication = cargador.loadClass("org.springframework.boot.SpringApplication");
+            contexto = springApplication.getMethod("run", Class.class, String[].class)
+                    .invoke(null, aplicacion, argumentos.toArray(new String[0]));
+
+            Class<?> tipoContexto = cargador.loadClass("org.springframework.context.ConfigurableApplicationContext");
+            Object entorno = tipoContexto.getMethod("getEnvironment").invoke(contexto);
+            Class<?> tipoEntorno = cargador.loadClass("org.springframework.core.env.PropertyResolver");
+            String puerto = (String) tipoEntorno.getMethod("getProperty", String.class).invoke(entorno, "local.server.port");
+            return Integer.parseInt(puerto);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("No se pudo iniciar " + nombre + ": " + e.getCause(), e.getCause());
+        } finally {
+            hilo.setContextClassLoader(anterior);
+        }
+    }
+
+    // Cada Tomcat intenta registrar su fábrica de URLs, que es única en la JVM: el segundo servicio MVC fallaría
+    private void desactivarFabricaUrlsTomcat() throws Exception {
+        try {
+            cargador.loadClass("org.apache.catalina.webresources.TomcatURLStreamHandlerFactory")
+                    .getMethod("disable").invoke(null);
+        } catch (ClassNotFoundException e) {
+            // Sin Tomcat (el gateway corre sobre Netty)
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (contexto != null) {
+            cargador.loadClass("org.springframework.context.ConfigurableApplicationContext")
+                    .getMethod("close").invoke(contexto);
+            contexto = null;
+        }
+        cargador.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.tingeso.prueba_carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reemplaza a los servicios que reserva-service solo consulta para tarificar o avisa después de guardar:
+ * las cuatro tablas de precios (tablas-precios.json), los días especiales (solo fines de semana, sin feriados),
+ * rack-semanal-service y reportes-service, que aceptan cualquier aviso sin hacer nada.
+ */
+public class ServiciosSustitutos implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> tablas = new HashMap<>();
+
+    public ServiciosSustitutos() throws IOException {
+        try (InputStream entrada = ServiciosSustitutos.class.getResourceAsStream("/tablas-precios.json")) {
+            Iterator<Map.Entry<String, JsonNode>> rutas = JSON.readTree(entrada).fields();
+            while (rutas.hasNext()) {
+                Map.Entry<String, JsonNode> ruta = rutas.next();
+                tablas.put(ruta.getKey(), JSON.writeValueAsBytes(ruta.getValue()));
+            }
+        }
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try {
+            intercambio.getRequestBody().readAllBytes();
+            String ruta = intercambio.getRequestURI().getPath();
+            byte[] tabla = tablas.get(ruta);
+            if (tabla != null) {
+                responder(intercambio, tabla);
+            } else if (ruta.equals("/api/tarifasDiasEspeciales/diasEspeciales")) {
+                responder(intercambio, diasEspeciales(intercambio.getRequestURI().getQuery()));
+            } else if (ruta.startsWith("/api/rackSemanal/") || ruta.startsWith("/api/reportes/")) {
+                intercambio.sendResponseHeaders(200, -1);
+            } else {
+                intercambio.sendResponseHeaders(404, -1);
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    // Mismo formato que el endpoint real: bit i encendido si el día desde + i es sábado o domingo
+    private static byte[] diasEspeciales(String consulta) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        for (String parametro : consulta.split("&")) {
+            String[] partes = parametro.split("=", 2);
+            parametros.put(partes[0], partes.length > 1 ? partes[1] : "");
+        }
+        LocalDate desde = LocalDate.parse(parametros.get("desde"));
+        LocalDate hasta = LocalDate.parse(parametros.get("hasta"));
+
+        BitSet especiales = new BitSet();
+        int dias = (int) ChronoUnit.DAYS.between(desde, hasta) + 1;
+        for (int i = 0; i < dias; i++) {
+            DayOfWeek dia = desde.plusDays(i).getDayOfWeek();
+            if (dia == DayOfWeek.SATURDAY || dia == DayOfWeek.SUNDAY) {
+                especiales.set(i);
+            }
+        }
+
+        Map<String, String> respuesta = new HashMap<>();
+        respuesta.put("desde", desde.toString());
+        respuesta.put("hasta", hasta.toString());
+        respuesta.put("bits", Base64.getEncoder().encodeToString(especiales.toByteArray()));
+        return JSON.writeValueAsString(respuesta).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void responder(HttpExchange intercambio, byte[] cuerpo) throws IOException {
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
@@ -0,0 +1,198 @@
+package com.tingeso.prueba_carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Arma la cascada de una traza con los archivos trazas/*.jsonl que escribe {@link ColectorTrazas} con los spans que
+ * reportan los servicios en el perfil local (una línea por span, formato v2 de Zipkin).
+ * <p>
+ * Uso: mvn -q compile exec:java -Dexec.mainClass=com.tingeso.prueba_carga.VisorTrazas -Dexec.args="carpeta [traceId]".
+ * Sin traceId se muestra la traza más lenta.
+ */
+public class VisorTrazas {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int ANCHO_BARRA = 40;
+
+    static final class SpanLeido {
+        final String traceId;
+        final String id;
+        final String parentId;
+        final String kind;
+        final String nombre;
+        final String servicio;
+        final long inicioUs;
+        final long duracionUs;
+
+        SpanLeido(String traceId, String id, String parentId, String kind, String nombre, String servicio,
+                  long inicioUs, long duracionUs) {
+            this.traceId = traceId;
+            this.id = id;
+            this.parentId = parentId;
+            this.kind = kind;
+            this.nombre = nombre;
+            this.servicio = servicio;
+            this.inicioUs = inicioUs;
+            this.duracionUs = duracionUs;
+        }
+
+        long finUs() {
+            return inicioUs + duracionUs;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Uso: VisorTrazas <carpeta> [traceId]");
+        }
+        Map<String, List<SpanLeido>> trazas = leer(Path.of(args[0]));
+        Optional<List<SpanLeido>> traza = args.length > 1
+                ? Optional.ofNullable(trazas.get(args[1]))
+                : masLenta(trazas, Long.MIN_VALUE);
+        if (traza.isEmpty()) {
+            System.out.println("No se encontró la traza en " + args[0]);
+            return;
+        }
+        System.out.print(cascada(traza.get()));
+    }
+
+    // Todos los spans de los *.jsonl de la carpeta, agrupados por traza
+    public static Map<String, List<SpanLeido>> leer(Path carpeta) throws IOException {
+        Map<String, List<SpanLeido>> trazas = new HashMap<>();
+        if (!Files.isDirectory(carpeta)) {
+            return trazas;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, "*.jsonl")) {
+            for (Path archivo : archivos) {
+                try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                    String linea;
+                    while ((linea = lector.readLine()) != null) {
+                        if (linea.trim().isEmpty()) {
+                            continue;
+                        }
+                        SpanLeido span = leerSpan(JSON.readTree(linea));
+                        trazas.computeIfAbsent(span.traceId, t -> new ArrayList<>()).add(span);
+                    }
+                }
+            }
+        }
+        return trazas;
+    }
+
+    static SpanLeido leerSpan(JsonNode json) {
+        return new SpanLeido(
+                json.path("traceId").asText(),
+                json.path("id").asText(),
+                json.hasNonNull("parentId") ? json.get("parentId").asText() : null,
+                json.hasNonNull("kind") ? json.get("kind").asText() : null,
+                json.path("name").asText(""),
+                json.path("localEndpoint").path("serviceName").asText("?"),
+                json.path("timestamp").asLong(),
+                json.path("duration").asLong());
+    }
+
+    // La traza de mayor duración total entre las que empezaron desde el instante dado (µs desde la época)
+    public static Optional<List<SpanLeido>> masLenta(Map<String, List<SpanLeido>> trazas, long desdeUs) {
+        return trazas.values().stream()
+                .filter(spans -> inicio(spans) >= desdeUs)
+                .max(Comparator.comparingLong(spans -> fin(spans) - inicio(spans)));
+    }
+
+    public static String cascada(List<SpanLeido> spans) {
+        long inicio = inicio(spans);
+        long total = Math.max(1, fin(spans) - inicio);
+
+        Map<SpanLeido, List<SpanLeido>> hijos = new LinkedHashMap<>();
+        List<SpanLeido> raices = new ArrayList<>();
+        for (SpanLeido span : spans) {
+            SpanLeido padre = buscarPadre(span, spans);
+            if (padre == null) {
+                raices.add(span);
+            } else {
+                hijos.computeIfAbsent(padre, p -> new ArrayList<>()).add(span);
+            }
+        }
+
+        StringBuilder salida = new StringBuilder();
+        salida.append(String.format("Traza %s: %d spans, %.2f ms%n", spans.get(0).traceId, spans.size(), total / 1000.0));
+        raices.sort(Comparator.comparingLong(s -> s.inicioUs));
+        for (SpanLeido raiz : raices) {
+            escribir(salida, raiz, 0, hijos, inicio, total);
+        }
+        return salida.toString();
+    }
+
+    // Con B3 el servidor puede compartir el id del span cliente: entonces es su hijo, y los spans de ese id que
+    // se abrieron dentro del servidor cuelgan de él (mismo servicio)
+    private static SpanLeido buscarPadre(SpanLeido span, List<SpanLeido> spans) {
+        if ("SERVER".equals(span.kind)) {
+            for (SpanLeido otro : spans) {
+                if (otro != span && otro.id.equals(span.id) && "CLIENT".equals(otro.kind)) {
+                    return otro;
+                }
+            }
+        }
+        if (span.parentId == null) {
+            return null;
+        }
+        SpanLeido candidato = null;
+        for (SpanLeido otro : spans) {
+            if (otro != span && otro.id.equals(span.parentId)) {
+                if (otro.servicio.equals(span.servicio)) {
+                    return otro;
+                }
+                candidato = otro;
+            }
+        }
+        return candidato;
+    }
+
+    private static void escribir(StringBuilder salida, SpanLeido span, int nivel,
+                                 Map<SpanLeido, List<SpanLeido>> hijos, long inicio, long total) {
+        StringBuilder etiqueta = new StringBuilder();
+        for (int i = 0; i < nivel; i++) {
+            etiqueta.append("  ");
+        }
+        etiqueta.append(span.servicio).append(' ').append(span.nombre);
+        if (span.kind != null) {
+            etiqueta.append(" (").append(span.kind.toLowerCase()).append(')');
+        }
+
+        int desde = (int) ((span.inicioUs - inicio) * ANCHO_BARRA / total);
+        int largo = Math.max(1, (int) Math.round((double) span.duracionUs * ANCHO_BARRA / total));
+        char[] barra = new char[ANCHO_BARRA];
+        for (int i = 0; i < ANCHO_BARRA; i++) {
+            barra[i] = i >= desde && i < desde + largo ? '#' : '.';
+        }
+        salida.append(String.format("%-70s %9.2f ms |%s|%n", etiqueta, span.duracionUs / 1000.0, new String(barra)));
+
+        List<SpanLeido> propios = hijos.getOrDefault(span, new ArrayList<>());
+        propios.sort(Comparator.comparingLong(s -> s.inicioUs));
+        for (SpanLeido hijo : propios) {
+            escribir(salida, hijo, nivel + 1, hijos, inicio, total);
+        }
+    }
+
+    private static long inicio(List<SpanLeido> spans) {
+        return spans.stream().mapToLong(s -> s.inicioUs).min().orElse(0);
+    }
+
+    private static long fin(List<SpanLeido> spans) {
+        return spans.stream().mapToLong(SpanLeido::finUs).max().orElse(0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tingeso.prueba_carga;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColectorTrazasTest {
+
+    @TempDir
+    Path carpeta;
+
+    private ColectorTrazas colector;
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        colector = new ColectorTrazas(carpeta, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        colector.close();
+    }
+
+    private HttpResponse<String> reportar(String cuerpo) throws Exception {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + colector.getPuerto() + "/api/v2/spans"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+        return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testReportar_SeparaLosSpansPorServicioParaElVisor() throws Exception {
+        // Arrange: un lote como los que manda Sleuth, con spans de dos servicios de la misma traza
+        String lote = "[{\"traceId\":\"t1\",\"id\":\"a\",\"kind\":\"SERVER\",\"name\":\"get\",\"timestamp\":1000,"
+                + "\"duration\":9000,\"localEndpoint\":{\"serviceName\":\"gateway-service\"}},"
+                + "{\"traceId\":\"t1\",\"parentId\":\"a\",\"id\":\"b\",\"kind\":\"SERVER\",\"name\":\"get /api/usuarios\","
+                + "\"timestamp\":2000,\"duration\":5000,\"localEndpoint\":{\"serviceName\":\"usuario-service\"}}]";
+
+        // Act
+        HttpResponse<String> respuesta = reportar(lote);
+        Map<String, List<VisorTrazas.SpanLeido>> trazas = VisorTrazas.leer(carpeta);
+
+        // Assert
+        assertEquals(202, respuesta.statusCode());
+        assertTrue(carpeta.resolve("gateway-service.jsonl").toFile().exists());
+        assertTrue(carpeta.resolve("usuario-service.jsonl").toFile().exists());
+        assertEquals(2, trazas.get("t1").size());
+    }
+
+    @Test
+    void testReportar_CuerpoInvalido() throws Exception {
+        // Act
+        HttpResponse<String> respuesta = reportar("no es json");
+
+        // Assert
+        assertEquals(400, respuesta.statusCode());
+        assertTrue(VisorTrazas.leer(carpeta).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.tingeso.prueba_carga;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneradorCargaTest {
+
+    private HttpClient cliente;
+    private HttpServer servicio;
+    private ExecutorService hiloServicio;
+    private IntermediarioMedido intermediario;
+    private volatile int estadoRespuesta = 200;
+    private volatile long demoraMs = 0;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // Servicio de prueba de un solo hilo: las peticiones se atienden de a una, como un servicio saturado
+        servicio = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servicio.createContext("/", intercambio -> {
+            try {
+                Thread.sleep(demoraMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            intercambio.getRequestBody().readAllBytes();
+            intercambio.sendResponseHeaders(estadoRespuesta, -1);
+            intercambio.close();
+        });
+        hiloServicio = Executors.newSingleThreadExecutor();
+        servicio.setExecutor(hiloServicio);
+        servicio.start();
+
+        intermediario = new IntermediarioMedido("prueba", cliente);
+        intermediario.setDestino(URI.create("http://127.0.0.1:" + servicio.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        intermediario.close();
+        servicio.stop(0);
+        hiloServicio.shutdownNow();
+    }
+
+    private HttpRequest peticion() {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + intermediario.getPuerto() + "/api/prueba"))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+    }
+
+    @Test
+    void testEjecutar_EnviaSegunLaTasaYMideAmbosTramos() throws Exception {
+        // Arrange
+        GeneradorCarga generador = new GeneradorCarga(cliente, Duration.ofSeconds(10));
+        Latencias total = new Latencias("total");
+
+        // Act
+        double segundos = generador.ejecutar(100, Duration.ofMillis(500), i -> peticion(), total);
+
+        // Assert
+        assertEquals(50, total.getCantidad());
+        assertEquals(0, total.getErrores());
+        assertEquals(50, intermediario.getLatencias().getCantidad());
+        assertTrue(segundos >= 0.49, "Las llegadas deben repartirse en toda la duración: " + segundos);
+    }
+
+    @Test
+    void testEjecutar_CuentaRespuestasConErrorSinRegistrarLatencia() throws Exception {
+        // Arrange
+        estadoRespuesta = 500;
+        GeneradorCarga generador = new GeneradorCarga(cliente, Duration.ofSeconds(10));
+        Latencias total = new Latencias("total");
+
+        // Act
+        generador.ejecutar(100, Duration.ofMillis(100), i -> peticion(), total);
+
+        // Assert
+        assertEquals(10, total.getErrores());
+        assertEquals(0, total.getCantidad());
+        assertEquals(10, intermediario.getLatencias().getErrores());
+    }
+
+    @Test
+    void testEjecutar_MideDesdeElInstanteProgramadoAunqueElServicioSeAtrase() throws Exception {
+        // Arrange: 20 peticiones en 200 ms contra un servicio que atiende una cada 50 ms
+        demoraMs = 50;
+        GeneradorCarga generador = new GeneradorCarga(cliente, Duration.ofSeconds(10));
+        Latencias total = new Latencias("total");
+
+        // Act
+        generador.ejecutar(100, Duration.ofMillis(200), i -> peticion(), total);
+
+        // Assert: la última esperó a las 19 anteriores (~950 ms) aunque se programó a los 190 ms
+        assertEquals(20, total.getCantidad());
+        assertTrue(total.maximoMs() >= 700, "La cola debe verse en la latencia: " + total.maximoMs());
+        assertTrue(total.percentilMs(50) >= 300, "La mediana también refleja la cola: " + total.percentilMs(50));
+    }
+
+    @Test
+    void testEjecutar_TasaInvalida() {
+        GeneradorCarga generador = new GeneradorCarga(cliente, Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> generador.ejecutar(0, Duration.ofSeconds(1), i -> peticion(), new Latencias("total")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.tingeso.prueba_carga;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VisorTrazasTest {
+
+    @TempDir
+    Path carpeta;
+
+    private static String span(String traceId, String id, String parentId, String kind, String nombre,
+                               String servicio, long inicio, long duracion) {
+        return "{\"traceId\":\"" + traceId + "\""
+                + (parentId != null ? ",\"parentId\":\"" + parentId + "\"" : "")
+                + ",\"id\":\"" + id + "\""
+                + (kind != null ? ",\"kind\":\"" + kind + "\"" : "")
+                + ",\"name\":\"" + nombre + "\",\"timestamp\":" + inicio + ",\"duration\":" + duracion
+                + ",\"localEndpoint\":{\"serviceName\":\"" + servicio + "\"}}";
+    }
+
+    private void escribir(String archivo, String... lineas) throws Exception {
+        Files.write(carpeta.resolve(archivo), Arrays.asList(lineas), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testCascada_UneLosArchivosDeCadaServicioEnUnArbol() throws Exception {
+        // Arrange: el servidor de reserva-service comparte el id del span cliente de usuario-service (B3)
+        escribir("usuario-service.jsonl",
+                span("t1", "a", null, "SERVER", "post /api/usuarios/generarreserva", "usuario-service", 1_000, 90_000),
+                span("t1", "b", "a", "CLIENT", "post", "usuario-service", 2_000, 80_000));
+        escribir("reserva-service.jsonl",
+                span("t1", "b", "a", "SERVER", "post /api/reservas/crear", "reserva-service", 3_000, 75_000),
+                span("t1", "c", "b", null, "reservaRepository.save", "reserva-service", 60_000, 10_000));
+
+        // Act
+        Map<String, List<VisorTrazas.SpanLeido>> trazas = VisorTrazas.leer(carpeta);
+        String cascada = VisorTrazas.cascada(trazas.get("t1"));
+
+        // Assert: cada nivel queda una sangría más adentro que su padre
+        assertEquals(4, trazas.get("t1").size());
+        String[] lineas = cascada.split("\\R");
+        assertTrue(lineas[0].startsWith("Traza t1: 4 spans, 90.00 ms"), lineas[0]);
+        assertTrue(lineas[1].startsWith("usuario-service post /api/usuarios/generarreserva (server)"), lineas[1]);
+        assertTrue(lineas[2].startsWith("  usuario-service post (client)"), lineas[2]);
+        assertTrue(lineas[3].startsWith("    reserva-service post /api/reservas/crear (server)"), lineas[3]);
+        assertTrue(lineas[4].startsWith("      reserva-service reservaRepository.save"), lineas[4]);
+    }
+
+    @Test
+    void testMasLenta_IgnoraLasTrazasAnterioresAlInicio() throws Exception {
+        // Arrange: la traza del calentamiento es la más larga, pero empezó antes de la medición
+        escribir("gateway-service.jsonl",
+                span("calentamiento", "a", null, "SERVER", "get", "gateway-service", 1_000, 900_000),
+                span("lenta", "b", null, "SERVER", "get", "gateway-service", 2_000_000, 50_000),
+                span("rapida", "c", null, "SERVER", "get", "gateway-service", 2_100_000, 5_000));
+
+        // Act
+        List<VisorTrazas.SpanLeido> masLenta = VisorTrazas.masLenta(VisorTrazas.leer(carpeta), 2_000_000).orElseThrow();
+
+        // Assert
+        assertEquals("lenta", masLenta.get(0).traceId);
+    }
+
+    @Test
+    void testLeer_CarpetaInexistente() throws Exception {
+        assertTrue(VisorTrazas.leer(carpeta.resolve("no-existe")).isEmpty());
+    }
+}
@@ -53,6 +53,23 @@ public class RackSemanalController {
         return rackSemanalService.obtenerHorariosDisponiblesProximosDosMeses(hoy);
     }
 
+    // Avisos de reserva-service para mantener al día el calendario de disponibilidad
+    @PostMapping("/calendario/reservas")
+    public void registrarReserva(@RequestBody ReservaDTO reserva) {
+        rackSemanalService.registrarReservaEnCalendario(reserva);
+    }
+
+    @DeleteMapping("/calendario/reservas/{id}")
+    public void eliminarReserva(@PathVariable int id) {
+        rackSemanalService.eliminarReservaDelCalendario(id);
+    }
+
+    // Aviso de tarifa-dias-especiales al modificar un feriado
+    @PostMapping("/diasEspeciales/invalidar")
+    public void invalidarDiasEspeciales() {
+        rackSemanalService.diasEspecialesModificados();
+    }
+
     @GetMapping("/obtenerReservaPorFechaYHora")
     public Optional<ReservaDTO> obtenerReserva(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
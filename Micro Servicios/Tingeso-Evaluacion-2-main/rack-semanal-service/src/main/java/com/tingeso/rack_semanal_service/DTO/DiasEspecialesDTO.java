@@ -0,0 +1,16 @@
+package com.tingeso.rack_semanal_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiasEspecialesDTO {
+    private LocalDate desde;
+    private LocalDate hasta; // inclusive
+    private String bits; // BitSet en Base64: bit i = el día desde + i es fin de semana o feriado
+}
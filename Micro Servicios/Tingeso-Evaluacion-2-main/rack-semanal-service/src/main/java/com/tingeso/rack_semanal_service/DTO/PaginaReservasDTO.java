@@ -0,0 +1,15 @@
+package com.tingeso.rack_semanal_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaReservasDTO {
+    private List<ReservaDTO> reservas;
+    private String siguienteCursor;
+}
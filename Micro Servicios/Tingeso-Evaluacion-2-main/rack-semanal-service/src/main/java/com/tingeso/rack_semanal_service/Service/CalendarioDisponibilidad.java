@@ -0,0 +1,215 @@
+package com.tingeso.rack_semanal_service.Service;
+
+import com.tingeso.rack_semanal_service.DTO.HorariosDisponiblesDTO;
+import com.tingeso.rack_semanal_service.DTO.ReservaDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calendario de horarios libres ya calculado para un rango de días. Cada día guarda sus minutos ocupados
+ * como un mapa de bits y la lista de bloques libres resultante; una reserva nueva o eliminada solo recalcula su día.
+ */
+@Component
+public class CalendarioDisponibilidad {
+
+    private static final int MINUTOS_DIA = 24 * 60;
+    private static final int DURACION_MINIMA_LIBRE = 30;
+    private static final int APERTURA_DIA_ESPECIAL = 10 * 60;
+    private static final int APERTURA_DIA_NORMAL = 14 * 60;
+    private static final int CIERRE = 22 * 60;
+
+    // Un día del calendario; se reemplaza completo en cada cambio, así las lecturas no toman bloqueo
+    private static final class Dia {
+        final boolean especial;
+        final int[] ids;
+        final int[] inicios; // minutos del día
+        final int[] fines;
+        final List<String> horariosLibres;
+
+        Dia(boolean especial, int[] ids, int[] inicios, int[] fines) {
+            this.especial = especial;
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fines = fines;
+            this.horariosLibres = calcularHorariosLibres(especial ? APERTURA_DIA_ESPECIAL : APERTURA_DIA_NORMAL, inicios, fines);
+        }
+    }
+
+    private final ConcurrentHashMap<LocalDate, Dia> dias = new ConcurrentHashMap<>();
+    private final Map<Integer, LocalDate> fechaPorId = new HashMap<>();
+    private volatile LocalDate fechaDesde;
+    private volatile LocalDate fechaHasta;
+
+    // Cambios recibidos mientras se descarga una carga completa; se vuelven a aplicar sobre ella al terminar
+    private List<ReservaDTO> agregadasDuranteCarga;
+    private List<Integer> eliminadasDuranteCarga;
+
+    // ==================== CARGA ====================
+
+    public synchronized void iniciarCarga() {
+        agregadasDuranteCarga = new ArrayList<>();
+        eliminadasDuranteCarga = new ArrayList<>();
+    }
+
+    public synchronized void cancelarCarga() {
+        agregadasDuranteCarga = null;
+        eliminadasDuranteCarga = null;
+    }
+
+    public synchronized void cargar(LocalDate desde, LocalDate hasta, Set<LocalDate> diasEspeciales, List<ReservaDTO> reservas) {
+        dias.clear();
+        fechaPorId.clear();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            dias.put(fecha, new Dia(diasEspeciales.contains(fecha), new int[0], new int[0], new int[0]));
+        }
+        fechaDesde = desde;
+        fechaHasta = hasta;
+
+        for (ReservaDTO reserva : reservas) {
+            agregarSinBloqueo(reserva);
+        }
+        if (agregadasDuranteCarga != null) {
+            for (ReservaDTO reserva : agregadasDuranteCarga) {
+                agregarSinBloqueo(reserva);
+            }
+            for (Integer id : eliminadasDuranteCarga) {
+                eliminarSinBloqueo(id);
+            }
+        }
+        agregadasDuranteCarga = null;
+        eliminadasDuranteCarga = null;
+    }
+
+    public boolean cubre(LocalDate desde, LocalDate hasta) {
+        LocalDate inicio = fechaDesde;
+        LocalDate fin = fechaHasta;
+        return inicio != null && fin != null && !desde.isBefore(inicio) && !hasta.isAfter(fin);
+    }
+
+    // ==================== CONSULTA ====================
+
+    public List<HorariosDisponiblesDTO> obtenerHorariosDisponibles(LocalDate desde, LocalDate hasta) {
+        List<HorariosDisponiblesDTO> resultado = new ArrayList<>();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            Dia dia = dias.get(fecha);
+            resultado.add(new HorariosDisponiblesDTO(fecha, dia == null ? Collections.emptyList() : dia.horariosLibres));
+        }
+        return resultado;
+    }
+
+    // Cálculo de una sola vez para un rango fuera del calendario: se arma aparte y no toca los días guardados
+    public static List<HorariosDisponiblesDTO> calcularHorariosDisponibles(LocalDate desde, LocalDate hasta,
+                                                                           Set<LocalDate> diasEspeciales,
+                                                                           List<ReservaDTO> reservas) {
+        CalendarioDisponibilidad temporal = new CalendarioDisponibilidad();
+        temporal.cargar(desde, hasta, diasEspeciales, reservas);
+        return temporal.obtenerHorariosDisponibles(desde, hasta);
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    public synchronized void agregarReserva(ReservaDTO reserva) {
+        agregarSinBloqueo(reserva);
+        if (agregadasDuranteCarga != null) {
+            agregadasDuranteCarga.add(reserva);
+        }
+    }
+
+    public synchronized void eliminarReserva(int id) {
+        eliminarSinBloqueo(id);
+        if (eliminadasDuranteCarga != null) {
+            eliminadasDuranteCarga.add(id);
+        }
+    }
+
+    private void agregarSinBloqueo(ReservaDTO reserva) {
+        if (reserva.getFechaInicio() == null || reserva.getHoraInicio() == null || reserva.getHoraFin() == null) {
+            return;
+        }
+        eliminarSinBloqueo(reserva.getId());
+        Dia dia = dias.get(reserva.getFechaInicio());
+        if (dia == null) {
+            return; // fuera del rango calculado
+        }
+
+        int inicio = minutoDelDia(reserva.getHoraInicio());
+        int fin = minutoDelDia(reserva.getHoraFin());
+        if (fin <= inicio) {
+            fin = MINUTOS_DIA; // termina pasada la medianoche
+        }
+
+        int n = dia.ids.length;
+        int[] ids = Arrays.copyOf(dia.ids, n + 1);
+        int[] inicios = Arrays.copyOf(dia.inicios, n + 1);
+        int[] fines = Arrays.copyOf(dia.fines, n + 1);
+        ids[n] = reserva.getId();
+        inicios[n] = inicio;
+        fines[n] = fin;
+        dias.put(reserva.getFechaInicio(), new Dia(dia.especial, ids, inicios, fines));
+        fechaPorId.put(reserva.getId(), reserva.getFechaInicio());
+    }
+
+    private void eliminarSinBloqueo(int id) {
+        LocalDate fecha = fechaPorId.remove(id);
+        Dia dia = fecha == null ? null : dias.get(fecha);
+        if (dia == null) {
+            return;
+        }
+
+        int n = dia.ids.length;
+        int[] ids = new int[n - 1];
+        int[] inicios = new int[n - 1];
+        int[] fines = new int[n - 1];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (dia.ids[i] != id && j < n - 1) {
+                ids[j] = dia.ids[i];
+                inicios[j] = dia.inicios[i];
+                fines[j] = dia.fines[i];
+                j++;
+            }
+        }
+        dias.put(fecha, new Dia(dia.especial, ids, inicios, fines));
+    }
+
+    // ==================== CÁLCULO DE BLOQUES LIBRES ====================
+
+    // Marca los minutos ocupados y recorre los tramos libres entre la apertura y el cierre
+    static List<String> calcularHorariosLibres(int apertura, int[] inicios, int[] fines) {
+        BitSet ocupados = new BitSet(MINUTOS_DIA);
+        for (int i = 0; i < inicios.length; i++) {
+            ocupados.set(inicios[i], fines[i]);
+        }
+
+        List<String> libres = new ArrayList<>();
+        int inicioLibre = ocupados.nextClearBit(apertura);
+        while (inicioLibre < CIERRE) {
+            int siguienteOcupado = ocupados.nextSetBit(inicioLibre);
+            int finLibre = siguienteOcupado < 0 ? CIERRE : Math.min(siguienteOcupado, CIERRE);
+            if (finLibre - inicioLibre >= DURACION_MINIMA_LIBRE) {
+                libres.add(horaDelMinuto(inicioLibre) + " - " + horaDelMinuto(finLibre));
+            }
+            inicioLibre = ocupados.nextClearBit(finLibre);
+        }
+        return Collections.unmodifiableList(libres);
+    }
+
+    private static int minutoDelDia(LocalTime hora) {
+        return hora.toSecondOfDay() / 60;
+    }
+
+    private static LocalTime horaDelMinuto(int minuto) {
+        return LocalTime.of(minuto / 60, minuto % 60);
+    }
+}
@@ -2,18 +2,22 @@ package com.tingeso.rack_semanal_service.Service;
 
 import com.tingeso.rack_semanal_service.DTO.HorarioOcupadoDTO;
 import com.tingeso.rack_semanal_service.DTO.HorariosDisponiblesDTO;
+import com.tingeso.rack_semanal_service.DTO.PaginaReservasDTO;
 import com.tingeso.rack_semanal_service.DTO.ReservaDTO;
 import com.tingeso.rack_semanal_service.Entity.RackSemanal;
 import com.tingeso.rack_semanal_service.Repository.RackSemanalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class RackSemanalService {
@@ -24,6 +28,12 @@ public class RackSemanalService {
     @Autowired
     RestTemplate restTemplate;
 
+    @Autowired
+    private ClienteDiasEspeciales clienteDiasEspeciales;
+
+    @Autowired
+    private CalendarioDisponibilidad calendarioDisponibilidad;
+
     public RackSemanal save(RackSemanal rackSemanal) {
         return rackSemanalRepository.save(rackSemanal);
     }
@@ -41,53 +51,62 @@ public class RackSemanalService {
     }
 
     public boolean saberSiEsFinDeSemana_Feriado(LocalDate fecha){
-        boolean esDiaEspecial = restTemplate.getForObject("http://tarifa-dias-especiales/api/tarifasDiasEspeciales/esDiaEspecial?fecha=" + fecha, Boolean.class);
-        return esDiaEspecial;
+        return clienteDiasEspeciales.esDiaEspecial(fecha);
     }
 
-    public List<ReservaDTO> getReservasByFecha(LocalDate fecha) {
-        String url = "http://reserva-service/api/reservas/getAll";
-        // Obtener todas las reservas desde el microservicio reserva
-        ReservaDTO[] todasReservas = restTemplate.getForObject(url, ReservaDTO[].class);
+    // Recorre las páginas de /api/reservas/rango/horarios; reserva-service filtra por fecha y las entrega ordenadas,
+    // sin comprobantes porque el rack solo usa el horario
+    public List<ReservaDTO> obtenerReservasEnRango(LocalDate desde, LocalDate hasta) {
+        List<ReservaDTO> reservas = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl("http://reserva-service/api/reservas/rango/horarios")
+                    .queryParam("limite", 500);
+            if (desde != null) {
+                uri.queryParam("desde", desde);
+            }
+            if (hasta != null) {
+                uri.queryParam("hasta", hasta);
+            }
+            if (cursor != null) {
+                uri.queryParam("cursor", cursor);
+            }
 
-        if (todasReservas == null) {
-            return Collections.emptyList();
-        }
+            PaginaReservasDTO pagina = restTemplate.getForObject(uri.toUriString(), PaginaReservasDTO.class);
+            if (pagina == null || pagina.getReservas() == null) {
+                break;
+            }
+            reservas.addAll(pagina.getReservas());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
 
-        // Filtrar por la fecha dada
-        return Arrays.stream(todasReservas)
-                .filter(r -> r.getFechaInicio().isEqual(fecha))
-                .collect(Collectors.toList());
+        return reservas;
     }
 
-    public Optional<ReservaDTO> obtenerReservaPorFechaHoraInicioYHoraFin(LocalDate fechaInicio, LocalTime horaInicio, LocalTime horaFin) {
-        String url = "http://reserva-service/api/reservas/getAll";
-        ReservaDTO[] todasReservas = restTemplate.getForObject(url, ReservaDTO[].class);
+    public List<ReservaDTO> getReservasByFecha(LocalDate fecha) {
+        return obtenerReservasEnRango(fecha, fecha);
+    }
 
-        if (todasReservas == null || todasReservas.length == 0) {
+    public Optional<ReservaDTO> obtenerReservaPorFechaHoraInicioYHoraFin(LocalDate fechaInicio, LocalTime horaInicio, LocalTime horaFin) {
+        String url = UriComponentsBuilder.fromHttpUrl("http://reserva-service/api/reservas/horario")
+                .queryParam("fecha", fechaInicio)
+                .queryParam("horaInicio", horaInicio)
+                .queryParam("horaFin", horaFin)
+                .toUriString();
+
+        try {
+            return Optional.ofNullable(restTemplate.getForObject(url, ReservaDTO.class));
+        } catch (HttpClientErrorException.NotFound e) {
             return Optional.empty();
         }
-
-        return Arrays.stream(todasReservas)
-                .filter(r ->
-                        r.getFechaInicio().equals(fechaInicio) &&
-                                r.getHoraInicio().equals(horaInicio) &&
-                                r.getHoraFin().equals(horaFin)
-                )
-                .findFirst();
     }
 
     public List<HorarioOcupadoDTO> obtenerTodosLosHorariosOcupados() {
-        // Llamar al microservicio de reserva (ajusta la URL según tu servicio)
-        String url = "http://reserva-service/api/reservas/getAll";
-        ReservaDTO[] reservas = restTemplate.getForObject(url, ReservaDTO[].class);
-
-        if (reservas == null) {
-            return Collections.emptyList();
-        }
+        // Las reservas llegan ordenadas por fecha y hora, así que el mapa conserva ese orden
+        List<ReservaDTO> reservas = obtenerReservasEnRango(null, null);
 
-        // Agrupar todas las reservas por fecha
-        Map<LocalDate, List<String>> mapaHorarios = new HashMap<>();
+        Map<LocalDate, List<String>> mapaHorarios = new LinkedHashMap<>();
 
         for (ReservaDTO reserva : reservas) {
             String horario = reserva.getHoraInicio() + " - " + reserva.getHoraFin();
@@ -99,70 +118,78 @@ public class RackSemanalService {
         for (Map.Entry<LocalDate, List<String>> entry : mapaHorarios.entrySet()) {
             resultado.add(new HorarioOcupadoDTO(entry.getKey(), entry.getValue()));
         }
-
-        // Ordenar por fecha para mejor legibilidad
-        resultado.sort(Comparator.comparing(HorarioOcupadoDTO::getFecha));
         return resultado;
     }
 
-    public List<HorariosDisponiblesDTO> obtenerHorariosDisponiblesProximosDosMeses(LocalDate fechaCualquieraDelMes) {
-        List<HorariosDisponiblesDTO> horariosDisponiblesTotales = new ArrayList<>();
-
-
-        LocalDate fechaInicio = fechaCualquieraDelMes.withDayOfMonth(1);
-        LocalDate fechaFin = fechaInicio.plusMonths(2).withDayOfMonth(
-                fechaInicio.plusMonths(2).lengthOfMonth()
-        );
-
-        for (LocalDate fecha = fechaInicio; !fecha.isAfter(fechaFin); fecha = fecha.plusDays(1)) {
-            LocalTime horaInicioDia;
-            if (saberSiEsFinDeSemana_Feriado(fecha)) {
-                horaInicioDia = LocalTime.of(10, 0);
-            } else {
-                horaInicioDia = LocalTime.of(14, 0);
-            }
-            LocalTime horaFinDia = LocalTime.of(22, 0);
+    // ==================== CALENDARIO DE DISPONIBILIDAD ====================
 
-            // Obtener reservas del día (ocupados)
-            List<ReservaDTO> reservas = getReservasByFecha(fecha);
-            reservas.sort(Comparator.comparing(ReservaDTO::getHoraInicio));
-
-            List<String> horariosLibres = new ArrayList<>();
+    // Mes de la fecha y los dos siguientes, completos
+    private static LocalDate inicioVentana(LocalDate fecha) {
+        return fecha.withDayOfMonth(1);
+    }
 
-            LocalTime horaLibreActual = horaInicioDia;
+    private static LocalDate finVentana(LocalDate fecha) {
+        LocalDate ultimoMes = fecha.withDayOfMonth(1).plusMonths(2);
+        return ultimoMes.withDayOfMonth(ultimoMes.lengthOfMonth());
+    }
 
-            for (ReservaDTO reserva : reservas) {
-                LocalTime inicioReserva = reserva.getHoraInicio();
-                LocalTime finReserva = reserva.getHoraFin();
+    // Se sirve desde memoria. Un rango que el calendario no cubre (otro mes, o antes de la primera carga) se calcula
+    // solo para esta consulta: la ventana guardada no cambia, eso lo hace únicamente refrescarCalendario
+    public List<HorariosDisponiblesDTO> obtenerHorariosDisponiblesProximosDosMeses(LocalDate fechaCualquieraDelMes) {
+        LocalDate fechaInicio = inicioVentana(fechaCualquieraDelMes);
+        LocalDate fechaFin = finVentana(fechaCualquieraDelMes);
 
-                // Si hay espacio libre antes de la reserva actual
-                if (horaLibreActual.isBefore(inicioReserva)) {
-                    Duration duracionLibre = Duration.between(horaLibreActual, inicioReserva);
-                    if (duracionLibre.toMinutes() >= 30) {
-                        horariosLibres.add(horaLibreActual + " - " + inicioReserva);
-                    }
-                }
+        if (calendarioDisponibilidad.cubre(fechaInicio, fechaFin)) {
+            return calendarioDisponibilidad.obtenerHorariosDisponibles(fechaInicio, fechaFin);
+        }
+        Set<LocalDate> diasEspeciales = clienteDiasEspeciales.obtenerDiasEspeciales(fechaInicio, fechaFin);
+        List<ReservaDTO> reservas = obtenerReservasEnRango(fechaInicio, fechaFin);
+        return CalendarioDisponibilidad.calcularHorariosDisponibles(fechaInicio, fechaFin, diasEspeciales, reservas);
+    }
 
-                // Actualizar el inicio del bloque libre al fin de la reserva
-                if (horaLibreActual.isBefore(finReserva)) {
-                    horaLibreActual = finReserva;
-                }
-            }
+    // Carga completa: una sola consulta de reservas para todo el rango y los días especiales de a un año
+    synchronized void reconstruirCalendario(LocalDate fechaInicio, LocalDate fechaFin) {
+        calendarioDisponibilidad.iniciarCarga();
+
+        Set<LocalDate> diasEspeciales;
+        List<ReservaDTO> reservas;
+        try {
+            diasEspeciales = clienteDiasEspeciales.obtenerDiasEspeciales(fechaInicio, fechaFin);
+            reservas = obtenerReservasEnRango(fechaInicio, fechaFin);
+        } catch (RuntimeException e) {
+            calendarioDisponibilidad.cancelarCarga();
+            throw e;
+        }
 
-            // Agregar el último bloque libre si existe
-            if (horaLibreActual.isBefore(horaFinDia)) {
-                Duration duracionLibre = Duration.between(horaLibreActual, horaFinDia);
-                if (duracionLibre.toMinutes() >= 30) {
-                    horariosLibres.add(horaLibreActual + " - " + horaFinDia);
-                }
-            }
+        calendarioDisponibilidad.cargar(fechaInicio, fechaFin, diasEspeciales, reservas);
+    }
 
-            horariosDisponiblesTotales.add(new HorariosDisponiblesDTO(fecha, horariosLibres));
+    // Al partir y periódicamente: corrige cualquier aviso de reserva-service que se haya perdido y avanza la ventana de meses
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${rack.calendario.refresco-ms:600000}", fixedDelayString = "${rack.calendario.refresco-ms:600000}")
+    public void refrescarCalendario() {
+        LocalDate hoy = LocalDate.now();
+        try {
+            reconstruirCalendario(inicioVentana(hoy), finVentana(hoy));
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo reconstruir el calendario de disponibilidad: " + e.getMessage());
         }
+    }
 
-        return horariosDisponiblesTotales;
+    // Cada día del calendario guarda si es especial (de eso depende la hora de apertura), así que un feriado nuevo o
+    // eliminado obliga a reconstruirlo con los días especiales recién descargados
+    public void diasEspecialesModificados() {
+        clienteDiasEspeciales.invalidar();
+        refrescarCalendario();
     }
 
+    // Avisos de reserva-service: solo se recalcula el día afectado
+    public void registrarReservaEnCalendario(ReservaDTO reserva) {
+        calendarioDisponibilidad.agregarReserva(reserva);
+    }
 
+    public void eliminarReservaDelCalendario(int idReserva) {
+        calendarioDisponibilidad.eliminarReserva(idReserva);
+    }
 
 }
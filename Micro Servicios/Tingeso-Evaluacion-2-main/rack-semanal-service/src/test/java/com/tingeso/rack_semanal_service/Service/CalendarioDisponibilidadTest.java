@@ -0,0 +1,124 @@
+package com.tingeso.rack_semanal_service.Service;
+
+import com.tingeso.rack_semanal_service.DTO.HorariosDisponiblesDTO;
+import com.tingeso.rack_semanal_service.DTO.ReservaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarioDisponibilidadTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2025, 6, 2);
+    private static final LocalDate SABADO = LocalDate.of(2025, 6, 7);
+
+    private final CalendarioDisponibilidad calendario = new CalendarioDisponibilidad();
+
+    private static ReservaDTO reserva(int id, LocalDate fecha, String inicio, String fin) {
+        return new ReservaDTO(id, "Cliente " + id, fecha, LocalTime.parse(inicio), LocalTime.parse(fin));
+    }
+
+    private List<String> libres(LocalDate fecha) {
+        return calendario.obtenerHorariosDisponibles(fecha, fecha).get(0).getHorariosDisponibles();
+    }
+
+    @Test
+    void testCargar_CalculaBloquesLibresSegunTipoDeDia() {
+        // Arrange
+        List<ReservaDTO> reservas = Arrays.asList(
+                reserva(1, LUNES, "15:00", "15:30"),
+                reserva(2, LUNES, "15:20", "16:00"), // se cruza con la anterior
+                reserva(3, LUNES, "16:10", "16:40"), // deja un hueco de 10 minutos, que no se ofrece
+                reserva(4, SABADO, "09:00", "10:45")); // empieza antes de la apertura
+
+        // Act
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), reservas);
+
+        // Assert
+        assertEquals(Arrays.asList("14:00 - 15:00", "16:40 - 22:00"), libres(LUNES));
+        assertEquals(Collections.singletonList("10:45 - 22:00"), libres(SABADO));
+        assertEquals(Collections.singletonList("14:00 - 22:00"), libres(LUNES.plusDays(1)));
+        assertTrue(calendario.cubre(LUNES, SABADO));
+        assertFalse(calendario.cubre(LUNES, SABADO.plusDays(1)));
+    }
+
+    @Test
+    void testAgregarYEliminar_SoloRecalculaElDiaAfectado() {
+        // Arrange
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.emptyList());
+
+        // Act
+        calendario.agregarReserva(reserva(10, LUNES, "18:00", "18:30"));
+        List<String> conReserva = libres(LUNES);
+        calendario.eliminarReserva(10);
+
+        // Assert
+        assertEquals(Arrays.asList("14:00 - 18:00", "18:30 - 22:00"), conReserva);
+        assertEquals(Collections.singletonList("14:00 - 22:00"), libres(LUNES));
+    }
+
+    @Test
+    void testAgregarReserva_MismoIdCambiaDeHorario() {
+        // Arrange
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.singletonList(reserva(5, LUNES, "14:00", "14:30")));
+
+        // Act
+        calendario.agregarReserva(reserva(5, LUNES.plusDays(1), "21:30", "22:00"));
+
+        // Assert
+        assertEquals(Collections.singletonList("14:00 - 22:00"), libres(LUNES));
+        assertEquals(Collections.singletonList("14:00 - 21:30"), libres(LUNES.plusDays(1)));
+    }
+
+    @Test
+    void testCargar_ReaplicaCambiosRecibidosDuranteLaDescarga() {
+        // Arrange: la descarga completa se hizo antes de que llegaran los avisos
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.emptyList());
+        calendario.iniciarCarga();
+        calendario.agregarReserva(reserva(20, LUNES, "19:00", "19:30"));
+        calendario.eliminarReserva(21);
+
+        // Act
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.singletonList(reserva(21, LUNES, "15:00", "15:30")));
+
+        // Assert
+        assertEquals(Arrays.asList("14:00 - 19:00", "19:30 - 22:00"), libres(LUNES));
+    }
+
+    @Test
+    void testObtenerHorariosDisponibles_UnDiaPorFechaDelRango() {
+        // Arrange
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.emptyList());
+
+        // Act
+        List<HorariosDisponiblesDTO> semana = calendario.obtenerHorariosDisponibles(LUNES, SABADO);
+
+        // Assert
+        assertEquals(6, semana.size());
+        assertEquals(LUNES, semana.get(0).getFecha());
+        assertEquals(SABADO, semana.get(5).getFecha());
+    }
+
+    @Test
+    void testCalcularHorariosDisponibles_NoTocaElCalendarioGuardado() {
+        // Arrange
+        calendario.cargar(LUNES, SABADO, Set.of(SABADO), Collections.singletonList(reserva(1, LUNES, "15:00", "15:30")));
+        LocalDate otroMes = LocalDate.of(2100, 1, 4);
+
+        // Act
+        List<HorariosDisponiblesDTO> fuera = CalendarioDisponibilidad.calcularHorariosDisponibles(otroMes, otroMes,
+                Collections.emptySet(), Collections.singletonList(reserva(2, otroMes, "20:00", "22:00")));
+
+        // Assert
+        assertEquals(Collections.singletonList("14:00 - 20:00"), fuera.get(0).getHorariosDisponibles());
+        assertTrue(calendario.cubre(LUNES, SABADO));
+        assertFalse(calendario.cubre(otroMes, otroMes));
+        assertEquals(Arrays.asList("14:00 - 15:00", "15:30 - 22:00"), libres(LUNES));
+    }
+}
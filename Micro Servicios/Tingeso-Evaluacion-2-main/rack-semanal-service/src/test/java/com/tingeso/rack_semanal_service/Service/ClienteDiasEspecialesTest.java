@@ -0,0 +1,172 @@
+package com.tingeso.rack_semanal_service.Service;
+
+import com.tingeso.rack_semanal_service.DTO.DiasEspecialesDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClienteDiasEspecialesTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private ClienteDiasEspeciales clienteDiasEspeciales;
+
+    // Lo que respondería tarifa-dias-especiales: fines de semana del año más el 18 de septiembre
+    private static DiasEspecialesDTO respuestaDelAnio(int anio) {
+        LocalDate desde = LocalDate.of(anio, 1, 1);
+        LocalDate hasta = LocalDate.of(anio, 12, 31);
+        BitSet especiales = new BitSet();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            boolean finDeSemana = fecha.getDayOfWeek() == DayOfWeek.SATURDAY || fecha.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (finDeSemana || fecha.equals(LocalDate.of(anio, 9, 18))) {
+                especiales.set(fecha.getDayOfYear() - 1);
+            }
+        }
+        return new DiasEspecialesDTO(desde, hasta, Base64.getEncoder().encodeToString(especiales.toByteArray()));
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(clienteDiasEspeciales, "ttlMs", 60_000L);
+        when(restTemplate.getForObject(contains("2025-01-01"), eq(DiasEspecialesDTO.class))).thenReturn(respuestaDelAnio(2025));
+        when(restTemplate.getForObject(contains("2026-01-01"), eq(DiasEspecialesDTO.class))).thenReturn(respuestaDelAnio(2026));
+    }
+
+    @Test
+    void testEsDiaEspecial_UnaSolaConsultaPorAnio() {
+        // Act
+        boolean sabado = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 7));
+        boolean lunes = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 9));
+        boolean feriado = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 9, 18));
+        boolean finDeAnio = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 12, 31));
+
+        // Assert
+        assertTrue(sabado);
+        assertFalse(lunes);
+        assertTrue(feriado);
+        assertFalse(finDeAnio); // miércoles; el último byte del BitSet puede venir recortado
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_RangoQueCruzaDeAnio() {
+        // Act
+        Set<LocalDate> especiales = clienteDiasEspeciales.obtenerDiasEspeciales(
+                LocalDate.of(2025, 12, 26), LocalDate.of(2026, 1, 4));
+
+        // Assert: sábados y domingos 27-28 de diciembre y 3-4 de enero
+        assertEquals(Set.of(LocalDate.of(2025, 12, 27), LocalDate.of(2025, 12, 28),
+                LocalDate.of(2026, 1, 3), LocalDate.of(2026, 1, 4)), especiales);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+    }
+
+    @Test
+    void testEsDiaEspecial_AnioVencidoSeVuelveAPedir() {
+        // Arrange
+        ReflectionTestUtils.setField(clienteDiasEspeciales, "ttlMs", 0L);
+
+        // Act
+        clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 7));
+        clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 8));
+
+        // Assert
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+    }
+
+    @Test
+    void testEsDiaEspecial_RecargaFallida_UsaLaCopiaVencida() {
+        // Arrange
+        clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 7));
+        ReflectionTestUtils.setField(clienteDiasEspeciales, "ttlMs", 0L);
+        when(restTemplate.getForObject(contains("2025-01-01"), eq(DiasEspecialesDTO.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        boolean feriado = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 9, 18));
+
+        // Assert
+        assertTrue(feriado);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+    }
+
+    @Test
+    void testInvalidar_SeVuelveAPedirYSiFallaSeUsaLaCopiaAnterior() {
+        // Arrange
+        clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 7));
+        when(restTemplate.getForObject(contains("2025-01-01"), eq(DiasEspecialesDTO.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        clienteDiasEspeciales.invalidar();
+        boolean sabado = clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 6, 7));
+
+        // Assert
+        assertTrue(sabado);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+    }
+
+    @Test
+    void testEsDiaEspecial_SinCopiaYSinServicio_LanzaExcepcion() {
+        // Arrange
+        when(restTemplate.getForObject(contains("2027-01-01"), eq(DiasEspecialesDTO.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2027, 3, 1)));
+    }
+
+    @Test
+    void testEsDiaEspecial_ConsultasSimultaneasDescarganElAnioUnaVez() throws Exception {
+        // Arrange: la descarga tarda, así todas las consultas llegan mientras está en curso
+        CountDownLatch descargando = new CountDownLatch(1);
+        when(restTemplate.getForObject(contains("2025-01-01"), eq(DiasEspecialesDTO.class))).thenAnswer(invocacion -> {
+            descargando.countDown();
+            Thread.sleep(200);
+            return respuestaDelAnio(2025);
+        });
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<Boolean>> consultas = new ArrayList<>();
+            consultas.add(hilos.submit(() -> clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 9, 18))));
+            descargando.await();
+            for (int i = 1; i < 8; i++) {
+                consultas.add(hilos.submit(() -> clienteDiasEspeciales.esDiaEspecial(LocalDate.of(2025, 9, 18))));
+            }
+
+            // Assert
+            for (Future<Boolean> consulta : consultas) {
+                assertTrue(consulta.get(5, TimeUnit.SECONDS));
+            }
+            verify(restTemplate, times(1)).getForObject(anyString(), eq(DiasEspecialesDTO.class));
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
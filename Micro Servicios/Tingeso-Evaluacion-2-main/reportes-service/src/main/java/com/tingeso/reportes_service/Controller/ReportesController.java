@@ -3,6 +3,7 @@ package com.tingeso.reportes_service.Controller;
 import com.tingeso.reportes_service.DTO.ReservaDTO;
 import com.tingeso.reportes_service.Entity.Reportes;
 import com.tingeso.reportes_service.Service.ReportesService;
+import com.tingeso.reportes_service.Service.ResumenIngresosService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,9 @@ public class ReportesController {
     @Autowired
     private ReportesService reportesService;
 
+    @Autowired
+    private ResumenIngresosService resumenIngresosService;
+
     @GetMapping
     public ResponseEntity<List<Reportes>> getTodos() {
         return ResponseEntity.ok(reportesService.obtenerTodos());
@@ -79,4 +83,55 @@ public class ReportesController {
             @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
         return reportesService.generarReporteIngresosPorGrupoDePersonas(fechaInicio, fechaFin);
     }
+
+    // Reporte configurable: dimensiones (mes, vueltas, grupo, diaSemana, hora, tipoDescuento)
+    // y medidas (ingresos, reservas, personas) separadas por coma
+    @GetMapping("/reporte")
+    public ResponseEntity<List<Map<String, Object>>> obtenerReporte(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(value = "dimensiones", defaultValue = "mes") List<String> dimensiones,
+            @RequestParam(value = "medidas", defaultValue = "ingresos") List<String> medidas) {
+        try {
+            return ResponseEntity.ok(reportesService.generarReporte(fechaInicio, fechaFin, dimensiones, medidas));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ==================== RESÚMENES MENSUALES ====================
+
+    // Aviso de reserva-service: suma la reserva a los resúmenes de su mes
+    @PostMapping("/resumenes/reservas")
+    public ResponseEntity<Void> registrarReservaEnResumenes(@RequestBody ReservaDTO reserva) {
+        try {
+            resumenIngresosService.registrarReserva(reserva);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Aviso de reserva-service: descuenta una reserva eliminada de los resúmenes de su mes
+    @PostMapping("/resumenes/reservas/eliminadas")
+    public ResponseEntity<Void> eliminarReservaDeResumenes(@RequestBody ReservaDTO reserva) {
+        try {
+            resumenIngresosService.eliminarReserva(reserva);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Recalcula los meses indicados (o todos) desde reserva-service; repara avisos perdidos
+    @PostMapping("/resumenes/reconstruir")
+    public ResponseEntity<Integer> reconstruirResumenes(
+            @RequestParam(value = "fechaInicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(value = "fechaFin", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        try {
+            return ResponseEntity.ok(reportesService.reconstruirResumenes(fechaInicio, fechaFin));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,9 @@ public class ComprobanteDTO {
     private double precio_final;
     private double iva;
     private double monto_total_iva;
+    private List<DetallePagoDTO> detallesPago; // el último detalle es el del cliente
+
+    public ComprobanteDTO(double precio_final, double iva, double monto_total_iva) {
+        this(precio_final, iva, monto_total_iva, null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.tingeso.reportes_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetallePagoDTO {
+    private String nombrePersona;
+    private String tipoDescuento;          // "Grupal", "Cumpleaños", "Frecuencia" o "Ninguno"
+    private double porcentajeDescuento;
+    private double totalConIva;
+}
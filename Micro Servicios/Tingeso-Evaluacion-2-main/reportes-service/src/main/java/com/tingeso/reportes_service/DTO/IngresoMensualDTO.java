@@ -0,0 +1,19 @@
+package com.tingeso.reportes_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila de /api/reservas/ingresosMensuales: reservas de un mes con una misma cantidad de vueltas y de personas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngresoMensualDTO {
+    private int anio;
+    private int mes;
+    private int vueltas;
+    private int personas;
+    private long cantidad;
+    private double montoTotalIva;
+    private double montoTotalIvaPesosEnteros;
+}
@@ -0,0 +1,26 @@
+package com.tingeso.reportes_service.Entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.*;
+
+// Lo que una reserva aportó a los resúmenes; permite descontarla cuando se elimina y no contarla dos veces
+@Entity
+@Table(name = "reserva_resumida", indexes = @Index(columnList = "mes"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaResumida {
+    @Id
+    private Integer idReserva;
+
+    @Column(nullable = false, length = 7)
+    private String mes;
+
+    private String tramoVueltas; // null si la reserva no cae en un tramo del reporte
+    private String tramoPersonas;
+
+    private long centavos; // monto total con IVA
+    private long centavosPesosEnteros; // el mismo monto redondeado a pesos, como lo suma el reporte por grupo
+}
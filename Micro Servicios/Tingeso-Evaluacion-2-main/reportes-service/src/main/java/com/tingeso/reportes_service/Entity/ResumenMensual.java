@@ -0,0 +1,32 @@
+package com.tingeso.reportes_service.Entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import javax.persistence.*;
+
+// Ingresos acumulados de un mes para un tramo de una dimensión del reporte (vueltas o tamaño del grupo)
+@Entity
+@Table(name = "resumen_mensual",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"mes", "dimension", "tramo"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenMensual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String mes; // Ejemplo: "2025-06"
+
+    @Column(nullable = false)
+    private String dimension; // "VUELTAS" o "PERSONAS"
+
+    @Column(nullable = false)
+    private String tramo; // Ejemplo: "15", "3-5" o "TOTAL"
+
+    private long totalCentavos;
+
+    private long cantidadReservas;
+}
@@ -0,0 +1,16 @@
+package com.tingeso.reportes_service.Repository;
+
+import com.tingeso.reportes_service.Entity.ReservaResumida;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservaResumidaRepository extends JpaRepository<ReservaResumida, Integer> {
+
+    @Modifying
+    @Query("DELETE FROM ReservaResumida r WHERE r.mes BETWEEN :mesDesde AND :mesHasta")
+    int eliminarMeses(@Param("mesDesde") String mesDesde, @Param("mesHasta") String mesHasta);
+}
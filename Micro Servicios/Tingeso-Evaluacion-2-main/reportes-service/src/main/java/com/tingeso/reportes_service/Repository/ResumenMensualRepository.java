@@ -0,0 +1,32 @@
+package com.tingeso.reportes_service.Repository;
+
+import com.tingeso.reportes_service.Entity.ResumenMensual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ResumenMensualRepository extends JpaRepository<ResumenMensual, Long> {
+
+    // Los meses "yyyy-MM" se ordenan igual como texto que como fecha
+    List<ResumenMensual> findByDimensionAndMesBetweenOrderByMesAsc(String dimension, String mesDesde, String mesHasta);
+
+    // Crea la fila o le suma en una sola sentencia; dos avisos del mismo mes a la vez no chocan con la restricción única
+    @Modifying
+    @Query(value = "INSERT INTO resumen_mensual (mes, dimension, tramo, total_centavos, cantidad_reservas) " +
+            "VALUES (:mes, :dimension, :tramo, :centavos, :cantidad) " +
+            "ON CONFLICT (mes, dimension, tramo) DO UPDATE SET " +
+            "total_centavos = resumen_mensual.total_centavos + EXCLUDED.total_centavos, " +
+            "cantidad_reservas = resumen_mensual.cantidad_reservas + EXCLUDED.cantidad_reservas",
+            nativeQuery = true)
+    int sumar(@Param("mes") String mes, @Param("dimension") String dimension, @Param("tramo") String tramo,
+              @Param("centavos") long centavos, @Param("cantidad") long cantidad);
+
+    @Modifying
+    @Query("DELETE FROM ResumenMensual r WHERE r.mes BETWEEN :mesDesde AND :mesHasta")
+    int eliminarMeses(@Param("mesDesde") String mesDesde, @Param("mesHasta") String mesHasta);
+}
@@ -0,0 +1,81 @@
+package com.tingeso.reportes_service.Service;
+
+import com.tingeso.reportes_service.DTO.ComprobanteDTO;
+import com.tingeso.reportes_service.DTO.DetallePagoDTO;
+import com.tingeso.reportes_service.DTO.ReservaDTO;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dimensiones y medidas disponibles para los reportes de reservas. Un reporte nuevo se arma eligiendo
+ * nombres de este catálogo; agregar un eje o una medida es agregar una definición aquí.
+ * Los tramos de vueltas y de grupo son los mismos que usan los resúmenes mensuales.
+ */
+public final class CatalogoReportes {
+
+    public static final String MES = "mes";
+
+    public static final Dimension<ReservaDTO> VUELTAS =
+            Dimension.porValores("vueltas", ReservaDTO::getNum_vueltas_tiempo_maximo, 10, 15, 20);
+    public static final Dimension<ReservaDTO> GRUPO =
+            Dimension.porTramos("grupo", ReservaDTO::getNum_personas, 1, 2, 3, 5, 6, 10, 11, 15);
+    public static final Dimension<ReservaDTO> DIA_SEMANA =
+            Dimension.porDiaSemana("diaSemana", ReservaDTO::getFechaInicio);
+    public static final Dimension<ReservaDTO> HORA =
+            Dimension.porHora("hora", ReservaDTO::getHoraInicio, 10, 21);
+    public static final Dimension<ReservaDTO> TIPO_DESCUENTO =
+            Dimension.porCategoria("tipoDescuento", CatalogoReportes::tipoDescuentoCliente,
+                    "Cumpleaños", "Frecuencia", "Grupal", "Ninguno");
+
+    public static final Medida<ReservaDTO> INGRESOS = Medida.suma("ingresos", reserva -> {
+        ComprobanteDTO comprobante = reserva.getComprobante();
+        return comprobante != null ? comprobante.getMonto_total_iva() : 0;
+    });
+    public static final Medida<ReservaDTO> RESERVAS = Medida.conteo("reservas");
+    public static final Medida<ReservaDTO> PERSONAS = Medida.sumaEntera("personas", ReservaDTO::getNum_personas);
+
+    private static final List<Dimension<ReservaDTO>> DIMENSIONES = List.of(VUELTAS, GRUPO, DIA_SEMANA, HORA, TIPO_DESCUENTO);
+    private static final List<Medida<ReservaDTO>> MEDIDAS = List.of(INGRESOS, RESERVAS, PERSONAS);
+
+    private CatalogoReportes() {
+    }
+
+    // El mes depende del rango pedido, por eso se arma en cada consulta
+    public static List<Dimension<ReservaDTO>> dimensiones(List<String> nombres, YearMonth desde, YearMonth hasta) {
+        List<Dimension<ReservaDTO>> dimensiones = new ArrayList<>();
+        for (String nombre : nombres) {
+            if (MES.equals(nombre)) {
+                dimensiones.add(Dimension.porMes(MES, ReservaDTO::getFechaInicio, desde, hasta));
+                continue;
+            }
+            dimensiones.add(DIMENSIONES.stream()
+                    .filter(dimension -> dimension.getNombre().equals(nombre))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Dimensión de reporte desconocida: " + nombre)));
+        }
+        return dimensiones;
+    }
+
+    public static List<Medida<ReservaDTO>> medidas(List<String> nombres) {
+        List<Medida<ReservaDTO>> medidas = new ArrayList<>();
+        for (String nombre : nombres) {
+            medidas.add(MEDIDAS.stream()
+                    .filter(medida -> medida.getNombre().equals(nombre))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Medida de reporte desconocida: " + nombre)));
+        }
+        return medidas;
+    }
+
+    // reserva-service deja el detalle del cliente al final del comprobante y entrega los detalles ordenados por id
+    static String tipoDescuentoCliente(ReservaDTO reserva) {
+        ComprobanteDTO comprobante = reserva.getComprobante();
+        if (comprobante == null || comprobante.getDetallesPago() == null || comprobante.getDetallesPago().isEmpty()) {
+            return null;
+        }
+        List<DetallePagoDTO> detalles = comprobante.getDetallesPago();
+        return detalles.get(detalles.size() - 1).getTipoDescuento();
+    }
+}
@@ -0,0 +1,156 @@
+package com.tingeso.reportes_service.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Eje de un reporte: reparte las filas entre un conjunto fijo de categorías (etiquetas).
+ * Cada fila se traduce a la posición de su categoría; las que no calzan en ninguna quedan en una posición
+ * extra "sin categoría", que no aparece como columna pero sí se suma en los totales.
+ */
+public final class Dimension<T> {
+
+    private final String nombre;
+    private final List<String> etiquetas;
+    private final ToIntFunction<T> clasificador;   // posición de la etiqueta, o -1 si la fila no calza
+    private final IntUnaryOperator porValor;        // solo en dimensiones numéricas: valor -> posición
+
+    private Dimension(String nombre, List<String> etiquetas, ToIntFunction<T> clasificador, IntUnaryOperator porValor) {
+        this.nombre = nombre;
+        this.etiquetas = Collections.unmodifiableList(new ArrayList<>(etiquetas));
+        this.clasificador = clasificador;
+        this.porValor = porValor;
+    }
+
+    public Dimension(String nombre, List<String> etiquetas, ToIntFunction<T> clasificador) {
+        this(nombre, etiquetas, clasificador, null);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public List<String> getEtiquetas() {
+        return etiquetas;
+    }
+
+    // Cantidad de posiciones, incluida la de "sin categoría"
+    int tamano() {
+        return etiquetas.size() + 1;
+    }
+
+    int indice(T fila) {
+        return acotar(clasificador.applyAsInt(fila));
+    }
+
+    // Etiqueta que le corresponde a un valor suelto de una dimensión numérica; null si no calza en ninguna
+    public String etiquetaDeValor(int valor) {
+        if (porValor == null) {
+            throw new IllegalStateException("La dimensión " + nombre + " no se clasifica por un valor numérico.");
+        }
+        int indice = acotar(porValor.applyAsInt(valor));
+        return indice < etiquetas.size() ? etiquetas.get(indice) : null;
+    }
+
+    private int acotar(int indice) {
+        return indice >= 0 && indice < etiquetas.size() ? indice : etiquetas.size();
+    }
+
+    // ==================== DEFINICIONES ====================
+
+    // Una categoría por valor exacto, p. ej. vueltas 10, 15 y 20
+    public static <T> Dimension<T> porValores(String nombre, ToIntFunction<T> valor, int... valores) {
+        int[] copia = valores.clone();
+        List<String> etiquetas = new ArrayList<>();
+        for (int v : copia) {
+            etiquetas.add(String.valueOf(v));
+        }
+        IntUnaryOperator porValor = v -> {
+            for (int i = 0; i < copia.length; i++) {
+                if (copia[i] == v) {
+                    return i;
+                }
+            }
+            return -1;
+        };
+        return new Dimension<>(nombre, etiquetas, fila -> porValor.applyAsInt(valor.applyAsInt(fila)), porValor);
+    }
+
+    // Tramos cerrados dados como pares desde/hasta, p. ej. (1, 2, 3, 5) -> "1-2", "3-5"
+    public static <T> Dimension<T> porTramos(String nombre, ToIntFunction<T> valor, int... limites) {
+        if (limites.length == 0 || limites.length % 2 != 0) {
+            throw new IllegalArgumentException("Los tramos de " + nombre + " deben darse como pares desde/hasta.");
+        }
+        int[] copia = limites.clone();
+        List<String> etiquetas = new ArrayList<>();
+        for (int i = 0; i < copia.length; i += 2) {
+            etiquetas.add(copia[i] + "-" + copia[i + 1]);
+        }
+        IntUnaryOperator porValor = v -> {
+            for (int i = 0; i < copia.length; i += 2) {
+                if (v >= copia[i] && v <= copia[i + 1]) {
+                    return i / 2;
+                }
+            }
+            return -1;
+        };
+        return new Dimension<>(nombre, etiquetas, fila -> porValor.applyAsInt(valor.applyAsInt(fila)), porValor);
+    }
+
+    // Un mes por categoría ("yyyy-MM") entre desde y hasta, ambos incluidos
+    public static <T> Dimension<T> porMes(String nombre, Function<T, LocalDate> fecha, YearMonth desde, YearMonth hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+        List<String> etiquetas = new ArrayList<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            etiquetas.add(mes.toString());
+        }
+        long base = desde.getYear() * 12L + desde.getMonthValue() - 1;
+        return new Dimension<>(nombre, etiquetas, fila -> {
+            LocalDate dia = fecha.apply(fila);
+            if (dia == null) {
+                return -1;
+            }
+            long indice = dia.getYear() * 12L + dia.getMonthValue() - 1 - base;
+            return indice >= 0 && indice < etiquetas.size() ? (int) indice : -1;
+        });
+    }
+
+    // Lunes a domingo
+    public static <T> Dimension<T> porDiaSemana(String nombre, Function<T, LocalDate> fecha) {
+        List<String> etiquetas = List.of("Lunes", "Martes", "Miércoles", "Jueves", "Viernes", "Sábado", "Domingo");
+        return new Dimension<>(nombre, etiquetas, fila -> {
+            LocalDate dia = fecha.apply(fila);
+            return dia != null ? dia.getDayOfWeek().getValue() - 1 : -1;
+        });
+    }
+
+    // Una categoría por hora en punto ("HH:00") entre desde y hasta, ambas incluidas
+    public static <T> Dimension<T> porHora(String nombre, Function<T, LocalTime> hora, int desde, int hasta) {
+        List<String> etiquetas = new ArrayList<>();
+        for (int h = desde; h <= hasta; h++) {
+            etiquetas.add(String.format("%02d:00", h));
+        }
+        return new Dimension<>(nombre, etiquetas, fila -> {
+            LocalTime instante = hora.apply(fila);
+            return instante != null ? instante.getHour() - desde : -1;
+        });
+    }
+
+    // Categorías de texto fijas, p. ej. el tipo de descuento
+    public static <T> Dimension<T> porCategoria(String nombre, Function<T, String> valor, String... categorias) {
+        List<String> etiquetas = List.of(categorias);
+        return new Dimension<>(nombre, etiquetas, fila -> {
+            String categoria = valor.apply(fila);
+            return categoria != null ? etiquetas.indexOf(categoria) : -1;
+        });
+    }
+}
@@ -1,15 +1,22 @@
 package com.tingeso.reportes_service.Service;
 
-import com.tingeso.reportes_service.DTO.ComprobanteDTO;
+import com.tingeso.reportes_service.DTO.IngresoMensualDTO;
+import com.tingeso.reportes_service.DTO.PaginaReservasDTO;
 import com.tingeso.reportes_service.DTO.ReservaDTO;
 import com.tingeso.reportes_service.Entity.Reportes;
 import com.tingeso.reportes_service.Repository.ReportesRepository;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,6 +30,22 @@ public class ReportesService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ResumenIngresosService resumenIngresosService;
+
+    @Value("${reportes.resumenes.meses-atras:2}")
+    private int mesesAtras;
+
+    @Value("${reportes.resumenes.meses-adelante:12}")
+    private int mesesAdelante;
+
+    // Límites usados al reconstruir todos los meses
+    private static final YearMonth MES_MINIMO = YearMonth.of(1970, 1);
+    private static final YearMonth MES_MAXIMO = YearMonth.of(9999, 12);
+
+    // Desde esta cantidad de reservas el reporte genérico reparte la agregación entre hilos
+    static final int RESERVAS_REPORTE_PARALELO = 20_000;
+
     public List<Reportes> obtenerTodos() {
         return reportesRepository.findAll();
     }
@@ -48,19 +71,28 @@ public class ReportesService {
         LocalDate inicioMes = fechaInicio.withDayOfMonth(1);
         LocalDate finMes = fechaFin.withDayOfMonth(fechaFin.lengthOfMonth());
 
-        // Llamar al microservicio de reservas
-        String url = "http://reserva-service/api/reservas/getAll";
-        ResponseEntity<ReservaDTO[]> response = restTemplate.getForEntity(url, ReservaDTO[].class);
-        ReservaDTO[] reservasArray = response.getBody();
+        // Reserva-service filtra por rango y entrega páginas; se recorren siguiendo el cursor
+        List<ReservaDTO> reservas = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl("http://reserva-service/api/reservas/rango")
+                    .queryParam("desde", inicioMes)
+                    .queryParam("hasta", finMes)
+                    .queryParam("limite", 500);
+            if (cursor != null) {
+                uri.queryParam("cursor", cursor);
+            }
 
-        if (reservasArray == null) {
-            return Collections.emptyList();
-        }
+            PaginaReservasDTO pagina = restTemplate.getForObject(uri.toUriString(), PaginaReservasDTO.class);
+            if (pagina == null || pagina.getReservas() == null) {
+                break;
+            }
+            reservas.addAll(pagina.getReservas());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
 
-        // Filtrar las reservas que están dentro del rango de fechas
-        return Arrays.stream(reservasArray)
-                .filter(reserva -> !reserva.getFechaInicio().isBefore(inicioMes) && !reserva.getFechaInicio().isAfter(finMes))
-                .collect(Collectors.toList());
+        return reservas;
     }
 
     public Map<String, List<ReservaDTO>> agruparReservasPorMesYAnio(List<ReservaDTO> reservas) {
@@ -73,94 +105,91 @@ public class ReportesService {
                 ));
     }
 
+    // ==================== REPORTES DE INGRESOS ====================
+    // Se leen de los resúmenes mensuales que mantiene ResumenIngresosService
+
     public Map<String, Map<String, Double>> generarReporteIngresosPorVueltas(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<ReservaDTO> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
-        Map<String, List<ReservaDTO>> reservasAgrupadas = agruparReservasPorMesYAnio(reservas);
-
-        Map<String, Map<String, Double>> reporte = new TreeMap<>();
-
-        for (Map.Entry<String, List<ReservaDTO>> entrada : reservasAgrupadas.entrySet()) {
-            String mesAnio = entrada.getKey();
-            List<ReservaDTO> reservasDelMes = entrada.getValue();
-
-            Map<String, Double> ingresosPorVueltas = new HashMap<>();
-            ingresosPorVueltas.put("10", 0.0);
-            ingresosPorVueltas.put("15", 0.0);
-            ingresosPorVueltas.put("20", 0.0);
-            ingresosPorVueltas.put("TOTAL", 0.0);
-
-            for (ReservaDTO reserva : reservasDelMes) {
-                int vueltas = reserva.getNum_vueltas_tiempo_maximo();
-                ComprobanteDTO comprobante = reserva.getComprobante();
-                if (comprobante != null) {
-                    double monto = comprobante.getMonto_total_iva();
-                    if (vueltas == 10 || vueltas == 15 || vueltas == 20) {
-                        ingresosPorVueltas.put(String.valueOf(vueltas),
-                                ingresosPorVueltas.get(String.valueOf(vueltas)) + monto);
-                    }
-                    ingresosPorVueltas.put("TOTAL", ingresosPorVueltas.get("TOTAL") + monto);
-                }
-            }
+        return Metrics.timer("reportes.generar", "reporte", "vueltas").record(() -> {
+            validarRango(fechaInicio, fechaFin);
+            return resumenIngresosService.obtenerReporte(ResumenIngresosService.VUELTAS,
+                    YearMonth.from(fechaInicio), YearMonth.from(fechaFin));
+        });
+    }
 
-            reporte.put(mesAnio, ingresosPorVueltas);
-        }
+    public Map<String, Map<String, Double>> generarReporteIngresosPorGrupoDePersonas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return Metrics.timer("reportes.generar", "reporte", "personas").record(() -> {
+            validarRango(fechaInicio, fechaFin);
+            return resumenIngresosService.obtenerReporte(ResumenIngresosService.PERSONAS,
+                    YearMonth.from(fechaInicio), YearMonth.from(fechaFin));
+        });
+    }
 
-        return reporte;
+    // Reporte armado con dimensiones y medidas del catálogo sobre las reservas del rango, en una sola pasada
+    public List<Map<String, Object>> generarReporte(LocalDate fechaInicio, LocalDate fechaFin,
+                                                    List<String> dimensiones, List<String> medidas) {
+        return Metrics.timer("reportes.generar", "reporte", "personalizado").record(() -> {
+            validarRango(fechaInicio, fechaFin);
+            List<Dimension<ReservaDTO>> ejes = CatalogoReportes.dimensiones(dimensiones,
+                    YearMonth.from(fechaInicio), YearMonth.from(fechaFin));
+            List<Medida<ReservaDTO>> valores = CatalogoReportes.medidas(medidas);
+            List<ReservaDTO> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
+            return Agregacion.calcular(ejes, valores, reservas, reservas.size() >= RESERVAS_REPORTE_PARALELO).comoFilas();
+        });
     }
 
+    private void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+    }
 
-    public Map<String, Map<String, Double>> generarReporteIngresosPorGrupoDePersonas(LocalDate fechaInicio, LocalDate fechaFin) {
-        // Obtener reservas filtradas por rango de fechas
-        List<ReservaDTO> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
-
-        // Agrupar reservas por mes y año
-        Map<String, List<ReservaDTO>> reservasAgrupadas = agruparReservasPorMesYAnio(reservas);
-
-        // Mapa para almacenar el reporte final
-        Map<String, Map<String, Double>> reporte = new TreeMap<>();
-
-        // Iterar sobre cada grupo de reservas por mes y año
-        for (Map.Entry<String, List<ReservaDTO>> entrada : reservasAgrupadas.entrySet()) {
-            String mesAnio = entrada.getKey();
-            List<ReservaDTO> reservasDelMes = entrada.getValue();
-
-            // Inicializar mapa para ingresos por grupo de personas
-            Map<String, Double> ingresosPorGrupo = new LinkedHashMap<>();
-            ingresosPorGrupo.put("1-2", 0.0);
-            ingresosPorGrupo.put("3-5", 0.0);
-            ingresosPorGrupo.put("6-10", 0.0);
-            ingresosPorGrupo.put("11-15", 0.0);
-            ingresosPorGrupo.put("TOTAL", 0.0);
-
-            // Calcular ingresos por grupo
-            for (ReservaDTO reserva : reservasDelMes) {
-                int personas = reserva.getNum_personas();
-                ComprobanteDTO comprobante = reserva.getComprobante();
-
-                if (comprobante != null) {
-                    double monto = Math.round(comprobante.getMonto_total_iva());
-
-                    if (personas >= 1 && personas <= 2) {
-                        ingresosPorGrupo.put("1-2", ingresosPorGrupo.get("1-2") + monto);
-                    } else if (personas >= 3 && personas <= 5) {
-                        ingresosPorGrupo.put("3-5", ingresosPorGrupo.get("3-5") + monto);
-                    } else if (personas >= 6 && personas <= 10) {
-                        ingresosPorGrupo.put("6-10", ingresosPorGrupo.get("6-10") + monto);
-                    } else if (personas >= 11 && personas <= 15) {
-                        ingresosPorGrupo.put("11-15", ingresosPorGrupo.get("11-15") + monto);
-                    }
-
-                    ingresosPorGrupo.put("TOTAL", ingresosPorGrupo.get("TOTAL") + monto);
-                }
-            }
+    // ==================== RECONSTRUCCIÓN DE RESÚMENES ====================
 
-            // Agregar resultados al reporte final
-            reporte.put(mesAnio, ingresosPorGrupo);
+    // Primer arranque: los resúmenes se arman con todas las reservas existentes
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarResumenes() {
+        if (!resumenIngresosService.estaVacio()) {
+            return;
+        }
+        try {
+            int cantidad = reconstruirResumenes(null, null);
+            System.out.println("Resúmenes de ingresos creados con " + cantidad + " reservas.");
+        } catch (RuntimeException e) {
+            System.err.println("No se pudieron crear los resúmenes de ingresos: " + e.getMessage());
         }
-
-        return reporte;
     }
 
+    // Periódicamente: los avisos de reserva-service se pierden si este servicio está caído, si la cola de avisos se
+    // llena o si reserva-service se reinicia con avisos pendientes. Los meses recientes y los próximos, donde caen casi
+    // todas las reservas nuevas, se vuelven a sumar desde la base de datos de reserva-service
+    @Scheduled(initialDelayString = "${reportes.resumenes.conciliacion-ms:900000}",
+            fixedDelayString = "${reportes.resumenes.conciliacion-ms:900000}")
+    public void conciliarResumenes() {
+        LocalDate hoy = LocalDate.now();
+        try {
+            reconstruirResumenes(hoy.minusMonths(mesesAtras).withDayOfMonth(1), hoy.plusMonths(mesesAdelante));
+        } catch (RuntimeException e) {
+            System.err.println("No se pudieron conciliar los resúmenes de ingresos: " + e.getMessage());
+        }
+    }
 
+    // Corrige los meses del rango (o todos, sin fechas) con los totales que reserva-service suma en la base de datos
+    public int reconstruirResumenes(LocalDate fechaInicio, LocalDate fechaFin) {
+        YearMonth desde = fechaInicio != null ? YearMonth.from(fechaInicio) : MES_MINIMO;
+        YearMonth hasta = fechaFin != null ? YearMonth.from(fechaFin) : MES_MAXIMO;
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
 
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl("http://reserva-service/api/reservas/ingresosMensuales");
+        if (fechaInicio != null) {
+            uri.queryParam("desde", desde.atDay(1));
+        }
+        if (fechaFin != null) {
+            uri.queryParam("hasta", hasta.atEndOfMonth());
+        }
+        IngresoMensualDTO[] ingresos = restTemplate.getForObject(uri.toUriString(), IngresoMensualDTO[].class);
+        return resumenIngresosService.reemplazarMeses(desde, hasta,
+                ingresos != null ? Arrays.asList(ingresos) : Collections.emptyList());
+    }
 }
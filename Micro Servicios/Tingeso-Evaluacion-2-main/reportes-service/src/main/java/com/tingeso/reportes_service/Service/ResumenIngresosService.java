@@ -0,0 +1,174 @@
+package com.tingeso.reportes_service.Service;
+
+import com.tingeso.reportes_service.DTO.ComprobanteDTO;
+import com.tingeso.reportes_service.DTO.IngresoMensualDTO;
+import com.tingeso.reportes_service.DTO.ReservaDTO;
+import com.tingeso.reportes_service.Entity.ReservaResumida;
+import com.tingeso.reportes_service.Entity.ResumenMensual;
+import com.tingeso.reportes_service.Repository.ReservaResumidaRepository;
+import com.tingeso.reportes_service.Repository.ResumenMensualRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Resúmenes mensuales de ingresos por tramo, en centavos. Se actualizan con cada reserva creada o eliminada,
+ * así los reportes solo leen las filas de los meses pedidos en vez de recorrer todas las reservas.
+ */
+@Service
+public class ResumenIngresosService {
+
+    public static final String VUELTAS = "VUELTAS";
+    public static final String PERSONAS = "PERSONAS";
+    public static final String TOTAL = "TOTAL";
+
+    @Autowired
+    private ResumenMensualRepository resumenMensualRepository;
+
+    @Autowired
+    private ReservaResumidaRepository reservaResumidaRepository;
+
+    // ==================== ACTUALIZACIÓN INCREMENTAL ====================
+
+    @Transactional
+    public void registrarReserva(ReservaDTO reserva) {
+        if (reserva.getFechaInicio() == null) {
+            throw new IllegalArgumentException("La reserva no tiene fecha de inicio.");
+        }
+        // Un aviso repetido reemplaza el aporte anterior en vez de sumarlo dos veces
+        reservaResumidaRepository.findById(reserva.getId()).ifPresent(anterior -> aplicar(anterior, -1));
+
+        ReservaResumida aporte = calcularAporte(reserva);
+        reservaResumidaRepository.save(aporte);
+        aplicar(aporte, 1);
+    }
+
+    // Si la reserva entró a los resúmenes por una reconstrucción no hay aporte guardado y se descuenta con sus datos
+    @Transactional
+    public void eliminarReserva(ReservaDTO reserva) {
+        Optional<ReservaResumida> guardado = reservaResumidaRepository.findById(reserva.getId());
+        if (guardado.isPresent()) {
+            aplicar(guardado.get(), -1);
+            reservaResumidaRepository.delete(guardado.get());
+        } else if (reserva.getFechaInicio() != null) {
+            aplicar(calcularAporte(reserva), -1);
+        } else {
+            throw new IllegalArgumentException("La reserva no tiene fecha de inicio.");
+        }
+    }
+
+    // Reemplaza los meses [desde, hasta] con los totales que reserva-service ya agrupó por mes, vueltas y personas
+    @Transactional
+    public int reemplazarMeses(YearMonth desde, YearMonth hasta, List<IngresoMensualDTO> ingresos) {
+        String mesDesde = desde.toString();
+        String mesHasta = hasta.toString();
+        resumenMensualRepository.eliminarMeses(mesDesde, mesHasta);
+        reservaResumidaRepository.eliminarMeses(mesDesde, mesHasta);
+
+        Map<String, ResumenMensual> filas = new LinkedHashMap<>();
+        int reservas = 0;
+        for (IngresoMensualDTO ingreso : ingresos) {
+            YearMonth mes = YearMonth.of(ingreso.getAnio(), ingreso.getMes());
+            if (mes.isBefore(desde) || mes.isAfter(hasta)) {
+                continue;
+            }
+            String mesTexto = mes.toString();
+            long centavos = Math.round(ingreso.getMontoTotalIva() * 100);
+            long centavosPesosEnteros = Math.round(ingreso.getMontoTotalIvaPesosEnteros() * 100);
+            acumular(filas, mesTexto, VUELTAS, TOTAL, centavos, ingreso.getCantidad());
+            acumular(filas, mesTexto, VUELTAS, tramoVueltas(ingreso.getVueltas()), centavos, ingreso.getCantidad());
+            acumular(filas, mesTexto, PERSONAS, TOTAL, centavosPesosEnteros, ingreso.getCantidad());
+            acumular(filas, mesTexto, PERSONAS, tramoPersonas(ingreso.getPersonas()), centavosPesosEnteros, ingreso.getCantidad());
+            reservas += ingreso.getCantidad();
+        }
+
+        resumenMensualRepository.saveAll(filas.values());
+        return reservas;
+    }
+
+    public boolean estaVacio() {
+        return resumenMensualRepository.count() == 0 && reservaResumidaRepository.count() == 0;
+    }
+
+    // ==================== LECTURA ====================
+
+    // Mes ("yyyy-MM") -> tramo -> ingresos en pesos; solo aparecen los meses con reservas
+    public Map<String, Map<String, Double>> obtenerReporte(String dimension, YearMonth desde, YearMonth hasta) {
+        Dimension<ReservaDTO> tramosDelReporte = VUELTAS.equals(dimension) ? CatalogoReportes.VUELTAS : CatalogoReportes.GRUPO;
+        List<String> tramos = tramosDelReporte.getEtiquetas();
+        List<ResumenMensual> filas = resumenMensualRepository.findByDimensionAndMesBetweenOrderByMesAsc(
+                dimension, desde.toString(), hasta.toString());
+
+        Map<String, Map<String, Double>> reporte = new TreeMap<>();
+        Set<String> mesesConReservas = new HashSet<>();
+        for (ResumenMensual fila : filas) {
+            Map<String, Double> ingresos = reporte.computeIfAbsent(fila.getMes(), mes -> {
+                Map<String, Double> vacio = new LinkedHashMap<>();
+                for (String tramo : tramos) {
+                    vacio.put(tramo, 0.0);
+                }
+                vacio.put(TOTAL, 0.0);
+                return vacio;
+            });
+            if (ingresos.containsKey(fila.getTramo())) {
+                ingresos.put(fila.getTramo(), fila.getTotalCentavos() / 100.0);
+            }
+            if (TOTAL.equals(fila.getTramo()) && fila.getCantidadReservas() > 0) {
+                mesesConReservas.add(fila.getMes());
+            }
+        }
+        reporte.keySet().retainAll(mesesConReservas);
+        return reporte;
+    }
+
+    // ==================== CÁLCULO DEL APORTE ====================
+
+    static ReservaResumida calcularAporte(ReservaDTO reserva) {
+        ComprobanteDTO comprobante = reserva.getComprobante();
+        double monto = comprobante != null ? comprobante.getMonto_total_iva() : 0;
+        return new ReservaResumida(
+                reserva.getId(),
+                YearMonth.from(reserva.getFechaInicio()).toString(),
+                tramoVueltas(reserva.getNum_vueltas_tiempo_maximo()),
+                tramoPersonas(reserva.getNum_personas()),
+                Math.round(monto * 100),
+                Math.round(monto) * 100);
+    }
+
+    // Los tramos son los del catálogo de reportes; una reserva fuera de todos solo cuenta en el TOTAL
+    static String tramoVueltas(int vueltas) {
+        return CatalogoReportes.VUELTAS.etiquetaDeValor(vueltas);
+    }
+
+    static String tramoPersonas(int personas) {
+        return CatalogoReportes.GRUPO.etiquetaDeValor(personas);
+    }
+
+    private void aplicar(ReservaResumida aporte, int signo) {
+        sumarFila(aporte.getMes(), VUELTAS, TOTAL, signo * aporte.getCentavos(), signo);
+        sumarFila(aporte.getMes(), VUELTAS, aporte.getTramoVueltas(), signo * aporte.getCentavos(), signo);
+        sumarFila(aporte.getMes(), PERSONAS, TOTAL, signo * aporte.getCentavosPesosEnteros(), signo);
+        sumarFila(aporte.getMes(), PERSONAS, aporte.getTramoPersonas(), signo * aporte.getCentavosPesosEnteros(), signo);
+    }
+
+    private void sumarFila(String mes, String dimension, String tramo, long centavos, int cantidad) {
+        if (tramo == null) {
+            return;
+        }
+        resumenMensualRepository.sumar(mes, dimension, tramo, centavos, cantidad);
+    }
+
+    private static void acumular(Map<String, ResumenMensual> filas, String mes, String dimension, String tramo,
+                                 long centavos, long cantidad) {
+        if (tramo == null) {
+            return;
+        }
+        ResumenMensual fila = filas.computeIfAbsent(mes + "|" + dimension + "|" + tramo,
+                clave -> new ResumenMensual(null, mes, dimension, tramo, 0, 0));
+        fila.setTotalCentavos(fila.getTotalCentavos() + centavos);
+        fila.setCantidadReservas(fila.getCantidadReservas() + cantidad);
+    }
+}
@@ -0,0 +1,188 @@
+package com.tingeso.reportes_service.Service;
+
+import com.tingeso.reportes_service.DTO.ComprobanteDTO;
+import com.tingeso.reportes_service.DTO.DetallePagoDTO;
+import com.tingeso.reportes_service.DTO.IngresoMensualDTO;
+import com.tingeso.reportes_service.DTO.PaginaReservasDTO;
+import com.tingeso.reportes_service.DTO.ReservaDTO;
+import com.tingeso.reportes_service.Repository.ReportesRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReportesServiceTest {
+
+    @Mock
+    private ReportesRepository reportesRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ResumenIngresosService resumenIngresosService;
+
+    @InjectMocks
+    private ReportesService reportesService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static ReservaDTO reserva(int id, LocalDate fecha, int hora, int vueltas, int personas, double monto,
+                                      String descuentoCliente) {
+        ReservaDTO reserva = new ReservaDTO();
+        reserva.setId(id);
+        reserva.setFechaInicio(fecha);
+        reserva.setHoraInicio(LocalTime.of(hora, 0));
+        reserva.setNum_vueltas_tiempo_maximo(vueltas);
+        reserva.setNum_personas(personas);
+        List<DetallePagoDTO> detalles = Arrays.asList(
+                new DetallePagoDTO("Acompañante", "Grupal", 10, 0),
+                new DetallePagoDTO("Cliente", descuentoCliente, 0, 0));
+        reserva.setComprobante(new ComprobanteDTO(0, 0, monto, detalles));
+        return reserva;
+    }
+
+    @Test
+    void testGenerarReporte_AgrupaPorMesYTipoDeDescuento() {
+        // Arrange
+        LocalDate junio = LocalDate.of(2025, 6, 2);
+        List<ReservaDTO> reservas = Arrays.asList(
+                reserva(1, junio, 15, 10, 3, 10710.5, "Frecuencia"),
+                reserva(2, junio.plusDays(1), 16, 15, 2, 20000, "Frecuencia"),
+                reserva(3, junio.plusMonths(1), 11, 20, 6, 5000, "Cumpleaños"),
+                reserva(4, junio.plusMonths(1), 12, 12, 1, 700, null));
+        when(restTemplate.getForObject(anyString(), eq(PaginaReservasDTO.class)))
+                .thenReturn(new PaginaReservasDTO(reservas, null));
+
+        // Act
+        List<Map<String, Object>> filas = reportesService.generarReporte(junio, LocalDate.of(2025, 7, 31),
+                Arrays.asList("mes", "tipoDescuento"), Arrays.asList("ingresos", "reservas", "personas"));
+
+        // Assert: la reserva sin tipo de descuento no forma fila
+        assertEquals(2, filas.size());
+        assertEquals("2025-06", filas.get(0).get("mes"));
+        assertEquals("Frecuencia", filas.get(0).get("tipoDescuento"));
+        assertEquals(30710.5, (double) filas.get(0).get("ingresos"), 0.001);
+        assertEquals(2L, filas.get(0).get("reservas"));
+        assertEquals(5L, filas.get(0).get("personas"));
+        assertEquals("2025-07", filas.get(1).get("mes"));
+        assertEquals("Cumpleaños", filas.get(1).get("tipoDescuento"));
+    }
+
+    @Test
+    void testGenerarReporte_NombreDesconocido_LanzaExcepcionSinConsultarReservas() {
+        assertThrows(IllegalArgumentException.class, () -> reportesService.generarReporte(
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), Arrays.asList("clima"), Arrays.asList("ingresos")));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testAgregacion_EnParaleloDaLoMismoQueEnSerie() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        List<ReservaDTO> reservas = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            reservas.add(reserva(i, inicio.plusDays(i % 365), 10 + i % 12, 10 + 5 * (i % 3), 1 + i % 15, 1000 + i, "Grupal"));
+        }
+        List<Dimension<ReservaDTO>> dimensiones = CatalogoReportes.dimensiones(Arrays.asList("mes", "grupo"),
+                YearMonth.of(2025, 1), YearMonth.of(2025, 12));
+        List<Medida<ReservaDTO>> medidas = Arrays.asList(CatalogoReportes.INGRESOS, CatalogoReportes.RESERVAS);
+
+        // Act
+        Agregacion<ReservaDTO> serie = Agregacion.calcular(dimensiones, medidas, reservas, false);
+        Agregacion<ReservaDTO> paralelo = Agregacion.calcular(dimensiones, medidas, reservas, true);
+
+        // Assert
+        assertEquals(5_000, paralelo.getCantidadFilas());
+        assertEquals(serie.comoFilas(), paralelo.comoFilas());
+        assertEquals(12 * 4, serie.comoFilas().size());
+    }
+
+    @Test
+    void testComoTotales_FueraDeTramoSoloSumaAlTotal() {
+        // Arrange
+        LocalDate fecha = LocalDate.of(2025, 6, 2);
+        List<ReservaDTO> reservas = Arrays.asList(
+                reserva(1, fecha, 15, 10, 2, 100, "Ninguno"),
+                reserva(2, fecha, 15, 10, 16, 50, "Ninguno"));
+
+        // Act
+        Map<String, Double> totales = Agregacion.calcular(Arrays.asList(CatalogoReportes.GRUPO),
+                Arrays.asList(CatalogoReportes.INGRESOS), reservas, false).comoTotales(0);
+
+        // Assert
+        assertEquals(Arrays.asList("1-2", "3-5", "6-10", "11-15", "TOTAL"), new ArrayList<>(totales.keySet()));
+        assertEquals(100.0, totales.get("1-2"));
+        assertEquals(150.0, totales.get("TOTAL"));
+    }
+
+    @Test
+    void testConciliarResumenes_ReemplazaLosMesesRecientesYProximos() {
+        // Arrange
+        ReflectionTestUtils.setField(reportesService, "mesesAtras", 2);
+        ReflectionTestUtils.setField(reportesService, "mesesAdelante", 12);
+        IngresoMensualDTO[] ingresos = {new IngresoMensualDTO()};
+        when(restTemplate.getForObject(anyString(), eq(IngresoMensualDTO[].class))).thenReturn(ingresos);
+        YearMonth actual = YearMonth.now();
+
+        // Act
+        reportesService.conciliarResumenes();
+
+        // Assert
+        verify(restTemplate).getForObject(contains("desde=" + actual.minusMonths(2).atDay(1)), eq(IngresoMensualDTO[].class));
+        verify(resumenIngresosService).reemplazarMeses(actual.minusMonths(2), actual.plusMonths(12), Arrays.asList(ingresos));
+    }
+
+    @Test
+    void testConciliarResumenes_ReservaServiceCaidoNoLanzaExcepcion() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), eq(IngresoMensualDTO[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        reportesService.conciliarResumenes();
+
+        // Assert
+        verifyNoInteractions(resumenIngresosService);
+    }
+
+    @Test
+    void testGenerarReporte_MideElTiempoAunqueElRangoSeaInvalido() {
+        // Arrange
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        Metrics.addRegistry(registro);
+        LocalDate fecha = LocalDate.of(2025, 6, 2);
+
+        try {
+            // Act
+            assertThrows(IllegalArgumentException.class,
+                    () -> reportesService.generarReporteIngresosPorVueltas(fecha, fecha.minusDays(1)));
+
+            // Assert
+            assertEquals(1, registro.get("reportes.generar").tag("reporte", "vueltas").timer().count());
+        } finally {
+            Metrics.removeRegistry(registro);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.tingeso.reportes_service.Service;
+
+import com.tingeso.reportes_service.DTO.ComprobanteDTO;
+import com.tingeso.reportes_service.DTO.IngresoMensualDTO;
+import com.tingeso.reportes_service.DTO.ReservaDTO;
+import com.tingeso.reportes_service.Entity.ReservaResumida;
+import com.tingeso.reportes_service.Entity.ResumenMensual;
+import com.tingeso.reportes_service.Repository.ReservaResumidaRepository;
+import com.tingeso.reportes_service.Repository.ResumenMensualRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ResumenIngresosServiceTest {
+
+    @Mock
+    private ResumenMensualRepository resumenMensualRepository;
+
+    @Mock
+    private ReservaResumidaRepository reservaResumidaRepository;
+
+    @InjectMocks
+    private ResumenIngresosService resumenIngresosService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static ReservaDTO reserva(int id, LocalDate fecha, int vueltas, int personas, double montoConIva) {
+        ReservaDTO reserva = new ReservaDTO();
+        reserva.setId(id);
+        reserva.setFechaInicio(fecha);
+        reserva.setNum_vueltas_tiempo_maximo(vueltas);
+        reserva.setNum_personas(personas);
+        reserva.setComprobante(new ComprobanteDTO(0, 0, montoConIva));
+        return reserva;
+    }
+
+    @Test
+    void testRegistrarReserva_SumaCentavosEnCadaTramo() {
+        // Arrange
+        when(reservaResumidaRepository.findById(7)).thenReturn(Optional.empty());
+
+        // Act
+        resumenIngresosService.registrarReserva(reserva(7, LocalDate.of(2025, 6, 14), 15, 4, 23800.49));
+
+        // Assert
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "TOTAL", 2380049L, 1L);
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "15", 2380049L, 1L);
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.PERSONAS, "TOTAL", 2380000L, 1L);
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.PERSONAS, "3-5", 2380000L, 1L);
+        verify(resumenMensualRepository, never()).save(any());
+    }
+
+    @Test
+    void testRegistrarReserva_AvisoRepetido_DescuentaElAporteAnterior() {
+        // Arrange
+        ReservaResumida anterior = new ReservaResumida(7, "2025-06", "15", "3-5", 1000L, 1000L);
+        when(reservaResumidaRepository.findById(7)).thenReturn(Optional.of(anterior));
+
+        // Act
+        resumenIngresosService.registrarReserva(reserva(7, LocalDate.of(2025, 6, 14), 15, 4, 10.0));
+
+        // Assert: el total del mes queda con una sola reserva
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "TOTAL", -1000L, -1L);
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "TOTAL", 1000L, 1L);
+    }
+
+    @Test
+    void testRegistrarReserva_TramoFueraDelCatalogo_SoloSumaAlTotal() {
+        // Arrange
+        when(reservaResumidaRepository.findById(1)).thenReturn(Optional.empty());
+
+        // Act: 12 vueltas no pertenece a ningún tramo del reporte, solo al total
+        resumenIngresosService.registrarReserva(reserva(1, LocalDate.of(2025, 7, 1), 12, 2, 5000));
+
+        // Assert: la fila se crea o se suma en la misma sentencia, sin un save aparte
+        ArgumentCaptor<String> tramos = ArgumentCaptor.forClass(String.class);
+        verify(resumenMensualRepository, times(3)).sumar(eq("2025-07"), anyString(), tramos.capture(), eq(500000L), eq(1L));
+        assertEquals(List.of("TOTAL", "TOTAL", "1-2"), tramos.getAllValues());
+        verify(resumenMensualRepository, never()).save(any());
+    }
+
+    @Test
+    void testEliminarReserva_ConAporteGuardado_RestaEseAporte() {
+        // Arrange
+        ReservaResumida aporte = new ReservaResumida(3, "2025-06", "10", "1-2", 1785000L, 1785000L);
+        when(reservaResumidaRepository.findById(3)).thenReturn(Optional.of(aporte));
+
+        // Act
+        resumenIngresosService.eliminarReserva(reserva(3, LocalDate.of(2025, 6, 2), 10, 2, 17850.0));
+
+        // Assert
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "10", -1785000L, -1L);
+        verify(reservaResumidaRepository).delete(aporte);
+    }
+
+    @Test
+    void testEliminarReserva_CargadaPorReconstruccion_RestaSegunSusDatos() {
+        // Arrange
+        when(reservaResumidaRepository.findById(4)).thenReturn(Optional.empty());
+
+        // Act
+        resumenIngresosService.eliminarReserva(reserva(4, LocalDate.of(2025, 6, 3), 20, 12, 100.25));
+
+        // Assert
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.VUELTAS, "20", -10025L, -1L);
+        verify(resumenMensualRepository).sumar("2025-06", ResumenIngresosService.PERSONAS, "11-15", -10000L, -1L);
+        verify(reservaResumidaRepository, never()).delete(any());
+    }
+
+    @Test
+    void testObtenerReporte_LeeSoloLasFilasYOmiteMesesSinReservas() {
+        // Arrange
+        when(resumenMensualRepository.findByDimensionAndMesBetweenOrderByMesAsc(ResumenIngresosService.PERSONAS, "2025-05", "2025-07"))
+                .thenReturn(Arrays.asList(
+                        new ResumenMensual(1L, "2025-05", ResumenIngresosService.PERSONAS, "TOTAL", 0L, 0L), // se eliminaron todas
+                        new ResumenMensual(2L, "2025-06", ResumenIngresosService.PERSONAS, "3-5", 4760000L, 2L),
+                        new ResumenMensual(3L, "2025-06", ResumenIngresosService.PERSONAS, "TOTAL", 4760000L, 2L)));
+
+        // Act
+        Map<String, Map<String, Double>> reporte = resumenIngresosService.obtenerReporte(
+                ResumenIngresosService.PERSONAS, YearMonth.of(2025, 5), YearMonth.of(2025, 7));
+
+        // Assert
+        assertEquals(Set.of("2025-06"), reporte.keySet());
+        Map<String, Double> junio = reporte.get("2025-06");
+        assertEquals(List.of("1-2", "3-5", "6-10", "11-15", "TOTAL"), new ArrayList<>(junio.keySet()));
+        assertEquals(47600.0, junio.get("3-5"));
+        assertEquals(0.0, junio.get("1-2"));
+        assertEquals(47600.0, junio.get("TOTAL"));
+    }
+
+    @Test
+    void testReemplazarMeses_ConTotalesAgrupados_GuardaUnaFilaPorTramo() {
+        // Arrange: reserva-service ya sumó por mes, vueltas y personas
+        List<IngresoMensualDTO> ingresos = Arrays.asList(
+                new IngresoMensualDTO(2025, 6, 10, 2, 3, 53550.0, 53550.0),
+                new IngresoMensualDTO(2025, 6, 10, 5, 1, 17850.4, 17850.0),
+                new IngresoMensualDTO(2025, 8, 20, 5, 1, 99.0, 99.0)); // fuera del rango pedido
+
+        // Act
+        int cantidad = resumenIngresosService.reemplazarMeses(YearMonth.of(2025, 6), YearMonth.of(2025, 6), ingresos);
+
+        // Assert
+        assertEquals(4, cantidad);
+        verify(resumenMensualRepository).eliminarMeses("2025-06", "2025-06");
+        verify(reservaResumidaRepository).eliminarMeses("2025-06", "2025-06");
+        verify(resumenMensualRepository, never()).sumar(anyString(), anyString(), anyString(), anyLong(), anyLong());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ResumenMensual>> filas = ArgumentCaptor.forClass(Collection.class);
+        verify(resumenMensualRepository).saveAll(filas.capture());
+        assertEquals(5, filas.getValue().size());
+        ResumenMensual diezVueltas = buscarFila(filas.getValue(), ResumenIngresosService.VUELTAS, "10");
+        assertEquals(7140040L, diezVueltas.getTotalCentavos());
+        assertEquals(4L, diezVueltas.getCantidadReservas());
+        assertEquals(7140000L, buscarFila(filas.getValue(), ResumenIngresosService.PERSONAS, "TOTAL").getTotalCentavos());
+        assertEquals(1785000L, buscarFila(filas.getValue(), ResumenIngresosService.PERSONAS, "3-5").getTotalCentavos());
+    }
+
+    private static ResumenMensual buscarFila(Collection<ResumenMensual> filas, String dimension, String tramo) {
+        return filas.stream()
+                .filter(f -> f.getDimension().equals(dimension) && f.getTramo().equals(tramo))
+                .findFirst().orElseThrow();
+    }
+}
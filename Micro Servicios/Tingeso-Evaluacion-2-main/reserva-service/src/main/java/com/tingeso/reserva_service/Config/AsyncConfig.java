@@ -0,0 +1,73 @@
+package com.tingeso.reserva_service.Config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AsyncConfig {
+
+    // Pool acotado para consultar en paralelo los microservicios de tarifas y descuentos
+    @Bean(name = "consultasTarifasExecutor", destroyMethod = "shutdown")
+    public ExecutorService consultasTarifasExecutor(
+            @Value("${reserva.consultas.hilos:16}") int hilos,
+            @Value("${reserva.consultas.cola:200}") int capacidadCola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread hilo = new Thread(runnable, "consultas-tarifas-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        // Si la cola se llena la consulta se rechaza y la reserva falla de inmediato por tiempo de espera agotado.
+        // Ejecutarla en el hilo de la petición la sacaría del plazo de reserva.consultas.timeout-ms
+        return new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Pool acotado para generar los PDF y enviar los correos fuera del hilo de la petición
+    @Bean(name = "enviosCorreoExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor enviosCorreoExecutor(
+            @Value("${reserva.envios.hilos:4}") int hilos,
+            @Value("${reserva.envios.cola:100}") int capacidadCola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread hilo = new Thread(runnable, "envios-correo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        // El despachador nunca entrega más tareas que la capacidad libre de la cola
+        return new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Avisos a otros microservicios (p. ej. el calendario de rack-semanal); si la cola se llena se descartan,
+    // porque cada receptor se resincroniza por su cuenta. El descarte queda contado y en el registro
+    @Bean(name = "notificacionesExecutor", destroyMethod = "shutdown")
+    public ExecutorService notificacionesExecutor(
+            @Value("${reserva.notificaciones.cola:500}") int capacidadCola) {
+        ThreadFactory threadFactory = runnable -> {
+            Thread hilo = new Thread(runnable, "notificaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        return new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), threadFactory,
+                (aviso, pool) -> {
+                    Metrics.counter("reserva.notificaciones.descartadas").increment();
+                    System.err.println("Cola de avisos llena (" + capacidadCola + "): se descartó un aviso");
+                });
+    }
+}
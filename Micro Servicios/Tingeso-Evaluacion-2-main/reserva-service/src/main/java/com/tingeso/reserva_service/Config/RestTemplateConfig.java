@@ -1,16 +1,27 @@
 package com.tingeso.reserva_service.Config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    // Con RestTemplateBuilder, Actuator mide cada llamada en http.client.requests (clientName = servicio de destino).
+    // Sin plazos, un microservicio colgado retendría el hilo que lo llama aunque la reserva ya haya desistido
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${reserva.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                     @Value("${reserva.http.read-timeout-ms:5000}") long readTimeoutMs) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
     }
 }
@@ -0,0 +1,49 @@
+package com.tingeso.reserva_service.Config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Restricción de exclusión en PostgreSQL: dos reservas del mismo día no pueden tener rangos horarios que se crucen.
+ * Es la garantía final cuando hay más de una instancia escribiendo; Hibernate (ddl-auto) no sabe crearla.
+ */
+@Component
+public class RestriccionCrucesReserva {
+
+    private static final String CREAR_RESTRICCION =
+            "DO $$ BEGIN " +
+            "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reserva_sin_cruces') THEN " +
+            "ALTER TABLE reserva ADD CONSTRAINT reserva_sin_cruces EXCLUDE USING gist " +
+            "(tsrange(fecha_inicio + hora_inicio, fecha_inicio + hora_fin, '[)') WITH &&) " +
+            "WHERE (fecha_inicio IS NOT NULL AND hora_inicio IS NOT NULL AND hora_fin IS NOT NULL); " +
+            "END IF; " +
+            "END $$";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearRestriccion() {
+        try (Connection conexion = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexion.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        } catch (Exception e) {
+            System.err.println("No se pudo revisar la base de datos para la restricción de cruces: " + e.getMessage());
+            return;
+        }
+
+        try {
+            new JdbcTemplate(dataSource).execute(CREAR_RESTRICCION);
+        } catch (Exception e) {
+            // Por ejemplo, si ya existen reservas cruzadas; los bloqueos por día siguen protegiendo esta instancia
+            System.err.println("No se pudo crear la restricción de cruces de reservas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.tingeso.reserva_service.Config;
+
+import com.tingeso.reserva_service.Service.Trazas;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+
+// Sleuth propaga el contexto por el gateway, los RestTemplate @LoadBalanced y los pools de hilos;
+// con el perfil local Sleuth reporta los spans a Zipkin. Aquí se agregan los spans de los repositorios
+@Configuration
+public class TrazasConfig {
+
+    // Un span por llamada a un repositorio de Spring Data (p. ej. "reservaRepository.save"), incluida su transacción
+    @Bean
+    public static BeanPostProcessor spansRepositorios() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+                    ((Advised) bean).addAdvice(0, (MethodInterceptor) invocacion ->
+                            Trazas.enSpan(nombre + "." + invocacion.getMethod().getName(), invocacion::proceed));
+                }
+                return bean;
+            }
+        };
+    }
+}
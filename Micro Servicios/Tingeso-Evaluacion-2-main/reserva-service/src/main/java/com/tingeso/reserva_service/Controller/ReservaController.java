@@ -1,15 +1,30 @@
 package com.tingeso.reserva_service.Controller;
 
+import com.tingeso.reserva_service.DTO.CotizacionDTO;
+import com.tingeso.reserva_service.DTO.EstadoCachePreciosDTO;
+import com.tingeso.reserva_service.DTO.EstadoEnviosDTO;
+import com.tingeso.reserva_service.DTO.IngresoMensualDTO;
+import com.tingeso.reserva_service.DTO.PaginaHorariosDTO;
+import com.tingeso.reserva_service.DTO.PaginaReservasDTO;
 import com.tingeso.reserva_service.DTO.ReservaDTO;
 import com.tingeso.reserva_service.Entity.Reserva;
 import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
 import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
 import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
 import com.tingeso.reserva_service.Model.TarifaDuracion;
+import com.tingeso.reserva_service.Service.CachePreciosService;
+import com.tingeso.reserva_service.Service.ClienteDiasEspeciales;
+import com.tingeso.reserva_service.Service.EnvioCorreoService;
+import com.tingeso.reserva_service.Service.ExportacionReservasService;
 import com.tingeso.reserva_service.Service.ReservaService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,9 +34,20 @@ import java.util.Optional;
 public class ReservaController {
 
     private final ReservaService reservaService;
+    private final EnvioCorreoService envioCorreoService;
+    private final CachePreciosService cachePreciosService;
+    private final ExportacionReservasService exportacionReservasService;
+    private final ClienteDiasEspeciales clienteDiasEspeciales;
 
-    public ReservaController(ReservaService reservaService) {
+    public ReservaController(ReservaService reservaService, EnvioCorreoService envioCorreoService,
+                             CachePreciosService cachePreciosService,
+                             ExportacionReservasService exportacionReservasService,
+                             ClienteDiasEspeciales clienteDiasEspeciales) {
         this.reservaService = reservaService;
+        this.envioCorreoService = envioCorreoService;
+        this.cachePreciosService = cachePreciosService;
+        this.exportacionReservasService = exportacionReservasService;
+        this.clienteDiasEspeciales = clienteDiasEspeciales;
     }
 
     @GetMapping("/getAll")
@@ -29,6 +55,25 @@ public class ReservaController {
         return ResponseEntity.ok(reservaService.getAllReservas());
     }
 
+    /**
+     * Reservas como JSON delimitado por saltos de línea, opcionalmente filtradas por fecha de inicio.
+     * Se envían por páginas a medida que se leen, sin armar la lista completa en memoria.
+     */
+    @GetMapping(value = "/exportar", produces = ExportacionReservasService.TIPO_CONTENIDO)
+    public ResponseEntity<StreamingResponseBody> exportarReservas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            exportacionReservasService.validarRango(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody cuerpo = salida -> exportacionReservasService.exportar(desde, hasta, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportacionReservasService.TIPO_CONTENIDO))
+                .body(cuerpo);
+    }
+
     @GetMapping("/getById/{id}")
     public ResponseEntity<Reserva> getReservaById(@PathVariable Integer id) {
         return reservaService.getReservaById(id)
@@ -36,6 +81,81 @@ public class ReservaController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Reservas cuya fecha de inicio está en el rango [desde, hasta], paginadas por cursor.
+     * Para la página siguiente se envía el siguienteCursor de la respuesta anterior.
+     */
+    @GetMapping("/rango")
+    public ResponseEntity<PaginaReservasDTO> getReservasPorRango(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limite) {
+        try {
+            return ResponseEntity.ok(reservaService.obtenerReservasPorRango(desde, hasta, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Igual que /rango, pero cada reserva trae solo id, cliente y horario (sin comprobante).
+     */
+    @GetMapping("/rango/horarios")
+    public ResponseEntity<PaginaHorariosDTO> getHorariosPorRango(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limite) {
+        try {
+            return ResponseEntity.ok(reservaService.obtenerHorariosPorRango(desde, hasta, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Reserva que ocupa exactamente el bloque fecha + horaInicio + horaFin.
+     */
+    @GetMapping("/horario")
+    public ResponseEntity<Reserva> getReservaPorHorario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaFin) {
+        return reservaService.obtenerReservaPorHorario(fecha, horaInicio, horaFin)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Reservas de un usuario, paginadas por cursor.
+     */
+    @GetMapping("/usuario/{idUsuario}")
+    public ResponseEntity<PaginaReservasDTO> getReservasPorUsuario(
+            @PathVariable int idUsuario,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limite) {
+        try {
+            return ResponseEntity.ok(reservaService.obtenerReservasPorUsuario(idUsuario, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Ingresos agrupados por año, mes, vueltas y personas, sumados en la base de datos.
+     */
+    @GetMapping("/ingresosMensuales")
+    public ResponseEntity<List<IngresoMensualDTO>> getIngresosMensuales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            return ResponseEntity.ok(reservaService.obtenerIngresosMensuales(desde, hasta));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/create")
     public ResponseEntity<Reserva> crearReserva(@RequestBody ReservaDTO request) {
         Reserva reserva = reservaService.crearReserva(
@@ -53,6 +173,29 @@ public class ReservaController {
         return ResponseEntity.ok(reserva);
     }
 
+    /**
+     * Cotizar una reserva sin guardarla: tarifa, disponibilidad del horario y desglose completo del comprobante.
+     */
+    @PostMapping("/cotizar")
+    public ResponseEntity<CotizacionDTO> cotizarReserva(@RequestBody ReservaDTO request) {
+        try {
+            CotizacionDTO cotizacion = reservaService.cotizarReserva(
+                    request.getNumVueltasTiempoMaximo(),
+                    request.getNumPersonas(),
+                    request.getNumFrecuenciaCliente(),
+                    request.getNombreCliente(),
+                    request.getCorreoCliente(),
+                    request.getNombreCorreo(),
+                    request.getCorreosCumpleaneros(),
+                    request.getFechaInicio(),
+                    request.getHoraInicio()
+            );
+            return ResponseEntity.ok(cotizacion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<Reserva> updateReserva(@PathVariable Integer id, @RequestBody Reserva reserva) {
         Reserva updated = reservaService.updateReserva(id, reserva);
@@ -102,6 +245,44 @@ public class ReservaController {
         }
     }
 
+    /**
+     * Estado de la cola de correos: pendientes, fallidos y latencia de entrega.
+     */
+    @GetMapping("/envios/estado")
+    public ResponseEntity<EstadoEnviosDTO> obtenerEstadoEnvios() {
+        return ResponseEntity.ok(envioCorreoService.obtenerEstado());
+    }
+
+    /**
+     * Estado de la copia local de tarifas y descuentos: aciertos, fallos y antigüedad de cada tabla.
+     */
+    @GetMapping("/precios/estado")
+    public ResponseEntity<EstadoCachePreciosDTO> obtenerEstadoPrecios() {
+        return ResponseEntity.ok(cachePreciosService.obtenerEstado());
+    }
+
+    /**
+     * Invalidar la copia local de una tabla de precios; la llaman los microservicios de tarifas al modificarlas.
+     */
+    @PostMapping("/precios/invalidar/{tabla}")
+    public ResponseEntity<Void> invalidarPrecios(@PathVariable String tabla) {
+        try {
+            cachePreciosService.invalidar(tabla);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Invalidar la copia local de los días especiales; la llama tarifa-dias-especiales al modificar un feriado.
+     */
+    @PostMapping("/diasEspeciales/invalidar")
+    public ResponseEntity<Void> invalidarDiasEspeciales() {
+        clienteDiasEspeciales.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Actualizar una reserva existente por ID.
      */
@@ -0,0 +1,20 @@
+package com.tingeso.reserva_service.DTO;
+
+import com.tingeso.reserva_service.Entity.Comprobante;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CotizacionDTO {
+    private boolean diaEspecial; // fin de semana o feriado: se cobra la tarifa de días especiales
+    private double tarifa; // tarifa base por persona
+    private int duracionTotal; // en minutos
+    private LocalTime horaFin; // null si no se indicó hora de inicio
+    private Boolean disponible; // null si no se indicó hora de inicio
+    private Comprobante comprobante; // desglose por persona, sin guardar
+}
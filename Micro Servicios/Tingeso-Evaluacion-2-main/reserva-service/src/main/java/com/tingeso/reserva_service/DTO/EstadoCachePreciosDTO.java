@@ -0,0 +1,29 @@
+package com.tingeso.reserva_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoCachePreciosDTO {
+    private long ttlMs;
+    private Map<String, EstadoTabla> tablas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EstadoTabla {
+        private int registros;
+        private boolean vigente;
+        private long edadMs; // tiempo desde la última recarga; -1 si nunca se cargó o fue invalidada
+        private long aciertos; // búsquedas resueltas con la copia local
+        private long fallos; // búsquedas que encontraron la copia vencida o invalidada
+        private long recargas;
+        private long erroresRecarga;
+        private long usosVencidos; // búsquedas servidas con la copia vencida porque el microservicio no respondió
+    }
+}
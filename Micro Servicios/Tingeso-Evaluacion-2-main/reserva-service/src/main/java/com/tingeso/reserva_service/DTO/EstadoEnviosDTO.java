@@ -0,0 +1,20 @@
+package com.tingeso.reserva_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoEnviosDTO {
+    private long pendientes;
+    private long enProceso;
+    private long enviados;
+    private long fallidos;
+    private int enColaWorkers; // tareas esperando un hilo del pool de envío
+    private int workersActivos;
+    private long entregados; // entregas registradas desde que partió el servicio
+    private double latenciaPromedioMs; // desde que la reserva se confirmó hasta que el correo salió
+    private long latenciaMaximaMs;
+}
@@ -0,0 +1,19 @@
+package com.tingeso.reserva_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioReservaDTO {
+    private int id;
+    private String nombreCliente;
+    private LocalDate fechaInicio;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+}
@@ -0,0 +1,19 @@
+package com.tingeso.reserva_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ingresos de las reservas de un mes con una misma cantidad de vueltas y de personas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngresoMensualDTO {
+    private int anio;
+    private int mes;
+    private int vueltas;
+    private int personas;
+    private long cantidad; // reservas del grupo
+    private double montoTotalIva; // suma de comprobante.monto_total_iva
+    private double montoTotalIvaPesosEnteros; // la misma suma, redondeando cada monto a pesos
+}
@@ -0,0 +1,16 @@
+package com.tingeso.reserva_service.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Misma forma que PaginaReservasDTO, con reservas reducidas a su horario
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaHorariosDTO {
+    private List<HorarioReservaDTO> reservas;
+    private String siguienteCursor; // null cuando no hay más páginas
+}
@@ -0,0 +1,16 @@
+package com.tingeso.reserva_service.DTO;
+
+import com.tingeso.reserva_service.Entity.Reserva;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaReservasDTO {
+    private List<Reserva> reservas;
+    private String siguienteCursor; // null cuando no hay más páginas
+}
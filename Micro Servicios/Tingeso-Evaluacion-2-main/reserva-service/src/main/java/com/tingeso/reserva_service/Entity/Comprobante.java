@@ -17,8 +17,10 @@ public class Comprobante {
     @Column(unique = true, nullable = false)
     private Long id;
 
+    // Se leen en el orden en que se insertaron: el detalle del cliente principal queda al final
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "comprobante_id")  // clave foránea en DetallePagoPorPersona
+    @OrderBy("id")
     private List<DetallePagoPorPersona> detallesPago;
 
     private double precio_final; // precio final del grupo (sin IVA)
@@ -0,0 +1,41 @@
+package com.tingeso.reserva_service.Entity;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Bandeja de salida: cada fila es un correo con el comprobante PDF pendiente de entregar
+@Entity
+@Table(indexes = @Index(name = "idx_envio_correo_estado_proximo", columnList = "estado, proximoIntento"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnvioCorreo {
+
+    public enum Estado { PENDIENTE, EN_PROCESO, ENVIADO, FALLIDO }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private int idReserva;
+    private String destinatario;
+
+    @Column(columnDefinition = "TEXT")
+    private String resumen; // texto de la reserva con el que se genera el PDF
+
+    @Enumerated(EnumType.STRING)
+    private Estado estado;
+
+    private int intentos;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime proximoIntento;
+    private LocalDateTime fechaEnvio;
+    private LocalDateTime reclamadoEn; // inicio del plazo de la instancia que lo está procesando
+
+    @Column(length = 1000)
+    private String ultimoError;
+}
@@ -11,6 +11,10 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_reserva_fecha_hora", columnList = "fechaInicio, horaInicio, id"),
+        @Index(name = "idx_reserva_usuario", columnList = "idUsuario, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
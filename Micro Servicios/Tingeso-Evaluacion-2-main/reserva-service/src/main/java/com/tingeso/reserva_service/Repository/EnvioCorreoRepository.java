@@ -0,0 +1,45 @@
+package com.tingeso.reserva_service.Repository;
+
+import com.tingeso.reserva_service.Entity.EnvioCorreo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EnvioCorreoRepository extends JpaRepository<EnvioCorreo, Long> {
+
+    @Query("SELECT e FROM EnvioCorreo e " +
+            "WHERE e.estado = :estado AND e.proximoIntento <= :ahora " +
+            "ORDER BY e.proximoIntento ASC, e.id ASC")
+    List<EnvioCorreo> findListosParaEnviar(@Param("estado") EnvioCorreo.Estado estado,
+                                           @Param("ahora") LocalDateTime ahora,
+                                           Pageable pageable);
+
+    long countByEstado(EnvioCorreo.Estado estado);
+
+    // Reclamo atómico: entre varias instancias, solo una logra pasar la fila de PENDIENTE a EN_PROCESO (devuelve 1)
+    @Transactional
+    @Modifying
+    @Query("UPDATE EnvioCorreo e SET e.estado = :enProceso, e.reclamadoEn = :ahora " +
+            "WHERE e.id = :id AND e.estado = :pendiente")
+    int reclamar(@Param("id") Long id,
+                 @Param("pendiente") EnvioCorreo.Estado pendiente,
+                 @Param("enProceso") EnvioCorreo.Estado enProceso,
+                 @Param("ahora") LocalDateTime ahora);
+
+    // Solo los reclamos vencidos (sin fecha: anteriores a que existiera el plazo) vuelven a la cola
+    @Transactional
+    @Modifying
+    @Query("UPDATE EnvioCorreo e SET e.estado = :pendiente, e.reclamadoEn = NULL " +
+            "WHERE e.estado = :enProceso AND (e.reclamadoEn IS NULL OR e.reclamadoEn < :limite)")
+    int liberarReclamosVencidos(@Param("enProceso") EnvioCorreo.Estado enProceso,
+                                @Param("pendiente") EnvioCorreo.Estado pendiente,
+                                @Param("limite") LocalDateTime limite);
+}
@@ -1,22 +1,127 @@
 package com.tingeso.reserva_service.Repository;
 
+import com.tingeso.reserva_service.DTO.HorarioReservaDTO;
+import com.tingeso.reserva_service.Entity.Comprobante;
 import com.tingeso.reserva_service.Entity.Reserva;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
 
-    @Query("SELECT r FROM Reserva r " +
+    // Todas las reservas con su comprobante y detalles en una sola consulta, en vez de una consulta extra
+    // por reserva para el comprobante y otra para sus detalles. El DISTINCT solo quita las filas repetidas
+    // del JOIN en memoria; no se envía a la base de datos
+    @Query("SELECT DISTINCT r FROM Reserva r LEFT JOIN FETCH r.comprobante c LEFT JOIN FETCH c.detallesPago")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Reserva> findAllConDetalles();
+
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reserva r " +
             "WHERE r.fechaInicio = :fecha " +
             "AND (r.horaInicio < :horaFin AND r.horaFin > :horaInicio)")
-    List<Reserva> findReservasQueSeCruzan(@Param("fecha") LocalDate fecha,
-                                          @Param("horaInicio") LocalTime horaInicio,
-                                          @Param("horaFin") LocalTime horaFin);
+    boolean existsReservaQueSeCruza(@Param("fecha") LocalDate fecha,
+                                    @Param("horaInicio") LocalTime horaInicio,
+                                    @Param("horaFin") LocalTime horaFin);
+
+    // Solo las columnas necesarias para cargar el índice de horarios
+    @Query("SELECT r.id AS id, r.fechaInicio AS fechaInicio, r.horaInicio AS horaInicio, r.horaFin AS horaFin " +
+            "FROM Reserva r WHERE r.fechaInicio >= :desde")
+    List<HorarioReserva> findHorariosDesde(@Param("desde") LocalDate desde);
+
+    interface HorarioReserva {
+        Integer getId();
+        LocalDate getFechaInicio();
+        LocalTime getHoraInicio();
+        LocalTime getHoraFin();
+    }
+
+    // Paginación por cursor (fechaInicio, horaInicio, id): cada página continúa después de la última fila entregada,
+    // usando el índice idx_reserva_fecha_hora en vez de recorrer con OFFSET
+    // El comprobante viene en el mismo JOIN; sus detalles se cargan después con cargarDetallesPago
+    @Query("SELECT r FROM Reserva r LEFT JOIN FETCH r.comprobante " +
+            "WHERE r.fechaInicio >= :ultimaFecha AND r.fechaInicio <= :hasta " +
+            "AND (r.fechaInicio > :ultimaFecha " +
+            "OR (r.fechaInicio = :ultimaFecha AND (r.horaInicio > :ultimaHora " +
+            "OR (r.horaInicio = :ultimaHora AND r.id > :ultimoId)))) " +
+            "ORDER BY r.fechaInicio, r.horaInicio, r.id")
+    List<Reserva> findPorRangoDeFechasDespuesDe(@Param("hasta") LocalDate hasta,
+                                                @Param("ultimaFecha") LocalDate ultimaFecha,
+                                                @Param("ultimaHora") LocalTime ultimaHora,
+                                                @Param("ultimoId") int ultimoId,
+                                                Pageable pageable);
+
+    // Misma paginación, pero solo con los datos del horario: para quien no necesita comprobantes
+    @Query("SELECT new com.tingeso.reserva_service.DTO.HorarioReservaDTO(" +
+            "r.id, r.nombreCliente, r.fechaInicio, r.horaInicio, r.horaFin) FROM Reserva r " +
+            "WHERE r.fechaInicio >= :ultimaFecha AND r.fechaInicio <= :hasta " +
+            "AND (r.fechaInicio > :ultimaFecha " +
+            "OR (r.fechaInicio = :ultimaFecha AND (r.horaInicio > :ultimaHora " +
+            "OR (r.horaInicio = :ultimaHora AND r.id > :ultimoId)))) " +
+            "ORDER BY r.fechaInicio, r.horaInicio, r.id")
+    List<HorarioReservaDTO> findHorariosPorRangoDespuesDe(@Param("hasta") LocalDate hasta,
+                                                          @Param("ultimaFecha") LocalDate ultimaFecha,
+                                                          @Param("ultimaHora") LocalTime ultimaHora,
+                                                          @Param("ultimoId") int ultimoId,
+                                                          Pageable pageable);
+
+    // Un JOIN FETCH de la colección en una consulta paginada obligaría a Hibernate a paginar en memoria,
+    // así que los detalles de pago de una página se traen aparte, todos en una sola consulta
+    @Query("SELECT DISTINCT c FROM Comprobante c LEFT JOIN FETCH c.detallesPago WHERE c IN :comprobantes")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Comprobante> cargarDetallesPago(@Param("comprobantes") Collection<Comprobante> comprobantes);
+
+    // Debe llamarse dentro de la misma transacción que cargó las reservas
+    default void cargarDetallesPagoDe(List<Reserva> reservas) {
+        List<Comprobante> comprobantes = reservas.stream()
+                .map(Reserva::getComprobante)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!comprobantes.isEmpty()) {
+            cargarDetallesPago(comprobantes);
+        }
+    }
+
+    // Ingresos agrupados por mes, vueltas y personas; la base de datos suma y solo viajan las filas del resultado.
+    // FLOOR(x + 0.5) redondea cada monto a pesos igual que Math.round
+    @Query("SELECT YEAR(r.fechaInicio) AS anio, MONTH(r.fechaInicio) AS mes, " +
+            "r.num_vueltas_tiempo_maximo AS vueltas, r.num_personas AS personas, COUNT(r) AS cantidad, " +
+            "COALESCE(SUM(c.monto_total_iva), 0) AS montoTotalIva, " +
+            "COALESCE(SUM(FLOOR(c.monto_total_iva + 0.5)), 0) AS montoTotalIvaPesosEnteros " +
+            "FROM Reserva r LEFT JOIN r.comprobante c " +
+            "WHERE r.fechaInicio >= :desde AND r.fechaInicio <= :hasta " +
+            "GROUP BY YEAR(r.fechaInicio), MONTH(r.fechaInicio), r.num_vueltas_tiempo_maximo, r.num_personas " +
+            "ORDER BY YEAR(r.fechaInicio), MONTH(r.fechaInicio), r.num_vueltas_tiempo_maximo, r.num_personas")
+    List<IngresoMensual> sumarIngresosPorMes(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    interface IngresoMensual {
+        Integer getAnio();
+        Integer getMes();
+        Integer getVueltas();
+        Integer getPersonas();
+        Long getCantidad();
+        Double getMontoTotalIva();
+        Double getMontoTotalIvaPesosEnteros();
+    }
+
+    Optional<Reserva> findFirstByFechaInicioAndHoraInicioAndHoraFin(LocalDate fechaInicio,
+                                                                    LocalTime horaInicio,
+                                                                    LocalTime horaFin);
+
+    @EntityGraph(attributePaths = "comprobante")
+    List<Reserva> findByIdUsuarioAndIdGreaterThanOrderByIdAsc(int idUsuario, int ultimoId, Pageable pageable);
 }
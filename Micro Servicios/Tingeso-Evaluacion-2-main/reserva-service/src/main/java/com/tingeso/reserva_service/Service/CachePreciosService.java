@@ -0,0 +1,248 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.DTO.EstadoCachePreciosDTO;
+import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
+import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
+import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
+import com.tingeso.reserva_service.Model.TarifaDuracion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copia local completa de las tablas de tarifas y descuentos. Las reservas se tarifican en memoria;
+ * las tablas se recargan en segundo plano, al vencer su TTL o cuando un administrador las modifica.
+ */
+@Service
+public class CachePreciosService {
+
+    public static final String TARIFAS_DURACION = "tarifasDuracion";
+    public static final String TARIFAS_DIAS_ESPECIALES = "tarifasDiasEspeciales";
+    public static final String DESCUENTOS_POR_PERSONAS = "descuentosPorPersonas";
+    public static final String DESCUENTOS_POR_CLIENTE_FRECUENTE = "descuentosPorClienteFrecuente";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("consultasTarifasExecutor")
+    private ExecutorService consultasTarifasExecutor;
+
+    // Pasado este plazo sin recargar, la copia deja de usarse mientras se pueda leer el microservicio
+    @Value("${reserva.precios.ttl-ms:600000}")
+    private long ttlMs;
+
+    // Copia inmutable de una tabla y el instante en que se leyó (0 = invalidada)
+    private static final class Copia<T> {
+        final List<T> registros;
+        final long cargadaEn;
+
+        Copia(List<T> registros, long cargadaEn) {
+            this.registros = registros;
+            this.cargadaEn = cargadaEn;
+        }
+    }
+
+    // Una tabla remota: su copia vigente y sus contadores
+    private final class Tabla<T> {
+        final String nombre;
+        final String url;
+        final Class<T[]> tipo;
+        volatile Copia<T> copia;
+        final AtomicLong aciertos = new AtomicLong();
+        final AtomicLong fallos = new AtomicLong();
+        final AtomicLong recargas = new AtomicLong();
+        final AtomicLong erroresRecarga = new AtomicLong();
+        final AtomicLong usosVencidos = new AtomicLong();
+
+        Tabla(String nombre, String url, Class<T[]> tipo) {
+            this.nombre = nombre;
+            this.url = url;
+            this.tipo = tipo;
+        }
+
+        boolean vigente(Copia<T> actual) {
+            return actual != null && actual.cargadaEn > 0 && System.currentTimeMillis() - actual.cargadaEn < ttlMs;
+        }
+
+        boolean vigente() {
+            return vigente(copia);
+        }
+
+        // Reemplaza la copia completa; las lecturas en curso siguen usando la anterior
+        synchronized Copia<T> recargar() {
+            T[] leidos = restTemplate.getForObject(url, tipo);
+            List<T> registros = leidos == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(leidos));
+            Copia<T> nueva = new Copia<>(registros, System.currentTimeMillis());
+            copia = nueva;
+            recargas.incrementAndGet();
+            return nueva;
+        }
+
+        // Registros para tarificar: la copia si está vigente; si no, se recarga en el momento.
+        // Si el microservicio no responde se usa la copia vencida antes que rechazar la reserva
+        List<T> registros() {
+            Copia<T> actual = copia;
+            if (vigente(actual)) {
+                aciertos.incrementAndGet();
+                return actual.registros;
+            }
+            fallos.incrementAndGet();
+            try {
+                return recargar().registros;
+            } catch (RuntimeException e) {
+                erroresRecarga.incrementAndGet();
+                if (actual == null) {
+                    throw e;
+                }
+                usosVencidos.incrementAndGet();
+                System.err.println("No se pudo recargar " + nombre + ", se usa la copia anterior: " + e.getMessage());
+                return actual.registros;
+            }
+        }
+
+        void invalidar() {
+            Copia<T> actual = copia;
+            if (actual != null) {
+                copia = new Copia<>(actual.registros, 0);
+            }
+        }
+
+        EstadoCachePreciosDTO.EstadoTabla estado() {
+            Copia<T> actual = copia;
+            long edadMs = actual == null || actual.cargadaEn == 0 ? -1 : System.currentTimeMillis() - actual.cargadaEn;
+            return new EstadoCachePreciosDTO.EstadoTabla(
+                    actual == null ? 0 : actual.registros.size(), vigente(actual), edadMs,
+                    aciertos.get(), fallos.get(), recargas.get(), erroresRecarga.get(), usosVencidos.get());
+        }
+    }
+
+    private final Tabla<TarifaDuracion> tarifasDuracion = new Tabla<>(TARIFAS_DURACION,
+            "http://tarifa-duracion-reserva-service/api/tarifasDuracion/getAll", TarifaDuracion[].class);
+    private final Tabla<TarifaDiasEspeciales> tarifasDiasEspeciales = new Tabla<>(TARIFAS_DIAS_ESPECIALES,
+            "http://tarifa-dias-especiales/api/tarifasDiasEspeciales/getAll", TarifaDiasEspeciales[].class);
+    private final Tabla<DescuentoPorPersonas> descuentosPorPersonas = new Tabla<>(DESCUENTOS_POR_PERSONAS,
+            "http://descuento-por-personas-service/api/descuentoPorNumPersonas/getAll", DescuentoPorPersonas[].class);
+    private final Tabla<DescuentoPorClienteFrecuente> descuentosPorClienteFrecuente = new Tabla<>(DESCUENTOS_POR_CLIENTE_FRECUENTE,
+            "http://descuento-por-cliente-frecuente/api/descuentoPorClienteFrecuente/getAll", DescuentoPorClienteFrecuente[].class);
+
+    private List<Tabla<?>> tablas() {
+        return Arrays.asList(tarifasDuracion, tarifasDiasEspeciales, descuentosPorPersonas, descuentosPorClienteFrecuente);
+    }
+
+    private Tabla<?> tabla(String nombre) {
+        for (Tabla<?> tabla : tablas()) {
+            if (tabla.nombre.equals(nombre)) {
+                return tabla;
+            }
+        }
+        throw new IllegalArgumentException("Tabla de precios desconocida: " + nombre);
+    }
+
+    // ==================== CARGA Y REFRESCO ====================
+
+    // Se calienta al partir y luego se refresca antes de que venza el TTL, así las reservas no esperan al microservicio
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reserva.precios.refresco-ms:300000}", fixedDelayString = "${reserva.precios.refresco-ms:300000}")
+    public void refrescarTodas() {
+        for (Tabla<?> tabla : tablas()) {
+            try {
+                tabla.recargar();
+            } catch (RuntimeException e) {
+                tabla.erroresRecarga.incrementAndGet();
+                System.err.println("No se pudo refrescar " + tabla.nombre + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Un administrador modificó la tabla: la copia deja de ser vigente y se recarga en segundo plano
+    public void invalidar(String nombre) {
+        Tabla<?> tabla = tabla(nombre);
+        tabla.invalidar();
+        try {
+            consultasTarifasExecutor.execute(() -> {
+                try {
+                    tabla.recargar();
+                } catch (RuntimeException e) {
+                    tabla.erroresRecarga.incrementAndGet();
+                    System.err.println("No se pudo recargar " + tabla.nombre + " tras invalidarla: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // La próxima reserva la recargará al encontrarla invalidada
+        }
+    }
+
+    // Todas las tablas tienen copia vigente: tarificar no llamará a ningún microservicio
+    public boolean todasVigentes() {
+        for (Tabla<?> tabla : tablas()) {
+            if (!tabla.vigente()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public EstadoCachePreciosDTO obtenerEstado() {
+        Map<String, EstadoCachePreciosDTO.EstadoTabla> estado = new LinkedHashMap<>();
+        for (Tabla<?> tabla : tablas()) {
+            estado.put(tabla.nombre, tabla.estado());
+        }
+        return new EstadoCachePreciosDTO(ttlMs, estado);
+    }
+
+    // ==================== BÚSQUEDAS ====================
+    // Mismos criterios que los endpoints de cada microservicio
+
+    // Igual que buscarPorVueltas: null si no hay tarifa para ese número de vueltas
+    public TarifaDuracion obtenerTarifaDuracion(int numVueltas) {
+        for (TarifaDuracion tarifa : tarifasDuracion.registros()) {
+            if (tarifa.getNumVueltasTiempoMax() == numVueltas) {
+                return tarifa;
+            }
+        }
+        return null;
+    }
+
+    public TarifaDiasEspeciales obtenerTarifaDiasEspeciales(int numVueltas, int cantidadPersonas) {
+        for (TarifaDiasEspeciales tarifa : tarifasDiasEspeciales.registros()) {
+            if (tarifa.getNumVueltasTiempoMax() == numVueltas
+                    && cantidadPersonas >= tarifa.getMinPersonas() && cantidadPersonas <= tarifa.getMaxPersonas()) {
+                return tarifa;
+            }
+        }
+        throw new RuntimeException("No existe tarifa de días especiales para " + numVueltas + " vueltas y " + cantidadPersonas + " personas.");
+    }
+
+    public DescuentoPorPersonas obtenerDescuentoPorPersonas(int numPersonas) {
+        for (DescuentoPorPersonas descuento : descuentosPorPersonas.registros()) {
+            if (descuento.getMinPersonas() <= numPersonas && descuento.getMaxPersonas() >= numPersonas) {
+                return descuento;
+            }
+        }
+        throw new RuntimeException("No existe descuento para " + numPersonas + " personas.");
+    }
+
+    public DescuentoPorClienteFrecuente obtenerDescuentoPorClienteFrecuente(int visitas) {
+        for (DescuentoPorClienteFrecuente descuento : descuentosPorClienteFrecuente.registros()) {
+            if (descuento.getMinVisitas() <= visitas && descuento.getMaxVisitas() >= visitas) {
+                return descuento;
+            }
+        }
+        throw new RuntimeException("No existe descuento para clientes con " + visitas + " visitas.");
+    }
+}
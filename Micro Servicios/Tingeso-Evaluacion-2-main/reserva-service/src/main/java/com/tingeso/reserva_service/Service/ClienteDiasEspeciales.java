@@ -0,0 +1,107 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.DTO.DiasEspecialesDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consulta los días especiales (fin de semana o feriado) a tarifa-dias-especiales de a un año completo
+ * y guarda cada año en memoria, así preguntar por un día o por un rango no hace una llamada por fecha.
+ * Si al vencer un año tarifa-dias-especiales no responde, se sigue usando la copia anterior.
+ */
+@Component
+public class ClienteDiasEspeciales {
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    // Los feriados cambian poco; pasado este plazo el año se vuelve a pedir
+    @Value("${dias-especiales.ttl-ms:3600000}")
+    private long ttlMs;
+
+    private static final class Anio {
+        final BitSet especiales; // bit i = día i del año (0 = 1 de enero)
+        final long cargadoEn; // 0 = invalidado
+
+        Anio(BitSet especiales, long cargadoEn) {
+            this.especiales = especiales;
+            this.cargadoEn = cargadoEn;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Anio> anios = new ConcurrentHashMap<>();
+
+    public boolean esDiaEspecial(LocalDate fecha) {
+        return obtenerAnio(fecha.getYear()).get(fecha.getDayOfYear() - 1);
+    }
+
+    public Set<LocalDate> obtenerDiasEspeciales(LocalDate desde, LocalDate hasta) {
+        Set<LocalDate> especiales = new HashSet<>();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            if (esDiaEspecial(fecha)) {
+                especiales.add(fecha);
+            }
+        }
+        return especiales;
+    }
+
+    // El año de la fecha está en memoria y vigente: consultarlo no llamará a tarifa-dias-especiales
+    public boolean tieneVigente(LocalDate fecha) {
+        return vigente(anios.get(fecha.getYear()));
+    }
+
+    // Los años guardados dejan de estar vigentes pero se conservan por si la recarga falla
+    public void invalidar() {
+        anios.replaceAll((anio, copia) -> new Anio(copia.especiales, 0));
+    }
+
+    private boolean vigente(Anio copia) {
+        return copia != null && copia.cargadoEn > 0 && System.currentTimeMillis() - copia.cargadoEn < ttlMs;
+    }
+
+    // compute deja una sola descarga por año: las peticiones que llegan mientras tanto esperan y usan su resultado.
+    // Son pocos años y la lectura de un año vigente no pasa por aquí, así que el bloqueo no se nota
+    private BitSet obtenerAnio(int anio) {
+        Anio actual = anios.get(anio);
+        if (vigente(actual)) {
+            return actual.especiales;
+        }
+        return anios.compute(anio, (clave, previo) -> {
+            if (vigente(previo)) {
+                return previo;
+            }
+            try {
+                return new Anio(descargarAnio(clave), System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                if (previo == null) {
+                    throw e;
+                }
+                System.err.println("No se pudieron recargar los días especiales de " + clave
+                        + ", se usa la copia anterior: " + e.getMessage());
+                return previo;
+            }
+        }).especiales;
+    }
+
+    private BitSet descargarAnio(int anio) {
+        String url = UriComponentsBuilder.fromHttpUrl("http://tarifa-dias-especiales/api/tarifasDiasEspeciales/diasEspeciales")
+                .queryParam("desde", LocalDate.of(anio, 1, 1))
+                .queryParam("hasta", LocalDate.of(anio, 12, 31))
+                .toUriString();
+        DiasEspecialesDTO respuesta = restTemplate.getForObject(url, DiasEspecialesDTO.class);
+        if (respuesta == null || respuesta.getBits() == null) {
+            throw new RuntimeException("tarifa-dias-especiales no entregó los días especiales de " + anio);
+        }
+        return BitSet.valueOf(Base64.getDecoder().decode(respuesta.getBits()));
+    }
+}
@@ -42,86 +42,93 @@ public class ComprobanteService {
             Map<String, String> nombreCorreo,
             List<String> correosCumpleaneros
     ) {
-        double totalSinIva = 0.0;
+        return comprobanteRepository.save(calcularComprobante(tarifa, descuentoCumpleaneros, maxCumpleanerosConDescuento,
+                descuentoPorCantidadDePersonas, descuentoPorFrecuenciaCliente,
+                nombreCliente, correoCliente, nombreCorreo, correosCumpleaneros));
+    }
+
+    // Calcula el desglose por persona sin guardarlo; lo usan la creación de reservas y las cotizaciones
+    public Comprobante calcularComprobante(
+            double tarifa,
+            double descuentoCumpleaneros,
+            int maxCumpleanerosConDescuento,
+            double descuentoPorCantidadDePersonas,
+            double descuentoPorFrecuenciaCliente,
+            String nombreCliente,
+            String correoCliente,
+            Map<String, String> nombreCorreo,
+            List<String> correosCumpleaneros
+    ) {
         int cumpleDescuentoAsignado = 0;
-        List<DetallePagoPorPersona> detalles = new ArrayList<>();
+
+        // Primero se decide el descuento de cada persona; el cliente principal va al final
+        int personas = nombreCorreo.size() + 1;
+        String[] nombres = new String[personas];
+        String[] tiposDescuento = new String[personas];
+        double[] fracciones = new double[personas];
+        int[] descuentos = new int[personas];
+        int n = 0;
 
         // Procesar acompañantes (grupo excepto cliente principal)
         for (Map.Entry<String, String> entry : nombreCorreo.entrySet()) {
-            String nombre = entry.getKey();
             String correo = entry.getValue();
-
-            double descuentoAplicado = 0.0;
-            String tipoDescuento = "Ninguno";
+            nombres[n] = entry.getKey();
+            tiposDescuento[n] = "Ninguno";
 
             if (correosCumpleaneros.contains(correo) && cumpleDescuentoAsignado < maxCumpleanerosConDescuento) {
-                descuentoAplicado = descuentoCumpleaneros;
-                tipoDescuento = "Cumpleaños";
+                fracciones[n] = descuentoCumpleaneros;
+                tiposDescuento[n] = "Cumpleaños";
                 cumpleDescuentoAsignado++;
             } else if (descuentoPorCantidadDePersonas > 0) {
-                descuentoAplicado = descuentoPorCantidadDePersonas;
-                tipoDescuento = "Grupal";
+                fracciones[n] = descuentoPorCantidadDePersonas;
+                tiposDescuento[n] = "Grupal";
             }
-
-            double montoSinIva = tarifa * (1 - descuentoAplicado);
-            double iva = montoSinIva * 0.19;
-            double totalConIva = montoSinIva + iva;
-            totalSinIva += montoSinIva;
-
-            DetallePagoPorPersona detalle = new DetallePagoPorPersona();
-            detalle.setNombrePersona(nombre);
-            detalle.setPrecioBase(tarifa);
-            detalle.setTipoDescuento(tipoDescuento);
-            detalle.setPorcentajeDescuento(Math.round(descuentoAplicado * 100.0));
-            detalle.setMontoFinalSinIva(Math.round(montoSinIva * 100.0) / 100.0);
-            detalle.setIva(Math.round(iva * 100.0) / 100.0);
-            detalle.setTotalConIva(Math.round(totalConIva * 100.0) / 100.0);
-
-            detalles.add(detalle);
+            n++;
         }
 
         // Procesar cliente principal **separado**, con prioridad en descuentos (cumpleaños, frecuencia, grupal)
-        double descuentoAplicadoCliente = 0.0;
-        String tipoDescuentoCliente = "Ninguno";
+        nombres[n] = nombreCliente;
+        tiposDescuento[n] = "Ninguno";
 
         if (correosCumpleaneros.contains(correoCliente) && cumpleDescuentoAsignado < maxCumpleanerosConDescuento) {
-            descuentoAplicadoCliente = descuentoCumpleaneros;
-            tipoDescuentoCliente = "Cumpleaños";
+            fracciones[n] = descuentoCumpleaneros;
+            tiposDescuento[n] = "Cumpleaños";
             cumpleDescuentoAsignado++;
         } else if (descuentoPorFrecuenciaCliente > 0) {
-            descuentoAplicadoCliente = descuentoPorFrecuenciaCliente;
-            tipoDescuentoCliente = "Frecuencia";
+            fracciones[n] = descuentoPorFrecuenciaCliente;
+            tiposDescuento[n] = "Frecuencia";
         } else if (descuentoPorCantidadDePersonas > 0) {
-            descuentoAplicadoCliente = descuentoPorCantidadDePersonas;
-            tipoDescuentoCliente = "Grupal";
+            fracciones[n] = descuentoPorCantidadDePersonas;
+            tiposDescuento[n] = "Grupal";
         }
+        n++;
 
-        double montoSinIvaCliente = tarifa * (1 - descuentoAplicadoCliente);
-        double ivaCliente = montoSinIvaCliente * 0.19;
-        double totalConIvaCliente = montoSinIvaCliente + ivaCliente;
-        totalSinIva += montoSinIvaCliente;
-
-        DetallePagoPorPersona detalleCliente = new DetallePagoPorPersona();
-        detalleCliente.setNombrePersona(nombreCliente);
-        detalleCliente.setPrecioBase(tarifa);
-        detalleCliente.setTipoDescuento(tipoDescuentoCliente);
-        detalleCliente.setPorcentajeDescuento(Math.round(descuentoAplicadoCliente * 100.0));
-        detalleCliente.setMontoFinalSinIva(Math.round(montoSinIvaCliente * 100.0) / 100.0);
-        detalleCliente.setIva(Math.round(ivaCliente * 100.0) / 100.0);
-        detalleCliente.setTotalConIva(Math.round(totalConIvaCliente * 100.0) / 100.0);
-
-        detalles.add(detalleCliente);
+        // Montos en centavos: los totales son la suma exacta de las líneas
+        for (int i = 0; i < n; i++) {
+            descuentos[i] = CalculadoraPrecios.aPuntosBase(fracciones[i]);
+        }
+        CalculadoraPrecios.Desglose desglose = CalculadoraPrecios.calcular(CalculadoraPrecios.aCentavos(tarifa), descuentos);
 
-        double ivaTotal = totalSinIva * 0.19;
-        double totalConIva = totalSinIva + ivaTotal;
+        List<DetallePagoPorPersona> detalles = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            DetallePagoPorPersona detalle = new DetallePagoPorPersona();
+            detalle.setNombrePersona(nombres[i]);
+            detalle.setPrecioBase(tarifa);
+            detalle.setTipoDescuento(tiposDescuento[i]);
+            detalle.setPorcentajeDescuento(Math.round(fracciones[i] * 100.0));
+            detalle.setMontoFinalSinIva(CalculadoraPrecios.aMonto(desglose.getNetoCentavos(i)));
+            detalle.setIva(CalculadoraPrecios.aMonto(desglose.getIvaCentavos(i)));
+            detalle.setTotalConIva(CalculadoraPrecios.aMonto(desglose.getTotalCentavos(i)));
+            detalles.add(detalle);
+        }
 
         Comprobante comprobante = new Comprobante();
-        comprobante.setPrecio_final(Math.round(totalSinIva * 100.0) / 100.0);
-        comprobante.setIva(Math.round(ivaTotal * 100.0) / 100.0);
-        comprobante.setMonto_total_iva(Math.round(totalConIva * 100.0) / 100.0);
+        comprobante.setPrecio_final(CalculadoraPrecios.aMonto(desglose.getTotalNetoCentavos()));
+        comprobante.setIva(CalculadoraPrecios.aMonto(desglose.getTotalIvaCentavos()));
+        comprobante.setMonto_total_iva(CalculadoraPrecios.aMonto(desglose.getTotalCentavos()));
         comprobante.setDetallesPago(detalles);
 
-        return comprobanteRepository.save(comprobante);
+        return comprobante;
     }
 
 
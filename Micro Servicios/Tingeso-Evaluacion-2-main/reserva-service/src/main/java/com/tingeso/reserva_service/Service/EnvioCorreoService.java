@@ -0,0 +1,229 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.DTO.EstadoEnviosDTO;
+import com.tingeso.reserva_service.Entity.EnvioCorreo;
+import com.tingeso.reserva_service.Repository.EnvioCorreoRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EnvioCorreoService {
+
+    @Autowired
+    private EnvioCorreoRepository envioCorreoRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private GeneradorPdfService generadorPdfService;
+
+    @Autowired
+    @Qualifier("enviosCorreoExecutor")
+    private ThreadPoolExecutor enviosCorreoExecutor;
+
+    @Value("${reserva.envios.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${reserva.envios.backoff-inicial-ms:2000}")
+    private long backoffInicialMs;
+
+    @Value("${reserva.envios.backoff-maximo-ms:300000}")
+    private long backoffMaximoMs;
+
+    // Debe superar lo que tarda un envío en la cola del pool más el PDF y el SMTP
+    @Value("${reserva.envios.plazo-reclamo-ms:600000}")
+    private long plazoReclamoMs;
+
+    // Métricas de entrega desde que partió el servicio
+    private final AtomicLong entregados = new AtomicLong();
+    private final AtomicLong latenciaTotalMs = new AtomicLong();
+    private final AtomicLong latenciaMaximaMs = new AtomicLong();
+
+    //----------------------------- ENCOLAR -----------------------------
+
+    // Se llama dentro de la misma transacción que guarda la reserva: si la reserva no se confirma, no hay correos
+    public List<EnvioCorreo> encolarCorreosReserva(int idReserva, String resumen, Collection<String> destinatarios) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EnvioCorreo> envios = new ArrayList<>();
+
+        for (String destinatario : destinatarios) {
+            if (destinatario == null || destinatario.trim().isEmpty()) {
+                continue;
+            }
+            EnvioCorreo envio = new EnvioCorreo();
+            envio.setIdReserva(idReserva);
+            envio.setDestinatario(destinatario.trim());
+            envio.setResumen(resumen);
+            envio.setEstado(EnvioCorreo.Estado.PENDIENTE);
+            envio.setIntentos(0);
+            envio.setFechaCreacion(ahora);
+            envio.setProximoIntento(ahora);
+            envios.add(envio);
+        }
+
+        return envioCorreoRepository.saveAll(envios);
+    }
+
+    //----------------------------- DESPACHO -----------------------------
+
+    // Los envíos de una instancia que se cayó vuelven a la cola cuando vence su plazo;
+    // los que otras instancias siguen procesando no se tocan
+    @Scheduled(fixedDelayString = "${reserva.envios.recuperacion-ms:60000}")
+    public void recuperarEnviosInterrumpidos() {
+        int liberados = envioCorreoRepository.liberarReclamosVencidos(EnvioCorreo.Estado.EN_PROCESO,
+                EnvioCorreo.Estado.PENDIENTE, LocalDateTime.now().minus(Duration.ofMillis(plazoReclamoMs)));
+        if (liberados > 0) {
+            System.err.println(liberados + " envíos de correo con el plazo vencido volvieron a la cola.");
+        }
+    }
+
+    // Toma los envíos vencidos y los reparte al pool, sin superar la capacidad libre de su cola
+    @Scheduled(fixedDelayString = "${reserva.envios.intervalo-ms:1000}")
+    public synchronized void despachar() {
+        int capacidadLibre = enviosCorreoExecutor.getQueue().remainingCapacity();
+        if (capacidadLibre == 0) {
+            return;
+        }
+
+        List<EnvioCorreo> listos = envioCorreoRepository.findListosParaEnviar(
+                EnvioCorreo.Estado.PENDIENTE, LocalDateTime.now(), PageRequest.of(0, capacidadLibre));
+
+        for (EnvioCorreo envio : listos) {
+            LocalDateTime ahora = LocalDateTime.now();
+            // Otra instancia pudo reclamarlo entre la consulta y este UPDATE
+            if (envioCorreoRepository.reclamar(envio.getId(), EnvioCorreo.Estado.PENDIENTE,
+                    EnvioCorreo.Estado.EN_PROCESO, ahora) == 0) {
+                continue;
+            }
+            envio.setEstado(EnvioCorreo.Estado.EN_PROCESO);
+            envio.setReclamadoEn(ahora);
+            try {
+                enviosCorreoExecutor.execute(() -> procesarEnvio(envio));
+            } catch (RejectedExecutionException e) {
+                envio.setEstado(EnvioCorreo.Estado.PENDIENTE);
+                envio.setReclamadoEn(null);
+                envioCorreoRepository.save(envio);
+                return;
+            }
+        }
+    }
+
+    // Cada envío abre su propia traza con el PDF y el SMTP como hijos; se procesa fuera de la petición que lo encoló
+    public void procesarEnvio(EnvioCorreo envio) {
+        Trazas.enTraza("correo.procesar", () -> {
+            enviarYRegistrar(envio);
+            return null;
+        });
+    }
+
+    private void enviarYRegistrar(EnvioCorreo envio) {
+        try {
+            byte[] pdf = generadorPdfService.generarPDFReserva(envio.getResumen());
+            Timer.Sample muestra = Timer.start();
+            String resultado = "error";
+            try {
+                Trazas.enSpan("smtp.enviar", () -> {
+                    enviarCorreoReservaConPDF(envio.getDestinatario(), "Resumen de reserva", pdf);
+                    return null;
+                });
+                resultado = "exito";
+            } finally {
+                muestra.stop(Metrics.timer("reserva.correo.enviar", "resultado", resultado));
+            }
+
+            LocalDateTime ahora = LocalDateTime.now();
+            envio.setEstado(EnvioCorreo.Estado.ENVIADO);
+            envio.setIntentos(envio.getIntentos() + 1);
+            envio.setFechaEnvio(ahora);
+            envio.setUltimoError(null);
+            envioCorreoRepository.save(envio);
+
+            registrarLatencia(Duration.between(envio.getFechaCreacion(), ahora).toMillis());
+        } catch (Exception e) {
+            registrarFallo(envio, e);
+        }
+    }
+
+    // Reintento con backoff exponencial; al agotar los intentos el envío queda como FALLIDO
+    private void registrarFallo(EnvioCorreo envio, Exception e) {
+        int intentos = envio.getIntentos() + 1;
+        envio.setIntentos(intentos);
+
+        String mensaje = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        envio.setUltimoError(mensaje.length() > 1000 ? mensaje.substring(0, 1000) : mensaje);
+
+        if (intentos >= maxIntentos) {
+            envio.setEstado(EnvioCorreo.Estado.FALLIDO);
+            System.err.println("Envío de correo a " + envio.getDestinatario() + " descartado tras " + intentos + " intentos: " + mensaje);
+        } else {
+            envio.setEstado(EnvioCorreo.Estado.PENDIENTE);
+            envio.setProximoIntento(LocalDateTime.now().plus(Duration.ofMillis(calcularBackoffMs(intentos))));
+            System.err.println("Error al enviar correo a " + envio.getDestinatario() + " (intento " + intentos + "): " + mensaje);
+        }
+        envioCorreoRepository.save(envio);
+    }
+
+    long calcularBackoffMs(int intentos) {
+        long espera = backoffInicialMs << Math.min(intentos - 1, 20);
+        return Math.min(espera, backoffMaximoMs);
+    }
+
+    private void registrarLatencia(long latenciaMs) {
+        entregados.incrementAndGet();
+        latenciaTotalMs.addAndGet(latenciaMs);
+        latenciaMaximaMs.accumulateAndGet(latenciaMs, Math::max);
+    }
+
+    //----------------------------- ESTADO -----------------------------
+
+    public EstadoEnviosDTO obtenerEstado() {
+        long totalEntregados = entregados.get();
+        double latenciaPromedio = totalEntregados == 0 ? 0.0 : (double) latenciaTotalMs.get() / totalEntregados;
+
+        return new EstadoEnviosDTO(
+                envioCorreoRepository.countByEstado(EnvioCorreo.Estado.PENDIENTE),
+                envioCorreoRepository.countByEstado(EnvioCorreo.Estado.EN_PROCESO),
+                envioCorreoRepository.countByEstado(EnvioCorreo.Estado.ENVIADO),
+                envioCorreoRepository.countByEstado(EnvioCorreo.Estado.FALLIDO),
+                enviosCorreoExecutor.getQueue().size(),
+                enviosCorreoExecutor.getActiveCount(),
+                totalEntregados,
+                latenciaPromedio,
+                latenciaMaximaMs.get()
+        );
+    }
+
+    // ==================== ENVÍO DE CORREO ====================
+
+    public void enviarCorreoReservaConPDF(String correo, String cuerpo, byte[] archivoPdf) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, true);
+        helper.setTo(correo);
+        helper.setSubject("Resumen de tu Reserva");
+        helper.setText(cuerpo, true);
+        helper.addAttachment("Resumen_Reserva.pdf", new ByteArrayResource(archivoPdf));
+        mailSender.send(mensaje);
+        System.out.println("Correo enviado a " + correo);
+    }
+}
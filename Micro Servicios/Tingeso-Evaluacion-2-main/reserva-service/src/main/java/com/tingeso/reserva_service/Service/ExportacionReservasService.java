@@ -0,0 +1,115 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.Entity.Reserva;
+import com.tingeso.reserva_service.Repository.ReservaRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Exporta reservas como JSON delimitado por saltos de línea (una reserva por línea).
+ * Se leen páginas por cursor y cada una se escribe y se envía antes de pedir la siguiente,
+ * así la memoria usada no depende de cuántas reservas existan.
+ */
+@Service
+public class ExportacionReservasService {
+
+    public static final String TIPO_CONTENIDO = "application/x-ndjson";
+
+    // Límites usados cuando no se acota el rango de fechas
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1970, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    static final int TAMANO_PAGINA = 500;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+    }
+
+    // Escribe las reservas con fechaInicio entre desde y hasta (inclusive) y devuelve cuántas se escribieron
+    public long exportar(LocalDate desde, LocalDate hasta, OutputStream salida) throws IOException {
+        validarRango(desde, hasta);
+        LocalDate fin = hasta != null ? hasta : FECHA_MAXIMA;
+
+        ObjectWriter escritor = objectMapper.writerFor(Reserva.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Cada página se lee en su propia transacción de solo lectura: dos consultas (reservas con comprobante
+        // y detalles de pago) y las entidades se descartan al terminarla
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+
+        Cursor cursor = new Cursor(desde != null ? desde : FECHA_MINIMA);
+        long escritas = 0;
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(null);
+
+            int leidas;
+            do {
+                leidas = transaccion.execute(status -> escribirPagina(fin, cursor, escritor, generador));
+                escritas += leidas;
+                generador.flush();
+            } while (leidas == TAMANO_PAGINA);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return escritas;
+    }
+
+    private int escribirPagina(LocalDate fin, Cursor cursor, ObjectWriter escritor, JsonGenerator generador) {
+        List<Reserva> pagina = reservaRepository.findPorRangoDeFechasDespuesDe(
+                fin, cursor.fecha, cursor.hora, cursor.id, PageRequest.of(0, TAMANO_PAGINA));
+        reservaRepository.cargarDetallesPagoDe(pagina);
+        try {
+            for (Reserva reserva : pagina) {
+                escritor.writeValue(generador, reserva);
+                generador.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            // El cliente cerró la conexión o la escritura falló
+            throw new UncheckedIOException(e);
+        }
+        if (!pagina.isEmpty()) {
+            Reserva ultima = pagina.get(pagina.size() - 1);
+            cursor.fecha = ultima.getFechaInicio();
+            cursor.hora = ultima.getHoraInicio();
+            cursor.id = ultima.getId();
+        }
+        return pagina.size();
+    }
+
+    // Posición de la última reserva escrita
+    private static final class Cursor {
+        LocalDate fecha;
+        LocalTime hora = LocalTime.MIN;
+        int id = 0;
+
+        Cursor(LocalDate fecha) {
+            this.fecha = fecha;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.Entity.Reserva;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+// Mantiene al día el calendario de disponibilidad de rack-semanal sin agregar latencia a la reserva.
+// Si un aviso se pierde, rack-semanal lo corrige en su próxima reconstrucción periódica
+@Service
+public class NotificadorRackSemanal {
+
+    private static final String URL_CALENDARIO = "http://rack-semanal-service/api/rackSemanal/calendario/reservas";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("notificacionesExecutor")
+    private ExecutorService notificacionesExecutor;
+
+    public void reservaCreada(Reserva reserva) {
+        Map<String, Object> bloque = new LinkedHashMap<>();
+        bloque.put("id", reserva.getId());
+        bloque.put("nombreCliente", reserva.getNombreCliente());
+        bloque.put("fechaInicio", reserva.getFechaInicio().toString());
+        bloque.put("horaInicio", reserva.getHoraInicio().toString());
+        bloque.put("horaFin", reserva.getHoraFin().toString());
+        enviar(() -> restTemplate.postForLocation(URL_CALENDARIO, bloque));
+    }
+
+    public void reservaEliminada(int idReserva) {
+        enviar(() -> restTemplate.delete(URL_CALENDARIO + "/{id}", idReserva));
+    }
+
+    private void enviar(Runnable aviso) {
+        notificacionesExecutor.execute(() -> {
+            try {
+                aviso.run();
+            } catch (RuntimeException e) {
+                Metrics.counter("reserva.notificaciones.fallidas", "destino", "rack-semanal-service").increment();
+                System.err.println("No se pudo avisar a rack-semanal-service: " + e.getMessage());
+            }
+        });
+    }
+}
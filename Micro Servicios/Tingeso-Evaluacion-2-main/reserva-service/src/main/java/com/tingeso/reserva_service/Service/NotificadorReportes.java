@@ -0,0 +1,66 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.Entity.Reserva;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+// Mantiene al día los resúmenes mensuales de ingresos de reportes-service sin agregar latencia a la reserva.
+// Si un aviso se pierde, reportes-service lo corrige en su próxima conciliación periódica
+@Service
+public class NotificadorReportes {
+
+    private static final String URL_RESUMENES = "http://reportes-service/api/reportes/resumenes/reservas";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("notificacionesExecutor")
+    private ExecutorService notificacionesExecutor;
+
+    public void reservaCreada(Reserva reserva) {
+        Map<String, Object> datos = datosParaResumen(reserva);
+        enviar(() -> restTemplate.postForLocation(URL_RESUMENES, datos));
+    }
+
+    // Se envían los datos completos: si la reserva entró a los resúmenes por una reconstrucción, reportes-service
+    // no tiene registro propio de su aporte
+    public void reservaEliminada(Reserva reserva) {
+        Map<String, Object> datos = datosParaResumen(reserva);
+        enviar(() -> restTemplate.postForLocation(URL_RESUMENES + "/eliminadas", datos));
+    }
+
+    private Map<String, Object> datosParaResumen(Reserva reserva) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("id", reserva.getId());
+        datos.put("num_vueltas_tiempo_maximo", reserva.getNum_vueltas_tiempo_maximo());
+        datos.put("num_personas", reserva.getNum_personas());
+        datos.put("fechaInicio", reserva.getFechaInicio().toString());
+        if (reserva.getComprobante() != null) {
+            Map<String, Object> comprobante = new LinkedHashMap<>();
+            comprobante.put("precio_final", reserva.getComprobante().getPrecio_final());
+            comprobante.put("iva", reserva.getComprobante().getIva());
+            comprobante.put("monto_total_iva", reserva.getComprobante().getMonto_total_iva());
+            datos.put("comprobante", comprobante);
+        }
+        return datos;
+    }
+
+    private void enviar(Runnable aviso) {
+        notificacionesExecutor.execute(() -> {
+            try {
+                aviso.run();
+            } catch (RuntimeException e) {
+                Metrics.counter("reserva.notificaciones.fallidas", "destino", "reportes-service").increment();
+                System.err.println("No se pudo avisar a reportes-service: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -1,5 +1,10 @@
 package com.tingeso.reserva_service.Service;
 
+import com.tingeso.reserva_service.DTO.CotizacionDTO;
+import com.tingeso.reserva_service.DTO.HorarioReservaDTO;
+import com.tingeso.reserva_service.DTO.IngresoMensualDTO;
+import com.tingeso.reserva_service.DTO.PaginaHorariosDTO;
+import com.tingeso.reserva_service.DTO.PaginaReservasDTO;
 import com.tingeso.reserva_service.Entity.Comprobante;
 import com.tingeso.reserva_service.Entity.Reserva;
 import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
@@ -7,28 +12,38 @@ import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
 import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
 import com.tingeso.reserva_service.Model.TarifaDuracion;
 import com.tingeso.reserva_service.Repository.ReservaRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
-import java.io.File;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class ReservaService {
@@ -37,18 +52,44 @@ public class ReservaService {
     private ReservaRepository reservaRepository;
 
     @Autowired
-    RestTemplate restTemplate;
+    private ClienteDiasEspeciales clienteDiasEspeciales;
+
+    @Autowired
+    private EnvioCorreoService envioCorreoService;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
     private ComprobanteService comprobanteService;
 
+    @Autowired
+    private CachePreciosService cachePreciosService;
+
+    @Autowired
+    private IndiceHorarios indiceHorarios;
+
+    @Autowired
+    private NotificadorRackSemanal notificadorRackSemanal;
+
+    @Autowired
+    private NotificadorReportes notificadorReportes;
+
+    @Autowired
+    private BloqueosPorDia bloqueosPorDia;
+
+    @Autowired
+    @Qualifier("consultasTarifasExecutor")
+    private ExecutorService consultasTarifasExecutor;
+
+    // Plazo total para obtener todas las tarifas y descuentos de una reserva
+    @Value("${reserva.consultas.timeout-ms:5000}")
+    private long timeoutConsultasMs;
+
     //----------------------------- CRUD -----------------------------
     //Obtener todas las reservas
     public List<Reserva> getAllReservas() {
-        return reservaRepository.findAll();
+        return reservaRepository.findAllConDetalles();
     }
 
     //Obtener reserva por Id
@@ -64,46 +105,329 @@ public class ReservaService {
     }
 
     public void deleteReserva(Integer id) {
+        // reportes-service necesita los datos de la reserva para descontarla de sus resúmenes
+        Optional<Reserva> reserva = reservaRepository.findById(id);
         reservaRepository.deleteById(id);
+        indiceHorarios.eliminar(id);
+        notificadorRackSemanal.reservaEliminada(id);
+        reserva.ifPresent(notificadorReportes::reservaEliminada);
+    }
+
+    //----------------------------- CONSULTAS PAGINADAS -----------------------------
+    // Límites usados cuando el cliente no acota el rango de fechas
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1970, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+    private static final int LIMITE_MAXIMO_PAGINA = 500;
+
+    // Reservas con fechaInicio entre desde y hasta (inclusive), ordenadas por fecha, hora e id.
+    // El cursor tiene la forma "fecha_hora_id" de la última reserva de la página anterior
+    @Transactional(readOnly = true)
+    public PaginaReservasDTO obtenerReservasPorRango(LocalDate desde, LocalDate hasta, String cursor, int limite) {
+        CursorRango posicion = CursorRango.leer(desde, hasta, cursor);
+        int tamano = validarLimite(limite);
+        // Se pide una fila extra solo para saber si existe una página siguiente
+        List<Reserva> reservas = reservaRepository.findPorRangoDeFechasDespuesDe(posicion.fin, posicion.ultimaFecha,
+                posicion.ultimaHora, posicion.ultimoId, PageRequest.of(0, tamano + 1));
+
+        String siguienteCursor = null;
+        if (reservas.size() > tamano) {
+            reservas = reservas.subList(0, tamano);
+            Reserva ultima = reservas.get(tamano - 1);
+            siguienteCursor = CursorRango.escribir(ultima.getFechaInicio(), ultima.getHoraInicio(), ultima.getId());
+        }
+        reservaRepository.cargarDetallesPagoDe(reservas);
+        return new PaginaReservasDTO(reservas, siguienteCursor);
+    }
+
+    // Igual que obtenerReservasPorRango, pero solo con id, cliente y horario; no toca los comprobantes
+    public PaginaHorariosDTO obtenerHorariosPorRango(LocalDate desde, LocalDate hasta, String cursor, int limite) {
+        CursorRango posicion = CursorRango.leer(desde, hasta, cursor);
+        int tamano = validarLimite(limite);
+        List<HorarioReservaDTO> horarios = reservaRepository.findHorariosPorRangoDespuesDe(posicion.fin,
+                posicion.ultimaFecha, posicion.ultimaHora, posicion.ultimoId, PageRequest.of(0, tamano + 1));
+
+        String siguienteCursor = null;
+        if (horarios.size() > tamano) {
+            horarios = horarios.subList(0, tamano);
+            HorarioReservaDTO ultimo = horarios.get(tamano - 1);
+            siguienteCursor = CursorRango.escribir(ultimo.getFechaInicio(), ultimo.getHoraInicio(), ultimo.getId());
+        }
+        return new PaginaHorariosDTO(horarios, siguienteCursor);
+    }
+
+    // Rango pedido y posición desde la que continúa la página
+    private static final class CursorRango {
+        final LocalDate fin;
+        LocalDate ultimaFecha;
+        LocalTime ultimaHora = LocalTime.MIN;
+        int ultimoId = 0;
+
+        private CursorRango(LocalDate inicio, LocalDate fin) {
+            this.fin = fin;
+            this.ultimaFecha = inicio;
+        }
+
+        static CursorRango leer(LocalDate desde, LocalDate hasta, String cursor) {
+            LocalDate inicio = desde != null ? desde : FECHA_MINIMA;
+            LocalDate fin = hasta != null ? hasta : FECHA_MAXIMA;
+            if (inicio.isAfter(fin)) {
+                throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+            }
+
+            CursorRango posicion = new CursorRango(inicio, fin);
+            if (cursor != null && !cursor.isEmpty()) {
+                String[] partes = cursor.split("_");
+                try {
+                    posicion.ultimaFecha = LocalDate.parse(partes[0]);
+                    posicion.ultimaHora = LocalTime.parse(partes[1]);
+                    posicion.ultimoId = Integer.parseInt(partes[2]);
+                } catch (ArrayIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                    throw new IllegalArgumentException("Cursor inválido: " + cursor);
+                }
+                if (posicion.ultimaFecha.isBefore(inicio)) {
+                    return new CursorRango(inicio, fin);
+                }
+            }
+            return posicion;
+        }
+
+        static String escribir(LocalDate fecha, LocalTime hora, int id) {
+            return fecha + "_" + hora + "_" + id;
+        }
+    }
+
+    // Reserva que ocupa exactamente el bloque indicado
+    public Optional<Reserva> obtenerReservaPorHorario(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        return reservaRepository.findFirstByFechaInicioAndHoraInicioAndHoraFin(fecha, horaInicio, horaFin);
+    }
+
+    // Reservas de un usuario ordenadas por id; el cursor es el id de la última reserva entregada
+    @Transactional(readOnly = true)
+    public PaginaReservasDTO obtenerReservasPorUsuario(int idUsuario, String cursor, int limite) {
+        int ultimoId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                ultimoId = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+
+        int tamano = validarLimite(limite);
+        List<Reserva> reservas = reservaRepository.findByIdUsuarioAndIdGreaterThanOrderByIdAsc(
+                idUsuario, ultimoId, PageRequest.of(0, tamano + 1));
+
+        String siguienteCursor = null;
+        if (reservas.size() > tamano) {
+            reservas = reservas.subList(0, tamano);
+            siguienteCursor = String.valueOf(reservas.get(tamano - 1).getId());
+        }
+        reservaRepository.cargarDetallesPagoDe(reservas);
+        return new PaginaReservasDTO(reservas, siguienteCursor);
+    }
+
+    private int validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_PAGINA + ".");
+        }
+        return limite;
+    }
+
+    //----------------------------- AGREGACIONES -----------------------------
+
+    // Ingresos por mes, vueltas y personas para los reportes; sin fechas abarca todas las reservas
+    public List<IngresoMensualDTO> obtenerIngresosMensuales(LocalDate desde, LocalDate hasta) {
+        LocalDate inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDate fin = hasta != null ? hasta : FECHA_MAXIMA;
+        if (inicio.isAfter(fin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+
+        List<IngresoMensualDTO> ingresos = new ArrayList<>();
+        for (ReservaRepository.IngresoMensual fila : reservaRepository.sumarIngresosPorMes(inicio, fin)) {
+            ingresos.add(new IngresoMensualDTO(fila.getAnio(), fila.getMes(), fila.getVueltas(), fila.getPersonas(),
+                    fila.getCantidad(), fila.getMontoTotalIva(), fila.getMontoTotalIvaPesosEnteros()));
+        }
+        return ingresos;
     }
 
     //----------------- METODOS PARA OBTENER DATOS DE MICROSERVICIOS ---------------------
 
+    // Tarifas y descuentos se leen de la copia local; solo se llama al microservicio si la copia venció
     public TarifaDuracion obtenerTarifaNormal(int numVueltas_TiempoMaximo){
-        TarifaDuracion tarifaDuracion = restTemplate.getForObject("http://tarifa-duracion-reserva-service/api/tarifasDuracion/buscarPorVueltas?numVueltas=" + numVueltas_TiempoMaximo, TarifaDuracion.class);
-        return tarifaDuracion;
+        return cachePreciosService.obtenerTarifaDuracion(numVueltas_TiempoMaximo);
     }
 
     public DescuentoPorPersonas obtenerDescuentoPorCantidadDePersonas(int numPersonas){
-        DescuentoPorPersonas descuentoPorPersonas = restTemplate.getForObject("http://descuento-por-personas-service/api/descuentoPorNumPersonas/buscarDescuento/" + numPersonas, DescuentoPorPersonas.class);
-        return descuentoPorPersonas;
+        return cachePreciosService.obtenerDescuentoPorPersonas(numPersonas);
     }
 
     public DescuentoPorClienteFrecuente obtenerDescuentoPorFrecuenciaDeCliente(int numFrecuencia){
-        DescuentoPorClienteFrecuente descuentoPorClienteFrecuente = restTemplate.getForObject("http://descuento-por-cliente-frecuente/api/descuentoPorClienteFrecuente/obtenerPorFrecuencia/" + numFrecuencia, DescuentoPorClienteFrecuente.class);
-        return descuentoPorClienteFrecuente;
+        return cachePreciosService.obtenerDescuentoPorClienteFrecuente(numFrecuencia);
     }
 
     public TarifaDiasEspeciales obtenerTarifaParaDiasEspeciales(int numVueltas, int cantidadCumpleaneros){
-        TarifaDiasEspeciales tarifaDiasEspeciales = restTemplate.getForObject("http://tarifa-dias-especiales/api/tarifasDiasEspeciales/buscarTarifaPorVueltasYPersonas?numVueltas=" + numVueltas + "&cantidadCumpleaneros=" + cantidadCumpleaneros, TarifaDiasEspeciales.class);
-        return tarifaDiasEspeciales;
+        return cachePreciosService.obtenerTarifaDiasEspeciales(numVueltas, cantidadCumpleaneros);
     }
 
     public boolean saberSiEsFinDeSemana_Feriado(LocalDate fecha){
-        boolean esDiaEspecial = restTemplate.getForObject("http://tarifa-dias-especiales/api/tarifasDiasEspeciales/esDiaEspecial?fecha=" + fecha, Boolean.class);
-        return esDiaEspecial;
+        return clienteDiasEspeciales.esDiaEspecial(fecha);
+    }
+
+    // Lanza la consulta en el pool acotado; si falla, el error indica qué microservicio la provocó.
+    // Con el pool y su cola llenos no se espera turno: la reserva falla ya, como si se hubiera agotado el plazo
+    private <T> CompletableFuture<T> consultarAsync(String nombreConsulta, Supplier<T> consulta) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return consulta.get();
+                } catch (RuntimeException e) {
+                    throw new RuntimeException("Error al consultar " + nombreConsulta + ": " + e.getMessage(), e);
+                }
+            }, consultasTarifasExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Tiempo de espera agotado: no hay hilos libres para consultar " + nombreConsulta + ".", e);
+        }
+    }
+
+    // Espera todas las consultas con un único plazo; ante el primer error o timeout cancela las pendientes
+    private void esperarConsultas(CompletableFuture<?>... consultas) {
+        CompletableFuture<Void> todas = CompletableFuture.allOf(consultas);
+        try {
+            todas.get(timeoutConsultasMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelarConsultas(consultas);
+            throw new RuntimeException("Tiempo de espera agotado (" + timeoutConsultasMs + " ms) al obtener tarifas y descuentos.");
+        } catch (ExecutionException e) {
+            cancelarConsultas(consultas);
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new RuntimeException(causa);
+        } catch (InterruptedException e) {
+            cancelarConsultas(consultas);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Consulta de tarifas y descuentos interrumpida.", e);
+        }
+    }
+
+    private void cancelarConsultas(CompletableFuture<?>... consultas) {
+        for (CompletableFuture<?> consulta : consultas) {
+            consulta.cancel(true);
+        }
+    }
+
+    // Tarifas y descuentos que necesita una reserva, obtenidos en una sola pasada
+    private static final class DatosTarifa {
+        final boolean esFinDeSemanaFeriado;
+        final double tarifa;
+        final TarifaDiasEspeciales tarifaDiasEspeciales;
+        final DescuentoPorPersonas descuentoPorPersonas;
+        final DescuentoPorClienteFrecuente descuentoPorClienteFrecuente;
+
+        DatosTarifa(boolean esFinDeSemanaFeriado, double tarifa, TarifaDiasEspeciales tarifaDiasEspeciales,
+                    DescuentoPorPersonas descuentoPorPersonas, DescuentoPorClienteFrecuente descuentoPorClienteFrecuente) {
+            this.esFinDeSemanaFeriado = esFinDeSemanaFeriado;
+            this.tarifa = tarifa;
+            this.tarifaDiasEspeciales = tarifaDiasEspeciales;
+            this.descuentoPorPersonas = descuentoPorPersonas;
+            this.descuentoPorClienteFrecuente = descuentoPorClienteFrecuente;
+        }
+    }
+
+    private DatosTarifa obtenerDatosTarifa(int numVueltas_TiempoMaximo, int numPersonas, int numFrecuenciaCliente,
+                                           LocalDate fechaInicio) {
+        // Con las copias locales vigentes todo se lee de memoria, así que se resuelve en este hilo
+        if (cachePreciosService.todasVigentes() && clienteDiasEspeciales.tieneVigente(fechaInicio)) {
+            boolean esFinDeSemanaFeriado = saberSiEsFinDeSemana_Feriado(fechaInicio);
+            TarifaDiasEspeciales tarifaDiasEspeciales = obtenerTarifaParaDiasEspeciales(numVueltas_TiempoMaximo, numPersonas);
+            double tarifa = esFinDeSemanaFeriado
+                    ? tarifaDiasEspeciales.getTarifa()
+                    : obtenerTarifaNormal(numVueltas_TiempoMaximo).getTarifa();
+            return new DatosTarifa(esFinDeSemanaFeriado, tarifa, tarifaDiasEspeciales,
+                    obtenerDescuentoPorCantidadDePersonas(numPersonas),
+                    obtenerDescuentoPorFrecuenciaDeCliente(numFrecuenciaCliente));
+        }
+
+        // Alguna copia venció y habrá que llamar a los microservicios: en paralelo, con un único plazo,
+        // y la latencia es la del más lento
+        CompletableFuture<Boolean> esFinDeSemanaFeriadoFuture = consultarAsync("saberSiEsFinDeSemana_Feriado",
+                () -> saberSiEsFinDeSemana_Feriado(fechaInicio));
+        CompletableFuture<TarifaDuracion> tarifaDuracionFuture = consultarAsync("obtenerTarifaNormal",
+                () -> obtenerTarifaNormal(numVueltas_TiempoMaximo));
+        CompletableFuture<TarifaDiasEspeciales> tarifaDiasEspecialesFuture = consultarAsync("obtenerTarifaParaDiasEspeciales",
+                () -> obtenerTarifaParaDiasEspeciales(numVueltas_TiempoMaximo, numPersonas));
+        CompletableFuture<DescuentoPorPersonas> descuentoPorPersonasFuture = consultarAsync("obtenerDescuentoPorCantidadDePersonas",
+                () -> obtenerDescuentoPorCantidadDePersonas(numPersonas));
+        CompletableFuture<DescuentoPorClienteFrecuente> descuentoPorFrecuenciaFuture = consultarAsync("obtenerDescuentoPorFrecuenciaDeCliente",
+                () -> obtenerDescuentoPorFrecuenciaDeCliente(numFrecuenciaCliente));
+
+        esperarConsultas(esFinDeSemanaFeriadoFuture, tarifaDuracionFuture, tarifaDiasEspecialesFuture,
+                descuentoPorPersonasFuture, descuentoPorFrecuenciaFuture);
+
+        boolean esFinDeSemanaFeriado = esFinDeSemanaFeriadoFuture.join();
+        TarifaDiasEspeciales tarifaDiasEspeciales = tarifaDiasEspecialesFuture.join();
+        double tarifa;
+        if (esFinDeSemanaFeriado){
+            tarifa = tarifaDiasEspeciales.getTarifa();
+        }else{
+            tarifa = tarifaDuracionFuture.join().getTarifa();
+        }
+        return new DatosTarifa(esFinDeSemanaFeriado, tarifa, tarifaDiasEspeciales,
+                descuentoPorPersonasFuture.join(), descuentoPorFrecuenciaFuture.join());
     }
 
     //----------------- LOGICA AVANZADA ---------------------
+    // Carga en memoria los bloques ocupados desde hoy en adelante
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndiceHorarios() {
+        LocalDate hoy = LocalDate.now();
+        List<IndiceHorarios.BloqueOcupado> bloques = new ArrayList<>();
+        for (ReservaRepository.HorarioReserva horario : reservaRepository.findHorariosDesde(hoy)) {
+            bloques.add(new IndiceHorarios.BloqueOcupado(horario.getId(), horario.getFechaInicio(),
+                    horario.getHoraInicio(), horario.getHoraFin()));
+        }
+        indiceHorarios.cargar(hoy, bloques);
+    }
+
     public boolean esReservaPosible(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
-        List<Reserva> reservasQueSeCruzan = reservaRepository.findReservasQueSeCruzan(fecha, horaInicio, horaFin);
-        return reservasQueSeCruzan.isEmpty();
+        // Un día cubierto y libre en el índice se resuelve en memoria. Si el índice ve un cruce, la base de datos lo
+        // confirma: otra instancia pudo haber borrado esa reserva y el índice local seguiría mostrándola
+        boolean cubierto = indiceHorarios.cubre(fecha);
+        if (cubierto && Metrics.timer("reserva.horario.validar", "fuente", "indice")
+                .record(() -> !indiceHorarios.haySolape(fecha, horaInicio, horaFin))) {
+            return true;
+        }
+        boolean libre = Metrics.timer("reserva.horario.validar", "fuente", "base")
+                .record(() -> !reservaRepository.existsReservaQueSeCruza(fecha, horaInicio, horaFin));
+        if (cubierto && libre) {
+            Metrics.counter("reserva.horario.indice.desfasado").increment();
+        }
+        return libre;
     }
 
     public Reserva crearReserva(int id_usuario, int numVueltas_TiempoMaximo, int numPersonas,
                              int numFrecuenciaCliente, String nombreCliente,
                              String correoCliente, Map<String, String> nombreCorreo, List<String> correosCumpleaneros,
                              LocalDate fechaInicio, LocalTime horaInicio){
+        // Tiempo completo de la petición: tarifas, validación, guardado y avisos
+        Timer.Sample muestra = Timer.start();
+        String resultado = "error";
+        try {
+            Reserva reserva = registrarReserva(id_usuario, numVueltas_TiempoMaximo, numPersonas, numFrecuenciaCliente,
+                    nombreCliente, correoCliente, nombreCorreo, correosCumpleaneros, fechaInicio, horaInicio);
+            resultado = "exito";
+            return reserva;
+        } finally {
+            muestra.stop(Metrics.timer("reserva.crear", "resultado", resultado));
+        }
+    }
+
+    private Reserva registrarReserva(int id_usuario, int numVueltas_TiempoMaximo, int numPersonas,
+                             int numFrecuenciaCliente, String nombreCliente,
+                             String correoCliente, Map<String, String> nombreCorreo, List<String> correosCumpleaneros,
+                             LocalDate fechaInicio, LocalTime horaInicio){
 
         // Crear la reserva
         Reserva reserva = new Reserva();
@@ -115,67 +439,108 @@ public class ReservaService {
         reserva.setHoraInicio(horaInicio);
         reserva.setNombreCliente(nombreCliente);
 
-        //Obtener datos de los microservicios
-        boolean esFinDeSemanaFeriado = saberSiEsFinDeSemana_Feriado(fechaInicio);
-        TarifaDuracion tarifaDuracionNormal = obtenerTarifaNormal(numVueltas_TiempoMaximo);
-        TarifaDiasEspeciales tarifaDiasEspeciales = obtenerTarifaParaDiasEspeciales(numVueltas_TiempoMaximo, numPersonas);
-        DescuentoPorPersonas descuentoPorCantidadDePersonas = obtenerDescuentoPorCantidadDePersonas(numPersonas);
-        DescuentoPorClienteFrecuente descuentoPorClienteFrecuente = obtenerDescuentoPorFrecuenciaDeCliente(numFrecuenciaCliente);
+        DatosTarifa datos = obtenerDatosTarifa(numVueltas_TiempoMaximo, numPersonas, numFrecuenciaCliente, fechaInicio);
 
-        double tarifa = 0.0; //Comprobante
-        double descuentoPorPersonas = descuentoPorCantidadDePersonas.getDescuento(); //Comprobante
-        double descuentoPorFrecuencia = descuentoPorClienteFrecuente.getDescuento(); //Comprobante
-        int maxCumpleanerosConDescuento = tarifaDiasEspeciales.getMaxCumpleanerosConDescuento(); //Comprobante
-        double descuentoCumpleaneros = tarifaDiasEspeciales.getDescuentoCumpleaneros(); //Comprobante
-        int duracionTotal = tarifaDiasEspeciales.getDuracion_total();
-
-        if (esFinDeSemanaFeriado){
-            tarifa = tarifaDiasEspeciales.getTarifa();
-        }else{
-            tarifa = tarifaDuracionNormal.getTarifa();
-        }
+        double tarifa = datos.tarifa; //Comprobante
+        double descuentoPorPersonas = datos.descuentoPorPersonas.getDescuento(); //Comprobante
+        double descuentoPorFrecuencia = datos.descuentoPorClienteFrecuente.getDescuento(); //Comprobante
+        int maxCumpleanerosConDescuento = datos.tarifaDiasEspeciales.getMaxCumpleanerosConDescuento(); //Comprobante
+        double descuentoCumpleaneros = datos.tarifaDiasEspeciales.getDescuentoCumpleaneros(); //Comprobante
+        int duracionTotal = datos.tarifaDiasEspeciales.getDuracion_total();
 
         reserva.setDuracion_total(duracionTotal);
         reserva.setPrecio_regular(tarifa);
         reserva.setHoraFin(horaInicio.plusMinutes(duracionTotal));
 
 
+        // Descarte rápido sin bloqueo; la validación definitiva se repite más abajo
         if (!esReservaPosible(fechaInicio, horaInicio, reserva.getHoraFin())) {
             throw new RuntimeException("Ya existe una reserva en ese horario.");
         }
 
+        // Destinatarios del comprobante: acompañantes y cliente principal
+        Set<String> destinatarios = new LinkedHashSet<>();
+        nombreCorreo.values().stream()
+                .filter(correo -> correo != null && !correo.trim().isEmpty())
+                .forEach(destinatarios::add);
+        destinatarios.add(correoCliente);
 
-        Comprobante comprobante = comprobanteService.crearComprobante(tarifa,
-                descuentoCumpleaneros, maxCumpleanerosConDescuento,
-                descuentoPorPersonas, descuentoPorFrecuencia,
-                nombreCliente, correoCliente,
-                nombreCorreo, correosCumpleaneros);
-
-        reserva.setComprobante(comprobante);
-
-        reserva.setComprobante(comprobante);
-
-        reserva = reservaRepository.save(reserva);
-
-        // --- Aquí empieza el envío de correos ---
-        String resumenReserva = obtenerInformacionReservaConComprobante(reserva);
+        // Revisar y guardar bajo el bloqueo del día: dos reservas al mismo horario no pueden pasar ambas la validación.
+        // El bloqueo se suelta después del commit, para que la siguiente petición del día vea la reserva guardada
+        Reserva reservaPorGuardar = reserva;
+        double tarifaComprobante = tarifa;
+        try {
+            return bloqueosPorDia.ejecutar(fechaInicio, () -> {
+                // La reserva, su comprobante y sus correos pendientes se confirman juntos; el PDF y el SMTP se procesan después
+                Reserva guardada = transactionTemplate.execute(status -> {
+                    // La base de datos tiene la última palabra: otra instancia pudo tomar el bloque después de la carga del índice
+                    if (reservaRepository.existsReservaQueSeCruza(fechaInicio, horaInicio, reservaPorGuardar.getHoraFin())) {
+                        throw new RuntimeException("Ya existe una reserva en ese horario.");
+                    }
+                    Comprobante comprobante = comprobanteService.crearComprobante(tarifaComprobante,
+                            descuentoCumpleaneros, maxCumpleanerosConDescuento,
+                            descuentoPorPersonas, descuentoPorFrecuencia,
+                            nombreCliente, correoCliente,
+                            nombreCorreo, correosCumpleaneros);
+                    reservaPorGuardar.setComprobante(comprobante);
+
+                    Reserva nueva = reservaRepository.save(reservaPorGuardar);
+                    String resumenReserva = obtenerInformacionReservaConComprobante(nueva);
+                    envioCorreoService.encolarCorreosReserva(nueva.getId(), resumenReserva, destinatarios);
+                    return nueva;
+                });
+
+                indiceHorarios.agregar(guardada.getId(), guardada.getFechaInicio(), guardada.getHoraInicio(), guardada.getHoraFin());
+                notificadorRackSemanal.reservaCreada(guardada);
+                notificadorReportes.reservaCreada(guardada);
+                return guardada;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // La restricción reserva_sin_cruces rechazó el cruce
+            throw new RuntimeException("Ya existe una reserva en ese horario.");
+        }
+    }
 
-        File archivoPdf = generarPDFReserva(resumenReserva);
 
-        nombreCorreo.values().stream()
-                .filter(correo -> correo != null && !correo.trim().isEmpty())
-                .forEach(correo -> enviarCorreoReservaConPDF(correo, "Resumen de reserva", archivoPdf));
+    // Precio de una reserva sin guardar nada: mismos datos y mismo cálculo que crearReserva
+    public CotizacionDTO cotizarReserva(int numVueltas_TiempoMaximo, int numPersonas, int numFrecuenciaCliente,
+                                        String nombreCliente, String correoCliente, Map<String, String> nombreCorreo,
+                                        List<String> correosCumpleaneros, LocalDate fechaInicio, LocalTime horaInicio) {
+        if (fechaInicio == null) {
+            throw new IllegalArgumentException("La fecha de inicio es obligatoria.");
+        }
+        if (numPersonas < 1) {
+            throw new IllegalArgumentException("La reserva debe tener al menos una persona.");
+        }
 
-        enviarCorreoReservaConPDF(correoCliente, "Resumen de reserva", archivoPdf);
+        DatosTarifa datos = obtenerDatosTarifa(numVueltas_TiempoMaximo, numPersonas, numFrecuenciaCliente, fechaInicio);
 
-        if (archivoPdf != null && archivoPdf.exists()) {
-            archivoPdf.delete();
+        // Mientras el usuario aún no ingresa a todos los acompañantes, se cotizan igual con nombres provisorios
+        Map<String, String> acompanantes = new LinkedHashMap<>();
+        if (nombreCorreo != null) {
+            acompanantes.putAll(nombreCorreo);
+        }
+        for (int i = acompanantes.size() + 2; i <= numPersonas; i++) {
+            acompanantes.put("Acompañante " + i, "");
         }
 
-        return reserva;
+        Comprobante comprobante = comprobanteService.calcularComprobante(datos.tarifa,
+                datos.tarifaDiasEspeciales.getDescuentoCumpleaneros(),
+                datos.tarifaDiasEspeciales.getMaxCumpleanerosConDescuento(),
+                datos.descuentoPorPersonas.getDescuento(), datos.descuentoPorClienteFrecuente.getDescuento(),
+                nombreCliente != null ? nombreCliente : "Cliente", correoCliente, acompanantes,
+                correosCumpleaneros != null ? correosCumpleaneros : new ArrayList<>());
+
+        int duracionTotal = datos.tarifaDiasEspeciales.getDuracion_total();
+        LocalTime horaFin = null;
+        Boolean disponible = null;
+        if (horaInicio != null) {
+            horaFin = horaInicio.plusMinutes(duracionTotal);
+            disponible = esReservaPosible(fechaInicio, horaInicio, horaFin);
+        }
+        return new CotizacionDTO(datos.esFinDeSemanaFeriado, datos.tarifa, duracionTotal, horaFin, disponible, comprobante);
     }
 
-
     public String obtenerInformacionReservaConComprobante(Reserva reserva) {
         Comprobante comprobante = reserva.getComprobante();
         String nombreCliente = reserva.getNombreCliente();
@@ -202,39 +567,4 @@ public class ReservaService {
         return informacionReserva.toString();
     }
 
-    // ==================== GENERACIÓN DE PDF Y CORREO ====================
-
-    public File generarPDFReserva(String resumen) {
-        String filePath = "reserva_comprobante.pdf";
-        File file = new File(filePath);
-
-        try {
-            PdfWriter writer = new PdfWriter(file);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-            document.add(new Paragraph(resumen));
-            document.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return file;
-    }
-
-    public void enviarCorreoReservaConPDF(String correo, String cuerpo, File archivoPdf) {
-        try {
-            MimeMessage mensaje = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mensaje, true);
-            helper.setTo(correo);
-            helper.setSubject("Resumen de tu Reserva");
-            helper.setText(cuerpo, true);
-            helper.addAttachment("Resumen_Reserva.pdf", archivoPdf);
-            mailSender.send(mensaje);
-            System.out.println("Correo enviado a " + correo);
-        } catch (MessagingException e) {
-            System.err.println("Error al enviar correo a " + correo + ": " + e.getMessage());
-        }
-    }
-
-
 }
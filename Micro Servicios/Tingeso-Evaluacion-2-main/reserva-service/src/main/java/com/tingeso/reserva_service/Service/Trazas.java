@@ -0,0 +1,49 @@
+package com.tingeso.reserva_service.Service;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+
+// Spans locales sobre el Tracing que arma Sleuth. Se toma de forma estática, igual que el registro global de
+// Micrometer: en las pruebas unitarias no hay Tracing y la acción simplemente se ejecuta
+public final class Trazas {
+
+    @FunctionalInterface
+    public interface Accion<T, E extends Throwable> {
+        T ejecutar() throws E;
+    }
+
+    private Trazas() {
+    }
+
+    // Ejecuta la acción dentro de un span hijo del actual. Fuera de una traza solo se ejecuta: las consultas de las
+    // tareas @Scheduled que Sleuth no traza (spring.sleuth.scheduled.skip-pattern) no abren una traza cada una
+    public static <T, E extends Throwable> T enSpan(String nombre, Accion<T, E> accion) throws E {
+        Tracer tracer = Tracing.currentTracer();
+        if (tracer == null || tracer.currentSpan() == null) {
+            return accion.ejecutar();
+        }
+        return ejecutar(tracer, tracer.nextSpan().name(nombre), accion);
+    }
+
+    // Ejecuta la acción como raíz de una traza nueva, para trabajo que no nace de una petición (p. ej. cada envío de correo)
+    public static <T, E extends Throwable> T enTraza(String nombre, Accion<T, E> accion) throws E {
+        Tracer tracer = Tracing.currentTracer();
+        if (tracer == null) {
+            return accion.ejecutar();
+        }
+        return ejecutar(tracer, tracer.newTrace().name(nombre), accion);
+    }
+
+    private static <T, E extends Throwable> T ejecutar(Tracer tracer, Span span, Accion<T, E> accion) throws E {
+        span.start();
+        try (Tracer.SpanInScope enAlcance = tracer.withSpanInScope(span)) {
+            return accion.ejecutar();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.finish();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.tingeso.reserva_service.Repository;
+
+import com.tingeso.reserva_service.Entity.EnvioCorreo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MODE=LEGACY: el dialecto H2 de Hibernate 5 inserta NULL en las columnas IDENTITY
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:envios;MODE=LEGACY;DB_CLOSE_DELAY=-1"})
+class EnvioCorreoRepositoryTest {
+
+    @Autowired
+    private EnvioCorreoRepository envioCorreoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private EnvioCorreo guardar(EnvioCorreo.Estado estado, LocalDateTime reclamadoEn) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return envioCorreoRepository.saveAndFlush(new EnvioCorreo(null, 1, "cliente@mail.com", "Resumen", estado,
+                0, ahora, ahora, null, reclamadoEn, null));
+    }
+
+    @Test
+    void testReclamar_SoloElPrimeroTomaLaFila() {
+        // Arrange
+        EnvioCorreo envio = guardar(EnvioCorreo.Estado.PENDIENTE, null);
+
+        // Act
+        int primero = envioCorreoRepository.reclamar(envio.getId(), EnvioCorreo.Estado.PENDIENTE,
+                EnvioCorreo.Estado.EN_PROCESO, LocalDateTime.now());
+        int segundo = envioCorreoRepository.reclamar(envio.getId(), EnvioCorreo.Estado.PENDIENTE,
+                EnvioCorreo.Estado.EN_PROCESO, LocalDateTime.now());
+
+        // Assert
+        assertEquals(1, primero);
+        assertEquals(0, segundo);
+        entityManager.clear();
+        EnvioCorreo reclamado = envioCorreoRepository.findById(envio.getId()).orElseThrow();
+        assertEquals(EnvioCorreo.Estado.EN_PROCESO, reclamado.getEstado());
+        assertNotNull(reclamado.getReclamadoEn());
+    }
+
+    @Test
+    void testLiberarReclamosVencidos_NoTocaLosQueSiguenEnPlazo() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        EnvioCorreo vencido = guardar(EnvioCorreo.Estado.EN_PROCESO, ahora.minusMinutes(30));
+        EnvioCorreo enPlazo = guardar(EnvioCorreo.Estado.EN_PROCESO, ahora.minusMinutes(1));
+        EnvioCorreo sinFecha = guardar(EnvioCorreo.Estado.EN_PROCESO, null);
+
+        // Act
+        int liberados = envioCorreoRepository.liberarReclamosVencidos(EnvioCorreo.Estado.EN_PROCESO,
+                EnvioCorreo.Estado.PENDIENTE, ahora.minusMinutes(10));
+
+        // Assert
+        assertEquals(2, liberados);
+        entityManager.clear();
+        assertEquals(EnvioCorreo.Estado.PENDIENTE, envioCorreoRepository.findById(vencido.getId()).orElseThrow().getEstado());
+        assertEquals(EnvioCorreo.Estado.EN_PROCESO, envioCorreoRepository.findById(enPlazo.getId()).orElseThrow().getEstado());
+        assertEquals(EnvioCorreo.Estado.PENDIENTE, envioCorreoRepository.findById(sinFecha.getId()).orElseThrow().getEstado());
+    }
+}
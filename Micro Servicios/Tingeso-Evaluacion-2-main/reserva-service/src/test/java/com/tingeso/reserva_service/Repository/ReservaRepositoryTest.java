@@ -0,0 +1,181 @@
+package com.tingeso.reserva_service.Repository;
+
+import com.tingeso.reserva_service.DTO.HorarioReservaDTO;
+import com.tingeso.reserva_service.Entity.Comprobante;
+import com.tingeso.reserva_service.Entity.DetallePagoPorPersona;
+import com.tingeso.reserva_service.Entity.Reserva;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MODE=LEGACY: el dialecto H2 de Hibernate 5 inserta NULL en las columnas IDENTITY
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:reservas;MODE=LEGACY;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class ReservaRepositoryTest {
+
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1970, 1, 1);
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private void guardar(LocalDate fecha, int vueltas, int personas, Double montoConIva) {
+        Reserva reserva = new Reserva();
+        reserva.setFechaInicio(fecha);
+        reserva.setHoraInicio(LocalTime.of(15, 0));
+        reserva.setHoraFin(LocalTime.of(15, 30));
+        reserva.setNum_vueltas_tiempo_maximo(vueltas);
+        reserva.setNum_personas(personas);
+        if (montoConIva != null) {
+            Comprobante comprobante = new Comprobante();
+            comprobante.setMonto_total_iva(montoConIva);
+            reserva.setComprobante(comprobante);
+        }
+        reservaRepository.save(reserva);
+    }
+
+    @Test
+    void testSumarIngresosPorMes_AgrupaPorMesVueltasYPersonas() {
+        // Arrange
+        guardar(LocalDate.of(2025, 6, 2), 10, 2, 17850.5);
+        guardar(LocalDate.of(2025, 6, 20), 10, 2, 17850.0);
+        guardar(LocalDate.of(2025, 6, 21), 15, 4, null); // sin comprobante: cuenta, pero no suma
+        guardar(LocalDate.of(2025, 7, 1), 10, 2, 1000.0);
+        guardar(LocalDate.of(2025, 8, 1), 20, 8, 5000.0); // fuera del rango
+
+        // Act
+        List<ReservaRepository.IngresoMensual> filas = reservaRepository.sumarIngresosPorMes(
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 7, 31));
+
+        // Assert
+        assertEquals(3, filas.size());
+        ReservaRepository.IngresoMensual junio = filas.get(0);
+        assertEquals(2025, junio.getAnio());
+        assertEquals(6, junio.getMes());
+        assertEquals(10, junio.getVueltas());
+        assertEquals(2, junio.getPersonas());
+        assertEquals(2L, junio.getCantidad());
+        assertEquals(35700.5, junio.getMontoTotalIva(), 0.001);
+        assertEquals(35701.0, junio.getMontoTotalIvaPesosEnteros(), 0.001);
+
+        assertEquals(15, filas.get(1).getVueltas());
+        assertEquals(1L, filas.get(1).getCantidad());
+        assertEquals(0.0, filas.get(1).getMontoTotalIva(), 0.001);
+        assertEquals(7, filas.get(2).getMes());
+    }
+
+    // Reservas con comprobante y dos detalles de pago cada una; al terminar el contexto queda vacío
+    private void guardarConDetalles(int cantidad) {
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            List<DetallePagoPorPersona> detalles = new ArrayList<>();
+            detalles.add(new DetallePagoPorPersona(null, "Acompañante " + i, 15000, "Grupal", 10, 13500, 2565, 16065));
+            detalles.add(new DetallePagoPorPersona(null, "Cliente " + i, 15000, "Ninguno", 0, 15000, 2850, 17850));
+            Comprobante comprobante = new Comprobante(null, detalles, 28500, 5415, 33915);
+
+            Reserva reserva = new Reserva();
+            reserva.setNombreCliente("Cliente " + i);
+            reserva.setFechaInicio(inicio.plusDays(i % 200));
+            reserva.setHoraInicio(LocalTime.of(14, 0).plusMinutes(30L * (i / 200)));
+            reserva.setHoraFin(reserva.getHoraInicio().plusMinutes(30));
+            reserva.setComprobante(comprobante);
+            entityManager.persist(reserva);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics estadisticasReiniciadas() {
+        Statistics estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        return estadisticas;
+    }
+
+    private static int contarDetalles(List<Reserva> reservas) {
+        int detalles = 0;
+        for (Reserva reserva : reservas) {
+            detalles += reserva.getComprobante().getDetallesPago().size();
+        }
+        return detalles;
+    }
+
+    @Test
+    void testFindAllConDetalles_UnaSolaConsultaPara1000Reservas() {
+        // Arrange
+        guardarConDetalles(1000);
+        Statistics estadisticas = estadisticasReiniciadas();
+
+        // Act: se recorren los detalles como lo haría la serialización a JSON
+        List<Reserva> reservas = reservaRepository.findAllConDetalles();
+        int detalles = contarDetalles(reservas);
+
+        // Assert
+        assertEquals(1000, reservas.size());
+        assertEquals(2000, detalles);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPaginaConDetalles_LasConsultasNoDependenDelTamanoDeLaPagina() {
+        // Arrange
+        guardarConDetalles(1000);
+
+        // Act
+        Statistics estadisticas = estadisticasReiniciadas();
+        List<Reserva> pequena = reservaRepository.findPorRangoDeFechasDespuesDe(
+                FECHA_MAXIMA, FECHA_MINIMA, LocalTime.MIN, 0, PageRequest.of(0, 10));
+        reservaRepository.cargarDetallesPagoDe(pequena);
+        int detallesPequena = contarDetalles(pequena);
+        long consultasPequena = estadisticas.getPrepareStatementCount();
+        entityManager.clear();
+
+        estadisticas = estadisticasReiniciadas();
+        List<Reserva> grande = reservaRepository.findPorRangoDeFechasDespuesDe(
+                FECHA_MAXIMA, FECHA_MINIMA, LocalTime.MIN, 0, PageRequest.of(0, 1000));
+        reservaRepository.cargarDetallesPagoDe(grande);
+        int detallesGrande = contarDetalles(grande);
+        long consultasGrande = estadisticas.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(20, detallesPequena);
+        assertEquals(2000, detallesGrande);
+        assertEquals(2, consultasPequena);
+        assertEquals(consultasPequena, consultasGrande);
+    }
+
+    @Test
+    void testFindHorariosPorRango_SoloLeeLaTablaDeReservas() {
+        // Arrange
+        guardarConDetalles(1000);
+        Statistics estadisticas = estadisticasReiniciadas();
+
+        // Act
+        List<HorarioReservaDTO> horarios = reservaRepository.findHorariosPorRangoDespuesDe(
+                FECHA_MAXIMA, FECHA_MINIMA, LocalTime.MIN, 0, PageRequest.of(0, 1000));
+
+        // Assert
+        assertEquals(1000, horarios.size());
+        assertEquals(LocalDate.of(2025, 1, 1), horarios.get(0).getFechaInicio());
+        assertEquals(LocalTime.of(14, 0), horarios.get(0).getHoraInicio());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,149 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.DTO.EstadoCachePreciosDTO;
+import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
+import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
+import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
+import com.tingeso.reserva_service.Model.TarifaDuracion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CachePreciosServiceTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ExecutorService consultasTarifasExecutor;
+
+    @InjectMocks
+    private CachePreciosService cachePreciosService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(cachePreciosService, "ttlMs", 60_000L);
+        // La recarga tras invalidar se ejecuta en el mismo hilo de la prueba
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(0)).run();
+            return null;
+        }).when(consultasTarifasExecutor).execute(any(Runnable.class));
+
+        when(restTemplate.getForObject(contains("tarifasDuracion"), eq(TarifaDuracion[].class)))
+                .thenReturn(new TarifaDuracion[]{new TarifaDuracion(10, 15000, 30), new TarifaDuracion(15, 20000, 35)});
+        when(restTemplate.getForObject(contains("tarifasDiasEspeciales"), eq(TarifaDiasEspeciales[].class)))
+                .thenReturn(new TarifaDiasEspeciales[]{
+                        new TarifaDiasEspeciales(10, 30, 17250, 1, 2, 1, 0.5),
+                        new TarifaDiasEspeciales(10, 30, 17250, 3, 15, 2, 0.5)});
+        when(restTemplate.getForObject(contains("descuentoPorNumPersonas"), eq(DescuentoPorPersonas[].class)))
+                .thenReturn(new DescuentoPorPersonas[]{new DescuentoPorPersonas(1, 2, 0), new DescuentoPorPersonas(3, 5, 0.1)});
+        when(restTemplate.getForObject(contains("descuentoPorClienteFrecuente"), eq(DescuentoPorClienteFrecuente[].class)))
+                .thenReturn(new DescuentoPorClienteFrecuente[]{new DescuentoPorClienteFrecuente(0, 1, 0),
+                        new DescuentoPorClienteFrecuente(2, 4, 0.1)});
+    }
+
+    @Test
+    void testBusquedas_ConCopiaCargada_NoLlamanAMicroservicios() {
+        // Arrange
+        cachePreciosService.refrescarTodas();
+        clearInvocations(restTemplate);
+
+        // Act
+        TarifaDuracion tarifa = cachePreciosService.obtenerTarifaDuracion(15);
+        TarifaDiasEspeciales tarifaEspecial = cachePreciosService.obtenerTarifaDiasEspeciales(10, 4);
+        DescuentoPorPersonas descuentoPersonas = cachePreciosService.obtenerDescuentoPorPersonas(4);
+        DescuentoPorClienteFrecuente descuentoFrecuente = cachePreciosService.obtenerDescuentoPorClienteFrecuente(3);
+
+        // Assert
+        assertEquals(20000, tarifa.getTarifa());
+        assertEquals(2, tarifaEspecial.getMaxCumpleanerosConDescuento());
+        assertEquals(0.1, descuentoPersonas.getDescuento());
+        assertEquals(0.1, descuentoFrecuente.getDescuento());
+        verifyNoInteractions(restTemplate);
+
+        EstadoCachePreciosDTO.EstadoTabla estado = cachePreciosService.obtenerEstado().getTablas()
+                .get(CachePreciosService.TARIFAS_DURACION);
+        assertEquals(1, estado.getAciertos());
+        assertEquals(0, estado.getFallos());
+        assertEquals(2, estado.getRegistros());
+        assertTrue(estado.isVigente());
+    }
+
+    @Test
+    void testBusqueda_SinCopiaCargada_LaCargaUnaSolaVez() {
+        // Act
+        cachePreciosService.obtenerDescuentoPorPersonas(1);
+        cachePreciosService.obtenerDescuentoPorPersonas(4);
+
+        // Assert
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(DescuentoPorPersonas[].class));
+        EstadoCachePreciosDTO.EstadoTabla estado = cachePreciosService.obtenerEstado().getTablas()
+                .get(CachePreciosService.DESCUENTOS_POR_PERSONAS);
+        assertEquals(1, estado.getFallos());
+        assertEquals(1, estado.getAciertos());
+    }
+
+    @Test
+    void testBusqueda_CopiaVencidaYMicroservicioCaido_UsaLaCopiaAnterior() {
+        // Arrange
+        cachePreciosService.refrescarTodas();
+        ReflectionTestUtils.setField(cachePreciosService, "ttlMs", 0L);
+        when(restTemplate.getForObject(anyString(), eq(TarifaDuracion[].class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        TarifaDuracion tarifa = cachePreciosService.obtenerTarifaDuracion(10);
+
+        // Assert
+        assertEquals(15000, tarifa.getTarifa());
+        EstadoCachePreciosDTO.EstadoTabla estado = cachePreciosService.obtenerEstado().getTablas()
+                .get(CachePreciosService.TARIFAS_DURACION);
+        assertEquals(1, estado.getUsosVencidos());
+        assertEquals(1, estado.getErroresRecarga());
+        assertFalse(estado.isVigente());
+    }
+
+    @Test
+    void testInvalidar_RecargaLaTablaConLosDatosNuevos() {
+        // Arrange
+        cachePreciosService.refrescarTodas();
+        when(restTemplate.getForObject(anyString(), eq(DescuentoPorClienteFrecuente[].class)))
+                .thenReturn(new DescuentoPorClienteFrecuente[]{new DescuentoPorClienteFrecuente(0, 10, 0.3)});
+
+        // Act
+        cachePreciosService.invalidar(CachePreciosService.DESCUENTOS_POR_CLIENTE_FRECUENTE);
+        DescuentoPorClienteFrecuente descuento = cachePreciosService.obtenerDescuentoPorClienteFrecuente(3);
+
+        // Assert
+        assertEquals(0.3, descuento.getDescuento());
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(DescuentoPorClienteFrecuente[].class));
+    }
+
+    @Test
+    void testInvalidar_TablaDesconocida_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> cachePreciosService.invalidar("tarifasInexistentes"));
+    }
+
+    @Test
+    void testBusqueda_SinRangoQueCalce_LanzaExcepcion() {
+        // Arrange
+        cachePreciosService.refrescarTodas();
+
+        // Act & Assert
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cachePreciosService.obtenerDescuentoPorPersonas(20));
+        assertEquals("No existe descuento para 20 personas.", e.getMessage());
+        assertNull(cachePreciosService.obtenerTarifaDuracion(99));
+    }
+}
@@ -0,0 +1,75 @@
+package com.tingeso.reserva_service.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculadoraPreciosTest {
+
+    private static long[] numeros(String lista) {
+        return Arrays.stream(lista.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    @Test
+    void testCalcular_CasosDeReferencia() throws Exception {
+        int casos = 0;
+        try (InputStream archivo = getClass().getResourceAsStream("/precios-golden.csv");
+             BufferedReader lector = new BufferedReader(new InputStreamReader(archivo, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.trim().isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                // Arrange
+                String[] campos = linea.split(";");
+                long tarifa = Long.parseLong(campos[0]);
+                int[] descuentos = Arrays.stream(numeros(campos[1])).mapToInt(d -> (int) d).toArray();
+                long[] netos = numeros(campos[2]);
+                long[] ivas = numeros(campos[3]);
+
+                // Act
+                CalculadoraPrecios.Desglose desglose = CalculadoraPrecios.calcular(tarifa, descuentos);
+
+                // Assert: cada línea coincide y los totales son exactamente la suma de las líneas
+                long sumaNetos = 0;
+                long sumaIvas = 0;
+                long sumaTotales = 0;
+                for (int i = 0; i < descuentos.length; i++) {
+                    assertEquals(netos[i], desglose.getNetoCentavos(i), linea);
+                    assertEquals(ivas[i], desglose.getIvaCentavos(i), linea);
+                    sumaNetos += desglose.getNetoCentavos(i);
+                    sumaIvas += desglose.getIvaCentavos(i);
+                    sumaTotales += desglose.getTotalCentavos(i);
+                }
+                assertEquals(Long.parseLong(campos[4]), desglose.getTotalNetoCentavos(), linea);
+                assertEquals(Long.parseLong(campos[5]), desglose.getTotalIvaCentavos(), linea);
+                assertEquals(Long.parseLong(campos[6]), desglose.getTotalCentavos(), linea);
+                assertEquals(sumaNetos, desglose.getTotalNetoCentavos(), linea);
+                assertEquals(sumaIvas, desglose.getTotalIvaCentavos(), linea);
+                assertEquals(sumaTotales, desglose.getTotalCentavos(), linea);
+                casos++;
+            }
+        }
+        assertTrue(casos > 50, "El archivo de casos debe tener todos los casos de referencia");
+    }
+
+    @Test
+    void testPorcentaje_RedondeaMitadHaciaArriba() {
+        assertEquals(1, CalculadoraPrecios.porcentaje(5, 1000));   // 0,5 centavos
+        assertEquals(0, CalculadoraPrecios.porcentaje(4, 1000));   // 0,4 centavos
+        assertEquals(190, CalculadoraPrecios.porcentaje(1000, CalculadoraPrecios.IVA_PUNTOS_BASE));
+    }
+
+    @Test
+    void testCalcular_DescuentoFueraDeRangoLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraPrecios.calcular(1000, new int[]{10_001}));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraPrecios.calcular(1000, new int[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraPrecios.calcular(-1, new int[]{0}));
+    }
+}
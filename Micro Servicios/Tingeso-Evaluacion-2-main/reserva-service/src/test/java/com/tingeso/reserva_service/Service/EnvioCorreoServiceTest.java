@@ -0,0 +1,198 @@
+package com.tingeso.reserva_service.Service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tingeso.reserva_service.Entity.EnvioCorreo;
+import com.tingeso.reserva_service.Repository.EnvioCorreoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EnvioCorreoServiceTest {
+
+    // Servidor SMTP local que reemplaza a Gmail durante la prueba
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EnvioCorreoRepository envioCorreoRepository;
+
+    @Spy
+    private GeneradorPdfService generadorPdfService = new GeneradorPdfService();
+
+    @InjectMocks
+    private EnvioCorreoService envioCorreoService;
+
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10));
+
+        ReflectionTestUtils.setField(envioCorreoService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(envioCorreoService, "enviosCorreoExecutor", executor);
+        ReflectionTestUtils.setField(envioCorreoService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(envioCorreoService, "backoffInicialMs", 1000L);
+        ReflectionTestUtils.setField(envioCorreoService, "backoffMaximoMs", 5000L);
+        ReflectionTestUtils.setField(envioCorreoService, "plazoReclamoMs", 60000L);
+
+        when(envioCorreoRepository.save(any(EnvioCorreo.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private EnvioCorreo envioPendiente(String destinatario) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return new EnvioCorreo(1L, 10, destinatario, "Resumen de prueba", EnvioCorreo.Estado.PENDIENTE,
+                0, ahora, ahora, null, null, null);
+    }
+
+    @Test
+    void testProcesarEnvio_EntregaCorreoConPdfAdjunto() throws Exception {
+        EnvioCorreo envio = envioPendiente("cliente@mail.com");
+
+        envioCorreoService.procesarEnvio(envio);
+
+        MimeMessage[] recibidos = greenMail.getReceivedMessages();
+        assertEquals(1, recibidos.length);
+        assertEquals("Resumen de tu Reserva", recibidos[0].getSubject());
+        assertTrue(recibidos[0].getContentType().startsWith("multipart/"));
+
+        assertEquals(EnvioCorreo.Estado.ENVIADO, envio.getEstado());
+        assertEquals(1, envio.getIntentos());
+        assertNotNull(envio.getFechaEnvio());
+        assertEquals(1, envioCorreoService.obtenerEstado().getEntregados());
+    }
+
+    @Test
+    void testProcesarEnvio_FalloSmtpReprogramaConBackoff() {
+        ReflectionTestUtils.setField(envioCorreoService, "mailSender", new JavaMailSenderImpl() {{
+            setHost("localhost");
+            setPort(1); // puerto sin servidor
+        }});
+        EnvioCorreo envio = envioPendiente("cliente@mail.com");
+
+        envioCorreoService.procesarEnvio(envio);
+
+        assertEquals(EnvioCorreo.Estado.PENDIENTE, envio.getEstado());
+        assertEquals(1, envio.getIntentos());
+        assertNotNull(envio.getUltimoError());
+        assertTrue(envio.getProximoIntento().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testProcesarEnvio_AgotaIntentosYQuedaFallido() {
+        ReflectionTestUtils.setField(envioCorreoService, "mailSender", new JavaMailSenderImpl() {{
+            setHost("localhost");
+            setPort(1);
+        }});
+        EnvioCorreo envio = envioPendiente("cliente@mail.com");
+        envio.setIntentos(2);
+
+        envioCorreoService.procesarEnvio(envio);
+
+        assertEquals(EnvioCorreo.Estado.FALLIDO, envio.getEstado());
+        assertEquals(3, envio.getIntentos());
+    }
+
+    @Test
+    void testCalcularBackoffMs_CreceExponencialmenteHastaElMaximo() {
+        assertEquals(1000L, envioCorreoService.calcularBackoffMs(1));
+        assertEquals(2000L, envioCorreoService.calcularBackoffMs(2));
+        assertEquals(4000L, envioCorreoService.calcularBackoffMs(3));
+        assertEquals(5000L, envioCorreoService.calcularBackoffMs(4));
+    }
+
+    @Test
+    void testDespachar_EntregaLosEnviosListosEnElPool() throws Exception {
+        EnvioCorreo envio1 = envioPendiente("a@mail.com");
+        EnvioCorreo envio2 = envioPendiente("b@mail.com");
+        envio2.setId(2L);
+        when(envioCorreoRepository.findListosParaEnviar(eq(EnvioCorreo.Estado.PENDIENTE), any(), any()))
+                .thenReturn(List.of(envio1, envio2));
+        when(envioCorreoRepository.reclamar(any(), eq(EnvioCorreo.Estado.PENDIENTE), eq(EnvioCorreo.Estado.EN_PROCESO), any()))
+                .thenReturn(1);
+
+        envioCorreoService.despachar();
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(EnvioCorreo.Estado.ENVIADO, envio1.getEstado());
+        assertEquals(EnvioCorreo.Estado.ENVIADO, envio2.getEstado());
+    }
+
+    @Test
+    void testEncolarCorreosReserva_IgnoraCorreosVacios() {
+        when(envioCorreoRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<EnvioCorreo> envios = envioCorreoService.encolarCorreosReserva(7, "Resumen",
+                List.of("a@mail.com", " ", "b@mail.com"));
+
+        assertEquals(2, envios.size());
+        assertTrue(envios.stream().allMatch(e -> e.getEstado() == EnvioCorreo.Estado.PENDIENTE && e.getIdReserva() == 7));
+    }
+
+    @Test
+    void testDespachar_OmiteLosEnviosQueReclamoOtraInstancia() throws Exception {
+        // Arrange: la fila 2 ya la tomó otra instancia entre la consulta y el UPDATE
+        EnvioCorreo envio1 = envioPendiente("a@mail.com");
+        EnvioCorreo envio2 = envioPendiente("b@mail.com");
+        envio2.setId(2L);
+        when(envioCorreoRepository.findListosParaEnviar(eq(EnvioCorreo.Estado.PENDIENTE), any(), any()))
+                .thenReturn(List.of(envio1, envio2));
+        when(envioCorreoRepository.reclamar(eq(1L), any(), any(), any())).thenReturn(1);
+        when(envioCorreoRepository.reclamar(eq(2L), any(), any(), any())).thenReturn(0);
+
+        // Act
+        envioCorreoService.despachar();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EnvioCorreo.Estado.ENVIADO, envio1.getEstado());
+        assertEquals(EnvioCorreo.Estado.PENDIENTE, envio2.getEstado());
+    }
+
+    @Test
+    void testRecuperarEnviosInterrumpidos_SoloLiberaReclamosVencidos() {
+        LocalDateTime antes = LocalDateTime.now();
+
+        envioCorreoService.recuperarEnviosInterrumpidos();
+
+        ArgumentCaptor<LocalDateTime> limite = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(envioCorreoRepository).liberarReclamosVencidos(eq(EnvioCorreo.Estado.EN_PROCESO),
+                eq(EnvioCorreo.Estado.PENDIENTE), limite.capture());
+        assertFalse(limite.getValue().isBefore(antes.minusSeconds(60)));
+        assertFalse(limite.getValue().isAfter(LocalDateTime.now().minusSeconds(60)));
+    }
+}
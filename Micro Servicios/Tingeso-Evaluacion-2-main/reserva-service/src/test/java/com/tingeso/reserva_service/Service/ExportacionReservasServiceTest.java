@@ -0,0 +1,121 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.Entity.Reserva;
+import com.tingeso.reserva_service.Repository.ReservaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExportacionReservasServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private ExportacionReservasService exportacionReservasService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static Reserva reserva(int id, LocalDate fecha, LocalTime hora) {
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setNombreCliente("Cliente " + id);
+        reserva.setFechaInicio(fecha);
+        reserva.setHoraInicio(hora);
+        return reserva;
+    }
+
+    @Test
+    void testExportar_UnaLineaPorReservaYContinuaDesdeElCursor() throws IOException {
+        // Arrange: una página completa y una segunda con una sola reserva
+        LocalDate fecha = LocalDate.of(2025, 6, 2);
+        List<Reserva> primera = new ArrayList<>();
+        for (int i = 1; i <= ExportacionReservasService.TAMANO_PAGINA; i++) {
+            primera.add(reserva(i, fecha, LocalTime.of(14, 0)));
+        }
+        Reserva ultima = reserva(999, fecha.plusDays(1), LocalTime.of(15, 0));
+        when(reservaRepository.findPorRangoDeFechasDespuesDe(any(), eq(fecha), eq(LocalTime.MIN), eq(0), any()))
+                .thenReturn(primera);
+        when(reservaRepository.findPorRangoDeFechasDespuesDe(any(), eq(fecha), eq(LocalTime.of(14, 0)),
+                eq(ExportacionReservasService.TAMANO_PAGINA), any()))
+                .thenReturn(List.of(ultima));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = exportacionReservasService.exportar(fecha, LocalDate.of(2025, 6, 30), salida);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ExportacionReservasService.TAMANO_PAGINA + 1, escritas);
+        assertEquals(escritas, lineas.length);
+        assertTrue(lineas[0].startsWith("{") && lineas[0].contains("\"nombreCliente\":\"Cliente 1\""));
+        assertTrue(lineas[lineas.length - 1].contains("\"fechaInicio\":\"2025-06-03\""));
+        verify(reservaRepository, times(2)).findPorRangoDeFechasDespuesDe(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testExportar_EnviaCadaPaginaSinCerrarLaSalida() throws IOException {
+        // Arrange
+        when(reservaRepository.findPorRangoDeFechasDespuesDe(any(), any(), any(), anyInt(), any()))
+                .thenReturn(List.of(reserva(1, LocalDate.of(2025, 6, 2), LocalTime.of(14, 0))));
+        OutputStream salida = mock(OutputStream.class);
+
+        // Act
+        exportacionReservasService.exportar(null, null, salida);
+
+        // Assert
+        verify(salida, atLeastOnce()).flush();
+        verify(salida, never()).close();
+    }
+
+    @Test
+    void testExportar_SinReservas_NoEscribeNada() throws IOException {
+        // Arrange
+        when(reservaRepository.findPorRangoDeFechasDespuesDe(any(), any(), any(), anyInt(), any()))
+                .thenReturn(Collections.emptyList());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = exportacionReservasService.exportar(null, null, salida);
+
+        // Assert
+        assertEquals(0, escritas);
+        assertEquals(0, salida.size());
+    }
+
+    @Test
+    void testExportar_RangoInvertido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> exportacionReservasService.exportar(
+                LocalDate.of(2025, 7, 1), LocalDate.of(2025, 6, 1), new ByteArrayOutputStream()));
+    }
+}
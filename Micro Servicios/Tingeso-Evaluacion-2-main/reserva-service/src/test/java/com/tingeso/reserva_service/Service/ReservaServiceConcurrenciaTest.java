@@ -0,0 +1,185 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.Entity.Comprobante;
+import com.tingeso.reserva_service.Entity.Reserva;
+import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
+import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
+import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
+import com.tingeso.reserva_service.Model.TarifaDuracion;
+import com.tingeso.reserva_service.Repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prueba de estrés: muchas reservas simultáneas al mismo horario. El repositorio simulado
+ * guarda con retardo y sin restricción propia, así que solo los bloqueos por día evitan el doble agendamiento.
+ */
+public class ReservaServiceConcurrenciaTest {
+
+    private static final int RESERVAS_SIMULTANEAS = 40;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ClienteDiasEspeciales clienteDiasEspeciales;
+
+    @Mock
+    private ComprobanteService comprobanteService;
+
+    @Mock
+    private EnvioCorreoService envioCorreoService;
+
+    @Mock
+    private CachePreciosService cachePreciosService;
+
+    @Mock
+    private NotificadorRackSemanal notificadorRackSemanal;
+
+    @Mock
+    private NotificadorReportes notificadorReportes;
+
+    @Spy
+    private IndiceHorarios indiceHorarios = new IndiceHorarios();
+
+    @Spy
+    private BloqueosPorDia bloqueosPorDia = new BloqueosPorDia();
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private final List<Reserva> guardadas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private ExecutorService consultas;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consultas = Executors.newFixedThreadPool(8);
+        pool = Executors.newFixedThreadPool(RESERVAS_SIMULTANEAS);
+
+        ReflectionTestUtils.setField(reservaService, "consultasTarifasExecutor", consultas);
+        ReflectionTestUtils.setField(reservaService, "timeoutConsultasMs", 10_000L);
+        ReflectionTestUtils.setField(reservaService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        // Tarifas, descuentos y días especiales de las copias locales
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenReturn(false);
+        when(cachePreciosService.obtenerTarifaDuracion(anyInt())).thenReturn(new TarifaDuracion(10, 15000, 30));
+        when(cachePreciosService.obtenerTarifaDiasEspeciales(anyInt(), anyInt()))
+                .thenReturn(new TarifaDiasEspeciales(10, 30, 17250, 1, 15, 1, 0.5));
+        when(cachePreciosService.obtenerDescuentoPorPersonas(anyInt())).thenReturn(new DescuentoPorPersonas(1, 2, 0));
+        when(cachePreciosService.obtenerDescuentoPorClienteFrecuente(anyInt()))
+                .thenReturn(new DescuentoPorClienteFrecuente(0, 1, 0));
+
+        when(comprobanteService.crearComprobante(anyDouble(), anyDouble(), anyInt(), anyDouble(), anyDouble(),
+                any(), any(), anyMap(), any())).thenAnswer(inv -> new Comprobante());
+        when(comprobanteService.formatearComprobante(any())).thenReturn("");
+
+        when(reservaRepository.findHorariosDesde(any())).thenReturn(Collections.emptyList());
+        when(reservaRepository.existsReservaQueSeCruza(any(), any(), any())).thenAnswer(inv -> {
+            LocalDate fecha = inv.getArgument(0);
+            LocalTime inicio = inv.getArgument(1);
+            LocalTime fin = inv.getArgument(2);
+            return guardadas.stream().anyMatch(r -> r.getFechaInicio().equals(fecha)
+                    && r.getHoraInicio().isBefore(fin) && r.getHoraFin().isAfter(inicio));
+        });
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(inv -> {
+            Reserva reserva = inv.getArgument(0);
+            Thread.sleep(5); // ventana en la que otra petición podría colarse sin bloqueo
+            reserva.setId(secuencia.incrementAndGet());
+            guardadas.add(reserva);
+            return reserva;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        consultas.shutdownNow();
+    }
+
+    private Future<Boolean> reservarEnParalelo(CountDownLatch largada, LocalDate fecha, LocalTime hora) {
+        return pool.submit(() -> {
+            largada.await();
+            try {
+                reservaService.crearReserva(1, 10, 2, 0, "Cliente", "cliente@mail.com",
+                        new HashMap<>(), new ArrayList<>(), fecha, hora);
+                return true;
+            } catch (RuntimeException e) {
+                assertEquals("Ya existe una reserva en ese horario.", e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Test
+    void testCrearReserva_MuchasPeticionesAlMismoHorario_SoloUnaGana() throws Exception {
+        // Arrange
+        reservaService.cargarIndiceHorarios();
+        LocalDate fecha = LocalDate.now().plusDays(10);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Future<Boolean>> intentos = new ArrayList<>();
+        for (int i = 0; i < RESERVAS_SIMULTANEAS; i++) {
+            intentos.add(reservarEnParalelo(largada, fecha, LocalTime.of(15, 0).plusMinutes(i % 5)));
+        }
+
+        // Act
+        largada.countDown();
+        int ganadoras = 0;
+        for (Future<Boolean> intento : intentos) {
+            if (intento.get(30, TimeUnit.SECONDS)) {
+                ganadoras++;
+            }
+        }
+
+        // Assert
+        assertEquals(1, ganadoras);
+        assertEquals(1, guardadas.size());
+    }
+
+    @Test
+    void testCrearReserva_IndiceDesfasadoNoRechazaSiLaBaseEstaLibre() {
+        // Arrange: otra instancia borró la reserva de las 15:00 y el índice de esta todavía la tiene
+        reservaService.cargarIndiceHorarios();
+        LocalDate fecha = LocalDate.now().plusDays(10);
+        indiceHorarios.agregar(99, fecha, LocalTime.of(15, 0), LocalTime.of(15, 30));
+
+        // Act
+        Reserva reserva = reservaService.crearReserva(1, 10, 2, 0, "Cliente", "cliente@mail.com",
+                new HashMap<>(), new ArrayList<>(), fecha, LocalTime.of(15, 0));
+
+        // Assert
+        assertNotNull(reserva);
+        assertEquals(1, guardadas.size());
+    }
+}
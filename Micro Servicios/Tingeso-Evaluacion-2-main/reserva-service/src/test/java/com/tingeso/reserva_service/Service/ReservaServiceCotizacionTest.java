@@ -0,0 +1,227 @@
+package com.tingeso.reserva_service.Service;
+
+import com.tingeso.reserva_service.DTO.CotizacionDTO;
+import com.tingeso.reserva_service.Entity.DetallePagoPorPersona;
+import com.tingeso.reserva_service.Model.DescuentoPorClienteFrecuente;
+import com.tingeso.reserva_service.Model.DescuentoPorPersonas;
+import com.tingeso.reserva_service.Model.TarifaDiasEspeciales;
+import com.tingeso.reserva_service.Model.TarifaDuracion;
+import com.tingeso.reserva_service.Repository.ComprobanteRepository;
+import com.tingeso.reserva_service.Repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReservaServiceCotizacionTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ComprobanteRepository comprobanteRepository;
+
+    @Mock
+    private ClienteDiasEspeciales clienteDiasEspeciales;
+
+    @Mock
+    private CachePreciosService cachePreciosService;
+
+    @Mock
+    private EnvioCorreoService envioCorreoService;
+
+    @InjectMocks
+    @Spy
+    private ComprobanteService comprobanteService;
+
+    @Spy
+    private IndiceHorarios indiceHorarios = new IndiceHorarios();
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private ExecutorService consultas;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consultas = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(reservaService, "consultasTarifasExecutor", consultas);
+        ReflectionTestUtils.setField(reservaService, "timeoutConsultasMs", 10_000L);
+        ReflectionTestUtils.setField(reservaService, "comprobanteService", comprobanteService);
+
+        when(cachePreciosService.obtenerTarifaDuracion(anyInt())).thenReturn(new TarifaDuracion(10, 15000, 30));
+        when(cachePreciosService.obtenerTarifaDiasEspeciales(anyInt(), anyInt()))
+                .thenReturn(new TarifaDiasEspeciales(10, 30, 17250, 3, 5, 1, 0.5));
+        when(cachePreciosService.obtenerDescuentoPorPersonas(anyInt())).thenReturn(new DescuentoPorPersonas(3, 5, 0.1));
+        when(cachePreciosService.obtenerDescuentoPorClienteFrecuente(anyInt()))
+                .thenReturn(new DescuentoPorClienteFrecuente(0, 1, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consultas.shutdownNow();
+    }
+
+    @Test
+    void testCotizarReserva_DiaNormal_DesgloseCompletoSinGuardar() {
+        // Arrange
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenReturn(false);
+        indiceHorarios.cargar(LocalDate.now(), Collections.emptyList());
+        Map<String, String> acompanantes = new LinkedHashMap<>();
+        acompanantes.put("Ana", "ana@mail.com");
+        acompanantes.put("Luis", "luis@mail.com");
+
+        // Act
+        CotizacionDTO cotizacion = reservaService.cotizarReserva(10, 3, 0, "Cliente", "cliente@mail.com",
+                acompanantes, List.of("ana@mail.com"), LocalDate.now().plusDays(5), LocalTime.of(15, 0));
+
+        // Assert
+        assertFalse(cotizacion.isDiaEspecial());
+        assertEquals(15000, cotizacion.getTarifa());
+        assertEquals(LocalTime.of(15, 30), cotizacion.getHoraFin());
+        assertTrue(cotizacion.getDisponible());
+
+        List<DetallePagoPorPersona> detalles = cotizacion.getComprobante().getDetallesPago();
+        assertEquals(3, detalles.size());
+        assertEquals("Cumpleaños", detalles.get(0).getTipoDescuento());
+        assertEquals("Grupal", detalles.get(1).getTipoDescuento());
+        assertEquals(7500 + 13500 + 13500, cotizacion.getComprobante().getPrecio_final(), 0.001);
+        assertNull(cotizacion.getComprobante().getId());
+
+        verify(comprobanteRepository, never()).save(any());
+        verify(reservaRepository, never()).save(any());
+        verifyNoInteractions(envioCorreoService);
+    }
+
+    @Test
+    void testCotizarReserva_SinAcompanantesNiHora_CompletaNombresProvisorios() {
+        // Arrange
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenReturn(true);
+
+        // Act
+        CotizacionDTO cotizacion = reservaService.cotizarReserva(10, 4, 0, null, null,
+                null, null, LocalDate.now().plusDays(5), null);
+
+        // Assert
+        assertTrue(cotizacion.isDiaEspecial());
+        assertEquals(17250, cotizacion.getTarifa());
+        assertNull(cotizacion.getHoraFin());
+        assertNull(cotizacion.getDisponible());
+        List<DetallePagoPorPersona> detalles = cotizacion.getComprobante().getDetallesPago();
+        assertEquals(4, detalles.size());
+        assertEquals("Acompañante 2", detalles.get(0).getNombrePersona());
+        assertEquals("Cliente", detalles.get(3).getNombrePersona());
+        verify(comprobanteRepository, never()).save(any());
+    }
+
+    @Test
+    void testCotizarReserva_SinFecha_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> reservaService.cotizarReserva(10, 2, 0, "Cliente",
+                "cliente@mail.com", null, null, null, LocalTime.of(15, 0)));
+    }
+
+    @Test
+    void testCotizarReserva_MicroservicioLento_FallaAlVencerElPlazo() {
+        // Arrange
+        ReflectionTestUtils.setField(reservaService, "timeoutConsultasMs", 100L);
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenAnswer(invocacion -> {
+            Thread.sleep(5_000);
+            return false;
+        });
+
+        // Act
+        long inicio = System.nanoTime();
+        RuntimeException error = assertThrows(RuntimeException.class, () -> reservaService.cotizarReserva(10, 2, 0,
+                "Cliente", "cliente@mail.com", null, null, LocalDate.now().plusDays(5), null));
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("Tiempo de espera agotado"), error.getMessage());
+        assertTrue(esperaMs < 2_000, "esperó " + esperaMs + " ms");
+    }
+
+    @Test
+    void testCotizarReserva_PoolSaturado_FallaSinEjecutarEnElHiloDeLaPeticion() throws Exception {
+        // Arrange: un hilo ocupado y la cola llena
+        CountDownLatch liberar = new CountDownLatch(1);
+        ThreadPoolExecutor saturado = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        saturado.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        saturado.execute(() -> { });
+        ReflectionTestUtils.setField(reservaService, "consultasTarifasExecutor", saturado);
+
+        try {
+            // Act
+            RuntimeException error = assertThrows(RuntimeException.class, () -> reservaService.cotizarReserva(10, 2, 0,
+                    "Cliente", "cliente@mail.com", null, null, LocalDate.now().plusDays(5), null));
+
+            // Assert
+            assertTrue(error.getMessage().startsWith("Tiempo de espera agotado"), error.getMessage());
+            verifyNoInteractions(clienteDiasEspeciales);
+        } finally {
+            liberar.countDown();
+            saturado.shutdown();
+        }
+    }
+
+    @Test
+    void testCotizarReserva_FallaUnaConsulta_ElErrorNombraLaConsulta() {
+        // Arrange
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenReturn(false);
+        when(cachePreciosService.obtenerDescuentoPorPersonas(anyInt()))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // Act
+        RuntimeException error = assertThrows(RuntimeException.class, () -> reservaService.cotizarReserva(10, 2, 0,
+                "Cliente", "cliente@mail.com", null, null, LocalDate.now().plusDays(5), null));
+
+        // Assert
+        assertEquals("Error al consultar obtenerDescuentoPorCantidadDePersonas: Connection refused", error.getMessage());
+    }
+
+    @Test
+    void testCotizarReserva_CopiasVigentes_NoUsaElPool() {
+        // Arrange
+        ExecutorService sinUso = mock(ExecutorService.class);
+        ReflectionTestUtils.setField(reservaService, "consultasTarifasExecutor", sinUso);
+        when(cachePreciosService.todasVigentes()).thenReturn(true);
+        when(clienteDiasEspeciales.tieneVigente(any())).thenReturn(true);
+        when(clienteDiasEspeciales.esDiaEspecial(any())).thenReturn(false);
+
+        // Act
+        CotizacionDTO cotizacion = reservaService.cotizarReserva(10, 3, 0, "Cliente", "cliente@mail.com",
+                null, null, LocalDate.now().plusDays(5), null);
+
+        // Assert
+        assertEquals(15000, cotizacion.getTarifa());
+        verifyNoInteractions(sinUso);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tingeso.tarifa_dias_especiales.Controller;
+
+import com.tingeso.tarifa_dias_especiales.Entity.Feriado;
+import com.tingeso.tarifa_dias_especiales.Service.FeriadoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Administración de feriados. Cada cambio recompila el calendario en memoria usado para las tarifas y horarios.
+ */
+@RestController
+@RequestMapping("/api/tarifasDiasEspeciales/feriados")
+public class FeriadoController {
+
+    @Autowired
+    private FeriadoService feriadoService;
+
+    @GetMapping("/getAll")
+    public List<Feriado> getAll(@RequestParam(required = false) Integer anio) {
+        return anio != null ? feriadoService.obtenerPorAnio(anio) : feriadoService.obtenerTodos();
+    }
+
+    @GetMapping("/getById/{id}")
+    public ResponseEntity<Feriado> getById(@PathVariable int id) {
+        return feriadoService.obtenerPorId(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/create")
+    public ResponseEntity<Feriado> create(@RequestBody Feriado feriado) {
+        try {
+            return ResponseEntity.ok(feriadoService.crear(feriado));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/update/{id}")
+    public ResponseEntity<Feriado> update(@PathVariable int id, @RequestBody Feriado feriado) {
+        try {
+            return feriadoService.actualizar(id, feriado)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<Void> delete(@PathVariable int id) {
+        if (feriadoService.eliminar(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
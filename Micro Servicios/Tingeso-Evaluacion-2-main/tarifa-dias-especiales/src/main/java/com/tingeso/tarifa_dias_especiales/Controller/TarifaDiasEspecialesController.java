@@ -1,5 +1,6 @@
 package com.tingeso.tarifa_dias_especiales.Controller;
 
+import com.tingeso.tarifa_dias_especiales.DTO.DiasEspecialesDTO;
 import com.tingeso.tarifa_dias_especiales.Entity.TarifaDiasEspeciales;
 import com.tingeso.tarifa_dias_especiales.Service.TarifaDiasEspecialesService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,6 +66,21 @@ public class TarifaDiasEspecialesController {
     }
 
 
+    // Fin de semana o feriado para todos los días de un rango, en una sola respuesta
+    @GetMapping("/diasEspeciales")
+    public ResponseEntity<DiasEspecialesDTO> obtenerDiasEspeciales(@RequestParam String desde, @RequestParam String hasta) {
+        try {
+            LocalDate inicio = LocalDate.parse(desde);
+            LocalDate fin = LocalDate.parse(hasta);
+            BitSet especiales = service.obtenerDiasEspeciales(inicio, fin);
+            String bits = Base64.getEncoder().encodeToString(especiales.toByteArray());
+            return ResponseEntity.ok(new DiasEspecialesDTO(inicio, fin, bits));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+
     @PutMapping("/update/{id}")
     public ResponseEntity<TarifaDiasEspeciales> actualizar(@PathVariable int id, @RequestBody TarifaDiasEspeciales nuevaTarifa) {
         TarifaDiasEspeciales actualizada = service.actualizarTarifa(id, nuevaTarifa);
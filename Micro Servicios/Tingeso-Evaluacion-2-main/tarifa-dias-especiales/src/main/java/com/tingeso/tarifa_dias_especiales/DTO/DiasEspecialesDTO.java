@@ -0,0 +1,17 @@
+package com.tingeso.tarifa_dias_especiales.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiasEspecialesDTO {
+    private LocalDate desde;
+    private LocalDate hasta; // inclusive
+    // Bit i encendido = el día desde + i es fin de semana o feriado (BitSet.toByteArray en Base64)
+    private String bits;
+}
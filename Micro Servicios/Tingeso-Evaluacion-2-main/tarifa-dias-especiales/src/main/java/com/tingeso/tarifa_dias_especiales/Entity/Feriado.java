@@ -0,0 +1,23 @@
+package com.tingeso.tarifa_dias_especiales.Entity;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Feriado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(unique = true, nullable = false)
+    private LocalDate fecha;
+
+    private String nombre; // Ej: "Independencia Nacional"
+}
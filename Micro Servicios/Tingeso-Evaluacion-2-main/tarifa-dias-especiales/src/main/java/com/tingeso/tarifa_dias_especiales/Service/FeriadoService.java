@@ -0,0 +1,129 @@
+package com.tingeso.tarifa_dias_especiales.Service;
+
+import com.tingeso.tarifa_dias_especiales.Entity.Feriado;
+import com.tingeso.tarifa_dias_especiales.Repository.FeriadoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class FeriadoService {
+
+    // Feriados nacionales de varios años; el monolito y tarifa-dias-especiales parten del mismo archivo
+    private static final String ARCHIVO_FERIADOS = "feriados.csv";
+
+    @Autowired
+    private FeriadoRepository feriadoRepository;
+
+    @Autowired
+    private CalendarioFeriados calendarioFeriados;
+
+    @Autowired
+    private NotificadorDiasEspeciales notificadorDiasEspeciales;
+
+    // ==================== CARGA DEL CALENDARIO ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarCalendario() {
+        if (feriadoRepository.count() == 0) {
+            feriadoRepository.saveAll(leerFeriadosIniciales());
+        }
+        recompilarCalendario();
+    }
+
+    public synchronized void recompilarCalendario() {
+        calendarioFeriados.cargar(feriadoRepository.findTodasLasFechas());
+    }
+
+    // Después de cada escritura: el calendario local y las copias por año de reserva-service y rack-semanal
+    private void calendarioModificado() {
+        recompilarCalendario();
+        notificadorDiasEspeciales.notificarCambio();
+    }
+
+    List<Feriado> leerFeriadosIniciales() {
+        List<Feriado> feriados = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(ARCHIVO_FERIADOS).getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank() || linea.startsWith("#")) {
+                    continue;
+                }
+                String[] partes = linea.split(";", 2);
+                feriados.add(new Feriado(0, LocalDate.parse(partes[0].trim()), partes.length > 1 ? partes[1].trim() : null));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer " + ARCHIVO_FERIADOS, e);
+        }
+        return feriados;
+    }
+
+    // ==================== CRUD ====================
+
+    public List<Feriado> obtenerTodos() {
+        return feriadoRepository.findAllByOrderByFechaAsc();
+    }
+
+    public List<Feriado> obtenerPorAnio(int anio) {
+        return feriadoRepository.findByFechaBetweenOrderByFechaAsc(LocalDate.of(anio, 1, 1), LocalDate.of(anio, 12, 31));
+    }
+
+    public Optional<Feriado> obtenerPorId(int id) {
+        return feriadoRepository.findById(id);
+    }
+
+    public Feriado crear(Feriado feriado) {
+        validarFecha(feriado);
+        if (feriadoRepository.existsByFecha(feriado.getFecha())) {
+            throw new IllegalArgumentException("Ya existe un feriado el " + feriado.getFecha() + ".");
+        }
+        feriado.setId(0);
+        Feriado guardado = feriadoRepository.save(feriado);
+        calendarioModificado();
+        return guardado;
+    }
+
+    public Optional<Feriado> actualizar(int id, Feriado datos) {
+        validarFecha(datos);
+        Optional<Feriado> existente = feriadoRepository.findById(id);
+        if (existente.isEmpty()) {
+            return Optional.empty();
+        }
+        if (feriadoRepository.existsByFechaAndIdNot(datos.getFecha(), id)) {
+            throw new IllegalArgumentException("Ya existe un feriado el " + datos.getFecha() + ".");
+        }
+        Feriado feriado = existente.get();
+        feriado.setFecha(datos.getFecha());
+        feriado.setNombre(datos.getNombre());
+        Feriado guardado = feriadoRepository.save(feriado);
+        calendarioModificado();
+        return Optional.of(guardado);
+    }
+
+    public boolean eliminar(int id) {
+        if (!feriadoRepository.existsById(id)) {
+            return false;
+        }
+        feriadoRepository.deleteById(id);
+        calendarioModificado();
+        return true;
+    }
+
+    private void validarFecha(Feriado feriado) {
+        if (feriado == null || feriado.getFecha() == null) {
+            throw new IllegalArgumentException("La fecha del feriado es obligatoria.");
+        }
+    }
+}
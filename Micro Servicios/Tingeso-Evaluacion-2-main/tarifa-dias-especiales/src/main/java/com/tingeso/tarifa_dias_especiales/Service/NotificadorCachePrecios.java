@@ -0,0 +1,24 @@
+package com.tingeso.tarifa_dias_especiales.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+// Avisa a reserva-service que esta tabla cambió, para que no siga tarificando con su copia local
+@Service
+public class NotificadorCachePrecios {
+
+    private static final String URL_INVALIDAR = "http://reserva-service/api/reservas/precios/invalidar/tarifasDiasEspeciales";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    // Si reserva-service no responde, su copia igual se recarga al vencer el TTL
+    public void notificarCambio() {
+        try {
+            restTemplate.postForLocation(URL_INVALIDAR, null, "tarifasDiasEspeciales");
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo invalidar la copia de tarifasDiasEspeciales en reserva-service: " + e.getMessage());
+        }
+    }
+}
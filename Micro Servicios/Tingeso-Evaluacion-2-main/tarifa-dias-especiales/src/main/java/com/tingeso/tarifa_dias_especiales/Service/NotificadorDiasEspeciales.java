@@ -0,0 +1,30 @@
+package com.tingeso.tarifa_dias_especiales.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+// Avisa a los servicios que guardan los días especiales por año que el calendario de feriados cambió
+@Service
+public class NotificadorDiasEspeciales {
+
+    private static final String URL_RESERVAS = "http://reserva-service/api/reservas/diasEspeciales/invalidar";
+    private static final String URL_RACK = "http://rack-semanal-service/api/rackSemanal/diasEspeciales/invalidar";
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    // Si un servicio no responde, su copia igual se recarga al vencer el TTL
+    public void notificarCambio() {
+        notificar("reserva-service", URL_RESERVAS);
+        notificar("rack-semanal-service", URL_RACK);
+    }
+
+    private void notificar(String servicio, String url) {
+        try {
+            restTemplate.postForLocation(url, null);
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo invalidar la copia de días especiales en " + servicio + ": " + e.getMessage());
+        }
+    }
+}
@@ -7,9 +7,10 @@ import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 @Service
 public class TarifaDiasEspecialesService {
@@ -17,8 +18,16 @@ public class TarifaDiasEspecialesService {
     @Autowired
     private TarifaDiasEspecialesRepository repository;
 
+    @Autowired
+    private NotificadorCachePrecios notificadorCachePrecios;
+
+    @Autowired
+    private CalendarioFeriados calendarioFeriados;
+
     public TarifaDiasEspeciales guardarTarifa(TarifaDiasEspeciales tarifa) {
-        return repository.save(tarifa);
+        TarifaDiasEspeciales guardada = repository.save(tarifa);
+        notificadorCachePrecios.notificarCambio();
+        return guardada;
     }
 
     public List<TarifaDiasEspeciales> obtenerTodas() {
@@ -41,6 +50,9 @@ public class TarifaDiasEspecialesService {
                 .findFirst(); // o usar lógica más compleja si hay más de una válida
     }
 
+    // Rango máximo que se entrega en una sola respuesta
+    private static final int MAXIMO_DIAS_RANGO = 3 * 366;
+
     public boolean esDiaEspecial(LocalDate fecha) {
         // 1. Verificar si es sábado o domingo
         DayOfWeek dia = fecha.getDayOfWeek();
@@ -48,17 +60,27 @@ public class TarifaDiasEspecialesService {
             return true;
         }
 
-        // 2. Verificar si es un feriado (puedes mover esto a config o DB)
-        Set<LocalDate> feriados = Set.of(
-                LocalDate.of(2025, 1, 1),   // Año Nuevo
-                LocalDate.of(2025, 5, 1),   // Día del Trabajador
-                LocalDate.of(2025, 9, 18),  // Independencia Chile
-                LocalDate.of(2025, 9, 19),  // Día de las Glorias del Ejército
-                LocalDate.of(2025, 12, 25)  // Navidad
-                // Agrega más si necesitas
-        );
-
-        return feriados.contains(fecha);
+        // 2. Verificar si es un feriado
+        return calendarioFeriados.esFeriado(fecha);
+    }
+
+    // Un bit por día entre desde y hasta (inclusive): bit i = desde + i es día especial
+    public BitSet obtenerDiasEspeciales(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+        long cantidadDias = ChronoUnit.DAYS.between(desde, hasta) + 1;
+        if (cantidadDias > MAXIMO_DIAS_RANGO) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_DIAS_RANGO + " días.");
+        }
+
+        BitSet especiales = new BitSet((int) cantidadDias);
+        for (int i = 0; i < cantidadDias; i++) {
+            if (esDiaEspecial(desde.plusDays(i))) {
+                especiales.set(i);
+            }
+        }
+        return especiales;
     }
 
 
@@ -73,7 +95,9 @@ public class TarifaDiasEspecialesService {
             tarifa.setMaxPersonas(nuevaTarifa.getMaxPersonas());
             tarifa.setMaxCumpleanerosConDescuento(nuevaTarifa.getMaxCumpleanerosConDescuento());
             tarifa.setDescuentoCumpleaneros(nuevaTarifa.getDescuentoCumpleaneros());
-            return repository.save(tarifa);
+            TarifaDiasEspeciales actualizada = repository.save(tarifa);
+            notificadorCachePrecios.notificarCambio();
+            return actualizada;
         } else {
             return null;
         }
@@ -82,6 +106,7 @@ public class TarifaDiasEspecialesService {
     public boolean eliminarTarifa(int id) {
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            notificadorCachePrecios.notificarCambio();
             return true;
         }
         return false;
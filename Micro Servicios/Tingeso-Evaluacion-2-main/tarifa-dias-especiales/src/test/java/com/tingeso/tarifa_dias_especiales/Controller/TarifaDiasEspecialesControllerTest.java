@@ -0,0 +1,86 @@
+package com.tingeso.tarifa_dias_especiales.Controller;
+
+import com.tingeso.tarifa_dias_especiales.DTO.DiasEspecialesDTO;
+import com.tingeso.tarifa_dias_especiales.Service.CalendarioFeriados;
+import com.tingeso.tarifa_dias_especiales.Service.TarifaDiasEspecialesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TarifaDiasEspecialesControllerTest {
+
+    private final TarifaDiasEspecialesController controller = new TarifaDiasEspecialesController();
+
+    @BeforeEach
+    void setUp() {
+        CalendarioFeriados calendario = new CalendarioFeriados();
+        calendario.cargar(List.of(LocalDate.of(2025, 9, 18), LocalDate.of(2025, 9, 19)));
+        TarifaDiasEspecialesService service = new TarifaDiasEspecialesService();
+        ReflectionTestUtils.setField(service, "calendarioFeriados", calendario);
+        ReflectionTestUtils.setField(controller, "service", service);
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_BitsEnBase64MarcanFinesDeSemanaYFeriados() {
+        // Act: lunes 15 a domingo 21 de septiembre de 2025
+        ResponseEntity<DiasEspecialesDTO> respuesta = controller.obtenerDiasEspeciales("2025-09-15", "2025-09-21");
+
+        // Assert: jueves 18 y viernes 19 son feriados, sábado 20 y domingo 21 fin de semana
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        DiasEspecialesDTO dias = respuesta.getBody();
+        assertEquals(LocalDate.of(2025, 9, 15), dias.getDesde());
+        assertEquals(LocalDate.of(2025, 9, 21), dias.getHasta());
+        BitSet especiales = BitSet.valueOf(Base64.getDecoder().decode(dias.getBits()));
+        assertEquals("{3, 4, 5, 6}", especiales.toString());
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_UnSoloDiaNormal_SinBitsEncendidos() {
+        // Act
+        ResponseEntity<DiasEspecialesDTO> respuesta = controller.obtenerDiasEspeciales("2025-09-17", "2025-09-17");
+
+        // Assert
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        assertTrue(BitSet.valueOf(Base64.getDecoder().decode(respuesta.getBody().getBits())).isEmpty());
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_DesdePosteriorAHasta_RespondeBadRequest() {
+        // Act
+        ResponseEntity<DiasEspecialesDTO> respuesta = controller.obtenerDiasEspeciales("2025-09-21", "2025-09-15");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_RangoSobreElMaximo_RespondeBadRequest() {
+        // Act: el máximo es 3 * 366 días, inclusive
+        ResponseEntity<DiasEspecialesDTO> enElLimite = controller.obtenerDiasEspeciales("2025-01-01",
+                LocalDate.of(2025, 1, 1).plusDays(3 * 366 - 1).toString());
+        ResponseEntity<DiasEspecialesDTO> sobreElLimite = controller.obtenerDiasEspeciales("2025-01-01",
+                LocalDate.of(2025, 1, 1).plusDays(3 * 366).toString());
+
+        // Assert
+        assertEquals(HttpStatus.OK, enElLimite.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, sobreElLimite.getStatusCode());
+    }
+
+    @Test
+    void testObtenerDiasEspeciales_FechaMalFormada_RespondeBadRequest() {
+        // Act
+        ResponseEntity<DiasEspecialesDTO> respuesta = controller.obtenerDiasEspeciales("18-09-2025", "2025-09-21");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+    }
+}
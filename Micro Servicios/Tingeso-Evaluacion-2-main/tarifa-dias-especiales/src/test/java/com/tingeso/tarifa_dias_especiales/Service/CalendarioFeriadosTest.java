@@ -0,0 +1,68 @@
+package com.tingeso.tarifa_dias_especiales.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarioFeriadosTest {
+
+    private final CalendarioFeriados calendario = new CalendarioFeriados();
+
+    @Test
+    void testEsFeriado_SinCargar_NingunDiaEsFeriado() {
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 9, 18)));
+    }
+
+    @Test
+    void testEsFeriado_VariosAniosYFueraDelRango() {
+        // Arrange
+        calendario.cargar(List.of(
+                LocalDate.of(2024, 1, 1),
+                LocalDate.of(2025, 9, 18),
+                LocalDate.of(2035, 12, 25)));
+
+        // Act & Assert
+        assertTrue(calendario.esFeriado(LocalDate.of(2024, 1, 1)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2025, 9, 18)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2035, 12, 25)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 9, 17)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2023, 12, 31)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2035, 12, 26)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2099, 1, 1)));
+    }
+
+    @Test
+    void testEsFeriado_UltimoDiaDeUnaPalabraYPrimeroDeLaSiguiente() {
+        // Arrange: el bit 63 cierra la primera palabra del arreglo y el 64 abre la segunda
+        LocalDate primero = LocalDate.of(2025, 1, 1);
+        calendario.cargar(List.of(primero, primero.plusDays(63), primero.plusDays(64)));
+
+        // Act & Assert
+        assertTrue(calendario.esFeriado(primero.plusDays(63)));
+        assertTrue(calendario.esFeriado(primero.plusDays(64)));
+        assertFalse(calendario.esFeriado(primero.plusDays(62)));
+        assertFalse(calendario.esFeriado(primero.plusDays(65)));
+        assertFalse(calendario.esFeriado(primero.plusDays(127)));
+        assertFalse(calendario.esFeriado(primero.minusDays(1)));
+    }
+
+    @Test
+    void testCargar_ReemplazaElCalendarioAnterior() {
+        // Arrange
+        calendario.cargar(List.of(LocalDate.of(2025, 5, 1)));
+
+        // Act
+        calendario.cargar(List.of(LocalDate.of(2025, 5, 21)));
+
+        // Assert
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 5, 1)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2025, 5, 21)));
+
+        calendario.cargar(Collections.emptyList());
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 5, 21)));
+    }
+}
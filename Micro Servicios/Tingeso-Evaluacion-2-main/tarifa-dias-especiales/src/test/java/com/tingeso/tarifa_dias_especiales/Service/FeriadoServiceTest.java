@@ -0,0 +1,156 @@
+package com.tingeso.tarifa_dias_especiales.Service;
+
+import com.tingeso.tarifa_dias_especiales.Entity.Feriado;
+import com.tingeso.tarifa_dias_especiales.Repository.FeriadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FeriadoServiceTest {
+
+    @Mock
+    private FeriadoRepository feriadoRepository;
+
+    @Spy
+    private CalendarioFeriados calendarioFeriados = new CalendarioFeriados();
+
+    @Mock
+    private NotificadorDiasEspeciales notificadorDiasEspeciales;
+
+    @InjectMocks
+    private FeriadoService feriadoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testLeerFeriadosIniciales_ArchivoCubreVariosAnios() {
+        // Act
+        List<Feriado> feriados = feriadoService.leerFeriadosIniciales();
+
+        // Assert
+        assertTrue(feriados.stream().anyMatch(f -> f.getFecha().equals(LocalDate.of(2024, 9, 18))));
+        assertTrue(feriados.stream().anyMatch(f -> f.getFecha().equals(LocalDate.of(2030, 12, 25))));
+        assertEquals(feriados.size(), feriados.stream().map(Feriado::getFecha).distinct().count());
+    }
+
+    @Test
+    void testInicializarCalendario_TablaVacia_CargaArchivoYCompila() {
+        // Arrange
+        when(feriadoRepository.count()).thenReturn(0L);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(LocalDate.of(2026, 9, 18)));
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert: al partir no hay copias que invalidar
+        verify(feriadoRepository).saveAll(anyList());
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 9, 18)));
+        verifyNoInteractions(notificadorDiasEspeciales);
+    }
+
+    @Test
+    void testInicializarCalendario_TablaConDatos_NoVuelveACargarArchivo() {
+        // Arrange
+        when(feriadoRepository.count()).thenReturn(10L);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of());
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert
+        verify(feriadoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCrear_RecompilaElCalendarioYAvisa() {
+        // Arrange
+        Feriado feriado = new Feriado(0, LocalDate.of(2026, 6, 29), "San Pedro y San Pablo");
+        when(feriadoRepository.existsByFecha(feriado.getFecha())).thenReturn(false);
+        when(feriadoRepository.save(feriado)).thenReturn(feriado);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(feriado.getFecha()));
+
+        // Act
+        feriadoService.crear(feriado);
+
+        // Assert
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 6, 29)));
+        verify(notificadorDiasEspeciales).notificarCambio();
+    }
+
+    @Test
+    void testCrear_FechaRepetida_LanzaExcepcionSinAvisar() {
+        // Arrange
+        Feriado feriado = new Feriado(0, LocalDate.of(2025, 12, 25), "Navidad");
+        when(feriadoRepository.existsByFecha(feriado.getFecha())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> feriadoService.crear(feriado));
+        verify(feriadoRepository, never()).save(any());
+        verifyNoInteractions(notificadorDiasEspeciales);
+    }
+
+    @Test
+    void testActualizar_MueveElFeriadoEnElCalendario() {
+        // Arrange
+        Feriado existente = new Feriado(4, LocalDate.of(2026, 6, 21), "Día de los Pueblos Indígenas");
+        Feriado datos = new Feriado(0, LocalDate.of(2026, 6, 20), "Día de los Pueblos Indígenas");
+        calendarioFeriados.cargar(List.of(existente.getFecha()));
+        when(feriadoRepository.findById(4)).thenReturn(Optional.of(existente));
+        when(feriadoRepository.existsByFechaAndIdNot(datos.getFecha(), 4)).thenReturn(false);
+        when(feriadoRepository.save(existente)).thenReturn(existente);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(datos.getFecha()));
+
+        // Act
+        Optional<Feriado> resultado = feriadoService.actualizar(4, datos);
+
+        // Assert
+        assertEquals(LocalDate.of(2026, 6, 20), resultado.get().getFecha());
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 6, 20)));
+        assertFalse(calendarioFeriados.esFeriado(LocalDate.of(2026, 6, 21)));
+        verify(notificadorDiasEspeciales).notificarCambio();
+    }
+
+    @Test
+    void testActualizar_NoExiste_RetornaVacio() {
+        // Arrange
+        when(feriadoRepository.findById(9)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Feriado> resultado = feriadoService.actualizar(9, new Feriado(0, LocalDate.of(2025, 1, 1), "Año Nuevo"));
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+        verifyNoInteractions(notificadorDiasEspeciales);
+    }
+
+    @Test
+    void testEliminar_QuitaElFeriadoDelCalendarioYAvisa() {
+        // Arrange
+        calendarioFeriados.cargar(List.of(LocalDate.of(2025, 5, 1)));
+        when(feriadoRepository.existsById(1)).thenReturn(true);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of());
+
+        // Act
+        boolean eliminado = feriadoService.eliminar(1);
+
+        // Assert
+        assertTrue(eliminado);
+        verify(feriadoRepository).deleteById(1);
+        assertFalse(calendarioFeriados.esFeriado(LocalDate.of(2025, 5, 1)));
+        verify(notificadorDiasEspeciales).notificarCambio();
+    }
+}
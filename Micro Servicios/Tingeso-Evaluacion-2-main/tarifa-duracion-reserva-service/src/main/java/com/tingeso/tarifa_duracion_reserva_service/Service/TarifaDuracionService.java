@@ -14,6 +14,9 @@ public class TarifaDuracionService {
     @Autowired
     private TarifaDuracionRepository repository;
 
+    @Autowired
+    private NotificadorCachePrecios notificadorCachePrecios;
+
     public List<TarifaDuracion> obtenerTodas() {
         return repository.findAll();
     }
@@ -23,11 +26,14 @@ public class TarifaDuracionService {
     }
 
     public TarifaDuracion guardar(TarifaDuracion tarifaDuracion) {
-        return repository.save(tarifaDuracion);
+        TarifaDuracion guardada = repository.save(tarifaDuracion);
+        notificadorCachePrecios.notificarCambio();
+        return guardada;
     }
 
     public void eliminar(int id) {
         repository.deleteById(id);
+        notificadorCachePrecios.notificarCambio();
     }
 
     public TarifaDuracion buscarPorNumVueltas(int numVueltas) {
@@ -0,0 +1,53 @@
+package com.example.demo.Benchmarks;
+
+import com.example.demo.Entities.Comprobante;
+import com.example.demo.Services.ComprobanteService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo y formateo del comprobante para grupos de 1 a 15 personas, con un cumpleañero y frecuencia del cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComprobanteBenchmark {
+
+    @Param({"1", "3", "6", "10", "15"})
+    public int personas;
+
+    private ComprobanteService comprobanteService;
+    private Map<String, String> nombreCorreo;
+    private List<String> cumpleaneros;
+    private Comprobante comprobante;
+
+    @Setup
+    public void preparar() {
+        comprobanteService = new ComprobanteService();
+        nombreCorreo = new LinkedHashMap<>();
+        for (int i = 1; i <= personas; i++) {
+            nombreCorreo.put("Persona " + i, "persona" + i + "@mail.com");
+        }
+        cumpleaneros = new ArrayList<>(List.of("persona2@mail.com"));
+        comprobante = crearComprobante();
+    }
+
+    @Benchmark
+    public Comprobante crearComprobante() {
+        return comprobanteService.crearComprobante(17250, personas, 3, "Persona 1", "persona1@mail.com",
+                nombreCorreo, cumpleaneros);
+    }
+
+    @Benchmark
+    public String formatearComprobante() {
+        return comprobanteService.formatearComprobante(comprobante);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.Benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Corre los benchmarks con el perfilador de GC y compara cada resultado con la línea base guardada.
+ * Termina con código 1 si algún benchmark es más lento o reserva más memoria por operación que lo tolerado,
+ * o si no tiene línea base: un benchmark sin medición de referencia no se da por bueno.
+ * Con -Dbenchmarks.actualizar=true, en vez de comparar, reemplaza la línea base con los resultados de esta corrida.
+ * <p>
+ * Uso: EjecutarBenchmarks &lt;linea-base.json&gt; &lt;resultados.json&gt;
+ */
+public class EjecutarBenchmarks {
+
+    // El tiempo depende de la máquina y tiene ruido; los bytes por operación casi no varían entre corridas
+    static final double TOLERANCIA_TIEMPO = 0.20;
+    static final double TOLERANCIA_MEMORIA = 0.10;
+    static final double HOLGURA_MEMORIA_BYTES = 64;
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        File lineaBase = new File(args[0]);
+        File resultados = new File(args[1]);
+        resultados.getParentFile().mkdirs();
+
+        boolean actualizar = Boolean.getBoolean("benchmarks.actualizar");
+        Map<String, Medicion> base = lineaBase.exists() ? leerLineaBase(JSON.readTree(lineaBase)) : Map.of();
+        if (!actualizar && base.isEmpty()) {
+            // Se revisa antes de correr para no gastar la corrida completa en una comparación imposible
+            System.err.println("La línea base " + lineaBase + " no tiene mediciones. Generarla en la máquina de "
+                    + "referencia con: mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.actualizar=true");
+            System.exit(1);
+        }
+
+        Options opciones = new OptionsBuilder()
+                .include(EjecutarBenchmarks.class.getPackageName() + "\\." + System.getProperty("benchmarks.filtro", ".*"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultados.getPath())
+                .build();
+        new Runner(opciones).run();
+
+        Map<String, Medicion> actuales = leerResultados(JSON.readTree(resultados));
+        if (actualizar) {
+            escribirLineaBase(lineaBase, actuales);
+            System.out.println("Línea base actualizada con " + actuales.size() + " benchmarks: " + lineaBase);
+            return;
+        }
+
+        List<String> regresiones = comparar(base, actuales);
+        if (!regresiones.isEmpty()) {
+            System.err.println("Regresiones respecto de la línea base:");
+            regresiones.forEach(regresion -> System.err.println("  " + regresion));
+            System.exit(1);
+        }
+        System.out.println("Sin regresiones respecto de la línea base (" + base.size() + " benchmarks registrados).");
+    }
+
+    // ==================== COMPARACIÓN ====================
+
+    static List<String> comparar(Map<String, Medicion> base, Map<String, Medicion> actuales) {
+        List<String> regresiones = new ArrayList<>();
+        for (Map.Entry<String, Medicion> entrada : actuales.entrySet()) {
+            Medicion anterior = base.get(entrada.getKey());
+            Medicion actual = entrada.getValue();
+            if (anterior == null) {
+                regresiones.add(entrada.getKey() + ": sin línea base (usar -Dbenchmarks.actualizar=true)");
+                continue;
+            }
+            if (anterior.unidad.equals(actual.unidad) && actual.tiempo > anterior.tiempo * (1 + TOLERANCIA_TIEMPO)) {
+                regresiones.add(String.format("%s: %.3f -> %.3f %s", entrada.getKey(),
+                        anterior.tiempo, actual.tiempo, actual.unidad));
+            }
+            if (actual.bytesPorOperacion > anterior.bytesPorOperacion * (1 + TOLERANCIA_MEMORIA) + HOLGURA_MEMORIA_BYTES) {
+                regresiones.add(String.format("%s: %.0f -> %.0f B/op", entrada.getKey(),
+                        anterior.bytesPorOperacion, actual.bytesPorOperacion));
+            }
+        }
+        return regresiones;
+    }
+
+    // ==================== LECTURA Y ESCRITURA ====================
+
+    // Formato de JMH: [{benchmark, params, primaryMetric: {score, scoreUnit}, secondaryMetrics: {gc.alloc.rate.norm}}]
+    static Map<String, Medicion> leerResultados(JsonNode resultados) {
+        Map<String, Medicion> mediciones = new TreeMap<>();
+        for (JsonNode resultado : resultados) {
+            StringBuilder clave = new StringBuilder(resultado.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> parametros = resultado.path("params").fields();
+            while (parametros.hasNext()) {
+                Map.Entry<String, JsonNode> parametro = parametros.next();
+                clave.append(' ').append(parametro.getKey()).append('=').append(parametro.getValue().asText());
+            }
+
+            JsonNode principal = resultado.path("primaryMetric");
+            double bytes = 0;
+            Iterator<Map.Entry<String, JsonNode>> secundarias = resultado.path("secondaryMetrics").fields();
+            while (secundarias.hasNext()) {
+                Map.Entry<String, JsonNode> metrica = secundarias.next();
+                // Versiones anteriores de JMH anteponen "·" al nombre de la métrica
+                if (metrica.getKey().replace("·", "").equals("gc.alloc.rate.norm")) {
+                    bytes = metrica.getValue().path("score").asDouble();
+                }
+            }
+            mediciones.put(clave.toString(), new Medicion(principal.path("score").asDouble(),
+                    principal.path("scoreUnit").asText(), bytes));
+        }
+        return mediciones;
+    }
+
+    // Las claves que empiezan con "_" son notas para quien lee el archivo
+    static Map<String, Medicion> leerLineaBase(JsonNode lineaBase) {
+        Map<String, Medicion> mediciones = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entradas = lineaBase.fields();
+        while (entradas.hasNext()) {
+            Map.Entry<String, JsonNode> entrada = entradas.next();
+            if (entrada.getKey().startsWith("_")) {
+                continue;
+            }
+            JsonNode valor = entrada.getValue();
+            mediciones.put(entrada.getKey(), new Medicion(valor.path("tiempo").asDouble(),
+                    valor.path("unidad").asText(), valor.path("bytesPorOperacion").asDouble()));
+        }
+        return mediciones;
+    }
+
+    private static void escribirLineaBase(File archivo, Map<String, Medicion> mediciones) throws Exception {
+        ObjectNode raiz = JSON.createObjectNode();
+        raiz.put("_nota", "Generado con: mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.actualizar=true. "
+                + "Los tiempos solo son comparables en la misma máquina; los bytes por operación, en cualquiera.");
+        for (Map.Entry<String, Medicion> entrada : mediciones.entrySet()) {
+            ObjectNode valor = raiz.putObject(entrada.getKey());
+            valor.put("tiempo", entrada.getValue().tiempo);
+            valor.put("unidad", entrada.getValue().unidad);
+            valor.put("bytesPorOperacion", entrada.getValue().bytesPorOperacion);
+        }
+        JSON.writeValue(archivo, raiz);
+    }
+
+    static final class Medicion {
+        final double tiempo;
+        final String unidad;
+        final double bytesPorOperacion;
+
+        Medicion(double tiempo, String unidad, double bytesPorOperacion) {
+            this.tiempo = tiempo;
+            this.unidad = unidad;
+            this.bytesPorOperacion = bytesPorOperacion;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.Benchmarks;
+
+import com.example.demo.Entities.Reserva;
+import com.example.demo.Repositories.ReservaRepository;
+import com.example.demo.Services.CalendarioFeriados;
+import com.example.demo.Services.ReservaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de huecos libres de obtenerHorariosDisponiblesProximosSeisMeses. El repositorio se reemplaza por un
+ * proxy que entrega reservas ya armadas en memoria, así que solo se mide el algoritmo y no la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HorariosDisponiblesBenchmark {
+
+    private static final LocalDate MES = LocalDate.of(2025, 6, 1);
+
+    @Param({"0", "4", "10"})
+    public int reservasPorDia;
+
+    private ReservaService reservaService;
+
+    @Setup
+    public void preparar() {
+        Map<LocalDate, List<Reserva>> porDia = new HashMap<>();
+        for (LocalDate fecha = MES; fecha.isBefore(MES.plusMonths(7)); fecha = fecha.plusDays(1)) {
+            List<Reserva> reservas = new ArrayList<>();
+            // Bloques de 35 minutos separados por huecos de 10 y de 40 minutos, en orden inverso para forzar el orden
+            LocalTime inicio = LocalTime.of(14, 0);
+            for (int i = 0; i < reservasPorDia; i++) {
+                Reserva reserva = new Reserva();
+                reserva.setFechaInicio(fecha);
+                reserva.setHoraInicio(inicio);
+                reserva.setHoraFin(inicio.plusMinutes(35));
+                reservas.add(0, reserva);
+                inicio = inicio.plusMinutes(i % 2 == 0 ? 45 : 75);
+            }
+            porDia.put(fecha, reservas);
+        }
+
+        ReservaRepository repositorio = (ReservaRepository) Proxy.newProxyInstance(
+                ReservaRepository.class.getClassLoader(), new Class<?>[]{ReservaRepository.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("findByFechaInicioOrderByHoraInicioAsc")) {
+                        return new ArrayList<>(porDia.getOrDefault((LocalDate) argumentos[0], List.of()));
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+
+        CalendarioFeriados calendarioFeriados = new CalendarioFeriados();
+        calendarioFeriados.cargar(List.of(LocalDate.of(2025, 6, 20), LocalDate.of(2025, 9, 18),
+                LocalDate.of(2025, 9, 19), LocalDate.of(2025, 12, 25)));
+
+        reservaService = new ReservaService();
+        ReflectionTestUtils.setField(reservaService, "reservaRepository", repositorio);
+        ReflectionTestUtils.setField(reservaService, "calendarioFeriados", calendarioFeriados);
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<String>> horariosSeisMeses() {
+        return reservaService.obtenerHorariosDisponiblesProximosSeisMeses(MES);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.Benchmarks;
+
+import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.Reserva;
+import com.example.demo.Services.ComprobanteService;
+import com.example.demo.Services.GeneradorPdfService;
+import com.example.demo.Services.ReservaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Texto del resumen que se envía por correo y el PDF que se genera a partir de él, para un grupo de 15 personas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResumenReservaBenchmark {
+
+    private ReservaService reservaService;
+    private GeneradorPdfService generadorPdfService;
+    private Reserva reserva;
+    private String resumen;
+
+    @Setup
+    public void preparar() {
+        ComprobanteService comprobanteService = new ComprobanteService();
+        reservaService = new ReservaService();
+        ReflectionTestUtils.setField(reservaService, "comprobanteService", comprobanteService);
+        generadorPdfService = new GeneradorPdfService();
+
+        Map<String, String> nombreCorreo = new LinkedHashMap<>();
+        for (int i = 1; i <= 15; i++) {
+            nombreCorreo.put("Persona " + i, "persona" + i + "@mail.com");
+        }
+        Comprobante comprobante = comprobanteService.crearComprobante(20000, 15, 5, "Persona 1", "persona1@mail.com",
+                nombreCorreo, List.of());
+
+        reserva = new Reserva();
+        reserva.setId(1234L);
+        reserva.setFechaHora(LocalDateTime.of(2025, 6, 1, 12, 30));
+        reserva.setFechaInicio(LocalDate.of(2025, 6, 14));
+        reserva.setHoraInicio(LocalTime.of(15, 0));
+        reserva.setHoraFin(LocalTime.of(15, 40));
+        reserva.setNum_vueltas_tiempo_maximo(20);
+        reserva.setNum_personas(15);
+        reserva.setNombreCliente("Persona 1");
+        reserva.setComprobante(comprobante);
+
+        resumen = obtenerInformacionReserva();
+    }
+
+    @Benchmark
+    public String obtenerInformacionReserva() {
+        return reservaService.obtenerInformacionReservaConComprobante(reserva);
+    }
+
+    @Benchmark
+    public byte[] generarPdf() {
+        return generadorPdfService.generarPDFReserva(resumen);
+    }
+}
@@ -97,6 +97,21 @@ public class ClientController {
 
     // ===================== RESERVAS =====================
 
+    // Historial de reservas del cliente, de la más reciente a la más antigua. Para la página siguiente
+    // se envía como cursor el siguienteCursor de la respuesta anterior
+    @GetMapping("/{id}/reservas")
+    public ResponseEntity<Map<String, Object>> getHistorialReservas(@PathVariable Long id,
+                                                                    @RequestParam(required = false) Long cursor,
+                                                                    @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(clientService.obtenerHistorialReservas(id, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // Generar una nueva reserva para un cliente
     @PostMapping("/generarReserva/{id}")
     public ResponseEntity<Reserva> generarReserva(@PathVariable Long id, @RequestBody Map<String, Object> body) {
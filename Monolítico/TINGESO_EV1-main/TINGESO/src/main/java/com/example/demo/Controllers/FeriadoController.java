@@ -0,0 +1,71 @@
+package com.example.demo.Controllers;
+
+import com.example.demo.Entities.Feriado;
+import com.example.demo.Services.FeriadoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Administración de feriados. Cada cambio recompila el calendario en memoria usado para las tarifas y horarios.
+ * Con feriados.fuente-url configurada los feriados se administran en tarifa-dias-especiales y aquí solo se leen.
+ */
+@RestController
+@RequestMapping("/api/feriados")
+@CrossOrigin("*")
+public class FeriadoController {
+
+    @Autowired
+    private FeriadoService feriadoService;
+
+    @GetMapping("/getAll")
+    public List<Feriado> getAll(@RequestParam(required = false) Integer anio) {
+        return anio != null ? feriadoService.obtenerPorAnio(anio) : feriadoService.obtenerTodos();
+    }
+
+    @GetMapping("/getById/{id}")
+    public ResponseEntity<Feriado> getById(@PathVariable Long id) {
+        return feriadoService.obtenerPorId(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/create")
+    public ResponseEntity<Feriado> create(@RequestBody Feriado feriado) {
+        try {
+            return ResponseEntity.ok(feriadoService.crear(feriado));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PutMapping("/update/{id}")
+    public ResponseEntity<Feriado> update(@PathVariable Long id, @RequestBody Feriado feriado) {
+        try {
+            return feriadoService.actualizar(id, feriado)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        try {
+            if (feriadoService.eliminar(id)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
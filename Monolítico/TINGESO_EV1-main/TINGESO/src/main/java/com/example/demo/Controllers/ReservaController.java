@@ -1,13 +1,16 @@
 package com.example.demo.Controllers;
 
 import com.example.demo.Entities.Reserva;
+import com.example.demo.Services.ExportacionReservasService;
 import com.example.demo.Services.ReservaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -24,6 +27,9 @@ public class ReservaController {
     @Autowired
     private ReservaService reservaService;
 
+    @Autowired
+    private ExportacionReservasService exportacionReservasService;
+
     // ==================== CRUD BÁSICO ====================
 
     /**
@@ -34,6 +40,25 @@ public class ReservaController {
         return reservaService.findAll();
     }
 
+    /**
+     * Exportar reservas como JSON delimitado por saltos de línea, opcionalmente filtradas por fecha de inicio.
+     * Se envían por páginas a medida que se leen, sin armar la lista completa en memoria.
+     */
+    @GetMapping(value = "/exportar", produces = ExportacionReservasService.TIPO_CONTENIDO)
+    public ResponseEntity<StreamingResponseBody> exportarReservas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            exportacionReservasService.validarRango(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody cuerpo = salida -> exportacionReservasService.exportar(desde, hasta, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportacionReservasService.TIPO_CONTENIDO))
+                .body(cuerpo);
+    }
+
     /**
      * Obtener una reserva por su ID.
      */
@@ -172,6 +197,28 @@ public class ReservaController {
         return reservaService.generarReporteIngresosPorGrupoDePersonas(fechaInicio, fechaFin);
     }
 
+    /**
+     * Reporte configurable: agrupa por las dimensiones pedidas (mes, vueltas, grupo, diaSemana, hora,
+     * tipoDescuento) y suma las medidas pedidas (ingresos, reservas, personas).
+     */
+    @GetMapping("/reporte")
+    public List<Map<String, Object>> obtenerReporte(
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(value = "dimensiones", defaultValue = "mes") List<String> dimensiones,
+            @RequestParam(value = "medidas", defaultValue = "ingresos") List<String> medidas) {
+
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha de inicio no puede ser posterior a la fecha de fin.");
+        }
+
+        try {
+            return reservaService.generarReporte(fechaInicio, fechaFin, dimensiones, medidas);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/obtenerReservaPorFechaYHora")
     public Optional<Reserva> obtenerReserva(@RequestParam LocalDate fechaInicio,
                                             @RequestParam LocalTime horaInicio,
@@ -5,10 +5,12 @@ import lombok.*;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        // Búsqueda de cumpleañeros por correo al generar reservas
+        @Index(name = "idx_clients_email", columnList = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,10 +21,6 @@ public class Client {
     @Column(unique = true, nullable = false)
     private Long id;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "cliente_id") // Se usa esta columna en la tabla reserva
-    private List<Reserva> reservas;
-
     private String rut;
     private String name;
     private String email;
@@ -19,11 +19,11 @@ public class Comprobante {
     @Column(unique = true, nullable = false)
     private Long id;
 
-    // Ej: "Sebastián Del Solar|Tarifa Base:20000|Desc. Grupo:10%|Desc. Especial:5%|Monto:17100|IVA:3240|Total:20340"
+    // Una fila por persona, en el orden del comprobante (el cliente principal va al final)
     @ElementCollection
-    @CollectionTable(name = "detalle_comprobante", joinColumns = @JoinColumn(name = "comprobante_id"))
-    @Column(name = "detalle_pago")
-    private List<String> detallePagoPorPersona;
+    @CollectionTable(name = "detalle_pago_persona", joinColumns = @JoinColumn(name = "comprobante_id"))
+    @OrderColumn(name = "orden")
+    private List<DetallePagoPorPersona> detallePagoPorPersona;
 
     private double descuento; // descuento total aplicado al grupo (si lo deseas mantener)
     private double precio_final; // precio final del grupo (sin IVA)
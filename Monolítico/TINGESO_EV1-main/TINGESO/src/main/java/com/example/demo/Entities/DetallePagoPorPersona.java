@@ -0,0 +1,22 @@
+package com.example.demo.Entities;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+// Lo que paga cada integrante del grupo, en columnas con tipo (mismos campos que en reserva-service)
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetallePagoPorPersona {
+
+    private String nombrePersona;
+
+    private double precioBase;             // Precio sin IVA
+    private String tipoDescuento;          // "Cumpleaños", "Frecuencia" o "Grupal"
+    private int porcentajeDescuento;       // Ej: 10 o 50; "Grupal" con 0 es sin descuento
+    private double montoFinalSinIva;       // Precio luego del descuento, sin IVA
+    private double iva;                    // IVA sobre el monto final sin IVA
+    private double totalConIva;            // Precio final con IVA
+}
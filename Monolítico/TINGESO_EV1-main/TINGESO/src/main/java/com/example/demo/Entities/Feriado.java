@@ -0,0 +1,25 @@
+package com.example.demo.Entities;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "feriados")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Feriado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private LocalDate fecha;
+
+    private String nombre; // Ej: "Independencia Nacional"
+}
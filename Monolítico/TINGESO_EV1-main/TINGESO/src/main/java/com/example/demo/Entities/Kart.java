@@ -19,4 +19,12 @@ public class Kart {
 
     private String modelo;
     private String codificacion;
+
+    // Un kart en mantención no se asigna a nuevas reservas. El default permite agregar la columna a una tabla con filas
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean enMantenimiento;
+
+    public Kart(Long id, String modelo, String codificacion) {
+        this(id, modelo, codificacion, false);
+    }
 }
@@ -10,7 +10,10 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_fecha_hora", columnList = "fechaInicio, horaInicio, id"),
+        @Index(name = "idx_reservas_cliente", columnList = "cliente_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +24,10 @@ public class Reserva {
     @Column(unique = true, nullable = false)
     private Long id;
 
+    // Cliente dueño de la reserva; se escribe directo, sin cargar las demás reservas del cliente
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
     @ManyToMany
     @JoinTable(
             name = "reserva_karts",
@@ -4,6 +4,9 @@ import com.example.demo.Entities.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
@@ -11,4 +14,7 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     Client findByRut(String rut);
     Client findByEmail(String email);
     Client findById(long id);
+
+    // Todos los clientes de un grupo en una sola consulta (WHERE email IN ...)
+    List<Client> findByEmailIn(Collection<String> emails);
 }
@@ -0,0 +1,25 @@
+package com.example.demo.Repositories;
+
+import com.example.demo.Entities.Feriado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FeriadoRepository extends JpaRepository<Feriado, Long> {
+
+    List<Feriado> findAllByOrderByFechaAsc();
+
+    List<Feriado> findByFechaBetweenOrderByFechaAsc(LocalDate desde, LocalDate hasta);
+
+    boolean existsByFecha(LocalDate fecha);
+
+    boolean existsByFechaAndIdNot(LocalDate fecha, Long id);
+
+    // Solo las fechas, para compilar el calendario sin cargar las entidades
+    @Query("SELECT f.fecha FROM Feriado f")
+    List<LocalDate> findTodasLasFechas();
+}
@@ -0,0 +1,63 @@
+package com.example.demo.Repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Pasa los detalles de pago guardados como texto ("nombre|Base:...|Descuento Grupal 10%|...") de la tabla
+ * detalle_comprobante a las columnas de detalle_pago_persona, y luego elimina la tabla antigua.
+ * Se ejecuta una sola vez: si detalle_comprobante ya no existe no hace nada. Hibernate (ddl-auto) no migra datos.
+ */
+@Component
+public class MigracionDetallePago {
+
+    // Los montos se escribieron con %.2f: según el locale el separador decimal pudo quedar como coma.
+    // La tabla antigua no tenía columna de orden; se respeta el orden físico de inserción
+    private static final String MIGRAR =
+            "DO $$ BEGIN " +
+            "IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'detalle_comprobante') THEN " +
+            "INSERT INTO detalle_pago_persona (comprobante_id, orden, nombre_persona, precio_base, tipo_descuento, " +
+            "porcentaje_descuento, monto_final_sin_iva, iva, total_con_iva) " +
+            "SELECT d.comprobante_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY d.comprobante_id ORDER BY d.ctid) - 1, " +
+            "split_part(d.detalle_pago, '|', 1), " +
+            "replace(replace(split_part(d.detalle_pago, '|', 2), 'Base:', ''), ',', '.')::numeric, " +
+            "split_part(split_part(d.detalle_pago, '|', 3), ' ', 2), " +
+            "COALESCE(NULLIF(regexp_replace(split_part(d.detalle_pago, '|', 3), '[^0-9]', '', 'g'), ''), '0')::int, " +
+            "replace(replace(split_part(d.detalle_pago, '|', 4), 'Monto sin IVA:', ''), ',', '.')::numeric, " +
+            "replace(replace(split_part(d.detalle_pago, '|', 5), 'IVA:', ''), ',', '.')::numeric, " +
+            "replace(replace(split_part(d.detalle_pago, '|', 6), 'Total:', ''), ',', '.')::numeric " +
+            "FROM detalle_comprobante d " +
+            "WHERE NOT EXISTS (SELECT 1 FROM detalle_pago_persona p WHERE p.comprobante_id = d.comprobante_id); " +
+            "DROP TABLE detalle_comprobante; " +
+            "END IF; " +
+            "END $$";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrar() {
+        try (Connection conexion = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexion.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        } catch (Exception e) {
+            System.err.println("No se pudo revisar la base de datos para migrar los detalles de pago: " + e.getMessage());
+            return;
+        }
+
+        try {
+            new JdbcTemplate(dataSource).execute(MIGRAR);
+        } catch (Exception e) {
+            // El bloque DO es una sola transacción: si falla, detalle_comprobante queda intacta para reintentar
+            System.err.println("No se pudo migrar los detalles de pago de los comprobantes: " + e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.Repositories;
 
+import com.example.demo.Entities.Comprobante;
 import com.example.demo.Entities.Reserva;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,17 +11,79 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
-    @Query("SELECT r FROM Reserva r " +
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reserva r " +
             "WHERE r.fechaInicio = :fecha " +
             "AND (r.horaInicio < :horaFin AND r.horaFin > :horaInicio)")
-    List<Reserva> findReservasQueSeCruzan(@Param("fecha") LocalDate fecha,
-                                          @Param("horaInicio") LocalTime horaInicio,
-                                          @Param("horaFin") LocalTime horaFin);
+    boolean existsReservaQueSeCruza(@Param("fecha") LocalDate fecha,
+                                    @Param("horaInicio") LocalTime horaInicio,
+                                    @Param("horaFin") LocalTime horaFin);
+
+    // Solo las columnas necesarias para cargar el índice de horarios
+    @Query("SELECT r.id AS id, r.fechaInicio AS fechaInicio, r.horaInicio AS horaInicio, r.horaFin AS horaFin " +
+            "FROM Reserva r WHERE r.fechaInicio >= :desde")
+    List<HorarioReserva> findHorariosDesde(@Param("desde") LocalDate desde);
+
+    interface HorarioReserva {
+        Long getId();
+        LocalDate getFechaInicio();
+        LocalTime getHoraInicio();
+        LocalTime getHoraFin();
+    }
+
+    // Karts de cada reserva vigente, una fila por kart, para cargar la ocupación del asignador
+    @Query("SELECT r.id AS id, r.fechaInicio AS fechaInicio, r.horaInicio AS horaInicio, r.horaFin AS horaFin, " +
+            "k.id AS kartId FROM Reserva r JOIN r.kartsAsignados k WHERE r.fechaInicio >= :desde")
+    List<KartReservado> findKartsReservadosDesde(@Param("desde") LocalDate desde);
+
+    interface KartReservado extends HorarioReserva {
+        Long getKartId();
+    }
+
+    // Recorrido por cursor (fechaInicio, horaInicio, id): cada página continúa después de la última fila entregada,
+    // usando el índice idx_reservas_fecha_hora en vez de recorrer con OFFSET
+    // El comprobante viene en la misma consulta; las colecciones se cargan aparte con cargarRelacionesDe
+    @Query("SELECT r FROM Reserva r LEFT JOIN FETCH r.comprobante " +
+            "WHERE r.fechaInicio >= :ultimaFecha AND r.fechaInicio <= :hasta " +
+            "AND (r.fechaInicio > :ultimaFecha " +
+            "OR (r.fechaInicio = :ultimaFecha AND (r.horaInicio > :ultimaHora " +
+            "OR (r.horaInicio = :ultimaHora AND r.id > :ultimoId)))) " +
+            "ORDER BY r.fechaInicio, r.horaInicio, r.id")
+    List<Reserva> findPorRangoDeFechasDespuesDe(@Param("hasta") LocalDate hasta,
+                                                @Param("ultimaFecha") LocalDate ultimaFecha,
+                                                @Param("ultimaHora") LocalTime ultimaHora,
+                                                @Param("ultimoId") Long ultimoId,
+                                                Pageable pageable);
+
+    // Un JOIN FETCH de las colecciones en la consulta paginada obligaría a Hibernate a paginar en memoria,
+    // así que los karts y los detalles de pago de una página se traen aparte, una consulta para cada uno
+    @Query("SELECT r FROM Reserva r LEFT JOIN FETCH r.kartsAsignados WHERE r IN :reservas")
+    List<Reserva> cargarKarts(@Param("reservas") Collection<Reserva> reservas);
+
+    @Query("SELECT c FROM Comprobante c LEFT JOIN FETCH c.detallePagoPorPersona WHERE c IN :comprobantes")
+    List<Comprobante> cargarDetallesPago(@Param("comprobantes") Collection<Comprobante> comprobantes);
+
+    // Debe llamarse dentro de la misma transacción que cargó las reservas
+    default void cargarRelacionesDe(List<Reserva> reservas) {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        cargarKarts(reservas);
+        List<Comprobante> comprobantes = reservas.stream()
+                .map(Reserva::getComprobante)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!comprobantes.isEmpty()) {
+            cargarDetallesPago(comprobantes);
+        }
+    }
 
     List<Reserva> findByFechaInicioOrderByHoraInicioAsc(LocalDate fecha);
 
@@ -27,4 +91,9 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
     Optional<Reserva> findByFechaInicioAndHoraInicioAndHoraFin(LocalDate fechaInicio, LocalTime horaInicio, LocalTime horaFin);
 
+    // Historial de un cliente desde la más reciente; cada página continúa antes del último id entregado
+    List<Reserva> findByClienteIdAndIdLessThanOrderByIdDesc(Long clienteId, Long ultimoId, Pageable pageable);
+
+    List<Reserva> findByClienteId(Long clienteId);
+
 }
@@ -0,0 +1,151 @@
+package com.example.demo.Services;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Acumula las medidas de un reporte en arreglos primitivos, en una sola pasada sobre las filas.
+ * Cada combinación de categorías (incluida la posición "sin categoría" de cada dimensión) es una celda, y cada
+ * celda guarda un double por medida. Dos agregaciones con la misma definición se combinan sumando sus arreglos,
+ * por lo que las filas se pueden repartir entre varios hilos.
+ */
+public final class Agregacion<T> {
+
+    public static final String TOTAL = "TOTAL";
+
+    // Evita reservar arreglos enormes por una combinación de dimensiones mal pedida
+    static final int MAXIMO_CELDAS = 1_000_000;
+
+    private final List<Dimension<T>> dimensiones;
+    private final List<Medida<T>> medidas;
+    private final Dimension<T>[] ejes;
+    private final Medida<T>[] valoresPorFila;
+    private final double[] valores;     // celda * medidas + medida
+    private final long[] filas;         // filas agregadas por celda
+
+    @SuppressWarnings("unchecked")
+    public Agregacion(List<Dimension<T>> dimensiones, List<Medida<T>> medidas) {
+        if (medidas.isEmpty()) {
+            throw new IllegalArgumentException("El reporte debe tener al menos una medida.");
+        }
+        long celdas = 1;
+        for (Dimension<T> dimension : dimensiones) {
+            celdas *= dimension.tamano();
+            if (celdas > MAXIMO_CELDAS) {
+                throw new IllegalArgumentException("El reporte tiene demasiadas combinaciones de categorías.");
+            }
+        }
+        this.dimensiones = List.copyOf(dimensiones);
+        this.medidas = List.copyOf(medidas);
+        this.ejes = this.dimensiones.toArray(new Dimension[0]);
+        this.valoresPorFila = this.medidas.toArray(new Medida[0]);
+        this.valores = new double[(int) celdas * valoresPorFila.length];
+        this.filas = new long[(int) celdas];
+    }
+
+    // Recorre las filas una vez; en paralelo cada hilo llena su propia agregación y al final se suman
+    public static <T> Agregacion<T> calcular(List<Dimension<T>> dimensiones, List<Medida<T>> medidas,
+                                             Collection<T> filas, boolean paralelo) {
+        Stream<T> flujo = paralelo ? filas.parallelStream() : filas.stream();
+        return flujo.collect(() -> new Agregacion<>(dimensiones, medidas), Agregacion::agregar, Agregacion::combinar);
+    }
+
+    public void agregar(T fila) {
+        int celda = 0;
+        for (Dimension<T> eje : ejes) {
+            celda = celda * eje.tamano() + eje.indice(fila);
+        }
+        filas[celda]++;
+        int base = celda * valoresPorFila.length;
+        for (int m = 0; m < valoresPorFila.length; m++) {
+            valores[base + m] += valoresPorFila[m].valor(fila);
+        }
+    }
+
+    public Agregacion<T> combinar(Agregacion<T> otra) {
+        if (!dimensiones.equals(otra.dimensiones) || !medidas.equals(otra.medidas)) {
+            throw new IllegalArgumentException("Solo se pueden combinar agregaciones del mismo reporte.");
+        }
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] += otra.valores[i];
+        }
+        for (int i = 0; i < filas.length; i++) {
+            filas[i] += otra.filas[i];
+        }
+        return this;
+    }
+
+    // ==================== LECTURA ====================
+
+    public List<Dimension<T>> getDimensiones() {
+        return dimensiones;
+    }
+
+    public List<Medida<T>> getMedidas() {
+        return medidas;
+    }
+
+    // Filas agregadas en total, incluidas las que quedaron sin categoría
+    public long getCantidadFilas() {
+        long total = 0;
+        for (long cantidad : filas) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    // Reporte de una dimensión: etiqueta -> valor de la medida, más TOTAL con todas las filas
+    public Map<String, Double> comoTotales(int medida) {
+        if (ejes.length != 1) {
+            throw new IllegalStateException("El reporte por totales necesita exactamente una dimensión.");
+        }
+        List<String> etiquetas = ejes[0].getEtiquetas();
+        int cantidadMedidas = valoresPorFila.length;
+        Map<String, Double> totales = new LinkedHashMap<>();
+        double total = 0;
+        for (int i = 0; i < ejes[0].tamano(); i++) {
+            double valor = valores[i * cantidadMedidas + medida];
+            if (i < etiquetas.size()) {
+                totales.put(etiquetas.get(i), valor);
+            }
+            total += valor;
+        }
+        totales.put(TOTAL, total);
+        return totales;
+    }
+
+    // Una fila por combinación con reservas: etiqueta de cada dimensión y valor de cada medida.
+    // Las combinaciones con alguna dimensión sin categoría se omiten.
+    public List<Map<String, Object>> comoFilas() {
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        int[] indices = new int[ejes.length];
+        for (int celda = 0; celda < filas.length; celda++) {
+            if (filas[celda] == 0 || !decodificar(celda, indices)) {
+                continue;
+            }
+            Map<String, Object> fila = new LinkedHashMap<>();
+            for (int d = 0; d < ejes.length; d++) {
+                fila.put(ejes[d].getNombre(), ejes[d].getEtiquetas().get(indices[d]));
+            }
+            for (int m = 0; m < valoresPorFila.length; m++) {
+                double valor = valores[celda * valoresPorFila.length + m];
+                fila.put(valoresPorFila[m].getNombre(), valoresPorFila[m].isEntera() ? (Object) Math.round(valor) : valor);
+            }
+            resultado.add(fila);
+        }
+        return resultado;
+    }
+
+    // Traduce una celda a la posición en cada dimensión; false si alguna es "sin categoría"
+    private boolean decodificar(int celda, int[] indices) {
+        for (int d = ejes.length - 1; d >= 0; d--) {
+            int tamano = ejes[d].tamano();
+            indices[d] = celda % tamano;
+            celda /= tamano;
+            if (indices[d] == tamano - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Kart;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ocupación de karts en memoria, por día y minuto. Cada minuto guarda un bitset con los karts ocupados; pedir N karts
+ * para un horario [inicio, fin) combina los bitsets de los minutos que cubre y toma los primeros N libres a partir de
+ * un cursor que rota, para repartir el desgaste entre toda la flota. Al ir por minuto, una reserva que empieza justo
+ * cuando termina otra no choca con ella aunque la hora no sea múltiplo de cinco.
+ * Los karts en mantención o dados de baja nunca se asignan.
+ */
+@Component
+public class AsignadorKarts {
+
+    static final int MINUTOS_POR_DIA = 24 * 60;
+
+    // Karts ocupados en cada minuto del día (null si el minuto está libre) y las reservas que los ocupan
+    private static final class DiaKarts {
+        final long[][] minutos = new long[MINUTOS_POR_DIA][];
+        final Map<Long, Ocupacion> reservas = new HashMap<>();
+    }
+
+    private static final class Ocupacion {
+        final int desde;
+        final int hasta;
+        final long[] karts;
+
+        Ocupacion(int desde, int hasta, long[] karts) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.karts = karts;
+        }
+    }
+
+    // Cada kart tiene una posición fija en los bitsets; al darlo de baja conserva su posición y pasa a no asignable
+    private final List<Kart> flota = new ArrayList<>();
+    private final Map<Long, Integer> posicionPorId = new HashMap<>();
+    private final BitSet noAsignables = new BitSet();
+    private boolean flotaCargada;
+    private int siguiente;
+
+    private final Map<LocalDate, DiaKarts> dias = new HashMap<>();
+    private final Map<Long, LocalDate> fechaPorReserva = new HashMap<>();
+
+    // ==================== FLOTA ====================
+
+    // Reinicia la flota y la ocupación; después se registran las reservas vigentes
+    public synchronized void cargarFlota(Collection<Kart> karts) {
+        flota.clear();
+        posicionPorId.clear();
+        noAsignables.clear();
+        dias.clear();
+        fechaPorReserva.clear();
+        siguiente = 0;
+        for (Kart kart : karts) {
+            actualizarKart(kart);
+        }
+        flotaCargada = true;
+    }
+
+    public synchronized boolean isFlotaCargada() {
+        return flotaCargada;
+    }
+
+    // Kart nuevo o modificado (por ejemplo, al entrar o salir de mantención)
+    public synchronized void actualizarKart(Kart kart) {
+        Integer posicion = posicionPorId.get(kart.getId());
+        if (posicion == null) {
+            posicion = flota.size();
+            flota.add(kart);
+            posicionPorId.put(kart.getId(), posicion);
+        } else {
+            flota.set(posicion, kart);
+        }
+        noAsignables.set(posicion, kart.isEnMantenimiento());
+    }
+
+    public synchronized void retirarKart(Long id) {
+        Integer posicion = posicionPorId.get(id);
+        if (posicion != null) {
+            noAsignables.set(posicion);
+        }
+    }
+
+    // ==================== ASIGNACIÓN ====================
+
+    // Elige karts libres en todo el horario sin marcarlos; quedan ocupados al registrar la reserva guardada
+    public synchronized List<Kart> asignar(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin, int cantidad) {
+        int desde = minutoInicial(horaInicio);
+        int hasta = minutoFinal(horaFin);
+
+        BitSet ocupados = (BitSet) noAsignables.clone();
+        DiaKarts dia = dias.get(fecha);
+        if (dia != null) {
+            for (int minuto = desde; minuto < hasta; minuto++) {
+                if (dia.minutos[minuto] != null) {
+                    ocupados.or(BitSet.valueOf(dia.minutos[minuto]));
+                }
+            }
+        }
+
+        // Recorre la flota desde el cursor, dando la vuelta una sola vez
+        List<Kart> asignados = new ArrayList<>(cantidad);
+        int total = flota.size();
+        int posicion = total == 0 ? 0 : siguiente % total;
+        for (int revisados = 0; revisados < total && asignados.size() < cantidad; revisados++) {
+            if (!ocupados.get(posicion)) {
+                asignados.add(flota.get(posicion));
+            }
+            posicion = (posicion + 1) % total;
+        }
+        if (asignados.size() < cantidad) {
+            throw new RuntimeException("No hay karts disponibles para " + cantidad + " personas en ese horario.");
+        }
+        siguiente = posicion;
+        return asignados;
+    }
+
+    // ==================== OCUPACIÓN ====================
+
+    public synchronized void registrar(long reservaId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin,
+                                       Collection<Long> kartIds) {
+        if (fechaPorReserva.containsKey(reservaId)) {
+            liberar(reservaId);
+        }
+        BitSet karts = new BitSet();
+        for (Long kartId : kartIds) {
+            Integer posicion = posicionPorId.get(kartId);
+            if (posicion != null) {
+                karts.set(posicion);
+            }
+        }
+        if (karts.isEmpty()) {
+            return;
+        }
+
+        Ocupacion ocupacion = new Ocupacion(minutoInicial(horaInicio), minutoFinal(horaFin), karts.toLongArray());
+        DiaKarts dia = dias.computeIfAbsent(fecha, f -> new DiaKarts());
+        dia.reservas.put(reservaId, ocupacion);
+        marcar(dia, ocupacion);
+        fechaPorReserva.put(reservaId, fecha);
+    }
+
+    public synchronized void liberar(long reservaId) {
+        LocalDate fecha = fechaPorReserva.remove(reservaId);
+        if (fecha == null) {
+            return;
+        }
+        DiaKarts dia = dias.get(fecha);
+        Ocupacion ocupacion = dia.reservas.remove(reservaId);
+        if (dia.reservas.isEmpty()) {
+            dias.remove(fecha);
+            return;
+        }
+
+        // Dos reservas pueden compartir minutos (horas con segundos, o karts distintos a la misma hora): se vuelven a
+        // marcar las que se cruzan
+        for (int minuto = ocupacion.desde; minuto < ocupacion.hasta; minuto++) {
+            dia.minutos[minuto] = null;
+        }
+        for (Ocupacion otra : dia.reservas.values()) {
+            if (otra.desde < ocupacion.hasta && otra.hasta > ocupacion.desde) {
+                marcar(dia, otra);
+            }
+        }
+    }
+
+    private static void marcar(DiaKarts dia, Ocupacion ocupacion) {
+        for (int minuto = ocupacion.desde; minuto < ocupacion.hasta; minuto++) {
+            long[] actual = dia.minutos[minuto];
+            if (actual == null) {
+                dia.minutos[minuto] = ocupacion.karts.clone();
+                continue;
+            }
+            if (actual.length < ocupacion.karts.length) {
+                actual = Arrays.copyOf(actual, ocupacion.karts.length);
+                dia.minutos[minuto] = actual;
+            }
+            for (int palabra = 0; palabra < ocupacion.karts.length; palabra++) {
+                actual[palabra] |= ocupacion.karts[palabra];
+            }
+        }
+    }
+
+    // El horario es [inicio, fin): el minuto de fin queda libre. Si la hora trae segundos, el inicio se redondea hacia
+    // abajo y el fin hacia arriba, así un minuto parcial cuenta como ocupado
+    private static int minutoInicial(LocalTime horaInicio) {
+        return horaInicio.toSecondOfDay() / 60;
+    }
+
+    private static int minutoFinal(LocalTime horaFin) {
+        int segundos = horaFin.toSecondOfDay();
+        // Una hora de fin a medianoche cierra el día
+        return segundos == 0 ? MINUTOS_POR_DIA : (segundos + 59) / 60;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.Services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bloqueos por franjas para serializar la toma de horarios de un mismo día.
+ * Días distintos caen en franjas distintas (hasta FRANJAS días consecutivos), así que
+ * las reservas de días diferentes siguen ejecutándose en paralelo.
+ */
+@Component
+public class BloqueosPorDia {
+
+    private static final int FRANJAS = 64;
+
+    private final ReentrantLock[] bloqueos;
+
+    public BloqueosPorDia() {
+        bloqueos = new ReentrantLock[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T ejecutar(LocalDate fecha, Supplier<T> accion) {
+        ReentrantLock bloqueo = bloqueos[(int) Math.floorMod(fecha.toEpochDay(), (long) FRANJAS)];
+        bloqueo.lock();
+        try {
+            return accion.get();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+}
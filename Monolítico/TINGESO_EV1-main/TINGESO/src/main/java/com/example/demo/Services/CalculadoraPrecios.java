@@ -0,0 +1,101 @@
+package com.example.demo.Services;
+
+/**
+ * Cálculo de montos de un grupo en centavos enteros. Reglas de redondeo:
+ * <ul>
+ *     <li>Monto sin IVA de cada persona: tarifa * (1 - descuento), redondeado al centavo (mitad hacia arriba).</li>
+ *     <li>IVA de cada persona: 19% de su monto sin IVA, redondeado al centavo (mitad hacia arriba).</li>
+ *     <li>Total de cada persona: monto sin IVA + IVA, sin redondeo adicional.</li>
+ *     <li>Totales del grupo: suma exacta de las líneas, así que siempre cuadran con el detalle.</li>
+ * </ul>
+ * Los descuentos se expresan en puntos base (1000 = 10%). La misma clase existe en el monolito y en reserva-service;
+ * cualquier cambio debe hacerse en ambas y pasar el mismo archivo de casos (precios-golden.csv).
+ */
+public final class CalculadoraPrecios {
+
+    public static final int IVA_PUNTOS_BASE = 1900;
+    public static final int PUNTOS_BASE_TOTAL = 10_000;
+
+    private CalculadoraPrecios() {
+    }
+
+    // Montos de un grupo en arreglos paralelos: la posición i es la persona i
+    public static final class Desglose {
+        private final long[] netos;
+        private final long[] ivas;
+        private long totalNeto;
+        private long totalIva;
+
+        private Desglose(int personas) {
+            netos = new long[personas];
+            ivas = new long[personas];
+        }
+
+        public int getPersonas() {
+            return netos.length;
+        }
+
+        public long getNetoCentavos(int persona) {
+            return netos[persona];
+        }
+
+        public long getIvaCentavos(int persona) {
+            return ivas[persona];
+        }
+
+        public long getTotalCentavos(int persona) {
+            return netos[persona] + ivas[persona];
+        }
+
+        public long getTotalNetoCentavos() {
+            return totalNeto;
+        }
+
+        public long getTotalIvaCentavos() {
+            return totalIva;
+        }
+
+        public long getTotalCentavos() {
+            return totalNeto + totalIva;
+        }
+    }
+
+    // Una sola pasada por el grupo, sin objetos por persona
+    public static Desglose calcular(long tarifaCentavos, int[] descuentosPuntosBase) {
+        if (tarifaCentavos < 0) {
+            throw new IllegalArgumentException("La tarifa no puede ser negativa.");
+        }
+        Desglose desglose = new Desglose(descuentosPuntosBase.length);
+        for (int i = 0; i < descuentosPuntosBase.length; i++) {
+            int descuento = descuentosPuntosBase[i];
+            if (descuento < 0 || descuento > PUNTOS_BASE_TOTAL) {
+                throw new IllegalArgumentException("Descuento fuera de rango: " + descuento + " puntos base.");
+            }
+            long neto = porcentaje(tarifaCentavos, PUNTOS_BASE_TOTAL - descuento);
+            long iva = porcentaje(neto, IVA_PUNTOS_BASE);
+            desglose.netos[i] = neto;
+            desglose.ivas[i] = iva;
+            desglose.totalNeto += neto;
+            desglose.totalIva += iva;
+        }
+        return desglose;
+    }
+
+    // monto * puntosBase / 10000, redondeado mitad hacia arriba (los montos nunca son negativos)
+    static long porcentaje(long montoCentavos, int puntosBase) {
+        return (montoCentavos * puntosBase + PUNTOS_BASE_TOTAL / 2) / PUNTOS_BASE_TOTAL;
+    }
+
+    // Conversiones en el borde con las entidades, que guardan montos como double
+    public static long aCentavos(double monto) {
+        return Math.round(monto * 100.0);
+    }
+
+    public static double aMonto(long centavos) {
+        return centavos / 100.0;
+    }
+
+    public static int aPuntosBase(double fraccion) {
+        return (int) Math.round(fraccion * PUNTOS_BASE_TOTAL);
+    }
+}
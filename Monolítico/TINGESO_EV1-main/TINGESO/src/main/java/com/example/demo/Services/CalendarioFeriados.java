@@ -0,0 +1,58 @@
+package com.example.demo.Services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Feriados compilados en un arreglo de bits indexado por día epoch (bit i = primerDia + i).
+ * Se reemplaza completo cada vez que cambian los feriados; consultar un día no reserva memoria ni va a la base de datos.
+ */
+@Component
+public class CalendarioFeriados {
+
+    private static final class Compilado {
+        static final Compilado VACIO = new Compilado(0, new long[0]);
+
+        final long primerDia;
+        final long[] palabras;
+
+        Compilado(long primerDia, long[] palabras) {
+            this.primerDia = primerDia;
+            this.palabras = palabras;
+        }
+    }
+
+    private volatile Compilado compilado = Compilado.VACIO;
+
+    public boolean esFeriado(LocalDate fecha) {
+        Compilado actual = compilado;
+        long indice = fecha.toEpochDay() - actual.primerDia;
+        if (indice < 0 || indice >= (long) actual.palabras.length * 64) {
+            return false;
+        }
+        return (actual.palabras[(int) (indice >>> 6)] & (1L << indice)) != 0;
+    }
+
+    public void cargar(Collection<LocalDate> feriados) {
+        if (feriados.isEmpty()) {
+            compilado = Compilado.VACIO;
+            return;
+        }
+
+        long primerDia = Long.MAX_VALUE;
+        long ultimoDia = Long.MIN_VALUE;
+        for (LocalDate fecha : feriados) {
+            primerDia = Math.min(primerDia, fecha.toEpochDay());
+            ultimoDia = Math.max(ultimoDia, fecha.toEpochDay());
+        }
+
+        long[] palabras = new long[(int) ((ultimoDia - primerDia) / 64) + 1];
+        for (LocalDate fecha : feriados) {
+            long indice = fecha.toEpochDay() - primerDia;
+            palabras[(int) (indice >>> 6)] |= 1L << indice;
+        }
+        compilado = new Compilado(primerDia, palabras);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.DetallePagoPorPersona;
+import com.example.demo.Entities.Reserva;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dimensiones y medidas disponibles para los reportes de reservas. Un reporte nuevo se arma eligiendo
+ * nombres de este catálogo; agregar un eje o una medida es agregar una definición aquí.
+ */
+public final class CatalogoReportes {
+
+    public static final String MES = "mes";
+
+    public static final Dimension<Reserva> VUELTAS =
+            Dimension.porValores("vueltas", Reserva::getNum_vueltas_tiempo_maximo, 10, 15, 20);
+    public static final Dimension<Reserva> GRUPO =
+            Dimension.porTramos("grupo", Reserva::getNum_personas, 1, 2, 3, 5, 6, 10, 11, 15);
+    public static final Dimension<Reserva> DIA_SEMANA =
+            Dimension.porDiaSemana("diaSemana", Reserva::getFechaInicio);
+    public static final Dimension<Reserva> HORA =
+            Dimension.porHora("hora", Reserva::getHoraInicio, 10, 21);
+    public static final Dimension<Reserva> TIPO_DESCUENTO =
+            Dimension.porCategoria("tipoDescuento", CatalogoReportes::tipoDescuentoCliente,
+                    "Cumpleaños", "Frecuencia", "Grupal", "Ninguno");
+
+    // Los reportes de ingresos suman pesos enteros, como se muestran en el comprobante
+    public static final Medida<Reserva> INGRESOS = Medida.suma("ingresos", reserva -> {
+        Comprobante comprobante = reserva.getComprobante();
+        return comprobante != null ? Math.round(comprobante.getMonto_total_iva()) : 0;
+    });
+    public static final Medida<Reserva> RESERVAS = Medida.conteo("reservas");
+    public static final Medida<Reserva> PERSONAS = Medida.sumaEntera("personas", Reserva::getNum_personas);
+
+    private static final List<Dimension<Reserva>> DIMENSIONES = List.of(VUELTAS, GRUPO, DIA_SEMANA, HORA, TIPO_DESCUENTO);
+    private static final List<Medida<Reserva>> MEDIDAS = List.of(INGRESOS, RESERVAS, PERSONAS);
+
+    private CatalogoReportes() {
+    }
+
+    // El mes depende del rango pedido, por eso se arma en cada consulta
+    public static List<Dimension<Reserva>> dimensiones(List<String> nombres, YearMonth desde, YearMonth hasta) {
+        List<Dimension<Reserva>> dimensiones = new ArrayList<>();
+        for (String nombre : nombres) {
+            if (MES.equals(nombre)) {
+                dimensiones.add(Dimension.porMes(MES, Reserva::getFechaInicio, desde, hasta));
+                continue;
+            }
+            dimensiones.add(DIMENSIONES.stream()
+                    .filter(dimension -> dimension.getNombre().equals(nombre))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Dimensión de reporte desconocida: " + nombre)));
+        }
+        return dimensiones;
+    }
+
+    public static List<Medida<Reserva>> medidas(List<String> nombres) {
+        List<Medida<Reserva>> medidas = new ArrayList<>();
+        for (String nombre : nombres) {
+            medidas.add(MEDIDAS.stream()
+                    .filter(medida -> medida.getNombre().equals(nombre))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Medida de reporte desconocida: " + nombre)));
+        }
+        return medidas;
+    }
+
+    // El detalle del cliente es el último del comprobante; "Grupal" con 0% es una reserva sin descuento
+    static String tipoDescuentoCliente(Reserva reserva) {
+        Comprobante comprobante = reserva.getComprobante();
+        if (comprobante == null || comprobante.getDetallePagoPorPersona() == null
+                || comprobante.getDetallePagoPorPersona().isEmpty()) {
+            return null;
+        }
+        List<DetallePagoPorPersona> detalles = comprobante.getDetallePagoPorPersona();
+        DetallePagoPorPersona cliente = detalles.get(detalles.size() - 1);
+        if ("Grupal".equals(cliente.getTipoDescuento()) && cliente.getPorcentajeDescuento() == 0) {
+            return "Ninguno";
+        }
+        return cliente.getTipoDescuento();
+    }
+}
@@ -3,19 +3,14 @@ package com.example.demo.Services;
 import com.example.demo.Entities.Client;
 import com.example.demo.Entities.Reserva;
 import com.example.demo.Repositories.ClientRepository;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -32,6 +27,9 @@ public class ClientService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private GeneradorPdfService generadorPdfService;
+
     // ==================== OPERACIONES BÁSICAS ====================
 
     public List<Client> findAll() {
@@ -55,6 +53,7 @@ public class ClientService {
     }
 
     public void deleteById(Long id) {
+        reservaService.eliminarReservasDeCliente(id);
         clientRepository.deleteById(id);
     }
 
@@ -70,6 +69,13 @@ public class ClientService {
         }).orElse(null);
     }
 
+    public Map<String, Object> obtenerHistorialReservas(Long id, Long cursor, int limite) {
+        if (findById(id).isEmpty()) {
+            throw new RuntimeException("Cliente no encontrado");
+        }
+        return reservaService.obtenerHistorialCliente(id, cursor, limite);
+    }
+
     // ==================== REGISTRO Y LOGIN ====================
 
     public Client register(String rut, String nombre, String email, String contrasenia, LocalDate birthday) {
@@ -84,7 +90,6 @@ public class ClientService {
         nuevoCliente.setContrasena(contrasenia); // Debería hashearse
         nuevoCliente.setBirthday(birthday);
         nuevoCliente.setNum_visitas_al_mes(0);
-        nuevoCliente.setReservas(new ArrayList<>());
 
         return save(nuevoCliente);
     }
@@ -109,33 +114,16 @@ public class ClientService {
         return client;
     }
 
-    // ==================== GENERACIÓN DE PDF Y CORREO ====================
-
-    public File generarPDFReserva(String resumen) {
-        String filePath = "reserva_comprobante.pdf";
-        File file = new File(filePath);
+    // ==================== CORREO ====================
 
-        try {
-            PdfWriter writer = new PdfWriter(file);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-            document.add(new Paragraph(resumen));
-            document.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return file;
-    }
-
-    public void enviarCorreoReservaConPDF(String correo, String cuerpo, File archivoPdf) {
+    public void enviarCorreoReservaConPDF(String correo, String cuerpo, byte[] archivoPdf) {
         try {
             MimeMessage mensaje = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mensaje, true);
             helper.setTo(correo);
             helper.setSubject("Resumen de tu Reserva");
             helper.setText(cuerpo, true);
-            helper.addAttachment("Resumen_Reserva.pdf", archivoPdf);
+            helper.addAttachment("Resumen_Reserva.pdf", new ByteArrayResource(archivoPdf));
             mailSender.send(mensaje);
             System.out.println("Correo enviado a " + correo);
         } catch (MessagingException e) {
@@ -145,6 +133,24 @@ public class ClientService {
 
     // ==================== GENERAR RESERVA ====================
 
+    // Deja en la lista solo los correos de clientes registrados que están de cumpleaños en la fecha.
+    // Todo el grupo se valida con una sola consulta, sin importar cuántos correos vengan
+    public void filtrarCumpleaneros(List<String> correosCumpleaneros, LocalDate fecha) {
+        if (correosCumpleaneros == null || correosCumpleaneros.isEmpty()) {
+            return;
+        }
+        Set<String> validos = new HashSet<>();
+        for (Client cumpleanero : clientRepository.findByEmailIn(new HashSet<>(correosCumpleaneros))) {
+            LocalDate birthday = cumpleanero.getBirthday();
+            if (birthday != null
+                    && birthday.getMonthValue() == fecha.getMonthValue()
+                    && birthday.getDayOfMonth() == fecha.getDayOfMonth()) {
+                validos.add(cumpleanero.getEmail());
+            }
+        }
+        correosCumpleaneros.removeIf(correoCumple -> !validos.contains(correoCumple));
+    }
+
     public Reserva generarReserva(
             Long id,
             int numVueltasTiempoMaximo,
@@ -175,17 +181,7 @@ public class ClientService {
         // Agregar cliente principal al map
         nombreCorreo.put(nombreCliente, correoCliente);
 
-        if (correosCumpleaneros != null) {
-            correosCumpleaneros.removeIf(correoCumple -> {
-                Client cumpleanero = findByEmail(correoCumple);
-                if (cumpleanero == null || cumpleanero.getBirthday() == null) {
-                    return true; // Elimina si no se encuentra o no tiene fecha de cumpleaños
-                }
-                // Elimina si el mes o el día no coinciden con la fecha de inicio
-                return cumpleanero.getBirthday().getMonthValue() != fechaInicio.getMonthValue()
-                        || cumpleanero.getBirthday().getDayOfMonth() != fechaInicio.getDayOfMonth();
-            });
-        }
+        filtrarCumpleaneros(correosCumpleaneros, fechaInicio);
 
         Reserva reserva = reservaService.crearReserva(
                 numVueltasTiempoMaximo,
@@ -196,17 +192,16 @@ public class ClientService {
                 frecuenciaCliente,
                 nombreCliente,
                 correoCliente,
-                nombreCorreo
+                nombreCorreo,
+                cliente.getId()
         );
 
-        // Asociar la reserva al cliente
-        cliente.getReservas().add(reserva);
         cliente.setNum_visitas_al_mes(frecuenciaCliente + 1);
         save(cliente);
 
         // Enviar PDF con resumen
         String resumen = reservaService.obtenerInformacionReservaConComprobante(reserva);
-        File pdf = generarPDFReserva(resumen);
+        byte[] pdf = generadorPdfService.generarPDFReserva(resumen);
 
         // Filtrar y enviar correos válidos
         nombreCorreo.values().stream()
@@ -1,14 +1,18 @@
 package com.example.demo.Services;
 
 import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.DetallePagoPorPersona;
 import com.example.demo.Repositories.ComprobanteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ComprobanteService {
@@ -74,9 +78,17 @@ public class ComprobanteService {
         if (numPersonas >= 3 && numPersonas <= 5) maxCumpleDescuento = 1;
         else if (numPersonas >= 6 && numPersonas <= 10) maxCumpleDescuento = 2;
 
+        // Conjunto para que la consulta por persona no recorra la lista completa
+        Set<String> cumpleaneros = correosCumpleaneros != null ? new HashSet<>(correosCumpleaneros) : new HashSet<>();
+
         int cumpleDescuentoAsignado = 0;
-        double totalSinIva = 0.0;
-        List<String> pagosPorPersona = new ArrayList<>();
+
+        // Primero se decide el descuento de cada persona; el cliente principal va al final
+        int personas = nombreCorreo.size();
+        String[] nombres = new String[personas + 1];
+        String[] tiposDescuento = new String[personas + 1];
+        int[] descuentos = new int[personas + 1];
+        int n = 0;
 
         // --- Procesar grupo (excepto cliente principal) ---
         for (Map.Entry<String, String> entry : nombreCorreo.entrySet()) {
@@ -85,69 +97,56 @@ public class ComprobanteService {
 
             if (nombre.equals(nombreCliente) && correo.equals(correoCliente)) continue;
 
-            double descuentoAplicado = 0.0;
-            String descuentosAplicadosTexto = "";
-
-            if (correosCumpleaneros.contains(correo) && cumpleDescuentoAsignado < maxCumpleDescuento) {
-                descuentoAplicado = 0.50;
-                descuentosAplicadosTexto = "Descuento Cumpleaños 50%";
+            nombres[n] = nombre;
+            if (cumpleaneros.contains(correo) && cumpleDescuentoAsignado < maxCumpleDescuento) {
+                tiposDescuento[n] = "Cumpleaños";
+                descuentos[n] = CalculadoraPrecios.aPuntosBase(0.50);
                 cumpleDescuentoAsignado++;
             } else {
-                descuentoAplicado = descuentoGrupo;
-                descuentosAplicadosTexto = "Descuento Grupal " + (int) (descuentoGrupo * 100) + "%";
+                tiposDescuento[n] = "Grupal";
+                descuentos[n] = CalculadoraPrecios.aPuntosBase(descuentoGrupo);
             }
-
-            double pagoSinIva = precioBaseSinIva * (1 - descuentoAplicado);
-            double ivaPersona = pagoSinIva * 0.19;
-            double pagoConIva = pagoSinIva + ivaPersona;
-
-            totalSinIva += pagoSinIva;
-
-            String detalle = String.format(
-                    "%s|Base:%.2f|%s|Monto sin IVA:%.2f|IVA:%.2f|Total:%.2f",
-                    nombre, precioBaseSinIva, descuentosAplicadosTexto, pagoSinIva, ivaPersona, pagoConIva
-            );
-            pagosPorPersona.add(detalle);
+            n++;
         }
 
         // --- Procesar cliente principal ---
-        double descuentoCliente = 0.0;
-        String descuentosAplicadosTextoCliente = "";
-
-        if (correosCumpleaneros.contains(correoCliente) && cumpleDescuentoAsignado < maxCumpleDescuento) {
-            descuentoCliente = 0.50;
-            descuentosAplicadosTextoCliente = "Descuento Cumpleaños 50%";
+        nombres[n] = nombreCliente;
+        if (cumpleaneros.contains(correoCliente) && cumpleDescuentoAsignado < maxCumpleDescuento) {
+            tiposDescuento[n] = "Cumpleaños";
+            descuentos[n] = CalculadoraPrecios.aPuntosBase(0.50);
             cumpleDescuentoAsignado++;
         } else if (descuentoFrecuencia > 0.0) {
-            descuentoCliente = descuentoFrecuencia;
-            descuentosAplicadosTextoCliente = "Descuento Frecuencia " + (int)(descuentoFrecuencia * 100) + "%";
+            tiposDescuento[n] = "Frecuencia";
+            descuentos[n] = CalculadoraPrecios.aPuntosBase(descuentoFrecuencia);
         } else {
-            descuentoCliente = descuentoGrupo;
-            descuentosAplicadosTextoCliente = "Descuento Grupal " + (int)(descuentoGrupo * 100) + "%";
+            tiposDescuento[n] = "Grupal";
+            descuentos[n] = CalculadoraPrecios.aPuntosBase(descuentoGrupo);
+        }
+        n++;
+
+        // --- Montos en centavos: los totales son la suma exacta de las líneas ---
+        long tarifaCentavos = CalculadoraPrecios.aCentavos(precioBaseSinIva);
+        CalculadoraPrecios.Desglose desglose = CalculadoraPrecios.calcular(tarifaCentavos,
+                n == descuentos.length ? descuentos : Arrays.copyOf(descuentos, n));
+
+        List<DetallePagoPorPersona> pagosPorPersona = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            pagosPorPersona.add(new DetallePagoPorPersona(
+                    nombres[i],
+                    precioBaseSinIva,
+                    tiposDescuento[i],
+                    descuentos[i] / 100,
+                    CalculadoraPrecios.aMonto(desglose.getNetoCentavos(i)),
+                    CalculadoraPrecios.aMonto(desglose.getIvaCentavos(i)),
+                    CalculadoraPrecios.aMonto(desglose.getTotalCentavos(i))
+            ));
         }
-
-        double pagoSinIvaCliente = precioBaseSinIva * (1 - descuentoCliente);
-        double ivaCliente = pagoSinIvaCliente * 0.19;
-        double pagoConIvaCliente = pagoSinIvaCliente + ivaCliente;
-
-        totalSinIva += pagoSinIvaCliente;
-
-        String detalleCliente = String.format(
-                "%s|Base:%.2f|%s|Monto sin IVA:%.2f|IVA:%.2f|Total:%.2f",
-                nombreCliente, precioBaseSinIva, descuentosAplicadosTextoCliente,
-                pagoSinIvaCliente, ivaCliente, pagoConIvaCliente
-        );
-        pagosPorPersona.add(detalleCliente);
-
-        // --- Total general ---
-        double ivaTotal = totalSinIva * 0.19;
-        double totalConIva = totalSinIva + ivaTotal;
 
         Comprobante comprobante = new Comprobante();
         comprobante.setDescuento(0.0); // Opcional: se puede calcular descuento total o promedio
-        comprobante.setPrecio_final(Math.round(totalSinIva * 100.0) / 100.0);
-        comprobante.setIva(Math.round(ivaTotal * 100.0) / 100.0);
-        comprobante.setMonto_total_iva(Math.round(totalConIva * 100.0) / 100.0);
+        comprobante.setPrecio_final(CalculadoraPrecios.aMonto(desglose.getTotalNetoCentavos()));
+        comprobante.setIva(CalculadoraPrecios.aMonto(desglose.getTotalIvaCentavos()));
+        comprobante.setMonto_total_iva(CalculadoraPrecios.aMonto(desglose.getTotalCentavos()));
         comprobante.setDetallePagoPorPersona(pagosPorPersona);
 
         return comprobante;
@@ -155,34 +154,43 @@ public class ComprobanteService {
 
     // === Formatear Comprobante para imprimir ===
 
+    // Los montos ya están en columnas: se escriben directo, sin volver a parsear texto ni usar String.format
     public String formatearComprobante(Comprobante comprobante) {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(256);
 
         sb.append("========= RESUMEN DEL COMPROBANTE =========\n");
-        sb.append(String.format("Subtotal (sin IVA): %.2f\n", comprobante.getPrecio_final()));
-        sb.append(String.format("IVA: %.2f\n", comprobante.getIva()));
-        sb.append(String.format("Total con IVA: %.2f\n", comprobante.getMonto_total_iva()));
+        agregarMonto(sb.append("Subtotal (sin IVA): "), comprobante.getPrecio_final()).append('\n');
+        agregarMonto(sb.append("IVA: "), comprobante.getIva()).append('\n');
+        agregarMonto(sb.append("Total con IVA: "), comprobante.getMonto_total_iva()).append('\n');
         sb.append("-------------------------------------------\n");
         sb.append("Detalle por persona:\n\n");
 
-        for (String detalle : comprobante.getDetallePagoPorPersona()) {
-            String[] partes = detalle.split("\\|");
-            String nombre = partes[0];
-            String base = partes[1].replace("Base:", "");
-            String descuento = partes[2];
-            String sinIva = partes[3].replace("Monto sin IVA:", "");
-            String iva = partes[4].replace("IVA:", "");
-            String total = partes[5].replace("Total:", "");
-
-            sb.append("- ").append(nombre).append("\n");
-            sb.append("  Precio Base (sin IVA): ").append(base).append("\n");
-            sb.append("  ").append(descuento).append("\n");
-            sb.append("  Monto sin IVA: ").append(sinIva).append("\n");
-            sb.append("  IVA: ").append(iva).append("\n");
-            sb.append("  Total: ").append(total).append("\n\n");
+        for (DetallePagoPorPersona detalle : comprobante.getDetallePagoPorPersona()) {
+            sb.append("- ").append(detalle.getNombrePersona()).append('\n');
+            agregarMonto(sb.append("  Precio Base (sin IVA): "), detalle.getPrecioBase()).append('\n');
+            sb.append("  Descuento ").append(detalle.getTipoDescuento())
+                    .append(' ').append(detalle.getPorcentajeDescuento()).append("%\n");
+            agregarMonto(sb.append("  Monto sin IVA: "), detalle.getMontoFinalSinIva()).append('\n');
+            agregarMonto(sb.append("  IVA: "), detalle.getIva()).append('\n');
+            agregarMonto(sb.append("  Total: "), detalle.getTotalConIva()).append("\n\n");
         }
 
         sb.append("===========================================\n");
         return sb.toString();
     }
+
+    // Monto con dos decimales y punto decimal, igual que "%.2f" en el locale por defecto del servidor
+    static StringBuilder agregarMonto(StringBuilder sb, double monto) {
+        long centavos = CalculadoraPrecios.aCentavos(monto);
+        if (centavos < 0) {
+            sb.append('-');
+            centavos = -centavos;
+        }
+        sb.append(centavos / 100).append('.');
+        long decimales = centavos % 100;
+        if (decimales < 10) {
+            sb.append('0');
+        }
+        return sb.append(decimales);
+    }
 }
@@ -1,22 +1,16 @@
 package com.example.demo.Services;
 
-import com.example.demo.Entities.Client;
 import com.example.demo.Entities.Empleado;
 import com.example.demo.Entities.Reserva;
 import com.example.demo.Repositories.EmpleadoRepository;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -40,6 +34,9 @@ public class EmpleadoService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private GeneradorPdfService generadorPdfService;
+
 
     public List<Empleado> getAllEmpleados() {
         return empleadoRepository.findAll();
@@ -111,31 +108,14 @@ public class EmpleadoService {
         return empleado;
     }
 
-    public File generarPDFReserva(String resumen) {
-        String filePath = "reserva_comprobante.pdf";
-        File file = new File(filePath);
-
-        try {
-            PdfWriter writer = new PdfWriter(file);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
-            document.add(new Paragraph(resumen));
-            document.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return file;
-    }
-
-    public void enviarCorreoReservaConPDF(String correo, String cuerpo, File archivoPdf) {
+    public void enviarCorreoReservaConPDF(String correo, String cuerpo, byte[] archivoPdf) {
         try {
             MimeMessage mensaje = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mensaje, true);
             helper.setTo(correo);
             helper.setSubject("Resumen de tu Reserva");
             helper.setText(cuerpo, true);
-            helper.addAttachment("Resumen_Reserva.pdf", archivoPdf);
+            helper.addAttachment("Resumen_Reserva.pdf", new ByteArrayResource(archivoPdf));
             mailSender.send(mensaje);
             System.out.println("Correo enviado a " + correo);
         } catch (MessagingException e) {
@@ -160,17 +140,7 @@ public class EmpleadoService {
         nombreCorreo.put(nombreCliente, correoCliente);
 
         // Validar correos de cumpleañeros si existen
-        if (correosCumpleaneros != null) {
-            correosCumpleaneros.removeIf(correoCumple -> {
-                Client cumpleanero = clientService.findByEmail(correoCumple);
-                if (cumpleanero == null || cumpleanero.getBirthday() == null) {
-                    return true; // eliminar si no hay info
-                }
-                // Eliminar si su cumpleaños no coincide con la fecha
-                return cumpleanero.getBirthday().getMonthValue() != fechaInicio.getMonthValue()
-                        || cumpleanero.getBirthday().getDayOfMonth() != fechaInicio.getDayOfMonth();
-            });
-        }
+        clientService.filtrarCumpleaneros(correosCumpleaneros, fechaInicio);
 
         // Crear la reserva
         Reserva reserva = reservaService.crearReserva(
@@ -187,7 +157,7 @@ public class EmpleadoService {
 
         // Generar el resumen y PDF
         String resumen = reservaService.obtenerInformacionReservaConComprobante(reserva);
-        File pdf = generarPDFReserva(resumen);
+        byte[] pdf = generadorPdfService.generarPDFReserva(resumen);
 
         // Enviar correo con PDF a todos los involucrad
         nombreCorreo.values().stream()
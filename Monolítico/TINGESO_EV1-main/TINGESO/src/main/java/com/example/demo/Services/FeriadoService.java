@@ -0,0 +1,211 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Feriado;
+import com.example.demo.Repositories.FeriadoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+public class FeriadoService {
+
+    // Feriados nacionales de varios años; el monolito y tarifa-dias-especiales parten del mismo archivo
+    private static final String ARCHIVO_FERIADOS = "feriados.csv";
+
+    @Autowired
+    private FeriadoRepository feriadoRepository;
+
+    @Autowired
+    private CalendarioFeriados calendarioFeriados;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    // Lista de feriados de tarifa-dias-especiales (p. ej. http://localhost:8080/api/tarifasDiasEspeciales/feriados/getAll).
+    // Si está configurada, ese servicio es la fuente de verdad: la tabla local pasa a ser una copia de solo lectura
+    @Value("${feriados.fuente-url:}")
+    private String fuenteUrl;
+
+    // ==================== CARGA DEL CALENDARIO ====================
+
+    // Con fuente configurada se parte de su lista; si no responde se usa la última copia local (o el archivo)
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarCalendario() {
+        if (tieneFuente() && sincronizarConFuente()) {
+            return;
+        }
+        if (feriadoRepository.count() == 0) {
+            feriadoRepository.saveAll(leerFeriadosIniciales());
+        }
+        recompilarCalendario();
+    }
+
+    // ==================== SINCRONIZACIÓN ====================
+
+    public boolean tieneFuente() {
+        return fuenteUrl != null && !fuenteUrl.isBlank();
+    }
+
+    // Periódicamente, para recoger los cambios hechos en tarifa-dias-especiales
+    @Scheduled(initialDelayString = "${feriados.sincronizacion-ms:3600000}",
+            fixedDelayString = "${feriados.sincronizacion-ms:3600000}")
+    public void sincronizarPeriodicamente() {
+        if (tieneFuente()) {
+            sincronizarConFuente();
+        }
+    }
+
+    boolean sincronizarConFuente() {
+        Feriado[] remotos;
+        try {
+            remotos = restTemplate.getForObject(fuenteUrl, Feriado[].class);
+        } catch (RuntimeException e) {
+            System.err.println("No se pudieron sincronizar los feriados desde " + fuenteUrl + ": " + e.getMessage());
+            return false;
+        }
+        if (remotos == null) {
+            System.err.println("La fuente de feriados " + fuenteUrl + " no entregó datos.");
+            return false;
+        }
+        reemplazarFeriados(Arrays.asList(remotos));
+        return true;
+    }
+
+    // Deja la tabla igual a la lista recibida, comparando por fecha, y recompila el calendario
+    synchronized void reemplazarFeriados(List<Feriado> remotos) {
+        Map<LocalDate, String> nombrePorFecha = new HashMap<>();
+        for (Feriado remoto : remotos) {
+            if (remoto.getFecha() != null) {
+                nombrePorFecha.put(remoto.getFecha(), remoto.getNombre());
+            }
+        }
+
+        List<Feriado> eliminados = new ArrayList<>();
+        List<Feriado> modificados = new ArrayList<>();
+        for (Feriado local : feriadoRepository.findAll()) {
+            if (!nombrePorFecha.containsKey(local.getFecha())) {
+                eliminados.add(local);
+                continue;
+            }
+            String nombre = nombrePorFecha.remove(local.getFecha());
+            if (!Objects.equals(nombre, local.getNombre())) {
+                local.setNombre(nombre);
+                modificados.add(local);
+            }
+        }
+        for (Map.Entry<LocalDate, String> nuevo : nombrePorFecha.entrySet()) {
+            modificados.add(new Feriado(null, nuevo.getKey(), nuevo.getValue()));
+        }
+
+        feriadoRepository.deleteAll(eliminados);
+        feriadoRepository.saveAll(modificados);
+        recompilarCalendario();
+    }
+
+    public synchronized void recompilarCalendario() {
+        calendarioFeriados.cargar(feriadoRepository.findTodasLasFechas());
+    }
+
+    List<Feriado> leerFeriadosIniciales() {
+        List<Feriado> feriados = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(ARCHIVO_FERIADOS).getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank() || linea.startsWith("#")) {
+                    continue;
+                }
+                String[] partes = linea.split(";", 2);
+                feriados.add(new Feriado(null, LocalDate.parse(partes[0].trim()), partes.length > 1 ? partes[1].trim() : null));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer " + ARCHIVO_FERIADOS, e);
+        }
+        return feriados;
+    }
+
+    // ==================== CRUD ====================
+
+    public List<Feriado> obtenerTodos() {
+        return feriadoRepository.findAllByOrderByFechaAsc();
+    }
+
+    public List<Feriado> obtenerPorAnio(int anio) {
+        return feriadoRepository.findByFechaBetweenOrderByFechaAsc(LocalDate.of(anio, 1, 1), LocalDate.of(anio, 12, 31));
+    }
+
+    public Optional<Feriado> obtenerPorId(Long id) {
+        return feriadoRepository.findById(id);
+    }
+
+    public Feriado crear(Feriado feriado) {
+        validarEscritura();
+        validarFecha(feriado);
+        if (feriadoRepository.existsByFecha(feriado.getFecha())) {
+            throw new IllegalArgumentException("Ya existe un feriado el " + feriado.getFecha() + ".");
+        }
+        feriado.setId(null);
+        Feriado guardado = feriadoRepository.save(feriado);
+        recompilarCalendario();
+        return guardado;
+    }
+
+    public Optional<Feriado> actualizar(Long id, Feriado datos) {
+        validarEscritura();
+        validarFecha(datos);
+        Optional<Feriado> existente = feriadoRepository.findById(id);
+        if (existente.isEmpty()) {
+            return Optional.empty();
+        }
+        if (feriadoRepository.existsByFechaAndIdNot(datos.getFecha(), id)) {
+            throw new IllegalArgumentException("Ya existe un feriado el " + datos.getFecha() + ".");
+        }
+        Feriado feriado = existente.get();
+        feriado.setFecha(datos.getFecha());
+        feriado.setNombre(datos.getNombre());
+        Feriado guardado = feriadoRepository.save(feriado);
+        recompilarCalendario();
+        return Optional.of(guardado);
+    }
+
+    public boolean eliminar(Long id) {
+        validarEscritura();
+        if (!feriadoRepository.existsById(id)) {
+            return false;
+        }
+        feriadoRepository.deleteById(id);
+        recompilarCalendario();
+        return true;
+    }
+
+    // Con fuente configurada un cambio local se perdería en la siguiente sincronización
+    private void validarEscritura() {
+        if (tieneFuente()) {
+            throw new IllegalStateException("Los feriados se administran en tarifa-dias-especiales.");
+        }
+    }
+
+    private void validarFecha(Feriado feriado) {
+        if (feriado == null || feriado.getFecha() == null) {
+            throw new IllegalArgumentException("La fecha del feriado es obligatoria.");
+        }
+    }
+}
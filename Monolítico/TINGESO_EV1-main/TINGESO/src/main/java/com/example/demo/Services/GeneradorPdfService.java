@@ -0,0 +1,59 @@
+package com.example.demo.Services;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+@Service
+public class GeneradorPdfService {
+
+    // Sobre este tamaño el buffer no se reutiliza, para no retener memoria por un comprobante excepcional
+    private static final int TAMANO_MAXIMO_BUFFER = 1024 * 1024;
+
+    // La fuente se carga una sola vez; cada documento solo crea su PdfFont a partir de ella
+    private final FontProgram fuenteBase;
+
+    // Un buffer por hilo: cada petición escribe en el suyo y nunca se pisan entre sí
+    private final ThreadLocal<ByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(16 * 1024));
+
+    public GeneradorPdfService() {
+        try {
+            this.fuenteBase = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo cargar la fuente para los comprobantes PDF", e);
+        }
+    }
+
+    // ==================== GENERACIÓN DE PDF ====================
+
+    public byte[] generarPDFReserva(String resumen) {
+        ByteArrayOutputStream buffer = buffers.get();
+        buffer.reset();
+
+        PdfWriter writer = new PdfWriter(buffer);
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        Document document = new Document(pdf, PageSize.A4);
+        document.setFont(PdfFontFactory.createFont(fuenteBase, PdfEncodings.WINANSI));
+        document.add(new Paragraph(resumen));
+        document.close();
+
+        byte[] contenido = buffer.toByteArray();
+        if (buffer.size() > TAMANO_MAXIMO_BUFFER) {
+            buffers.remove();
+        }
+        return contenido;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.Services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de los bloques ocupados de cada día, usado para validar cruces de horario
+ * sin consultar la base de datos. Solo es válido para los días desde fechaDesde en adelante;
+ * para los anteriores el llamador debe consultar la base de datos.
+ */
+@Component
+public class IndiceHorarios {
+
+    // Bloques de un día ordenados por hora de inicio (en segundos del día).
+    // finMaximo[i] es el mayor fin entre los bloques 0..i, lo que permite detectar cruces con una sola búsqueda binaria.
+    private static final class DiaOcupado {
+        static final DiaOcupado VACIO = new DiaOcupado(new long[0], new int[0], new int[0]);
+
+        final long[] ids;
+        final int[] inicios;
+        final int[] fines;
+        final int[] finMaximo;
+
+        DiaOcupado(long[] ids, int[] inicios, int[] fines) {
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fines = fines;
+            this.finMaximo = new int[fines.length];
+            int maximo = Integer.MIN_VALUE;
+            for (int i = 0; i < fines.length; i++) {
+                maximo = Math.max(maximo, fines[i]);
+                finMaximo[i] = maximo;
+            }
+        }
+    }
+
+    // Las lecturas no toman bloqueo: cada día se reemplaza completo (copia al escribir)
+    private final ConcurrentHashMap<LocalDate, DiaOcupado> dias = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDate> fechaPorId = new HashMap<>();
+    private volatile LocalDate fechaDesde;
+
+    // ==================== CARGA ====================
+
+    public synchronized void cargar(LocalDate desde, Iterable<BloqueOcupado> bloques) {
+        dias.clear();
+        fechaPorId.clear();
+        fechaDesde = null;
+        for (BloqueOcupado bloque : bloques) {
+            agregarSinBloqueo(bloque.id, bloque.fecha, bloque.horaInicio, bloque.horaFin);
+        }
+        fechaDesde = desde;
+    }
+
+    public boolean cubre(LocalDate fecha) {
+        LocalDate desde = fechaDesde;
+        return desde != null && !fecha.isBefore(desde);
+    }
+
+    // ==================== CONSULTA ====================
+
+    // Mismo criterio que la consulta de cruces: existe un bloque con inicio < horaFin y fin > horaInicio
+    public boolean haySolape(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        DiaOcupado dia = dias.get(fecha);
+        if (dia == null || dia.inicios.length == 0) {
+            return false;
+        }
+
+        int inicio = horaInicio.toSecondOfDay();
+        int fin = horaFin.toSecondOfDay();
+
+        // Último bloque cuyo inicio es anterior al fin buscado
+        int ultimo = ultimoInicioAntesDe(dia.inicios, fin);
+        return ultimo >= 0 && dia.finMaximo[ultimo] > inicio;
+    }
+
+    private static int ultimoInicioAntesDe(int[] inicios, int limite) {
+        int bajo = 0;
+        int alto = inicios.length - 1;
+        int resultado = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] < limite) {
+                resultado = medio;
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return resultado;
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    public synchronized void agregar(long id, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        agregarSinBloqueo(id, fecha, horaInicio, horaFin);
+    }
+
+    public synchronized void eliminar(long id) {
+        LocalDate fecha = fechaPorId.remove(id);
+        if (fecha == null) {
+            return;
+        }
+        DiaOcupado dia = dias.getOrDefault(fecha, DiaOcupado.VACIO);
+        int posicion = -1;
+        for (int i = 0; i < dia.ids.length; i++) {
+            if (dia.ids[i] == id) {
+                posicion = i;
+                break;
+            }
+        }
+        if (posicion < 0) {
+            return;
+        }
+        if (dia.ids.length == 1) {
+            dias.remove(fecha);
+            return;
+        }
+        dias.put(fecha, new DiaOcupado(
+                quitar(dia.ids, posicion), quitar(dia.inicios, posicion), quitar(dia.fines, posicion)));
+    }
+
+    private void agregarSinBloqueo(long id, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        if (fechaPorId.containsKey(id)) {
+            eliminar(id);
+        }
+        DiaOcupado dia = dias.getOrDefault(fecha, DiaOcupado.VACIO);
+        int inicio = horaInicio.toSecondOfDay();
+        int posicion = ultimoInicioAntesDe(dia.inicios, inicio + 1) + 1;
+
+        dias.put(fecha, new DiaOcupado(
+                insertar(dia.ids, posicion, id),
+                insertar(dia.inicios, posicion, inicio),
+                insertar(dia.fines, posicion, horaFin.toSecondOfDay())));
+        fechaPorId.put(id, fecha);
+    }
+
+    private static long[] insertar(long[] arreglo, int posicion, long valor) {
+        long[] nuevo = Arrays.copyOf(arreglo, arreglo.length + 1);
+        System.arraycopy(arreglo, posicion, nuevo, posicion + 1, arreglo.length - posicion);
+        nuevo[posicion] = valor;
+        return nuevo;
+    }
+
+    private static int[] insertar(int[] arreglo, int posicion, int valor) {
+        int[] nuevo = Arrays.copyOf(arreglo, arreglo.length + 1);
+        System.arraycopy(arreglo, posicion, nuevo, posicion + 1, arreglo.length - posicion);
+        nuevo[posicion] = valor;
+        return nuevo;
+    }
+
+    private static long[] quitar(long[] arreglo, int posicion) {
+        long[] nuevo = new long[arreglo.length - 1];
+        System.arraycopy(arreglo, 0, nuevo, 0, posicion);
+        System.arraycopy(arreglo, posicion + 1, nuevo, posicion, arreglo.length - posicion - 1);
+        return nuevo;
+    }
+
+    private static int[] quitar(int[] arreglo, int posicion) {
+        int[] nuevo = new int[arreglo.length - 1];
+        System.arraycopy(arreglo, 0, nuevo, 0, posicion);
+        System.arraycopy(arreglo, posicion + 1, nuevo, posicion, arreglo.length - posicion - 1);
+        return nuevo;
+    }
+
+    // Bloque ocupado tal como se lee de la base de datos al cargar el índice
+    public static final class BloqueOcupado {
+        private final long id;
+        private final LocalDate fecha;
+        private final LocalTime horaInicio;
+        private final LocalTime horaFin;
+
+        public BloqueOcupado(long id, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+            this.id = id;
+            this.fecha = fecha;
+            this.horaInicio = horaInicio;
+            this.horaFin = horaFin;
+        }
+    }
+}
@@ -14,6 +14,9 @@ public class KartService {
     @Autowired
     private KartRepository kartRepository;
 
+    @Autowired
+    private AsignadorKarts asignadorKarts;
+
     // Obtener todos los karts
     public List<Kart> findAll() {
         return kartRepository.findAll();
@@ -26,12 +29,15 @@ public class KartService {
 
     // Guardar un nuevo kart
     public Kart save(Kart kart) {
-        return kartRepository.save(kart);
+        Kart guardado = kartRepository.save(kart);
+        actualizarAsignador(guardado);
+        return guardado;
     }
 
     // Eliminar un kart por ID
     public void deleteById(Long id) {
         kartRepository.deleteById(id);
+        asignadorKarts.retirarKart(id);
     }
 
     // Actualizar un kart existente
@@ -39,7 +45,17 @@ public class KartService {
         return kartRepository.findById(id).map(kart -> {
             kart.setModelo(updatedKart.getModelo());
             kart.setCodificacion(updatedKart.getCodificacion());
-            return kartRepository.save(kart);
+            kart.setEnMantenimiento(updatedKart.isEnMantenimiento());
+            Kart guardado = kartRepository.save(kart);
+            actualizarAsignador(guardado);
+            return guardado;
         }).orElse(null);
     }
+
+    // El asignador conoce la flota sin consultarla en cada reserva; se le avisa de cada cambio
+    private void actualizarAsignador(Kart guardado) {
+        if (guardado != null && guardado.getId() != null) {
+            asignadorKarts.actualizarKart(guardado);
+        }
+    }
 }
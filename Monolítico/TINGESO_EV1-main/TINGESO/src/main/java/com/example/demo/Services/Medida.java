@@ -0,0 +1,43 @@
+package com.example.demo.Services;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Valor que un reporte suma por cada combinación de categorías: ingresos, cantidad de reservas, personas, etc.
+ */
+public final class Medida<T> {
+
+    private final String nombre;
+    private final ToDoubleFunction<T> valor;
+    private final boolean entera;   // se muestra sin decimales
+
+    private Medida(String nombre, ToDoubleFunction<T> valor, boolean entera) {
+        this.nombre = nombre;
+        this.valor = valor;
+        this.entera = entera;
+    }
+
+    public static <T> Medida<T> suma(String nombre, ToDoubleFunction<T> valor) {
+        return new Medida<>(nombre, valor, false);
+    }
+
+    public static <T> Medida<T> sumaEntera(String nombre, ToDoubleFunction<T> valor) {
+        return new Medida<>(nombre, valor, true);
+    }
+
+    public static <T> Medida<T> conteo(String nombre) {
+        return new Medida<>(nombre, fila -> 1, true);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean isEntera() {
+        return entera;
+    }
+
+    double valor(T fila) {
+        return valor.applyAsDouble(fila);
+    }
+}
@@ -6,6 +6,10 @@ import com.example.demo.Entities.Reserva;
 import com.example.demo.Repositories.KartRepository;
 import com.example.demo.Repositories.ReservaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
@@ -26,6 +30,21 @@ public class ReservaService {
     @Autowired
     private KartService kartService;
 
+    @Autowired
+    private IndiceHorarios indiceHorarios;
+
+    @Autowired
+    private BloqueosPorDia bloqueosPorDia;
+
+    @Autowired
+    private AsignadorKarts asignadorKarts;
+
+    @Autowired
+    private CalendarioFeriados calendarioFeriados;
+
+    // Desde esta cantidad de reservas el reporte genérico reparte la agregación entre hilos
+    static final int RESERVAS_REPORTE_PARALELO = 20_000;
+
     // ======================= OPERACIONES CRUD =======================
 
     public List<Reserva> findAll() {
@@ -41,11 +60,27 @@ public class ReservaService {
     }
 
     public Reserva save(Reserva reserva) {
-        return reservaRepository.save(reserva);
+        Reserva guardada = reservaRepository.save(reserva);
+        if (guardada != null && guardada.getId() != null && guardada.getFechaInicio() != null
+                && guardada.getHoraInicio() != null && guardada.getHoraFin() != null) {
+            indiceHorarios.agregar(guardada.getId(), guardada.getFechaInicio(),
+                    guardada.getHoraInicio(), guardada.getHoraFin());
+            if (guardada.getKartsAsignados() != null) {
+                List<Long> kartIds = new ArrayList<>();
+                for (Kart kart : guardada.getKartsAsignados()) {
+                    kartIds.add(kart.getId());
+                }
+                asignadorKarts.registrar(guardada.getId(), guardada.getFechaInicio(),
+                        guardada.getHoraInicio(), guardada.getHoraFin(), kartIds);
+            }
+        }
+        return guardada;
     }
 
     public void deleteById(Long id) {
         reservaRepository.deleteById(id);
+        indiceHorarios.eliminar(id);
+        asignadorKarts.liberar(id);
     }
 
     public Reserva update(Long id, Reserva updatedReserva) {
@@ -60,8 +95,42 @@ public class ReservaService {
         return reservaRepository.findByFechaInicioAndHoraInicioAndHoraFin(fechaInicio, horaInicio, horaFin);
     }
 
+    // ======================= RESERVAS POR CLIENTE =======================
+
+    static final int LIMITE_MAXIMO_HISTORIAL = 100;
+
+    // Página del historial del cliente, de la más reciente a la más antigua. El cursor es el id de la última
+    // reserva entregada; siguienteCursor es null cuando no quedan más
+    public Map<String, Object> obtenerHistorialCliente(Long clienteId, Long cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_HISTORIAL) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_HISTORIAL + ".");
+        }
+        // Se pide una fila extra solo para saber si existe una página siguiente
+        List<Reserva> reservas = reservaRepository.findByClienteIdAndIdLessThanOrderByIdDesc(
+                clienteId, cursor != null ? cursor : Long.MAX_VALUE, PageRequest.of(0, limite + 1));
+
+        Long siguienteCursor = null;
+        if (reservas.size() > limite) {
+            reservas = reservas.subList(0, limite);
+            siguienteCursor = reservas.get(limite - 1).getId();
+        }
+
+        Map<String, Object> pagina = new LinkedHashMap<>();
+        pagina.put("reservas", reservas);
+        pagina.put("siguienteCursor", siguienteCursor);
+        return pagina;
+    }
+
+    // Al eliminar un cliente se eliminan también sus reservas
+    public void eliminarReservasDeCliente(Long clienteId) {
+        for (Reserva reserva : reservaRepository.findByClienteId(clienteId)) {
+            deleteById(reserva.getId());
+        }
+    }
+
     // ======================= CREACIÓN DE RESERVA =======================
 
+    // Reserva sin cliente registrado (administrador o API)
     public Reserva crearReserva(int numVueltasTiempoMaximo,
                                 int numPersonas,
                                 List<String> correosCumpleaneros,
@@ -71,6 +140,21 @@ public class ReservaService {
                                 String nombreCliente,
                                 String correoCliente,
                                 Map<String, String> nombreCorreo) {
+        return crearReserva(numVueltasTiempoMaximo, numPersonas, correosCumpleaneros, fechaInicio, horaInicio,
+                frecuenciaCliente, nombreCliente, correoCliente, nombreCorreo, null);
+    }
+
+    // El cliente dueño se fija antes del INSERT, así la reserva queda enlazada con una sola escritura
+    public Reserva crearReserva(int numVueltasTiempoMaximo,
+                                int numPersonas,
+                                List<String> correosCumpleaneros,
+                                LocalDate fechaInicio,
+                                LocalTime horaInicio,
+                                int frecuenciaCliente,
+                                String nombreCliente,
+                                String correoCliente,
+                                Map<String, String> nombreCorreo,
+                                Long clienteId) {
 
         // Validar hora de inicio permitida según el número de vueltas
         LocalTime horaMaxima;
@@ -95,6 +179,7 @@ public class ReservaService {
         reserva.setFechaInicio(fechaInicio);
         reserva.setHoraInicio(horaInicio);
         reserva.setNombreCliente(nombreCliente);
+        reserva.setClienteId(clienteId);
 
         // Calcular duración y precio
         asignarPrecioRegular_DuracionTotal(reserva);
@@ -108,10 +193,6 @@ public class ReservaService {
             throw new RuntimeException("Ya existe una reserva en ese horario.");
         }
 
-        // Asignar karts
-        List<Kart> kartsDisponibles = kartService.findAll();
-        reserva.setKartsAsignados(kartsDisponibles.subList(0, numPersonas));
-
         // Generar comprobante
         Comprobante comprobante = comprobanteService.crearComprobante(
                 reserva.getPrecio_regular(),
@@ -124,11 +205,33 @@ public class ReservaService {
         );
         reserva.setComprobante(comprobante);
 
-        // Guardar la reserva
-        return save(reserva);
+        // Revisar y guardar bajo el bloqueo del día: dos reservas al mismo horario no pueden pasar ambas la validación
+        return bloqueosPorDia.ejecutar(fechaInicio, () -> {
+            if (reservaRepository.existsReservaQueSeCruza(fechaInicio, horaInicio, horaFin)) {
+                throw new RuntimeException("Ya existe una reserva en ese horario.");
+            }
+
+            // Los karts se eligen bajo el mismo bloqueo: dos reservas del día no pueden llevarse el mismo kart
+            reserva.setKartsAsignados(asignarKarts(fechaInicio, horaInicio, horaFin, numPersonas));
+
+            // Guardar la reserva; la restricción reservas_sin_cruces rechaza el cruce si otra instancia se adelantó
+            try {
+                return save(reserva);
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("Ya existe una reserva en ese horario.");
+            }
+        });
     }
 
 
+    private List<Kart> asignarKarts(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin, int numPersonas) {
+        // Si la carga al iniciar no ocurrió, la flota se lee una sola vez
+        if (!asignadorKarts.isFlotaCargada()) {
+            asignadorKarts.cargarFlota(kartService.findAll());
+        }
+        return asignadorKarts.asignar(fecha, horaInicio, horaFin, numPersonas);
+    }
+
     // ======================= LÓGICA DE PRECIO Y DURACIÓN =======================
 
     public void asignarPrecioRegular_DuracionTotal(Reserva reserva) {
@@ -160,20 +263,50 @@ public class ReservaService {
     }
 
     public boolean esDiaFeriado(LocalDate fecha) {
-        List<LocalDate> feriados = List.of(
-                LocalDate.of(2025, 1, 1),
-                LocalDate.of(2025, 5, 1),
-                LocalDate.of(2025, 9, 18),
-                LocalDate.of(2025, 12, 25)
-        );
-        return feriados.contains(fecha);
+        return calendarioFeriados.esFeriado(fecha);
     }
 
     // ======================= DISPONIBILIDAD =======================
 
+    // Carga en memoria los bloques ocupados desde hoy en adelante
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndiceHorarios() {
+        LocalDate hoy = LocalDate.now();
+        List<IndiceHorarios.BloqueOcupado> bloques = new ArrayList<>();
+        for (ReservaRepository.HorarioReserva horario : reservaRepository.findHorariosDesde(hoy)) {
+            bloques.add(new IndiceHorarios.BloqueOcupado(horario.getId(), horario.getFechaInicio(),
+                    horario.getHoraInicio(), horario.getHoraFin()));
+        }
+        indiceHorarios.cargar(hoy, bloques);
+        cargarOcupacionKarts(hoy);
+    }
+
+    // Flota completa y karts de las reservas vigentes; desde aquí cada reserva se asigna sin consultar la flota
+    private void cargarOcupacionKarts(LocalDate desde) {
+        asignadorKarts.cargarFlota(kartService.findAll());
+
+        Map<Long, List<ReservaRepository.KartReservado>> porReserva = new LinkedHashMap<>();
+        for (ReservaRepository.KartReservado fila : reservaRepository.findKartsReservadosDesde(desde)) {
+            porReserva.computeIfAbsent(fila.getId(), id -> new ArrayList<>()).add(fila);
+        }
+        for (Map.Entry<Long, List<ReservaRepository.KartReservado>> entrada : porReserva.entrySet()) {
+            ReservaRepository.KartReservado primera = entrada.getValue().get(0);
+            List<Long> kartIds = new ArrayList<>();
+            for (ReservaRepository.KartReservado fila : entrada.getValue()) {
+                kartIds.add(fila.getKartId());
+            }
+            asignadorKarts.registrar(entrada.getKey(), primera.getFechaInicio(),
+                    primera.getHoraInicio(), primera.getHoraFin(), kartIds);
+        }
+    }
+
     public boolean esReservaPosible(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
-        List<Reserva> reservasQueSeCruzan = reservaRepository.findReservasQueSeCruzan(fecha, horaInicio, horaFin);
-        return reservasQueSeCruzan.isEmpty();
+        // Un día cubierto y libre en el índice se resuelve en memoria. Si el índice ve un cruce, la base de datos lo
+        // confirma: otra instancia pudo haber borrado esa reserva y el índice local seguiría mostrándola
+        if (indiceHorarios.cubre(fecha) && !indiceHorarios.haySolape(fecha, horaInicio, horaFin)) {
+            return true;
+        }
+        return !reservaRepository.existsReservaQueSeCruza(fecha, horaInicio, horaFin);
     }
 
     // ======================= INFORMACIÓN =======================
@@ -317,80 +450,39 @@ public class ReservaService {
     public Map<String, Map<String, Double>> generarReporteIngresosPorVueltas(LocalDate fechaInicio, LocalDate fechaFin) {
         List<Reserva> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
         Map<String, List<Reserva>> reservasAgrupadas = agruparReservasPorMesYAnio(reservas);
-
-        // Usamos TreeMap para que los meses estén ordenados
-        Map<String, Map<String, Double>> reporte = new TreeMap<>();
-
-        for (Map.Entry<String, List<Reserva>> entrada : reservasAgrupadas.entrySet()) {
-            String mesAnio = entrada.getKey();
-            List<Reserva> reservasDelMes = entrada.getValue();
-
-            Map<String, Double> ingresosPorVueltas = new HashMap<>();
-            ingresosPorVueltas.put("10", 0.0);
-            ingresosPorVueltas.put("15", 0.0);
-            ingresosPorVueltas.put("20", 0.0);
-            ingresosPorVueltas.put("TOTAL", 0.0);
-
-            for (Reserva reserva : reservasDelMes) {
-                int vueltas = reserva.getNum_vueltas_tiempo_maximo();
-                Comprobante comprobante = reserva.getComprobante(); // Asumiendo que existe el método
-                if (comprobante != null) {
-                    double monto = Math.round(comprobante.getMonto_total_iva());
-                    if (vueltas == 10 || vueltas == 15 || vueltas == 20) {
-                        ingresosPorVueltas.put(String.valueOf(vueltas), ingresosPorVueltas.get(String.valueOf(vueltas)) + monto);
-                    }
-                    ingresosPorVueltas.put("TOTAL", ingresosPorVueltas.get("TOTAL") + monto);
-                }
-            }
-
-            reporte.put(mesAnio, ingresosPorVueltas);
-        }
-
-        return reporte;
+        return generarReporteMensual(reservasAgrupadas, CatalogoReportes.VUELTAS);
     }
 
     public Map<String, Map<String, Double>> generarReporteIngresosPorGrupoDePersonas(LocalDate fechaInicio, LocalDate fechaFin) {
         List<Reserva> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
         Map<String, List<Reserva>> reservasAgrupadas = agruparReservasPorMesYAnio(reservas);
+        return generarReporteMensual(reservasAgrupadas, CatalogoReportes.GRUPO);
+    }
 
+    // Mes -> categoría de la dimensión -> ingresos, con TOTAL que incluye las reservas fuera de toda categoría
+    private Map<String, Map<String, Double>> generarReporteMensual(Map<String, List<Reserva>> reservasAgrupadas,
+                                                                   Dimension<Reserva> dimension) {
+        // Usamos TreeMap para que los meses estén ordenados
         Map<String, Map<String, Double>> reporte = new TreeMap<>();
+        List<Dimension<Reserva>> dimensiones = List.of(dimension);
+        List<Medida<Reserva>> medidas = List.of(CatalogoReportes.INGRESOS);
 
         for (Map.Entry<String, List<Reserva>> entrada : reservasAgrupadas.entrySet()) {
-            String mesAnio = entrada.getKey();
-            List<Reserva> reservasDelMes = entrada.getValue();
-
-            Map<String, Double> ingresosPorGrupo = new LinkedHashMap<>();
-            ingresosPorGrupo.put("1-2", 0.0);
-            ingresosPorGrupo.put("3-5", 0.0);
-            ingresosPorGrupo.put("6-10", 0.0);
-            ingresosPorGrupo.put("11-15", 0.0);
-            ingresosPorGrupo.put("TOTAL", 0.0);
-
-            for (Reserva reserva : reservasDelMes) {
-                int personas = reserva.getNum_personas();
-                Comprobante comprobante = reserva.getComprobante();
-
-                if (comprobante != null) {
-                    double monto = Math.round(comprobante.getMonto_total_iva());
-
-                    if (personas >= 1 && personas <= 2) {
-                        ingresosPorGrupo.put("1-2", ingresosPorGrupo.get("1-2") + monto);
-                    } else if (personas >= 3 && personas <= 5) {
-                        ingresosPorGrupo.put("3-5", ingresosPorGrupo.get("3-5") + monto);
-                    } else if (personas >= 6 && personas <= 10) {
-                        ingresosPorGrupo.put("6-10", ingresosPorGrupo.get("6-10") + monto);
-                    } else if (personas >= 11 && personas <= 15) {
-                        ingresosPorGrupo.put("11-15", ingresosPorGrupo.get("11-15") + monto);
-                    }
-
-                    ingresosPorGrupo.put("TOTAL", ingresosPorGrupo.get("TOTAL") + monto);
-                }
-            }
-
-            reporte.put(mesAnio, ingresosPorGrupo);
+            Agregacion<Reserva> agregacion = Agregacion.calcular(dimensiones, medidas, entrada.getValue(), false);
+            reporte.put(entrada.getKey(), agregacion.comoTotales(0));
         }
 
         return reporte;
     }
 
+    // Reporte armado con dimensiones y medidas del catálogo: una fila por combinación con reservas
+    public List<Map<String, Object>> generarReporte(LocalDate fechaInicio, LocalDate fechaFin,
+                                                    List<String> dimensiones, List<String> medidas) {
+        List<Dimension<Reserva>> ejes = CatalogoReportes.dimensiones(dimensiones,
+                YearMonth.from(fechaInicio), YearMonth.from(fechaFin));
+        List<Medida<Reserva>> valores = CatalogoReportes.medidas(medidas);
+        List<Reserva> reservas = obtenerReservasPorRangoDeMeses(fechaInicio, fechaFin);
+        return Agregacion.calcular(ejes, valores, reservas, reservas.size() >= RESERVAS_REPORTE_PARALELO).comoFilas();
+    }
+
 }
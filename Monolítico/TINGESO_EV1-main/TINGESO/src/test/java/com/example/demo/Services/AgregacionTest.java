@@ -0,0 +1,137 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.DetallePagoPorPersona;
+import com.example.demo.Entities.Reserva;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgregacionTest {
+
+    private static Reserva reserva(LocalDate fecha, int hora, int vueltas, int personas, double monto,
+                                   String tipoDescuentoCliente, int porcentajeCliente) {
+        Reserva reserva = new Reserva();
+        reserva.setFechaInicio(fecha);
+        reserva.setHoraInicio(LocalTime.of(hora, 0));
+        reserva.setNum_vueltas_tiempo_maximo(vueltas);
+        reserva.setNum_personas(personas);
+        Comprobante comprobante = new Comprobante();
+        comprobante.setMonto_total_iva(monto);
+        comprobante.setDetallePagoPorPersona(List.of(
+                new DetallePagoPorPersona("Acompañante", 10000, "Grupal", 10, 9000, 1710, 10710),
+                new DetallePagoPorPersona("Cliente", 10000, tipoDescuentoCliente, porcentajeCliente, 9000, 1710, 10710)));
+        reserva.setComprobante(comprobante);
+        return reserva;
+    }
+
+    @Test
+    void testComoTotales_FueraDeCategoriaSoloSumaAlTotal() {
+        // Arrange
+        LocalDate lunes = LocalDate.of(2025, 6, 2);
+        List<Reserva> reservas = List.of(
+                reserva(lunes, 15, 10, 2, 100.4, "Grupal", 0),
+                reserva(lunes, 15, 20, 3, 200.6, "Grupal", 10),
+                reserva(lunes, 16, 5, 4, 50, "Grupal", 10));
+
+        // Act
+        Map<String, Double> totales = Agregacion.calcular(List.of(CatalogoReportes.VUELTAS),
+                List.of(CatalogoReportes.INGRESOS), reservas, false).comoTotales(0);
+
+        // Assert
+        assertEquals(List.of("10", "15", "20", "TOTAL"), new ArrayList<>(totales.keySet()));
+        assertEquals(100.0, totales.get("10"));
+        assertEquals(0.0, totales.get("15"));
+        assertEquals(201.0, totales.get("20"));
+        assertEquals(351.0, totales.get("TOTAL"));
+    }
+
+    @Test
+    void testComoFilas_VariasDimensionesYMedidas() {
+        // Arrange: lunes y sábado, con descuentos distintos para el cliente
+        LocalDate lunes = LocalDate.of(2025, 6, 2);
+        LocalDate sabado = LocalDate.of(2025, 6, 7);
+        List<Reserva> reservas = List.of(
+                reserva(lunes, 15, 10, 2, 1000, "Frecuencia", 20),
+                reserva(lunes, 18, 10, 4, 3000, "Frecuencia", 20),
+                reserva(sabado, 11, 15, 6, 5000, "Cumpleaños", 50),
+                reserva(sabado, 12, 15, 1, 700, "Grupal", 0));
+
+        // Act
+        List<Map<String, Object>> filas = Agregacion.calcular(
+                CatalogoReportes.dimensiones(List.of("diaSemana", "tipoDescuento"), null, null),
+                CatalogoReportes.medidas(List.of("ingresos", "reservas", "personas")),
+                reservas, false).comoFilas();
+
+        // Assert
+        assertEquals(3, filas.size());
+        assertEquals(Map.of("diaSemana", "Lunes", "tipoDescuento", "Frecuencia",
+                "ingresos", 4000.0, "reservas", 2L, "personas", 6L), filas.get(0));
+        assertEquals("Sábado", filas.get(1).get("diaSemana"));
+        assertEquals("Cumpleaños", filas.get(1).get("tipoDescuento"));
+        assertEquals("Ninguno", filas.get(2).get("tipoDescuento"));
+        assertEquals(700.0, filas.get(2).get("ingresos"));
+    }
+
+    @Test
+    void testCalcular_EnParaleloDaLoMismoQueEnSerie() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            reservas.add(reserva(inicio.plusDays(i % 365), 10 + i % 12, 10 + 5 * (i % 3), 1 + i % 15, 1000 + i,
+                    "Grupal", 10));
+        }
+        List<Dimension<Reserva>> dimensiones = CatalogoReportes.dimensiones(List.of("mes", "hora"),
+                YearMonth.of(2025, 1), YearMonth.of(2025, 12));
+        List<Medida<Reserva>> medidas = List.of(CatalogoReportes.INGRESOS, CatalogoReportes.RESERVAS);
+
+        // Act
+        Agregacion<Reserva> serie = Agregacion.calcular(dimensiones, medidas, reservas, false);
+        Agregacion<Reserva> paralelo = Agregacion.calcular(dimensiones, medidas, reservas, true);
+
+        // Assert
+        assertEquals(5_000, paralelo.getCantidadFilas());
+        assertEquals(serie.comoFilas(), paralelo.comoFilas());
+        assertEquals(12 * 12, serie.comoFilas().size());
+    }
+
+    @Test
+    void testPorMes_FechasFueraDelRangoQuedanSinCategoria() {
+        // Arrange
+        Dimension<Reserva> mes = Dimension.porMes("mes", Reserva::getFechaInicio, YearMonth.of(2025, 6), YearMonth.of(2025, 7));
+        List<Reserva> reservas = List.of(
+                reserva(LocalDate.of(2025, 5, 31), 15, 10, 2, 10, "Grupal", 0),
+                reserva(LocalDate.of(2025, 7, 31), 15, 10, 2, 20, "Grupal", 0));
+
+        // Act
+        Map<String, Double> totales = Agregacion.calcular(List.of(mes), List.of(CatalogoReportes.INGRESOS),
+                reservas, false).comoTotales(0);
+
+        // Assert
+        assertEquals(0.0, totales.get("2025-06"));
+        assertEquals(20.0, totales.get("2025-07"));
+        assertEquals(30.0, totales.get("TOTAL"));
+    }
+
+    @Test
+    void testCatalogo_NombreDesconocidoLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> CatalogoReportes.medidas(List.of("propinas")));
+        assertThrows(IllegalArgumentException.class,
+                () -> CatalogoReportes.dimensiones(List.of("clima"), YearMonth.of(2025, 1), YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    void testPorTramos_EtiquetaDeValor() {
+        assertEquals("3-5", CatalogoReportes.GRUPO.etiquetaDeValor(4));
+        assertNull(CatalogoReportes.GRUPO.etiquetaDeValor(16));
+        assertThrows(IllegalStateException.class, () -> CatalogoReportes.DIA_SEMANA.etiquetaDeValor(1));
+    }
+}
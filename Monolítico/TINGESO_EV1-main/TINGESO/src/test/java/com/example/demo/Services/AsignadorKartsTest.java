@@ -0,0 +1,116 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Kart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsignadorKartsTest {
+
+    private final LocalDate hoy = LocalDate.of(2025, 4, 22);
+    private AsignadorKarts asignador;
+    private List<Kart> flota;
+
+    @BeforeEach
+    void setUp() {
+        flota = new ArrayList<>();
+        for (long i = 1; i <= 6; i++) {
+            flota.add(new Kart(i, "Sodikart RT8", "K" + i));
+        }
+        asignador = new AsignadorKarts();
+        asignador.cargarFlota(flota);
+    }
+
+    private LocalTime hora(int h, int m) {
+        return LocalTime.of(h, m);
+    }
+
+    private static List<Long> ids(List<Kart> karts) {
+        return karts.stream().map(Kart::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testAsignar_RotaEntreReservasParaRepartirElUso() {
+        // Act
+        List<Kart> primera = asignador.asignar(hoy, hora(10, 0), hora(10, 30), 4);
+        List<Kart> segunda = asignador.asignar(hoy.plusDays(1), hora(10, 0), hora(10, 30), 4);
+
+        // Assert: la segunda continúa donde terminó la primera y da la vuelta a la flota
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(primera));
+        assertEquals(List.of(5L, 6L, 1L, 2L), ids(segunda));
+    }
+
+    @Test
+    void testAsignar_OmiteKartsOcupadosEnMinutosQueSeCruzan() {
+        // Arrange: 10:00-10:32 ocupa hasta el minuto 10:31 inclusive
+        asignador.registrar(1L, hoy, hora(10, 0), hora(10, 32), List.of(1L, 2L, 3L));
+
+        // Act
+        List<Kart> cruzada = asignador.asignar(hoy, hora(10, 31), hora(11, 1), 3);
+        List<Kart> despues = asignador.asignar(hoy, hora(10, 32), hora(11, 2), 6);
+
+        // Assert
+        assertEquals(List.of(4L, 5L, 6L), ids(cruzada));
+        assertEquals(6, despues.size());
+    }
+
+    @Test
+    void testAsignar_ReservaSeguidaSinHoraRedondaNoChocaConLaAnterior() {
+        // Arrange: toda la flota ocupada hasta las 11:07
+        asignador.registrar(1L, hoy, hora(10, 37), hora(11, 7), List.of(1L, 2L, 3L, 4L, 5L, 6L));
+
+        // Act
+        List<Kart> siguiente = asignador.asignar(hoy, hora(11, 7), hora(11, 37), 6);
+
+        // Assert
+        assertEquals(6, siguiente.size());
+        assertThrows(RuntimeException.class, () -> asignador.asignar(hoy, hora(11, 6), hora(11, 36), 1));
+    }
+
+    @Test
+    void testAsignar_SinKartsSuficientesLanzaExcepcion() {
+        // Arrange
+        asignador.registrar(1L, hoy, hora(15, 0), hora(15, 40), List.of(1L, 2L));
+        flota.get(5).setEnMantenimiento(true);
+        asignador.actualizarKart(flota.get(5));
+        asignador.retirarKart(5L);
+
+        // Act & Assert: quedan libres solo los karts 3 y 4
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> asignador.asignar(hoy, hora(15, 10), hora(15, 50), 3));
+        assertEquals("No hay karts disponibles para 3 personas en ese horario.", error.getMessage());
+        assertEquals(List.of(3L, 4L), ids(asignador.asignar(hoy, hora(15, 10), hora(15, 50), 2)));
+    }
+
+    @Test
+    void testLiberar_ConservaLasReservasQueCompartenMinutos() {
+        // Arrange: ambas ocupan 10:31 con karts distintos
+        asignador.registrar(1L, hoy, hora(10, 0), hora(10, 32), List.of(1L, 2L));
+        asignador.registrar(2L, hoy, hora(10, 31), hora(11, 1), List.of(3L, 4L));
+
+        // Act
+        asignador.liberar(1L);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 5L, 6L), ids(asignador.asignar(hoy, hora(10, 30), hora(10, 35), 4)));
+    }
+
+    @Test
+    void testActualizarKart_KartNuevoSeAgregaALaFlota() {
+        // Arrange
+        asignador.registrar(1L, hoy, hora(12, 0), hora(12, 30), List.of(1L, 2L, 3L, 4L, 5L, 6L));
+
+        // Act
+        asignador.actualizarKart(new Kart(7L, "Sodikart RT8", "K7"));
+
+        // Assert
+        assertEquals(List.of(7L), ids(asignador.asignar(hoy, hora(12, 0), hora(12, 30), 1)));
+    }
+}
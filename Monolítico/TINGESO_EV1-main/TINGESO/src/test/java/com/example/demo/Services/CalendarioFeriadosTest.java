@@ -0,0 +1,53 @@
+package com.example.demo.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarioFeriadosTest {
+
+    private final CalendarioFeriados calendario = new CalendarioFeriados();
+
+    @Test
+    void testEsFeriado_SinCargar_NingunDiaEsFeriado() {
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 9, 18)));
+    }
+
+    @Test
+    void testEsFeriado_VariosAniosYFueraDelRango() {
+        // Arrange
+        calendario.cargar(List.of(
+                LocalDate.of(2024, 1, 1),
+                LocalDate.of(2025, 9, 18),
+                LocalDate.of(2035, 12, 25)));
+
+        // Act & Assert
+        assertTrue(calendario.esFeriado(LocalDate.of(2024, 1, 1)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2025, 9, 18)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2035, 12, 25)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 9, 17)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2023, 12, 31)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2035, 12, 26)));
+        assertFalse(calendario.esFeriado(LocalDate.of(2099, 1, 1)));
+    }
+
+    @Test
+    void testCargar_ReemplazaElCalendarioAnterior() {
+        // Arrange
+        calendario.cargar(List.of(LocalDate.of(2025, 5, 1)));
+
+        // Act
+        calendario.cargar(List.of(LocalDate.of(2025, 5, 21)));
+
+        // Assert
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 5, 1)));
+        assertTrue(calendario.esFeriado(LocalDate.of(2025, 5, 21)));
+
+        calendario.cargar(Collections.emptyList());
+        assertFalse(calendario.esFeriado(LocalDate.of(2025, 5, 21)));
+    }
+}
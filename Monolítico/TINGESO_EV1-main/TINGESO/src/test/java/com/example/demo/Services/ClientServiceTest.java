@@ -4,13 +4,11 @@ import com.example.demo.Entities.Client;
 import com.example.demo.Entities.Reserva;
 import com.example.demo.Repositories.ClientRepository;
 import jakarta.mail.internet.MimeMessage;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.mail.javamail.JavaMailSender;
 
-import java.io.File;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -32,11 +30,12 @@ class ClientServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Spy
+    private GeneradorPdfService generadorPdfService = new GeneradorPdfService();
+
     @Mock
     private ReservaService reservaService;
 
-    private File archivoGenerado;
-
     private final String resumenTexto = "Este es un resumen de la reserva";
 
     @BeforeEach
@@ -44,13 +43,6 @@ class ClientServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
-    @AfterEach
-    void tearDown() {
-        if (archivoGenerado != null && archivoGenerado.exists()) {
-            archivoGenerado.delete();
-        }
-    }
-
     // ======= CRUD =======
 
     @Test
@@ -122,6 +114,7 @@ class ClientServiceTest {
     @Test
     void testDeleteById() {
         clientService.deleteById(1L);
+        verify(reservaService).eliminarReservasDeCliente(1L);
         verify(clientRepository, times(1)).deleteById(1L);
     }
 
@@ -338,7 +331,7 @@ class ClientServiceTest {
         // Arrange
         String correo = "juan@example.com";
         String cuerpo = "<p>Este es el cuerpo del correo.</p>";
-        File archivoPdf = new File("dummy.pdf");
+        byte[] archivoPdf = "dummy".getBytes();
 
         // Creamos un dummy MimeMessage
         MimeMessage mimeMessageMock = mock(MimeMessage.class);
@@ -373,7 +366,6 @@ class ClientServiceTest {
         cliente.setEmail("juan@example.com");
         cliente.setBirthday(birthday);
         cliente.setNum_visitas_al_mes(2);
-        cliente.setReservas(new ArrayList<>());
 
         // Correos cumpleañeros
         List<String> correosCumple = new ArrayList<>();
@@ -387,17 +379,16 @@ class ClientServiceTest {
         Client cumpleanero = new Client();
         cumpleanero.setEmail("cumple1@example.com");
         cumpleanero.setBirthday(LocalDate.of(1999, 4, 22));
-        when(clientRepository.findByEmail("cumple1@example.com")).thenReturn(cumpleanero);
 
         // Mock: cumpleañero inválido (sin fecha)
         Client sinFecha = new Client();
         sinFecha.setEmail("invalido@example.com");
         sinFecha.setBirthday(null);
-        when(clientRepository.findByEmail("invalido@example.com")).thenReturn(sinFecha);
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(List.of(cumpleanero, sinFecha));
 
         // Mock: creación de reserva
         Reserva reserva = new Reserva();
-        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap()))
+        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap(), any()))
                 .thenReturn(reserva);
 
         // Mock: resumen PDF
@@ -421,7 +412,6 @@ class ClientServiceTest {
 
         // Verificaciones
         assertEquals(reserva, resultado);
-        assertEquals(1, cliente.getReservas().size()); // Se agregó
         assertEquals(3, cliente.getNum_visitas_al_mes()); // Incrementado
 
         // Solo se mantuvo el cumpleañero con fecha válida
@@ -432,7 +422,7 @@ class ClientServiceTest {
                 eq(5), eq(3), eq(correosCumple),
                 eq(fechaInicio), eq(horaInicio),
                 eq(2), eq("Juan"), eq("juan@example.com"),
-                anyMap()
+                anyMap(), eq(clientId) // Se asocia por clave foránea en el mismo INSERT
         );
 
         verify(mailSender, atLeastOnce()).createMimeMessage();
@@ -470,7 +460,6 @@ class ClientServiceTest {
         cliente.setName("Maria");
         cliente.setEmail("maria@example.com");
         cliente.setNum_visitas_al_mes(1);
-        cliente.setReservas(new ArrayList<>());
 
         List<String> correosCumple = new ArrayList<>();
         correosCumple.add("cumpleInvalido@example.com");
@@ -482,11 +471,11 @@ class ClientServiceTest {
         Client cumpleanero = new Client();
         cumpleanero.setEmail("cumpleInvalido@example.com");
         cumpleanero.setBirthday(LocalDate.of(1990, 1, 1)); // no coincide mes/día
-        when(clientRepository.findByEmail("cumpleInvalido@example.com")).thenReturn(cumpleanero);
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(List.of(cumpleanero));
 
         // Mock reserva
         Reserva reserva = new Reserva();
-        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap()))
+        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap(), any()))
                 .thenReturn(reserva);
 
         // Mock resumen y correo
@@ -513,7 +502,6 @@ class ClientServiceTest {
         assertEquals(reserva, resultado);
         assertTrue(correosCumple.isEmpty(), "Debe eliminar al cumpleañero cuya fecha no coincide");
         assertEquals(2, cliente.getNum_visitas_al_mes());
-        assertEquals(1, cliente.getReservas().size());
 
         // Solo debe enviar un correo (el válido)
         verify(mailSender, atLeastOnce()).createMimeMessage();
@@ -522,7 +510,7 @@ class ClientServiceTest {
                 eq(2), eq(2), eq(Collections.emptyList()),
                 eq(fechaInicio), eq(horaInicio),
                 eq(1), eq("Maria"), eq("maria@example.com"),
-                anyMap()
+                anyMap(), eq(clientId)
         );
     }
 
@@ -537,7 +525,6 @@ class ClientServiceTest {
         cliente.setName("Pedro");
         cliente.setEmail("pedro@example.com");
         cliente.setNum_visitas_al_mes(0);
-        cliente.setReservas(new ArrayList<>());
 
         List<String> correosCumple = new ArrayList<>();
         correosCumple.add("diaDistinto@example.com");
@@ -549,11 +536,11 @@ class ClientServiceTest {
         Client cumpleanero = new Client();
         cumpleanero.setEmail("diaDistinto@example.com");
         cumpleanero.setBirthday(LocalDate.of(2000, 4, 10)); // abril 10
-        when(clientRepository.findByEmail("diaDistinto@example.com")).thenReturn(cumpleanero);
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(List.of(cumpleanero));
 
         // Mock reserva
         Reserva reserva = new Reserva();
-        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap()))
+        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap(), any()))
                 .thenReturn(reserva);
 
         when(reservaService.obtenerInformacionReservaConComprobante(any())).thenReturn("Resumen PDF");
@@ -582,7 +569,6 @@ class ClientServiceTest {
         cliente.setName("Lucia");
         cliente.setEmail("lucia@example.com");
         cliente.setNum_visitas_al_mes(0);
-        cliente.setReservas(new ArrayList<>());
 
         List<String> correosCumple = new ArrayList<>();
         correosCumple.add("sinFecha@example.com");
@@ -594,11 +580,11 @@ class ClientServiceTest {
         Client cumpleanero = new Client();
         cumpleanero.setEmail("sinFecha@example.com");
         cumpleanero.setBirthday(null); // <- Caso que queremos probar
-        when(clientRepository.findByEmail("sinFecha@example.com")).thenReturn(cumpleanero);
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(List.of(cumpleanero));
 
         // Reserva mock
         Reserva reserva = new Reserva();
-        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap()))
+        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap(), any()))
                 .thenReturn(reserva);
 
         when(reservaService.obtenerInformacionReservaConComprobante(any())).thenReturn("Resumen PDF");
@@ -627,7 +613,6 @@ class ClientServiceTest {
         cliente.setName("Carlos");
         cliente.setEmail("carlos@example.com");
         cliente.setNum_visitas_al_mes(1);
-        cliente.setReservas(new ArrayList<>());
 
         List<String> correosCumple = new ArrayList<>();
         correosCumple.add("noexiste@example.com");
@@ -636,11 +621,11 @@ class ClientServiceTest {
         when(clientRepository.findById(clientId)).thenReturn(Optional.of(cliente));
 
         // Mock: cumpleañero no encontrado
-        when(clientRepository.findByEmail("noexiste@example.com")).thenReturn(null); // <- Este es el caso que queremos testear
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(List.of()); // <- Este es el caso que queremos testear
 
         // Reserva mock
         Reserva reserva = new Reserva();
-        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap()))
+        when(reservaService.crearReserva(anyInt(), anyInt(), anyList(), any(), any(), anyInt(), any(), any(), anyMap(), any()))
                 .thenReturn(reserva);
 
         when(reservaService.obtenerInformacionReservaConComprobante(any())).thenReturn("Resumen PDF");
@@ -657,6 +642,39 @@ class ClientServiceTest {
         assertTrue(correosCumple.isEmpty(), "Debe eliminar al cumpleañero si no se encuentra en la base");
         verify(clientRepository).save(cliente);
     }
-}
 
+    @Test
+    void testFiltrarCumpleaneros_GrupoDeQuinceUsaUnaSolaConsulta() {
+        // Arrange: 15 correos, uno repetido; solo los pares están de cumpleaños en la fecha
+        LocalDate fechaInicio = LocalDate.of(2025, 4, 22);
+        List<String> correosCumple = new ArrayList<>();
+        List<Client> registrados = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            String correo = "persona" + i + "@example.com";
+            correosCumple.add(correo);
+            Client client = new Client();
+            client.setEmail(correo);
+            client.setBirthday(i % 2 == 0 ? LocalDate.of(1995, 4, 22) : LocalDate.of(1995, 4, 23));
+            registrados.add(client);
+        }
+        correosCumple.add("persona0@example.com");
+        when(clientRepository.findByEmailIn(anyCollection())).thenReturn(registrados);
 
+        // Act
+        clientService.filtrarCumpleaneros(correosCumple, fechaInicio);
+
+        // Assert
+        assertEquals(8, correosCumple.size());
+        assertTrue(correosCumple.stream().allMatch(correo -> correo.matches("persona\\d*[02468]@example.com")));
+        verify(clientRepository, times(1)).findByEmailIn(argThat(correos -> correos.size() == 14));
+        verify(clientRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testFiltrarCumpleaneros_ListaVaciaNoConsulta() {
+        clientService.filtrarCumpleaneros(new ArrayList<>(), LocalDate.of(2025, 4, 22));
+        clientService.filtrarCumpleaneros(null, LocalDate.of(2025, 4, 22));
+
+        verifyNoInteractions(clientRepository);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.Services;
 
 import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.DetallePagoPorPersona;
 import com.example.demo.Repositories.ComprobanteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.mockito.MockitoAnnotations;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,10 +29,16 @@ public class ComprobanteServiceTest {
 
     private Comprobante comprobante;
 
+    private static boolean descuento(DetallePagoPorPersona detalle, String tipo, int porcentaje) {
+        return tipo.equals(detalle.getTipoDescuento()) && detalle.getPorcentajeDescuento() == porcentaje;
+    }
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        comprobante = new Comprobante(1L, Arrays.asList("Detalle 1", "Detalle 2"), 10.0, 500.0, 95.0, 595.0);
+        comprobante = new Comprobante(1L, Arrays.asList(
+                new DetallePagoPorPersona("Persona 1", 250.0, "Grupal", 0, 250.0, 47.5, 297.5),
+                new DetallePagoPorPersona("Persona 2", 250.0, "Grupal", 0, 250.0, 47.5, 297.5)), 10.0, 500.0, 95.0, 595.0);
     }
 
     // === Test de CRUD básico ===
@@ -120,7 +128,8 @@ public class ComprobanteServiceTest {
     @Test
     void testUpdate_Found() {
         // Arrange
-        Comprobante updatedComprobante = new Comprobante(1L, Arrays.asList("Nuevo Detalle"), 5.0, 450.0, 85.5, 535.5);
+        Comprobante updatedComprobante = new Comprobante(1L, Arrays.asList(
+                new DetallePagoPorPersona("Nuevo", 450.0, "Grupal", 0, 450.0, 85.5, 535.5)), 5.0, 450.0, 85.5, 535.5);
         when(comprobanteRepository.findById(1L)).thenReturn(Optional.of(comprobante));
         when(comprobanteRepository.save(any(Comprobante.class))).thenReturn(updatedComprobante);
 
@@ -139,7 +148,8 @@ public class ComprobanteServiceTest {
     @Test
     void testUpdate_NotFound() {
         // Arrange
-        Comprobante updatedComprobante = new Comprobante(1L, Arrays.asList("Nuevo Detalle"), 5.0, 450.0, 85.5, 535.5);
+        Comprobante updatedComprobante = new Comprobante(1L, Arrays.asList(
+                new DetallePagoPorPersona("Nuevo", 450.0, "Grupal", 0, 450.0, 85.5, 535.5)), 5.0, 450.0, 85.5, 535.5);
         when(comprobanteRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act
@@ -208,7 +218,7 @@ public class ComprobanteServiceTest {
                 List.of("b@mail.com")
         );
 
-        assertTrue(comprobante.getDetallePagoPorPersona().stream().anyMatch(s -> s.contains("Descuento Cumpleaños 50%")));
+        assertTrue(comprobante.getDetallePagoPorPersona().stream().anyMatch(d -> descuento(d, "Cumpleaños", 50)));
     }
 
     @Test
@@ -228,7 +238,7 @@ public class ComprobanteServiceTest {
         );
 
         long cumpleCount = comprobante.getDetallePagoPorPersona().stream()
-                .filter(s -> s.contains("Descuento Cumpleaños 50%")).count();
+                .filter(d -> descuento(d, "Cumpleaños", 50)).count();
         assertEquals(2, cumpleCount);
     }
 
@@ -249,7 +259,7 @@ public class ComprobanteServiceTest {
         );
 
         long cumpleCount = comprobante.getDetallePagoPorPersona().stream()
-                .filter(s -> s.contains("Descuento Cumpleaños 50%")).count();
+                .filter(d -> descuento(d, "Cumpleaños", 50)).count();
         assertEquals(2, cumpleCount); // máximo permitido
     }
 
@@ -262,7 +272,7 @@ public class ComprobanteServiceTest {
         );
 
         assertTrue(comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(s -> s.contains("Descuento Frecuencia 10%")));
+                .anyMatch(d -> descuento(d, "Frecuencia", 10)));
     }
 
     @Test
@@ -274,7 +284,7 @@ public class ComprobanteServiceTest {
         );
 
         assertTrue(comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(s -> s.contains("Descuento Frecuencia 20%")));
+                .anyMatch(d -> descuento(d, "Frecuencia", 20)));
     }
 
     @Test
@@ -286,7 +296,7 @@ public class ComprobanteServiceTest {
         );
 
         assertTrue(comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(s -> s.contains("Descuento Frecuencia 30%")));
+                .anyMatch(d -> descuento(d, "Frecuencia", 30)));
     }
 
     @Test
@@ -319,7 +329,7 @@ public class ComprobanteServiceTest {
 
         // Verificamos que haya descuento de cumpleaños para el cliente
         boolean clienteTieneDescuento = comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(linea -> linea.contains("Cliente A") && linea.contains("Descuento Cumpleaños 50%"));
+                .anyMatch(d -> d.getNombrePersona().equals("Cliente A") && descuento(d, "Cumpleaños", 50));
 
         assertTrue(clienteTieneDescuento, "El cliente debería tener descuento de cumpleaños.");
     }
@@ -334,7 +344,7 @@ public class ComprobanteServiceTest {
         );
 
         assertTrue(comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(s -> s.contains("Descuento Grupal 10%")));
+                .anyMatch(d -> descuento(d, "Grupal", 10)));
     }
 
     @Test
@@ -346,7 +356,7 @@ public class ComprobanteServiceTest {
         );
 
         assertTrue(comprobante.getDetallePagoPorPersona().stream()
-                .anyMatch(s -> s.contains("Descuento Cumpleaños 50%")));
+                .anyMatch(d -> descuento(d, "Cumpleaños", 50)));
     }
 
     // === Test de formateo de comprobante ===
@@ -359,8 +369,8 @@ public class ComprobanteServiceTest {
         comprobante.setIva(15200.00);
         comprobante.setMonto_total_iva(95200.00);
         comprobante.setDetallePagoPorPersona(Arrays.asList(
-                "Cliente1|Base:20000.00|Descuento Grupal 20%|Monto sin IVA:16000.00|IVA:3040.00|Total:19040.00",
-                "Cliente2|Base:20000.00|Descuento Grupal 20%|Monto sin IVA:16000.00|IVA:3040.00|Total:19040.00"
+                new DetallePagoPorPersona("Cliente1", 20000.00, "Grupal", 20, 16000.00, 3040.00, 19040.00),
+                new DetallePagoPorPersona("Cliente2", 20000.00, "Grupal", 20, 16000.00, 3040.00, 19040.00)
         ));
 
         // Act
@@ -389,4 +399,60 @@ public class ComprobanteServiceTest {
 
         assertEquals(expectedOutput, result);
     }
+
+    @Test
+    void testCrearComprobante_DetalleDelClienteEnColumnas() {
+        // Act
+        Comprobante resultado = comprobanteService.crearComprobante(
+                10000, 2, 3, "Cliente A", "a@mail.com",
+                Map.of("Cliente A", "a@mail.com", "B", "b@mail.com"),
+                List.of()
+        );
+
+        // Assert: el cliente principal queda al final, con sus montos ya calculados
+        DetallePagoPorPersona cliente = resultado.getDetallePagoPorPersona().get(1);
+        assertEquals("Cliente A", cliente.getNombrePersona());
+        assertEquals(10000.0, cliente.getPrecioBase());
+        assertEquals("Frecuencia", cliente.getTipoDescuento());
+        assertEquals(10, cliente.getPorcentajeDescuento());
+        assertEquals(9000.0, cliente.getMontoFinalSinIva());
+        assertEquals(1710.0, cliente.getIva());
+        assertEquals(10710.0, cliente.getTotalConIva());
+        assertEquals("Grupal", resultado.getDetallePagoPorPersona().get(0).getTipoDescuento());
+        assertEquals(0, resultado.getDetallePagoPorPersona().get(0).getPorcentajeDescuento());
+    }
+
+    @Test
+    void testAgregarMonto_DosDecimalesComoFormato() {
+        for (double monto : new double[]{0, 0.05, 7.5, 1710.0, 3040.004, 16999.995, 12345.678, -4.2}) {
+            String esperado = String.format(Locale.ROOT, "%.2f", monto);
+            assertEquals(esperado, ComprobanteService.agregarMonto(new StringBuilder(), monto).toString(), "monto " + monto);
+        }
+    }
+
+    @Test
+    void testCrearComprobante_TotalesCuadranConLasLineas() {
+        // Arrange: tarifa que deja centavos en cada línea
+        Map<String, String> nombreCorreo = new HashMap<>();
+        for (int i = 1; i <= 12; i++) {
+            nombreCorreo.put("C" + i, "c" + i + "@mail.com");
+        }
+
+        // Act
+        Comprobante resultado = comprobanteService.crearComprobante(17249, 12, 3, "C1", "c1@mail.com",
+                nombreCorreo, List.of("c2@mail.com"));
+
+        // Assert
+        long sinIva = 0;
+        long iva = 0;
+        long total = 0;
+        for (DetallePagoPorPersona detalle : resultado.getDetallePagoPorPersona()) {
+            sinIva += CalculadoraPrecios.aCentavos(detalle.getMontoFinalSinIva());
+            iva += CalculadoraPrecios.aCentavos(detalle.getIva());
+            total += CalculadoraPrecios.aCentavos(detalle.getTotalConIva());
+        }
+        assertEquals(sinIva, CalculadoraPrecios.aCentavos(resultado.getPrecio_final()));
+        assertEquals(iva, CalculadoraPrecios.aCentavos(resultado.getIva()));
+        assertEquals(total, CalculadoraPrecios.aCentavos(resultado.getMonto_total_iva()));
+    }
 }
@@ -10,7 +10,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.mail.javamail.JavaMailSender;
 
-import java.io.File;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -40,6 +39,9 @@ public class EmpleadoServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Spy
+    private GeneradorPdfService generadorPdfService = new GeneradorPdfService();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -281,7 +283,7 @@ public class EmpleadoServiceTest {
         // Arrange
         String correo = "juan@example.com";
         String cuerpo = "<p>Este es el cuerpo del correo.</p>";
-        File archivoPdf = new File("dummy.pdf");
+        byte[] archivoPdf = "dummy".getBytes();
 
         // Creamos un dummy MimeMessage
         MimeMessage mimeMessageMock = mock(MimeMessage.class);
@@ -317,7 +319,11 @@ public class EmpleadoServiceTest {
         Client cumpleanero = new Client();
         cumpleanero.setEmail("cumpleInvalido@example.com");
         cumpleanero.setBirthday(LocalDate.of(1990, 1, 1)); // no coincide mes/día
-        when(clientService.findByEmail("cumpleInvalido@example.com")).thenReturn(cumpleanero);
+        doAnswer(invocation -> {
+            List<String> correos = invocation.getArgument(0);
+            correos.remove(cumpleanero.getEmail());
+            return null;
+        }).when(clientService).filtrarCumpleaneros(correosCumple, fechaInicio);
 
         // Mock reserva
         Reserva reserva = new Reserva();
@@ -346,6 +352,7 @@ public class EmpleadoServiceTest {
 
         // Verificar
         assertEquals(reserva, resultado);
+        verify(clientService).filtrarCumpleaneros(correosCumple, fechaInicio);
         assertTrue(correosCumple.isEmpty(), "Debe eliminar al cumpleañero cuya fecha no coincide");
         assertTrue(nombreCorreo.containsKey(nombreCliente), "El cliente debe estar en el mapa con su correo");
 
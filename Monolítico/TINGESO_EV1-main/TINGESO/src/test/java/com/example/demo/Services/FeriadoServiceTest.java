@@ -0,0 +1,187 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Feriado;
+import com.example.demo.Repositories.FeriadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FeriadoServiceTest {
+
+    @Mock
+    private FeriadoRepository feriadoRepository;
+
+    @Spy
+    private CalendarioFeriados calendarioFeriados = new CalendarioFeriados();
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private FeriadoService feriadoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testLeerFeriadosIniciales_ArchivoCubreVariosAnios() {
+        // Act
+        List<Feriado> feriados = feriadoService.leerFeriadosIniciales();
+
+        // Assert
+        assertTrue(feriados.stream().anyMatch(f -> f.getFecha().equals(LocalDate.of(2024, 9, 18))));
+        assertTrue(feriados.stream().anyMatch(f -> f.getFecha().equals(LocalDate.of(2030, 12, 25))));
+        assertEquals(feriados.size(), feriados.stream().map(Feriado::getFecha).distinct().count());
+    }
+
+    @Test
+    void testInicializarCalendario_TablaVacia_CargaArchivoYCompila() {
+        // Arrange
+        when(feriadoRepository.count()).thenReturn(0L);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(LocalDate.of(2026, 9, 18)));
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert
+        verify(feriadoRepository).saveAll(anyList());
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 9, 18)));
+    }
+
+    @Test
+    void testInicializarCalendario_TablaConDatos_NoVuelveACargarArchivo() {
+        // Arrange
+        when(feriadoRepository.count()).thenReturn(10L);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of());
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert
+        verify(feriadoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCrear_RecompilaElCalendario() {
+        // Arrange
+        Feriado feriado = new Feriado(null, LocalDate.of(2026, 6, 29), "San Pedro y San Pablo");
+        when(feriadoRepository.existsByFecha(feriado.getFecha())).thenReturn(false);
+        when(feriadoRepository.save(feriado)).thenReturn(feriado);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(feriado.getFecha()));
+
+        // Act
+        feriadoService.crear(feriado);
+
+        // Assert
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 6, 29)));
+    }
+
+    @Test
+    void testCrear_FechaRepetida_LanzaExcepcion() {
+        // Arrange
+        Feriado feriado = new Feriado(null, LocalDate.of(2025, 12, 25), "Navidad");
+        when(feriadoRepository.existsByFecha(feriado.getFecha())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> feriadoService.crear(feriado));
+        verify(feriadoRepository, never()).save(any());
+    }
+
+    @Test
+    void testActualizar_NoExiste_RetornaVacio() {
+        // Arrange
+        when(feriadoRepository.findById(9L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Feriado> resultado = feriadoService.actualizar(9L, new Feriado(null, LocalDate.of(2025, 1, 1), "Año Nuevo"));
+
+        // Assert
+        assertTrue(resultado.isEmpty());
+    }
+
+    @Test
+    void testEliminar_QuitaElFeriadoDelCalendario() {
+        // Arrange
+        calendarioFeriados.cargar(List.of(LocalDate.of(2025, 5, 1)));
+        when(feriadoRepository.existsById(1L)).thenReturn(true);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of());
+
+        // Act
+        boolean eliminado = feriadoService.eliminar(1L);
+
+        // Assert
+        assertTrue(eliminado);
+        verify(feriadoRepository).deleteById(1L);
+        assertFalse(calendarioFeriados.esFeriado(LocalDate.of(2025, 5, 1)));
+    }
+
+    @Test
+    void testInicializarCalendario_ConFuente_DejaLaTablaIgualALaFuente() {
+        // Arrange
+        String url = "http://localhost:8080/api/tarifasDiasEspeciales/feriados/getAll";
+        ReflectionTestUtils.setField(feriadoService, "fuenteUrl", url);
+        Feriado sinCambios = new Feriado(1L, LocalDate.of(2026, 1, 1), "Año Nuevo");
+        Feriado renombrado = new Feriado(2L, LocalDate.of(2026, 5, 21), "Glorias Navales");
+        Feriado quitado = new Feriado(3L, LocalDate.of(2026, 6, 7), "Asalto y Toma del Morro de Arica");
+        when(feriadoRepository.findAll()).thenReturn(List.of(sinCambios, renombrado, quitado));
+        when(restTemplate.getForObject(url, Feriado[].class)).thenReturn(new Feriado[]{
+                new Feriado(10L, LocalDate.of(2026, 1, 1), "Año Nuevo"),
+                new Feriado(11L, LocalDate.of(2026, 5, 21), "Día de las Glorias Navales"),
+                new Feriado(12L, LocalDate.of(2026, 6, 29), "San Pedro y San Pablo")});
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(LocalDate.of(2026, 6, 29)));
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert: solo se tocan las filas que difieren, y el archivo no se usa
+        verify(feriadoRepository).deleteAll(List.of(quitado));
+        verify(feriadoRepository).saveAll(argThat((List<Feriado> guardados) -> guardados.size() == 2
+                && guardados.get(0) == renombrado && "Día de las Glorias Navales".equals(renombrado.getNombre())
+                && guardados.get(1).getId() == null && guardados.get(1).getFecha().equals(LocalDate.of(2026, 6, 29))));
+        verify(feriadoRepository, never()).count();
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 6, 29)));
+    }
+
+    @Test
+    void testInicializarCalendario_FuenteCaida_UsaLaCopiaLocal() {
+        // Arrange
+        ReflectionTestUtils.setField(feriadoService, "fuenteUrl", "http://localhost:8080/api/tarifasDiasEspeciales/feriados/getAll");
+        when(restTemplate.getForObject(anyString(), eq(Feriado[].class))).thenThrow(new ResourceAccessException("Connection refused"));
+        when(feriadoRepository.count()).thenReturn(10L);
+        when(feriadoRepository.findTodasLasFechas()).thenReturn(List.of(LocalDate.of(2026, 9, 18)));
+
+        // Act
+        feriadoService.inicializarCalendario();
+
+        // Assert
+        verify(feriadoRepository, never()).deleteAll(anyList());
+        assertTrue(calendarioFeriados.esFeriado(LocalDate.of(2026, 9, 18)));
+    }
+
+    @Test
+    void testCrear_ConFuente_LanzaExcepcionSinGuardar() {
+        // Arrange
+        ReflectionTestUtils.setField(feriadoService, "fuenteUrl", "http://localhost:8080/api/tarifasDiasEspeciales/feriados/getAll");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> feriadoService.crear(new Feriado(null, LocalDate.of(2026, 6, 29), "San Pedro y San Pablo")));
+        verify(feriadoRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.Services;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneradorPdfServiceTest {
+
+    private final GeneradorPdfService generadorPdfService = new GeneradorPdfService();
+
+    private String extraerTexto(byte[] pdf) throws Exception {
+        try (PdfDocument documento = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            return PdfTextExtractor.getTextFromPage(documento.getFirstPage());
+        }
+    }
+
+    @Test
+    void testGenerarPDFReserva_GeneraPdfEnMemoriaConElResumen() throws Exception {
+        // Act
+        byte[] pdf = generadorPdfService.generarPDFReserva("Reserva de Juan Pérez - Cumpleaños");
+
+        // Assert
+        assertTrue(pdf.length > 0);
+        assertEquals("%PDF-", new String(pdf, 0, 5));
+        assertTrue(extraerTexto(pdf).contains("Reserva de Juan Pérez - Cumpleaños"));
+    }
+
+    @Test
+    void testGenerarPDFReserva_ReutilizarBufferNoMezclaDocumentos() throws Exception {
+        // Act: dos renders seguidos en el mismo hilo usan el mismo buffer
+        byte[] primero = generadorPdfService.generarPDFReserva("Primera reserva");
+        byte[] segundo = generadorPdfService.generarPDFReserva("Segunda reserva");
+
+        // Assert
+        assertTrue(extraerTexto(primero).contains("Primera reserva"));
+        assertFalse(extraerTexto(primero).contains("Segunda reserva"));
+        assertTrue(extraerTexto(segundo).contains("Segunda reserva"));
+        assertFalse(extraerTexto(segundo).contains("Primera reserva"));
+    }
+
+    @Test
+    void testGenerarPDFReserva_PeticionesConcurrentesNoSePisan() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<byte[]>> resultados = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 64; i++) {
+            String resumen = "Comprobante numero " + i;
+            resultados.add(pool.submit(() -> generadorPdfService.generarPDFReserva(resumen)));
+        }
+
+        // Assert: cada petición recibe exactamente su propio comprobante
+        for (int i = 0; i < resultados.size(); i++) {
+            String texto = extraerTexto(resultados.get(i).get(10, TimeUnit.SECONDS));
+            assertEquals("Comprobante numero " + i, texto.trim());
+        }
+        pool.shutdown();
+    }
+
+    // Benchmark de rendimiento: mvn test -Dtest=GeneradorPdfServiceTest -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkGenerarPDFReserva_PdfsPorSegundoEnParalelo() throws Exception {
+        String resumen = "Reserva: 2025-04-22 10:00 - 10:30\n".repeat(20);
+        int[] hilosPorCorrida = {1, 2, 4, Runtime.getRuntime().availableProcessors()};
+        long duracionMs = 5_000;
+
+        // Calentamiento para que el JIT no distorsione la primera corrida
+        for (int i = 0; i < 500; i++) {
+            generadorPdfService.generarPDFReserva(resumen);
+        }
+
+        for (int hilos : hilosPorCorrida) {
+            ExecutorService pool = Executors.newFixedThreadPool(hilos);
+            AtomicLong generados = new AtomicLong();
+            long fin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracionMs);
+
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(pool.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        generadorPdfService.generarPDFReserva(resumen);
+                        generados.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            pool.shutdown();
+
+            double pdfsPorSegundo = generados.get() * 1000.0 / duracionMs;
+            System.out.printf("Hilos: %d -> %.1f PDFs/s%n", hilos, pdfsPorSegundo);
+            assertTrue(generados.get() > 0);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceHorariosTest {
+
+    private final LocalDate hoy = LocalDate.of(2025, 4, 22);
+    private IndiceHorarios indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceHorarios();
+        indice.cargar(hoy, List.of(
+                new IndiceHorarios.BloqueOcupado(1L, hoy, LocalTime.of(14, 0), LocalTime.of(14, 30)),
+                new IndiceHorarios.BloqueOcupado(2L, hoy, LocalTime.of(16, 0), LocalTime.of(16, 40)),
+                new IndiceHorarios.BloqueOcupado(3L, hoy.plusDays(1), LocalTime.of(10, 0), LocalTime.of(10, 35))
+        ));
+    }
+
+    private LocalTime hora(int h, int m) {
+        return LocalTime.of(h, m);
+    }
+
+    @Test
+    void testCubre_SoloDesdeLaFechaDeCarga() {
+        assertTrue(indice.cubre(hoy));
+        assertTrue(indice.cubre(hoy.plusYears(1)));
+        assertFalse(indice.cubre(hoy.minusDays(1)));
+        assertFalse(new IndiceHorarios().cubre(hoy));
+    }
+
+    @Test
+    void testHaySolape_MismoCriterioQueLaConsulta() {
+        assertTrue(indice.haySolape(hoy, hora(14, 0), hora(14, 30)));   // mismo bloque
+        assertTrue(indice.haySolape(hoy, hora(13, 45), hora(14, 15)));  // cruza el inicio
+        assertTrue(indice.haySolape(hoy, hora(14, 10), hora(14, 20)));  // dentro
+        assertTrue(indice.haySolape(hoy, hora(13, 0), hora(17, 0)));    // contiene a ambos
+        assertTrue(indice.haySolape(hoy, hora(16, 30), hora(17, 0)));   // cruza el fin
+        assertFalse(indice.haySolape(hoy, hora(14, 30), hora(15, 0)));  // empieza justo al terminar
+        assertFalse(indice.haySolape(hoy, hora(15, 30), hora(16, 0)));  // termina justo al empezar
+        assertFalse(indice.haySolape(hoy, hora(17, 0), hora(17, 30)));
+        assertFalse(indice.haySolape(hoy.plusDays(2), hora(14, 0), hora(14, 30)));
+    }
+
+    @Test
+    void testHaySolape_BloqueLargoAnteriorSigueDetectandoCruce() {
+        // Un bloque largo que empieza antes que otros más cortos (datos antiguos con cruces)
+        indice.agregar(4L, hoy.plusDays(2), hora(10, 0), hora(13, 0));
+        indice.agregar(5L, hoy.plusDays(2), hora(10, 30), hora(11, 0));
+
+        assertTrue(indice.haySolape(hoy.plusDays(2), hora(12, 0), hora(12, 30)));
+    }
+
+    @Test
+    void testAgregarYEliminar_ActualizanLosBloques() {
+        indice.agregar(10L, hoy, hora(18, 0), hora(18, 30));
+        assertTrue(indice.haySolape(hoy, hora(18, 15), hora(18, 45)));
+
+        indice.eliminar(10L);
+        assertFalse(indice.haySolape(hoy, hora(18, 15), hora(18, 45)));
+
+        indice.eliminar(1L);
+        assertFalse(indice.haySolape(hoy, hora(14, 0), hora(14, 30)));
+        assertTrue(indice.haySolape(hoy, hora(16, 0), hora(16, 10)));
+
+        // Eliminar un id desconocido no hace nada
+        indice.eliminar(99L);
+        assertTrue(indice.haySolape(hoy, hora(16, 0), hora(16, 10)));
+    }
+
+    @Test
+    void testAgregar_MismoIdReemplazaElBloqueAnterior() {
+        indice.agregar(3L, hoy.plusDays(1), hora(20, 0), hora(20, 30));
+
+        assertFalse(indice.haySolape(hoy.plusDays(1), hora(10, 0), hora(10, 35)));
+        assertTrue(indice.haySolape(hoy.plusDays(1), hora(20, 0), hora(20, 30)));
+    }
+}
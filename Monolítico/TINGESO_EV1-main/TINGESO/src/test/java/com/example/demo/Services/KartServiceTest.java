@@ -7,8 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,6 +23,9 @@ public class KartServiceTest {
     @Mock
     private KartRepository kartRepository;
 
+    @Spy
+    private AsignadorKarts asignadorKarts = new AsignadorKarts();
+
     @InjectMocks
     private KartService kartService;
 
@@ -120,5 +127,22 @@ public class KartServiceTest {
         // Assert
         assertNull(result);
     }
-}
 
+    @Test
+    void testUpdate_EnMantenimientoDejaDeAsignarse() {
+        // Arrange
+        Kart otro = new Kart(2L, "Modelo A", "XYZ789");
+        asignadorKarts.cargarFlota(List.of(kart, otro));
+        Kart enMantenimiento = new Kart(1L, "Modelo A", "ABC123", true);
+        when(kartRepository.findById(1L)).thenReturn(Optional.of(kart));
+        when(kartRepository.save(any(Kart.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        kartService.update(1L, enMantenimiento);
+        List<Kart> asignados = asignadorKarts.asignar(LocalDate.of(2025, 4, 22), LocalTime.of(15, 0), LocalTime.of(15, 30), 1);
+
+        // Assert
+        assertTrue(kart.isEnMantenimiento());
+        assertEquals(List.of(otro), asignados);
+    }
+}
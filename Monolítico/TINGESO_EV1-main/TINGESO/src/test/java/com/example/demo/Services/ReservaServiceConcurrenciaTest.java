@@ -0,0 +1,211 @@
+package com.example.demo.Services;
+
+import com.example.demo.Entities.Comprobante;
+import com.example.demo.Entities.Kart;
+import com.example.demo.Entities.Reserva;
+import com.example.demo.Repositories.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prueba de estrés: muchas reservas simultáneas al mismo horario. El repositorio simulado
+ * guarda con retardo y sin restricción propia, así que solo los bloqueos por día evitan el doble agendamiento.
+ */
+class ReservaServiceConcurrenciaTest {
+
+    private static final int RESERVAS_SIMULTANEAS = 50;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ComprobanteService comprobanteService;
+
+    @Mock
+    private KartService kartService;
+
+    @Spy
+    private IndiceHorarios indiceHorarios = new IndiceHorarios();
+
+    @Spy
+    private BloqueosPorDia bloqueosPorDia = new BloqueosPorDia();
+
+    @Spy
+    private AsignadorKarts asignadorKarts = new AsignadorKarts();
+
+    @Spy
+    private CalendarioFeriados calendarioFeriados = new CalendarioFeriados();
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    // "Tabla" de reservas guardadas por el repositorio simulado
+    private final List<Reserva> guardadas = new CopyOnWriteArrayList<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        calendarioFeriados.cargar(List.of(
+                LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 5, 1),
+                LocalDate.of(2025, 9, 18),
+                LocalDate.of(2025, 12, 25)));
+        pool = Executors.newFixedThreadPool(RESERVAS_SIMULTANEAS);
+
+        List<Kart> karts = new ArrayList<>();
+        for (long i = 1; i <= 15; i++) {
+            karts.add(new Kart(i, "Sodikart RT8", "K" + i));
+        }
+        when(kartService.findAll()).thenReturn(karts);
+        when(comprobanteService.crearComprobante(anyInt(), anyInt(), anyInt(), any(), any(), anyMap(), any()))
+                .thenAnswer(inv -> new Comprobante());
+
+        when(reservaRepository.findHorariosDesde(any())).thenReturn(Collections.emptyList());
+        when(reservaRepository.existsReservaQueSeCruza(any(), any(), any())).thenAnswer(inv -> {
+            LocalDate fecha = inv.getArgument(0);
+            LocalTime inicio = inv.getArgument(1);
+            LocalTime fin = inv.getArgument(2);
+            return guardadas.stream().anyMatch(r -> r.getFechaInicio().equals(fecha)
+                    && r.getHoraInicio().isBefore(fin) && r.getHoraFin().isAfter(inicio));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private void guardarConRetardo(long retardoMs) {
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(inv -> {
+            Reserva reserva = inv.getArgument(0);
+            Thread.sleep(retardoMs); // ventana en la que otra petición podría colarse sin bloqueo
+            reserva.setId(secuencia.incrementAndGet());
+            guardadas.add(reserva);
+            return reserva;
+        });
+    }
+
+    private Future<Boolean> reservarEnParalelo(CountDownLatch largada, LocalDate fecha, LocalTime hora) {
+        return pool.submit(() -> {
+            largada.await();
+            try {
+                reservaService.crearReserva(10, 2, new ArrayList<>(), fecha, hora, 0,
+                        "Cliente", "cliente@mail.com", new HashMap<>());
+                return true;
+            } catch (RuntimeException e) {
+                assertEquals("Ya existe una reserva en ese horario.", e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    @Test
+    void testCrearReserva_MuchasPeticionesAlMismoHorario_SoloUnaGana() throws Exception {
+        // Arrange
+        guardarConRetardo(5);
+        reservaService.cargarIndiceHorarios();
+        LocalDate fecha = LocalDate.now().plusDays(10);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Future<Boolean>> intentos = new ArrayList<>();
+        for (int i = 0; i < RESERVAS_SIMULTANEAS; i++) {
+            // Horarios distintos pero cruzados: 15:00, 15:01, ... todos chocan con el primero que gane
+            intentos.add(reservarEnParalelo(largada, fecha, LocalTime.of(15, 0).plusMinutes(i % 5)));
+        }
+
+        // Act
+        largada.countDown();
+        int ganadoras = 0;
+        for (Future<Boolean> intento : intentos) {
+            if (intento.get(30, TimeUnit.SECONDS)) {
+                ganadoras++;
+            }
+        }
+
+        // Assert
+        assertEquals(1, ganadoras);
+        assertEquals(1, guardadas.size());
+    }
+
+    @Test
+    void testCrearReserva_SinIndiceCargado_LaBaseDeDatosDecideBajoElBloqueo() throws Exception {
+        // Arrange: sin cargar el índice, la disponibilidad se consulta al repositorio
+        guardarConRetardo(5);
+        LocalDate fecha = LocalDate.now().plusDays(10);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Future<Boolean>> intentos = new ArrayList<>();
+        for (int i = 0; i < RESERVAS_SIMULTANEAS; i++) {
+            intentos.add(reservarEnParalelo(largada, fecha, LocalTime.of(15, 0)));
+        }
+
+        // Act
+        largada.countDown();
+        int ganadoras = 0;
+        for (Future<Boolean> intento : intentos) {
+            if (intento.get(30, TimeUnit.SECONDS)) {
+                ganadoras++;
+            }
+        }
+
+        // Assert
+        assertEquals(1, ganadoras);
+        assertEquals(1, guardadas.size());
+    }
+
+    @Test
+    void testCrearReserva_DiasDistintosSeGuardanEnParalelo() throws Exception {
+        // Arrange: cada guardado espera a que el otro día también esté guardando.
+        // Si los días compartieran un bloqueo global, el primero nunca vería al segundo y fallaría por tiempo.
+        reservaService.cargarIndiceHorarios();
+        CountDownLatch ambosGuardando = new CountDownLatch(2);
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(inv -> {
+            Reserva reserva = inv.getArgument(0);
+            ambosGuardando.countDown();
+            if (!ambosGuardando.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Las reservas de días distintos no se guardaron en paralelo");
+            }
+            reserva.setId(secuencia.incrementAndGet());
+            guardadas.add(reserva);
+            return reserva;
+        });
+        CountDownLatch largada = new CountDownLatch(1);
+        LocalDate dia = LocalDate.now().plusDays(20);
+
+        Future<Boolean> primerDia = reservarEnParalelo(largada, dia, LocalTime.of(15, 0));
+        Future<Boolean> segundoDia = reservarEnParalelo(largada, dia.plusDays(1), LocalTime.of(15, 0));
+
+        // Act
+        largada.countDown();
+
+        // Assert
+        assertTrue(primerDia.get(10, TimeUnit.SECONDS));
+        assertTrue(segundoDia.get(10, TimeUnit.SECONDS));
+        assertEquals(2, guardadas.size());
+    }
+}
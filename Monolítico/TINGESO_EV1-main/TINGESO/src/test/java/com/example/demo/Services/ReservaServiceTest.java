@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -35,12 +36,29 @@ public class ReservaServiceTest {
     @Mock
     private KartService kartService;
 
+    @Spy
+    private IndiceHorarios indiceHorarios = new IndiceHorarios();
+
+    @Spy
+    private BloqueosPorDia bloqueosPorDia = new BloqueosPorDia();
+
+    @Spy
+    private AsignadorKarts asignadorKarts = new AsignadorKarts();
+
+    @Spy
+    private CalendarioFeriados calendarioFeriados = new CalendarioFeriados();
+
     private Reserva reserva;
 
     @BeforeEach
     public void setUp() {
         // Inicializar los mocks antes de cada test
         MockitoAnnotations.openMocks(this);
+        calendarioFeriados.cargar(List.of(
+                LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 5, 1),
+                LocalDate.of(2025, 9, 18),
+                LocalDate.of(2025, 12, 25)));
 
         // Inicialización de los objetos que vas a usar en los tests
         reserva = new Reserva();
@@ -137,7 +155,7 @@ public class ReservaServiceTest {
     @Test
     void testUpdate_Found() {
         // Arrange
-        Reserva updatedReserva = new Reserva(1L, null, null, 6, 4, 250, 130, LocalDate.now().atTime(11, 0), "Nuevo Cliente", LocalDate.now(), LocalTime.of(11, 0), LocalTime.of(13, 0));
+        Reserva updatedReserva = new Reserva(1L, null, null, null, 6, 4, 250, 130, LocalDate.now().atTime(11, 0), "Nuevo Cliente", LocalDate.now(), LocalTime.of(11, 0), LocalTime.of(13, 0));
         when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
         when(reservaRepository.save(any(Reserva.class))).thenReturn(updatedReserva);
 
@@ -153,7 +171,7 @@ public class ReservaServiceTest {
     @Test
     void testUpdate_NotFound() {
         // Arrange
-        Reserva updatedReserva = new Reserva(1L, null, null, 6, 4, 250, 130, LocalDate.now().atTime(11, 0), "Nuevo Cliente", LocalDate.now(), LocalTime.of(11, 0), LocalTime.of(13, 0));
+        Reserva updatedReserva = new Reserva(1L, null, null, null, 6, 4, 250, 130, LocalDate.now().atTime(11, 0), "Nuevo Cliente", LocalDate.now(), LocalTime.of(11, 0), LocalTime.of(13, 0));
         when(reservaRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act
@@ -198,8 +216,6 @@ public class ReservaServiceTest {
 
     @Test
     void testAsignarPrecioRegular_DuracionTotal_TodasLasRamas() {
-        ReservaService reservaService = new ReservaService();
-
         // ----- Caso 1: Vueltas = 10, día normal (no fin de semana ni feriado) -----
         Reserva reserva1 = new Reserva();
         reserva1.setNum_vueltas_tiempo_maximo(10);
@@ -258,8 +274,8 @@ public class ReservaServiceTest {
         LocalTime horaInicio = LocalTime.of(10, 0);
         LocalTime horaFin = LocalTime.of(11, 0);
 
-        when(reservaRepository.findReservasQueSeCruzan(fecha, horaInicio, horaFin))
-                .thenReturn(Collections.emptyList()); // No hay reservas que se crucen
+        when(reservaRepository.existsReservaQueSeCruza(fecha, horaInicio, horaFin))
+                .thenReturn(false); // No hay reservas que se crucen
 
         // Act
         boolean resultado = reservaService.esReservaPosible(fecha, horaInicio, horaFin);
@@ -275,9 +291,8 @@ public class ReservaServiceTest {
         LocalTime horaInicio = LocalTime.of(10, 0);
         LocalTime horaFin = LocalTime.of(11, 0);
 
-        Reserva reservaExistente = new Reserva(); // Puede estar vacío, es solo para test
-        when(reservaRepository.findReservasQueSeCruzan(fecha, horaInicio, horaFin))
-                .thenReturn(List.of(reservaExistente)); // Simula un cruce
+        when(reservaRepository.existsReservaQueSeCruza(fecha, horaInicio, horaFin))
+                .thenReturn(true); // Simula un cruce
 
         // Act
         boolean resultado = reservaService.esReservaPosible(fecha, horaInicio, horaFin);
@@ -286,6 +301,75 @@ public class ReservaServiceTest {
         assertFalse(resultado);
     }
 
+    private LocalDate cargarIndiceConReserva1500a1530() {
+        LocalDate fecha = LocalDate.now().plusDays(3);
+        ReservaRepository.HorarioReserva existente = mock(ReservaRepository.HorarioReserva.class);
+        when(existente.getId()).thenReturn(7L);
+        when(existente.getFechaInicio()).thenReturn(fecha);
+        when(existente.getHoraInicio()).thenReturn(LocalTime.of(15, 0));
+        when(existente.getHoraFin()).thenReturn(LocalTime.of(15, 30));
+        when(reservaRepository.findHorariosDesde(any(LocalDate.class))).thenReturn(List.of(existente));
+        reservaService.cargarIndiceHorarios();
+        return fecha;
+    }
+
+    @Test
+    void testEsReservaPosible_DiaCubiertoYLibreNoConsultaBaseDeDatos() {
+        // Arrange
+        LocalDate fecha = cargarIndiceConReserva1500a1530();
+
+        // Act & Assert
+        assertTrue(reservaService.esReservaPosible(fecha, LocalTime.of(15, 30), LocalTime.of(16, 0)));
+        verify(reservaRepository, never()).existsReservaQueSeCruza(any(), any(), any());
+    }
+
+    @Test
+    void testEsReservaPosible_CruceEnIndiceSeConfirmaEnBaseDeDatos() {
+        // Arrange
+        LocalDate fecha = cargarIndiceConReserva1500a1530();
+        when(reservaRepository.existsReservaQueSeCruza(fecha, LocalTime.of(15, 20), LocalTime.of(15, 50)))
+                .thenReturn(true);
+
+        // Act & Assert
+        assertFalse(reservaService.esReservaPosible(fecha, LocalTime.of(15, 20), LocalTime.of(15, 50)));
+        verify(reservaRepository).existsReservaQueSeCruza(fecha, LocalTime.of(15, 20), LocalTime.of(15, 50));
+    }
+
+    @Test
+    void testEsReservaPosible_IndiceDesfasadoNoRechazaSiLaBaseEstaLibre() {
+        // Arrange: otra instancia borró la reserva de 15:00 y este índice todavía la tiene
+        LocalDate fecha = cargarIndiceConReserva1500a1530();
+        when(reservaRepository.existsReservaQueSeCruza(any(), any(), any())).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(reservaService.esReservaPosible(fecha, LocalTime.of(15, 20), LocalTime.of(15, 50)));
+    }
+
+    @Test
+    void testSaveYDeleteById_ActualizanElIndice() {
+        // Arrange
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        when(reservaRepository.findHorariosDesde(any(LocalDate.class))).thenReturn(Collections.emptyList());
+        reservaService.cargarIndiceHorarios();
+
+        Reserva nueva = new Reserva();
+        nueva.setId(20L);
+        nueva.setFechaInicio(fecha);
+        nueva.setHoraInicio(LocalTime.of(18, 0));
+        nueva.setHoraFin(LocalTime.of(18, 30));
+        when(reservaRepository.save(nueva)).thenReturn(nueva);
+
+        when(reservaRepository.existsReservaQueSeCruza(fecha, LocalTime.of(18, 10), LocalTime.of(18, 40)))
+                .thenReturn(true);
+
+        // Act & Assert
+        reservaService.save(nueva);
+        assertFalse(reservaService.esReservaPosible(fecha, LocalTime.of(18, 10), LocalTime.of(18, 40)));
+
+        reservaService.deleteById(20L);
+        assertTrue(reservaService.esReservaPosible(fecha, LocalTime.of(18, 10), LocalTime.of(18, 40)));
+    }
+
     @Test
     void testObtenerInformacionReservaConComprobante() {
         // Crear una reserva de ejemplo
@@ -671,4 +755,59 @@ public class ReservaServiceTest {
         assertEquals(1, reserva.getNum_personas());
         assertEquals(357.0, reserva.getComprobante().getMonto_total_iva());
     }
+
+    @Test
+    void testObtenerHistorialCliente_PaginaPorCursorDesdeLaMasReciente() {
+        // Arrange: se piden 2 y el repositorio devuelve la fila extra que indica que hay más
+        List<Reserva> filas = new ArrayList<>();
+        for (long id = 30; id > 27; id--) {
+            Reserva r = new Reserva();
+            r.setId(id);
+            r.setClienteId(7L);
+            filas.add(r);
+        }
+        when(reservaRepository.findByClienteIdAndIdLessThanOrderByIdDesc(eq(7L), eq(Long.MAX_VALUE), any()))
+                .thenReturn(filas);
+        when(reservaRepository.findByClienteIdAndIdLessThanOrderByIdDesc(eq(7L), eq(29L), any()))
+                .thenReturn(List.of(filas.get(2)));
+
+        // Act
+        Map<String, Object> primera = reservaService.obtenerHistorialCliente(7L, null, 2);
+        Map<String, Object> segunda = reservaService.obtenerHistorialCliente(7L, 29L, 2);
+
+        // Assert
+        assertEquals(2, ((List<?>) primera.get("reservas")).size());
+        assertEquals(29L, primera.get("siguienteCursor"));
+        assertEquals(1, ((List<?>) segunda.get("reservas")).size());
+        assertNull(segunda.get("siguienteCursor"));
+        verify(reservaRepository, never()).findAll();
+    }
+
+    @Test
+    void testObtenerHistorialCliente_LimiteInvalido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> reservaService.obtenerHistorialCliente(7L, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.obtenerHistorialCliente(7L, null, ReservaService.LIMITE_MAXIMO_HISTORIAL + 1));
+    }
+
+    @Test
+    void testCrearReserva_ConCliente_GuardaLaClaveForaneaEnElMismoInsert() {
+        // Arrange
+        when(kartService.findAll()).thenReturn(List.of(new Kart(1L, "Modelo A", "KART-001")));
+        when(comprobanteService.crearComprobante(anyInt(), anyInt(), anyInt(), anyString(), anyString(), anyMap(), anyList()))
+                .thenReturn(new Comprobante());
+        when(reservaRepository.save(any())).thenAnswer(inv -> {
+            Reserva r = inv.getArgument(0);
+            r.setId(1L);
+            return r;
+        });
+
+        // Act
+        Reserva creada = reservaService.crearReserva(10, 1, new ArrayList<>(), LocalDate.of(2025, 1, 1),
+                LocalTime.of(15, 0), 1, "Juan Pérez", "juan@example.com", new HashMap<>(), 7L);
+
+        // Assert
+        assertEquals(7L, creada.getClienteId());
+        verify(reservaRepository, times(1)).save(argThat(r -> Long.valueOf(7L).equals(r.getClienteId())));
+    }
 }